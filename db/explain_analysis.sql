@@ -7,20 +7,58 @@ EXPLAIN SELECT * FROM sales;
 -- 2. 分析findById查询
 EXPLAIN SELECT * FROM sales WHERE id = 1;
 
--- 3. 分析aggregateSales查询（不带条件）
-EXPLAIN 
+-- 3. 分析aggregateSales查询（不带条件，读取按日汇总表）
+-- 预期：type=ALL 扫描 sales_daily_rollup，行数为分组数而非销售记录数
+EXPLAIN
 SELECT
     DATE_FORMAT(sale_date, '%Y-%m-%d') as date,
     product,
     region,
-    SUM(amount) as totalAmount,
-    COUNT(*) as count
+    total_amount as totalAmount,
+    sale_count as count
+FROM sales_daily_rollup
+ORDER BY sale_date DESC, total_amount DESC;
+
+-- 4. 分析aggregateSales查询（带日期范围和产品、区域条件）
+-- 预期：type=range，key=PRIMARY，按主键 (sale_date, product, region) 范围扫描
+EXPLAIN
+SELECT
+    DATE_FORMAT(sale_date, '%Y-%m-%d') as date,
+    product,
+    region,
+    total_amount as totalAmount,
+    sale_count as count
+FROM sales_daily_rollup
+WHERE sale_date >= '2025-01-01'
+  AND sale_date <= '2025-01-31'
+  AND product = '产品A'
+  AND region = '华东'
+ORDER BY sale_date DESC, total_amount DESC;
+
+-- 5. 分析原始表上的分组聚合（汇总表重建使用，按日期范围）
+-- 预期：type=range，key=idx_date_product_region_amount，Extra 含 "Using index"（仅索引扫描，无需回表），
+--       且不出现 "Using temporary"（分组列与索引前缀一致，按索引顺序分组）
+EXPLAIN
+SELECT sale_date, product, region, SUM(amount), COUNT(*)
 FROM sales
-GROUP BY date, product, region
-ORDER BY date DESC, totalAmount DESC;
+WHERE sale_date >= '2025-01-01'
+  AND sale_date <= '2025-01-31'
+GROUP BY sale_date, product, region;
 
--- 4. 分析aggregateSales查询（带条件）
-EXPLAIN 
+-- 6. 分析原始表上带全部条件的分组聚合
+-- 预期：type=range，key=idx_date_product_region_amount，Extra 含 "Using where; Using index"
+EXPLAIN
+SELECT sale_date, product, region, SUM(amount), COUNT(*)
+FROM sales
+WHERE sale_date >= '2025-01-01'
+  AND sale_date <= '2025-01-31'
+  AND product = '产品A'
+  AND region = '华东'
+GROUP BY sale_date, product, region;
+
+-- 7. 对比：旧写法对 DATE_FORMAT 表达式分组，需要临时表
+-- 预期：Extra 含 "Using temporary"
+EXPLAIN
 SELECT
     DATE_FORMAT(sale_date, '%Y-%m-%d') as date,
     product,
@@ -28,13 +66,36 @@ SELECT
     SUM(amount) as totalAmount,
     COUNT(*) as count
 FROM sales
-WHERE sale_date = '2025-01-01'
-  AND product = '产品A'
-  AND region = '华东'
-GROUP BY date, product, region
-ORDER BY date DESC, totalAmount DESC;
+WHERE sale_date >= '2025-01-01'
+  AND sale_date <= '2025-01-31'
+GROUP BY date, product, region;
+
+-- 8. 实际执行计划与耗时（MySQL 8.0.18+），确认范围扫描读取的行数
+EXPLAIN ANALYZE
+SELECT sale_date, product, region, SUM(amount), COUNT(*)
+FROM sales
+WHERE sale_date >= '2025-01-01'
+  AND sale_date <= '2025-01-31'
+GROUP BY sale_date, product, region;
 
--- 5. 分析带索引的查询
+-- 9. 分析带索引的查询
 EXPLAIN SELECT * FROM sales WHERE sale_date = '2025-01-01';
 EXPLAIN SELECT * FROM sales WHERE product = '产品A';
-EXPLAIN SELECT * FROM sales WHERE region = '华东';
\ No newline at end of file
+EXPLAIN SELECT * FROM sales WHERE region = '华东';
+
+-- 10. 分区裁剪：带日期范围的查询只访问覆盖该范围的月度分区
+-- 预期：partitions 列只有 p202501（而非全部分区）
+EXPLAIN
+SELECT sale_date, product, region, SUM(amount), COUNT(*)
+FROM sales
+WHERE sale_date >= '2025-01-01'
+  AND sale_date <= '2025-01-31'
+GROUP BY sale_date, product, region;
+
+-- 11. 对比：对列做函数运算时无法裁剪
+-- 预期：partitions 列列出全部分区
+EXPLAIN SELECT * FROM sales WHERE DATE_FORMAT(sale_date, '%Y-%m') = '2025-01';
+
+-- 12. 只按ID查询时ID不携带日期，需要逐个分区探测主键
+-- 预期：partitions 列列出全部分区，每个分区 type=ref 按主键前缀查找
+EXPLAIN SELECT * FROM sales WHERE id = 1;
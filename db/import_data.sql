@@ -111,6 +111,9 @@ VALUES
 ('2023-04-09', '产品C', '华北', 1899.00),
 ('2023-04-10', '产品A', '华南', 1299.00);
 
+-- 直接写入的SQL数据不经过应用，需要重建汇总表
+SOURCE rebuild_rollup.sql;
+
 -- 显示插入的数据行数
 SELECT CONCAT('已插入 ', COUNT(*), ' 条销售记录') AS message FROM sales;
 
@@ -2,16 +2,73 @@
 USE taskdb;
 
 -- 创建销售表
+-- 按 sale_date 月度 RANGE 分区：带日期条件的查询只扫描相关分区，过期数据按分区整体删除或归档；
+-- 分区表的主键必须包含分区列，因此主键为 (id, sale_date)；p_future 保持为空，
+-- 由 POST /api/sales/partitions/maintain 按月从中拆出新分区
 CREATE TABLE IF NOT EXISTS sales (
-    id INT AUTO_INCREMENT PRIMARY KEY,
+    id INT AUTO_INCREMENT,
     sale_date DATE NOT NULL,
     product VARCHAR(255) NOT NULL,
     region VARCHAR(255) NOT NULL,
     amount DECIMAL(10, 2) NOT NULL,
-    INDEX idx_sale_date (sale_date),
+    PRIMARY KEY (id, sale_date),
+    -- 复合覆盖索引：以sale_date开头支持日期范围扫描，包含分组列和amount，聚合查询无需回表
+    INDEX idx_date_product_region_amount (sale_date, product, region, amount),
     INDEX idx_product (product),
     INDEX idx_region (region)
-) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+PARTITION BY RANGE COLUMNS (sale_date) (
+    PARTITION p_before VALUES LESS THAN ('2023-01-01'),
+    PARTITION p202301 VALUES LESS THAN ('2023-02-01'),
+    PARTITION p202302 VALUES LESS THAN ('2023-03-01'),
+    PARTITION p202303 VALUES LESS THAN ('2023-04-01'),
+    PARTITION p202304 VALUES LESS THAN ('2023-05-01'),
+    PARTITION p202305 VALUES LESS THAN ('2023-06-01'),
+    PARTITION p202306 VALUES LESS THAN ('2023-07-01'),
+    PARTITION p202307 VALUES LESS THAN ('2023-08-01'),
+    PARTITION p202308 VALUES LESS THAN ('2023-09-01'),
+    PARTITION p202309 VALUES LESS THAN ('2023-10-01'),
+    PARTITION p202310 VALUES LESS THAN ('2023-11-01'),
+    PARTITION p202311 VALUES LESS THAN ('2023-12-01'),
+    PARTITION p202312 VALUES LESS THAN ('2024-01-01'),
+    PARTITION p202401 VALUES LESS THAN ('2024-02-01'),
+    PARTITION p202402 VALUES LESS THAN ('2024-03-01'),
+    PARTITION p202403 VALUES LESS THAN ('2024-04-01'),
+    PARTITION p202404 VALUES LESS THAN ('2024-05-01'),
+    PARTITION p202405 VALUES LESS THAN ('2024-06-01'),
+    PARTITION p202406 VALUES LESS THAN ('2024-07-01'),
+    PARTITION p202407 VALUES LESS THAN ('2024-08-01'),
+    PARTITION p202408 VALUES LESS THAN ('2024-09-01'),
+    PARTITION p202409 VALUES LESS THAN ('2024-10-01'),
+    PARTITION p202410 VALUES LESS THAN ('2024-11-01'),
+    PARTITION p202411 VALUES LESS THAN ('2024-12-01'),
+    PARTITION p202412 VALUES LESS THAN ('2025-01-01'),
+    PARTITION p202501 VALUES LESS THAN ('2025-02-01'),
+    PARTITION p202502 VALUES LESS THAN ('2025-03-01'),
+    PARTITION p202503 VALUES LESS THAN ('2025-04-01'),
+    PARTITION p202504 VALUES LESS THAN ('2025-05-01'),
+    PARTITION p202505 VALUES LESS THAN ('2025-06-01'),
+    PARTITION p202506 VALUES LESS THAN ('2025-07-01'),
+    PARTITION p202507 VALUES LESS THAN ('2025-08-01'),
+    PARTITION p202508 VALUES LESS THAN ('2025-09-01'),
+    PARTITION p202509 VALUES LESS THAN ('2025-10-01'),
+    PARTITION p202510 VALUES LESS THAN ('2025-11-01'),
+    PARTITION p202511 VALUES LESS THAN ('2025-12-01'),
+    PARTITION p202512 VALUES LESS THAN ('2026-01-01'),
+    PARTITION p202601 VALUES LESS THAN ('2026-02-01'),
+    PARTITION p202602 VALUES LESS THAN ('2026-03-01'),
+    PARTITION p202603 VALUES LESS THAN ('2026-04-01'),
+    PARTITION p202604 VALUES LESS THAN ('2026-05-01'),
+    PARTITION p202605 VALUES LESS THAN ('2026-06-01'),
+    PARTITION p202606 VALUES LESS THAN ('2026-07-01'),
+    PARTITION p202607 VALUES LESS THAN ('2026-08-01'),
+    PARTITION p202608 VALUES LESS THAN ('2026-09-01'),
+    PARTITION p202609 VALUES LESS THAN ('2026-10-01'),
+    PARTITION p202610 VALUES LESS THAN ('2026-11-01'),
+    PARTITION p202611 VALUES LESS THAN ('2026-12-01'),
+    PARTITION p202612 VALUES LESS THAN ('2027-01-01'),
+    PARTITION p_future VALUES LESS THAN (MAXVALUE)
+);
 
 -- 添加注释
 ALTER TABLE sales COMMENT = '销售记录表';
@@ -20,8 +77,92 @@ ALTER TABLE sales MODIFY COLUMN product VARCHAR(255) NOT NULL COMMENT '产品名
 ALTER TABLE sales MODIFY COLUMN region VARCHAR(255) NOT NULL COMMENT '销售区域';
 ALTER TABLE sales MODIFY COLUMN amount DECIMAL(10, 2) NOT NULL COMMENT '销售金额';
 
+-- 创建按日预聚合的销售汇总表，在写入销售记录的同一事务内增量维护
+CREATE TABLE IF NOT EXISTS sales_daily_rollup (
+    sale_date DATE NOT NULL COMMENT '销售日期',
+    product VARCHAR(255) NOT NULL COMMENT '产品名称',
+    region VARCHAR(255) NOT NULL COMMENT '销售区域',
+    total_amount DECIMAL(20, 2) NOT NULL DEFAULT 0 COMMENT '销售总额',
+    sale_count BIGINT NOT NULL DEFAULT 0 COMMENT '销售笔数',
+    PRIMARY KEY (sale_date, product, region)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='按日销售汇总表';
+
+-- 销售记录变更日志（outbox）：与销售记录在同一事务内写入，下游按 seq 增量拉取
+-- GET /api/sales/changes?since=，不再反复全量导出；超过 sales.changes.retention 的行定期清理
+CREATE TABLE IF NOT EXISTS sales_changes (
+    seq BIGINT AUTO_INCREMENT COMMENT '变更序号，按提交顺序递增',
+    change_type VARCHAR(16) NOT NULL COMMENT '变更类型：INSERT/UPDATE/DELETE/EXPIRE',
+    sales_id INT NULL COMMENT '销售记录ID，EXPIRE 时为空',
+    sale_date DATE NULL COMMENT '销售日期，EXPIRE 时为过期截止日期（不含）',
+    product VARCHAR(255) NULL COMMENT '产品名称',
+    region VARCHAR(255) NULL COMMENT '销售区域',
+    amount DECIMAL(10, 2) NULL COMMENT '销售金额',
+    changed_at DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) COMMENT '变更时间',
+    PRIMARY KEY (seq),
+    INDEX idx_changed_at (changed_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='销售记录变更日志';
+
+-- 变更日志写入锁：只有一行，写变更日志前先更新该行，使并发事务的序号分配顺序与提交顺序一致
+CREATE TABLE IF NOT EXISTS sales_change_lock (
+    id TINYINT NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB COMMENT='变更日志写入锁';
+
+INSERT IGNORE INTO sales_change_lock (id, version) VALUES (1, 0);
+
+-- 汇总表的更新、删除维护：新增由应用按批预聚合后写入，更新和删除由触发器按新旧值调整，
+-- 应用无需在 UPDATE/DELETE 前先查询旧记录
+DROP TRIGGER IF EXISTS trg_sales_rollup_after_update;
+DROP TRIGGER IF EXISTS trg_sales_rollup_after_delete;
+
+DELIMITER //
+
+CREATE TRIGGER trg_sales_rollup_after_update
+AFTER UPDATE ON sales
+FOR EACH ROW
+BEGIN
+    IF NOT (OLD.sale_date <=> NEW.sale_date AND OLD.product <=> NEW.product
+            AND OLD.region <=> NEW.region AND OLD.amount <=> NEW.amount) THEN
+        INSERT INTO sales_daily_rollup (sale_date, product, region, total_amount, sale_count)
+        VALUES (OLD.sale_date, OLD.product, OLD.region, -OLD.amount, -1)
+        ON DUPLICATE KEY UPDATE total_amount = total_amount - OLD.amount, sale_count = sale_count - 1;
+
+        INSERT INTO sales_daily_rollup (sale_date, product, region, total_amount, sale_count)
+        VALUES (NEW.sale_date, NEW.product, NEW.region, NEW.amount, 1)
+        ON DUPLICATE KEY UPDATE total_amount = total_amount + NEW.amount, sale_count = sale_count + 1;
+
+        DELETE FROM sales_daily_rollup
+        WHERE sale_date = OLD.sale_date AND product = OLD.product AND region = OLD.region AND sale_count <= 0;
+    END IF;
+END//
+
+CREATE TRIGGER trg_sales_rollup_after_delete
+AFTER DELETE ON sales
+FOR EACH ROW
+BEGIN
+    UPDATE sales_daily_rollup
+    SET total_amount = total_amount - OLD.amount, sale_count = sale_count - 1
+    WHERE sale_date = OLD.sale_date AND product = OLD.product AND region = OLD.region;
+
+    DELETE FROM sales_daily_rollup
+    WHERE sale_date = OLD.sale_date AND product = OLD.product AND region = OLD.region AND sale_count <= 0;
+END//
+
+DELIMITER ;
+
 -- 显示创建的表信息
 SHOW CREATE TABLE sales;
 
+SHOW CREATE TABLE sales_daily_rollup;
+
 -- 显示索引信息
 SHOW INDEX FROM sales;
+
+-- 显示分区信息
+SELECT PARTITION_NAME, PARTITION_DESCRIPTION, TABLE_ROWS
+FROM INFORMATION_SCHEMA.PARTITIONS
+WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'sales'
+ORDER BY PARTITION_ORDINAL_POSITION;
+
+SHOW TRIGGERS LIKE 'sales';
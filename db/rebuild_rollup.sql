@@ -0,0 +1,17 @@
+-- 从原始销售数据重建按日汇总表
+-- 用于初始化、绕过应用直接导入数据后，或核对汇总表与原始数据不一致时
+-- 也可通过接口执行：POST /api/sales/rollup/rebuild
+
+START TRANSACTION;
+
+DELETE FROM sales_daily_rollup;
+
+INSERT INTO sales_daily_rollup (sale_date, product, region, total_amount, sale_count)
+SELECT sale_date, product, region, SUM(amount), COUNT(*)
+FROM sales
+GROUP BY sale_date, product, region;
+
+COMMIT;
+
+-- 显示汇总分组数
+SELECT CONCAT('汇总表共 ', COUNT(*), ' 个分组') AS message FROM sales_daily_rollup;
@@ -0,0 +1,9 @@
+-- 已有数据库升级脚本：用复合覆盖索引替换单列日期索引
+-- idx_date_product_region_amount 以 sale_date 开头，原 idx_sale_date 的查询均可由其前缀满足
+USE taskdb;
+
+ALTER TABLE sales
+    ADD INDEX idx_date_product_region_amount (sale_date, product, region, amount),
+    DROP INDEX idx_sale_date;
+
+SHOW INDEX FROM sales;
@@ -0,0 +1,45 @@
+-- 已有数据库升级脚本：改由触发器维护汇总表的更新和删除
+-- 部署不再预先查询旧记录的应用版本前执行；执行后建议运行 rebuild_rollup.sql 校正汇总表
+USE taskdb;
+
+-- 汇总表的更新、删除维护：新增由应用按批预聚合后写入，更新和删除由触发器按新旧值调整，
+-- 应用无需在 UPDATE/DELETE 前先查询旧记录
+DROP TRIGGER IF EXISTS trg_sales_rollup_after_update;
+DROP TRIGGER IF EXISTS trg_sales_rollup_after_delete;
+
+DELIMITER //
+
+CREATE TRIGGER trg_sales_rollup_after_update
+AFTER UPDATE ON sales
+FOR EACH ROW
+BEGIN
+    IF NOT (OLD.sale_date <=> NEW.sale_date AND OLD.product <=> NEW.product
+            AND OLD.region <=> NEW.region AND OLD.amount <=> NEW.amount) THEN
+        INSERT INTO sales_daily_rollup (sale_date, product, region, total_amount, sale_count)
+        VALUES (OLD.sale_date, OLD.product, OLD.region, -OLD.amount, -1)
+        ON DUPLICATE KEY UPDATE total_amount = total_amount - OLD.amount, sale_count = sale_count - 1;
+
+        INSERT INTO sales_daily_rollup (sale_date, product, region, total_amount, sale_count)
+        VALUES (NEW.sale_date, NEW.product, NEW.region, NEW.amount, 1)
+        ON DUPLICATE KEY UPDATE total_amount = total_amount + NEW.amount, sale_count = sale_count + 1;
+
+        DELETE FROM sales_daily_rollup
+        WHERE sale_date = OLD.sale_date AND product = OLD.product AND region = OLD.region AND sale_count <= 0;
+    END IF;
+END//
+
+CREATE TRIGGER trg_sales_rollup_after_delete
+AFTER DELETE ON sales
+FOR EACH ROW
+BEGIN
+    UPDATE sales_daily_rollup
+    SET total_amount = total_amount - OLD.amount, sale_count = sale_count - 1
+    WHERE sale_date = OLD.sale_date AND product = OLD.product AND region = OLD.region;
+
+    DELETE FROM sales_daily_rollup
+    WHERE sale_date = OLD.sale_date AND product = OLD.product AND region = OLD.region AND sale_count <= 0;
+END//
+
+DELIMITER ;
+
+SHOW TRIGGERS LIKE 'sales';
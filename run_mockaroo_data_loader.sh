@@ -20,13 +20,13 @@ fi
 CLASSPATH=".:target/classes"
 
 # 添加Maven依赖到classpath
-dependency_jars=$(find ~/.m2/repository -name "*.jar" | grep -E 'mysql|mybatis|json|spring')
+dependency_jars=$(find ~/.m2/repository -name "*.jar" | grep -E 'mysql|mybatis|json|jackson|spring')
 for jar in $dependency_jars; do
     CLASSPATH="$CLASSPATH:$jar"
 done
 
-# 运行MockarooDataLoader
+# 运行MockarooDataLoader，参数原样传入，例如 --offline --rows=100000000
 echo "正在运行MockarooDataLoader..."
-java -cp "$CLASSPATH" com.salesanalysis.util.MockarooDataLoader
+java -cp "$CLASSPATH" com.salesanalysis.util.MockarooDataLoader "$@"
 
 echo "Mockaroo数据加载完成！"
@@ -0,0 +1,104 @@
+package com.salesanalysis.async;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 慢聚合查询持续压测时按ID查询的延迟
+ * 公平信号量模拟10个连接的 Hikari 连接池，32个客户端不停发起耗时50ms的聚合查询：
+ * mode=sync 时聚合查询在请求线程上直接取连接，按ID查询排在它们后面等待；
+ * mode=async 时聚合查询经 AnalyticsExecutor 执行，最多占用一半连接，按ID查询几乎不用等待
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnalyticsIsolationBenchmark {
+
+    private static final int POOL_SIZE = 10;
+    private static final int STORM_CLIENTS = 32;
+    private static final long SLOW_QUERY_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long FIND_BY_ID_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    @Param({"sync", "async"})
+    private String mode;
+
+    private Semaphore connections;
+    private AnalyticsExecutor analyticsExecutor;
+    private ExecutorService stormClients;
+    private volatile boolean running;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        connections = new Semaphore(POOL_SIZE, true);
+        if ("async".equals(mode)) {
+            analyticsExecutor = new AnalyticsExecutor(true, 0, STORM_CLIENTS, false, POOL_SIZE);
+        }
+        running = true;
+        stormClients = Executors.newFixedThreadPool(STORM_CLIENTS);
+        for (int i = 0; i < STORM_CLIENTS; i++) {
+            stormClients.execute(() -> {
+                while (running && !Thread.currentThread().isInterrupted()) {
+                    if (analyticsExecutor != null) {
+                        analyticsExecutor.submit(() -> query(SLOW_QUERY_NANOS)).join();
+                    } else {
+                        query(SLOW_QUERY_NANOS);
+                    }
+                }
+            });
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        running = false;
+        stormClients.shutdownNow();
+        stormClients.awaitTermination(5, TimeUnit.SECONDS);
+        if (analyticsExecutor != null) {
+            analyticsExecutor.shutdown();
+        }
+    }
+
+    @Benchmark
+    public boolean findById() {
+        return query(FIND_BY_ID_NANOS);
+    }
+
+    /**
+     * 占用一个连接执行指定时长的查询
+     * @return 是否执行完成（等待连接时被中断返回false）
+     */
+    private boolean query(long nanos) {
+        try {
+            connections.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        try {
+            LockSupport.parkNanos(nanos);
+            return true;
+        } finally {
+            connections.release();
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.salesanalysis.benchmark;
+
+import com.salesanalysis.mapper.SalesMapper;
+import com.salesanalysis.model.Sales;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.session.SqlSessionManager;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * 基准测试数据库
+ * 默认使用MySQL兼容模式的内存H2；指定 -Dbench.jdbc.url（以及 bench.jdbc.user、bench.jdbc.password）
+ * 时连接本地MySQL。注意：会清空目标库中的 sales、sales_daily_rollup 和变更日志表，请使用独立的测试库
+ */
+public final class BenchmarkDatabase {
+
+    public static final String[] PRODUCTS = {
+            "产品A", "产品B", "产品C", "产品D", "产品E",
+            "产品F", "产品G", "产品H", "产品I", "产品J"
+    };
+    public static final String[] REGIONS = {
+            "华东", "华北", "华南", "华中", "西南", "西北", "东北"
+    };
+    public static final LocalDate FIRST_DAY = LocalDate.of(2023, 1, 1);
+    public static final int DAYS = 3 * 365;
+
+    private static final int INSERT_BATCH_SIZE = 5000;
+    // 写入变更日志前先更新该行加锁，与 db/init.sql 一致
+    private static final String SEED_CHANGE_LOCK = "INSERT INTO sales_change_lock (id, version) "
+            + "SELECT 1, 0 FROM (SELECT 1) seed WHERE NOT EXISTS (SELECT 1 FROM sales_change_lock WHERE id = 1)";
+
+    private final PooledDataSource dataSource;
+    private final SqlSessionManager sessionManager;
+    private final boolean h2;
+
+    private BenchmarkDatabase(PooledDataSource dataSource, boolean h2) {
+        this.dataSource = dataSource;
+        this.h2 = h2;
+        this.sessionManager = SqlSessionManager.newInstance(buildSessionFactory(dataSource));
+    }
+
+    /**
+     * 打开基准测试数据库并创建表结构
+     * @param name 内存库名称，同一JVM内不同基准测试使用不同名称互不影响
+     */
+    public static BenchmarkDatabase open(String name) {
+        String url = System.getProperty("bench.jdbc.url");
+        BenchmarkDatabase database;
+        if (url == null) {
+            database = new BenchmarkDatabase(new PooledDataSource("org.h2.Driver",
+                    "jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", ""), true);
+        } else {
+            database = new BenchmarkDatabase(new PooledDataSource("com.mysql.cj.jdbc.Driver", url,
+                    System.getProperty("bench.jdbc.user", "user"),
+                    System.getProperty("bench.jdbc.password", "password")), false);
+        }
+        database.createSchema();
+        return database;
+    }
+
+    public SalesMapper salesMapper() {
+        return sessionManager.getMapper(SalesMapper.class);
+    }
+
+    /**
+     * 清空销售表、汇总表和变更日志，变更日志写入锁恢复为初始的一行
+     */
+    public void truncate() {
+        execute("TRUNCATE TABLE sales", "TRUNCATE TABLE sales_daily_rollup",
+                "TRUNCATE TABLE sales_changes", "TRUNCATE TABLE sales_change_lock", SEED_CHANGE_LOCK);
+    }
+
+    /**
+     * 生成指定行数的销售数据并重建汇总表
+     */
+    public void populate(int rows, long seed) {
+        truncate();
+        SplittableRandom random = new SplittableRandom(seed);
+        String sql = "INSERT INTO sales (sale_date, product, region, amount) VALUES (?, ?, ?, ?)";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            connection.setAutoCommit(false);
+            for (int i = 1; i <= rows; i++) {
+                statement.setDate(1, java.sql.Date.valueOf(FIRST_DAY.plusDays(random.nextInt(DAYS))));
+                statement.setString(2, PRODUCTS[random.nextInt(PRODUCTS.length)]);
+                statement.setString(3, REGIONS[random.nextInt(REGIONS.length)]);
+                statement.setBigDecimal(4, BigDecimal.valueOf(random.nextLong(10000L, 1000000L), 2));
+                statement.addBatch();
+                if (i % INSERT_BATCH_SIZE == 0 || i == rows) {
+                    statement.executeBatch();
+                    connection.commit();
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to populate benchmark data", e);
+        }
+        salesMapper().rebuildRollup(null, null);
+    }
+
+    /**
+     * 生成内存中的随机销售记录，分布与 populate 一致
+     */
+    public static List<Sales> randomSales(int rows, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Sales> salesList = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Sales sales = new Sales();
+            sales.setId(i + 1);
+            sales.setSaleDate(FIRST_DAY.plusDays(random.nextInt(DAYS)));
+            sales.setProduct(PRODUCTS[random.nextInt(PRODUCTS.length)]);
+            sales.setRegion(REGIONS[random.nextInt(REGIONS.length)]);
+            sales.setAmount(BigDecimal.valueOf(random.nextLong(10000L, 1000000L), 2));
+            salesList.add(sales);
+        }
+        return salesList;
+    }
+
+    public void close() {
+        if (h2) {
+            // 释放内存库中的数据，同名库可在同一JVM内重新打开
+            execute("DROP ALL OBJECTS");
+        }
+        dataSource.forceCloseAll();
+    }
+
+    private void createSchema() {
+        execute("CREATE TABLE IF NOT EXISTS sales ("
+                        + "id INT AUTO_INCREMENT PRIMARY KEY, "
+                        + "sale_date DATE NOT NULL, "
+                        + "product VARCHAR(255) NOT NULL, "
+                        + "region VARCHAR(255) NOT NULL, "
+                        + "amount DECIMAL(10, 2) NOT NULL, "
+                        + "INDEX idx_date_product_region_amount (sale_date, product, region, amount))",
+                "CREATE TABLE IF NOT EXISTS sales_daily_rollup ("
+                        + "sale_date DATE NOT NULL, "
+                        + "product VARCHAR(255) NOT NULL, "
+                        + "region VARCHAR(255) NOT NULL, "
+                        + "total_amount DECIMAL(20, 2) NOT NULL DEFAULT 0, "
+                        + "sale_count BIGINT NOT NULL DEFAULT 0, "
+                        + "PRIMARY KEY (sale_date, product, region))",
+                "CREATE TABLE IF NOT EXISTS sales_changes ("
+                        + "seq BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                        + "change_type VARCHAR(16) NOT NULL, "
+                        + "sales_id INT NULL, "
+                        + "sale_date DATE NULL, "
+                        + "product VARCHAR(255) NULL, "
+                        + "region VARCHAR(255) NULL, "
+                        + "amount DECIMAL(10, 2) NULL, "
+                        + "changed_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3), "
+                        + "INDEX idx_changed_at (changed_at))",
+                "CREATE TABLE IF NOT EXISTS sales_change_lock ("
+                        + "id TINYINT NOT NULL PRIMARY KEY, "
+                        + "version BIGINT NOT NULL DEFAULT 0)",
+                SEED_CHANGE_LOCK);
+        if (h2) {
+            execute("CREATE ALIAS IF NOT EXISTS DATE_FORMAT FOR \"" + H2Functions.class.getName() + ".dateFormat\"");
+        }
+    }
+
+    private void execute(String... sqls) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            for (String sql : sqls) {
+                statement.execute(sql);
+            }
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to execute benchmark SQL", e);
+        }
+    }
+
+    private static SqlSessionFactory buildSessionFactory(PooledDataSource dataSource) {
+        Configuration configuration = new Configuration(
+                new Environment("benchmark", new JdbcTransactionFactory(), dataSource));
+        configuration.setMapUnderscoreToCamelCase(true);
+        String resource = "mapper/SalesMapper.xml";
+        try (InputStream in = Resources.getResourceAsStream(resource)) {
+            new XMLMapperBuilder(in, configuration, resource, configuration.getSqlFragments()).parse();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new SqlSessionFactoryBuilder().build(configuration);
+    }
+}
@@ -0,0 +1,25 @@
+package com.salesanalysis.benchmark;
+
+import java.sql.Date;
+
+/**
+ * 为H2注册的MySQL兼容函数，使 SalesMapper.xml 中的SQL可以原样在H2上执行
+ */
+public final class H2Functions {
+
+    private H2Functions() {
+    }
+
+    /**
+     * DATE_FORMAT(date, '%Y-%m-%d')，基准测试中只用到这一种格式
+     */
+    public static String dateFormat(Date date, String pattern) {
+        if (date == null) {
+            return null;
+        }
+        if (!"%Y-%m-%d".equals(pattern)) {
+            throw new IllegalArgumentException("Unsupported DATE_FORMAT pattern: " + pattern);
+        }
+        return date.toLocalDate().toString();
+    }
+}
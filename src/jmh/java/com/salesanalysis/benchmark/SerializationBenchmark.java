@@ -0,0 +1,61 @@
+package com.salesanalysis.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.salesanalysis.analytics.ColumnarSalesStore;
+import com.salesanalysis.model.Sales;
+import com.salesanalysis.model.SalesSummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 接口响应的Jackson序列化耗时，ObjectMapper配置与Spring MVC默认一致
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<Sales> salesList;
+    private List<SalesSummary> summaryList;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        salesList = BenchmarkDatabase.randomSales(size, 42L);
+        ColumnarSalesStore store = new ColumnarSalesStore();
+        for (Sales sales : salesList) {
+            store.upsert(sales);
+        }
+        summaryList = store.aggregate(null, null, null, null, null);
+    }
+
+    @Benchmark
+    public byte[] serializeSalesList() throws Exception {
+        return objectMapper.writeValueAsBytes(salesList);
+    }
+
+    @Benchmark
+    public byte[] serializeSummaryList() throws Exception {
+        return objectMapper.writeValueAsBytes(summaryList);
+    }
+}
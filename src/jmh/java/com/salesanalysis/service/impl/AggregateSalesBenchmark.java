@@ -0,0 +1,86 @@
+package com.salesanalysis.service.impl;
+
+import com.salesanalysis.analytics.ColumnarSalesStore;
+import com.salesanalysis.benchmark.BenchmarkDatabase;
+import com.salesanalysis.model.Sales;
+import com.salesanalysis.model.SalesSummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * aggregateSales 在不同数据量下的耗时
+ * engine=sql 经 SalesServiceImpl 读取汇总表，engine=columnar 在内存列式存储上聚合
+ * 千万级数据需要较大堆内存，例如 -Djmh.args="AggregateSales -jvmArgs -Xmx8g"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AggregateSalesBenchmark {
+
+    private static final long SEED = 42L;
+
+    @Param({"10000", "1000000", "10000000"})
+    private int rows;
+
+    @Param({"sql", "columnar"})
+    private String engine;
+
+    private BenchmarkDatabase database;
+    private SalesServiceImpl salesService;
+    private ColumnarSalesStore store;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("sql".equals(engine)) {
+            database = BenchmarkDatabase.open("aggregate_sales");
+            database.populate(rows, SEED);
+            salesService = new SalesServiceImpl(database.salesMapper());
+        } else {
+            store = new ColumnarSalesStore();
+            for (Sales sales : BenchmarkDatabase.randomSales(rows, SEED)) {
+                store.upsert(sales);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (database != null) {
+            database.close();
+        }
+    }
+
+    @Benchmark
+    public List<SalesSummary> fullSummary() {
+        return aggregate(null, null, null, null, null);
+    }
+
+    @Benchmark
+    public List<SalesSummary> monthByProductAndRegion() {
+        return aggregate(null, "2024-03-01", "2024-03-31", "产品A", "华东");
+    }
+
+    private List<SalesSummary> aggregate(String date, String from, String to, String product, String region) {
+        if (store != null) {
+            return store.aggregate(date, from, to, product, region);
+        }
+        return salesService.aggregateSales(date, from, to, product, region);
+    }
+}
@@ -0,0 +1,62 @@
+package com.salesanalysis.service.impl;
+
+import com.salesanalysis.benchmark.BenchmarkDatabase;
+import com.salesanalysis.model.Sales;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SalesServiceImpl.batchImportSales 在不同批量大小下的耗时（含汇总表维护）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchImportBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int batchSize;
+
+    private BenchmarkDatabase database;
+    private SalesServiceImpl salesService;
+    private List<Sales> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = BenchmarkDatabase.open("batch_import");
+        salesService = new SalesServiceImpl(database.salesMapper());
+        batch = BenchmarkDatabase.randomSales(batchSize, 42L);
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() {
+        // 每轮迭代前清空，避免表持续增长影响结果
+        database.truncate();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public boolean batchImportSales() {
+        return salesService.batchImportSales(batch);
+    }
+}
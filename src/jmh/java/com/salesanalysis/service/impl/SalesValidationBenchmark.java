@@ -0,0 +1,50 @@
+package com.salesanalysis.service.impl;
+
+import com.salesanalysis.model.Sales;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SalesServiceImpl.validateSales 单条校验耗时
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SalesValidationBenchmark {
+
+    private SalesServiceImpl salesService;
+    private Sales sales;
+
+    @Setup
+    public void setUp() {
+        // 校验不访问数据库，不需要Mapper
+        salesService = new SalesServiceImpl(null);
+        sales = new Sales();
+        sales.setSaleDate(LocalDate.parse("2023-06-15"));
+        sales.setProduct("产品A");
+        sales.setRegion("华东");
+        sales.setAmount(new BigDecimal("1299.99"));
+    }
+
+    @Benchmark
+    public void validateSales(Blackhole blackhole) {
+        salesService.validateSales(sales);
+        blackhole.consume(sales);
+    }
+}
@@ -0,0 +1,57 @@
+package com.salesanalysis.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.text.ParseException;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DateUtils 日期解析、格式化与校验耗时
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateUtilsBenchmark {
+
+    private final String dateStr = "2023-06-15";
+    private final Date date = new Date(1686787200000L);
+    private final LocalDate localDate = LocalDate.of(2023, 6, 15);
+
+    @Benchmark
+    public Date parseDate() throws ParseException {
+        return DateUtils.parseDate(dateStr);
+    }
+
+    @Benchmark
+    public LocalDate parseLocalDate() {
+        return DateUtils.parseLocalDate(dateStr);
+    }
+
+    @Benchmark
+    public String formatLocalDate() {
+        return DateUtils.formatLocalDate(localDate);
+    }
+
+    @Benchmark
+    public String formatDate() {
+        return DateUtils.formatDate(date);
+    }
+
+    @Benchmark
+    public boolean isValidDate() {
+        return DateUtils.isValidDate(dateStr);
+    }
+}
@@ -0,0 +1,75 @@
+package com.salesanalysis.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 百万行金额合计：BigDecimal 逐次相加与按分（long）累加的耗时和分配量对比
+ * 分配量使用 GC 分析器查看：-Djmh.args="MoneyAggregationBenchmark -prof gc"，关注 gc.alloc.rate.norm
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyAggregationBenchmark {
+
+    private static final int ROWS = 1_000_000;
+
+    private BigDecimal[] amounts;
+    private long[] cents;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        amounts = new BigDecimal[ROWS];
+        cents = new long[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            // 与测试数据一致：100.00 ~ 10000.00
+            long value = 10_000 + random.nextInt(990_001);
+            amounts[i] = BigDecimal.valueOf(value, 2);
+            cents[i] = value;
+        }
+    }
+
+    @Benchmark
+    public BigDecimal sumBigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal amount : amounts) {
+            total = total.add(amount);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal sumCents() {
+        long total = 0;
+        for (long amount : cents) {
+            total = MoneyUtils.add(total, amount);
+        }
+        return MoneyUtils.fromCents(total);
+    }
+
+    @Benchmark
+    public BigDecimal convertAndSumCents() {
+        // 写入路径：每行从请求中的 BigDecimal 换算一次，之后按分累加
+        long total = 0;
+        for (BigDecimal amount : amounts) {
+            total = MoneyUtils.add(total, MoneyUtils.toCents(amount));
+        }
+        return MoneyUtils.fromCents(total);
+    }
+}
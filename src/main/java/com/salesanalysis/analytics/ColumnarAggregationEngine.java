@@ -0,0 +1,225 @@
+package com.salesanalysis.analytics;
+
+import com.salesanalysis.mapper.SalesMapper;
+import com.salesanalysis.model.Sales;
+import com.salesanalysis.model.SalesSummary;
+import com.salesanalysis.service.SalesChangeListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 列式内存聚合引擎，配置 sales.aggregation.engine=columnar 时启用
+ * 启动后从数据库流式加载全量数据，之后通过写入回调增量维护；
+ * 加载完成前 aggregateSales 仍走SQL。
+ * 配置 sales.aggregation.snapshot.path 后定期把列数据写入快照文件，重启时先映射快照，
+ * 再从数据库追赶快照最大ID之后（减去 catch-up-overlap 条）的新增记录；
+ * 快照只能追赶新增，发生更新、删除或过期后立即删除快照文件，直到下一次写入
+ */
+@Component
+@ConditionalOnProperty(name = "sales.aggregation.engine", havingValue = "columnar")
+@Order(0)
+public class ColumnarAggregationEngine implements SalesChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ColumnarAggregationEngine.class);
+
+    private final SalesMapper salesMapper;
+    private final ColumnarSalesStore store = new ColumnarSalesStore();
+    private final Path snapshotFile;
+    private final long snapshotIntervalMillis;
+    private final int catchUpOverlap;
+    private final ScheduledExecutorService scheduler;
+    // 每次变更递增，与上次写入时不同才需要重新写快照
+    private final AtomicLong changes = new AtomicLong();
+    private final AtomicLong destructiveChanges = new AtomicLong();
+    private final AtomicBoolean snapshotOnDisk = new AtomicBoolean();
+    private long writtenChanges = -1;
+    private volatile boolean ready;
+
+    @Autowired
+    public ColumnarAggregationEngine(SalesMapper salesMapper,
+                                     @Value("${sales.aggregation.snapshot.path:}") String snapshotPath,
+                                     @Value("${sales.aggregation.snapshot.interval:10m}") Duration snapshotInterval,
+                                     @Value("${sales.aggregation.snapshot.catch-up-overlap:10000}") int catchUpOverlap) {
+        if (catchUpOverlap < 0) {
+            throw new IllegalArgumentException("catchUpOverlap must not be negative");
+        }
+        this.salesMapper = salesMapper;
+        this.snapshotFile = snapshotPath == null || snapshotPath.isEmpty() ? null : Paths.get(snapshotPath);
+        this.snapshotIntervalMillis = snapshotInterval.toMillis();
+        this.catchUpOverlap = catchUpOverlap;
+        this.scheduler = snapshotFile == null ? null : Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "columnar-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 应用启动完成后加载销售数据：有可用快照时从快照恢复并追赶新增记录，否则全量加载
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        String source;
+        store.beginLoad();
+        try {
+            ColumnarSnapshot snapshot = readSnapshot();
+            if (snapshot != null) {
+                store.loadSnapshot(snapshot);
+                int afterId = Math.max(0, snapshot.maxId() - catchUpOverlap);
+                salesMapper.streamAfter(afterId, context -> store.loadRow(context.getResultObject()));
+                snapshotOnDisk.set(true);
+                source = "snapshot " + snapshotFile + " and rows after id " + afterId;
+            } else {
+                salesMapper.streamAll(context -> store.loadRow(context.getResultObject()));
+                source = "database";
+            }
+        } finally {
+            store.endLoad();
+        }
+        ready = true;
+        log.info("Columnar aggregation engine loaded {} rows from {} in {} ms",
+                store.size(), source, System.currentTimeMillis() - start);
+        if (scheduler != null) {
+            scheduler.scheduleWithFixedDelay(this::writeSnapshotQuietly,
+                    snapshotIntervalMillis, snapshotIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<SalesSummary> aggregate(String date, String from, String to, String product, String region) {
+        return store.aggregate(date, from, to, product, region);
+    }
+
+    /**
+     * 有变更时把当前列数据写入快照文件
+     * @return 是否写入了快照
+     */
+    public synchronized boolean writeSnapshot() throws IOException {
+        if (snapshotFile == null || !ready) {
+            return false;
+        }
+        long version = changes.get();
+        if (version == writtenChanges && snapshotOnDisk.get()) {
+            return false;
+        }
+        long destructive = destructiveChanges.get();
+        ColumnarSnapshot snapshot = store.toSnapshot();
+        snapshot.write(snapshotFile);
+        writtenChanges = version;
+        snapshotOnDisk.set(true);
+        // 导出之后发生的更新、删除不在文件里，与 invalidateSnapshot 并发时以删除为准
+        if (destructiveChanges.get() != destructive) {
+            invalidateSnapshot();
+            return false;
+        }
+        log.debug("Columnar snapshot written with {} rows to {}", snapshot.size(), snapshotFile);
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        writeSnapshotQuietly();
+    }
+
+    @Override
+    public void onSalesInserted(List<Sales> salesList) {
+        for (Sales sales : salesList) {
+            store.upsert(sales);
+        }
+        changes.incrementAndGet();
+    }
+
+    @Override
+    public void onSalesUpdated(Sales previous, Sales current) {
+        store.upsert(current);
+        changedDestructively();
+    }
+
+    @Override
+    public void onSalesDeleted(Integer id, Sales previous) {
+        store.remove(id);
+        changedDestructively();
+    }
+
+    @Override
+    public void onSalesRollupRebuilt(String from, String to) {
+        // 重建汇总表通常意味着数据库被直接修改过，快照可能已不可信
+        changedDestructively();
+    }
+
+    @Override
+    public void onSalesExpired(LocalDate before) {
+        int removed = store.removeBefore(before);
+        changedDestructively();
+        log.info("Columnar aggregation engine removed {} rows before {}", removed, before);
+    }
+
+    private ColumnarSnapshot readSnapshot() {
+        if (snapshotFile == null || !Files.exists(snapshotFile)) {
+            return null;
+        }
+        try {
+            return ColumnarSnapshot.read(snapshotFile);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable columnar snapshot {}, loading from database", snapshotFile, e);
+            return null;
+        }
+    }
+
+    private void writeSnapshotQuietly() {
+        try {
+            writeSnapshot();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to write columnar snapshot {}", snapshotFile, e);
+        }
+    }
+
+    private void changedDestructively() {
+        changes.incrementAndGet();
+        destructiveChanges.incrementAndGet();
+        invalidateSnapshot();
+    }
+
+    /**
+     * 删除已过时的快照文件，每次写入之后只删除一次
+     */
+    private void invalidateSnapshot() {
+        if (snapshotFile == null || !snapshotOnDisk.getAndSet(false)) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(snapshotFile);
+        } catch (IOException e) {
+            log.warn("Failed to delete stale columnar snapshot {}", snapshotFile, e);
+        }
+    }
+}
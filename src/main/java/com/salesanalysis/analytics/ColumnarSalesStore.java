@@ -0,0 +1,502 @@
+package com.salesanalysis.analytics;
+
+import com.salesanalysis.model.Sales;
+import com.salesanalysis.model.SalesSummary;
+import com.salesanalysis.util.MoneyUtils;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 列式存储的销售数据内存副本
+ * 产品和区域字典编码为int，日期存为epoch day，金额存为long（分），
+ * 聚合时在原始数组上顺序扫描，不为每行创建对象
+ */
+public class ColumnarSalesStore {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_DICTIONARY_SIZE = 1 << 16; // 分组键中产品、区域编码各占16位
+    private static final int DELETED = -1; // 已删除行的产品编码
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 字典编码
+    private final Map<String, Integer> productCodes = new HashMap<>();
+    private final List<String> products = new ArrayList<>();
+    private final Map<String, Integer> regionCodes = new HashMap<>();
+    private final List<String> regions = new ArrayList<>();
+
+    // 列数组
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int[] days = new int[INITIAL_CAPACITY];
+    private int[] productColumn = new int[INITIAL_CAPACITY];
+    private int[] regionColumn = new int[INITIAL_CAPACITY];
+    private long[] cents = new long[INITIAL_CAPACITY];
+    private int rowCount; // 已使用的行数，包含已删除的行
+    private int deletedCount;
+
+    // ID到行号的索引
+    private final Map<Integer, Integer> rowById = new HashMap<>();
+
+    // 全量加载期间被增量变更过的ID，加载时跳过，以增量数据为准
+    private Set<Integer> touchedDuringLoad;
+    // 早于该日期（epoch day）的数据已过期，全量加载时读到的旧快照也跳过
+    private int minLiveDay = Integer.MIN_VALUE;
+
+    /**
+     * 开始全量加载，清空现有数据
+     */
+    public void beginLoad() {
+        lock.writeLock().lock();
+        try {
+            clearInternal();
+            touchedDuringLoad = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 全量加载一行数据，加载期间已被增量变更的记录会被跳过
+     * @param sales 从数据库读取的销售记录
+     */
+    public void loadRow(Sales sales) {
+        lock.writeLock().lock();
+        try {
+            if (touchedDuringLoad != null && touchedDuringLoad.contains(sales.getId())) {
+                return;
+            }
+            if (toEpochDay(sales) < minLiveDay) {
+                return;
+            }
+            upsertInternal(sales);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 全量加载期间从快照恢复，加载期间已被增量变更的记录同样跳过
+     * @param snapshot 快照，字典编码按名称重新映射
+     */
+    public void loadSnapshot(ColumnarSnapshot snapshot) {
+        lock.writeLock().lock();
+        try {
+            int[] productMapping = new int[snapshot.products().size()];
+            for (int i = 0; i < productMapping.length; i++) {
+                productMapping[i] = encode(productCodes, products, snapshot.products().get(i));
+            }
+            int[] regionMapping = new int[snapshot.regions().size()];
+            for (int i = 0; i < regionMapping.length; i++) {
+                regionMapping[i] = encode(regionCodes, regions, snapshot.regions().get(i));
+            }
+            ensureCapacity(rowCount + snapshot.size());
+            for (int i = 0; i < snapshot.size(); i++) {
+                int id = snapshot.id(i);
+                if ((touchedDuringLoad != null && touchedDuringLoad.contains(id)) || snapshot.day(i) < minLiveDay) {
+                    continue;
+                }
+                upsertRow(id, snapshot.day(i), productMapping[snapshot.productCode(i)],
+                        regionMapping[snapshot.regionCode(i)], snapshot.cents(i));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 导出当前有效记录的快照
+     */
+    public ColumnarSnapshot toSnapshot() {
+        lock.readLock().lock();
+        try {
+            int live = rowCount - deletedCount;
+            int[] snapshotIds = new int[live];
+            int[] snapshotDays = new int[live];
+            int[] snapshotProducts = new int[live];
+            int[] snapshotRegions = new int[live];
+            long[] snapshotCents = new long[live];
+            int n = 0;
+            for (int i = 0; i < rowCount; i++) {
+                if (productColumn[i] == DELETED) {
+                    continue;
+                }
+                snapshotIds[n] = ids[i];
+                snapshotDays[n] = days[i];
+                snapshotProducts[n] = productColumn[i];
+                snapshotRegions[n] = regionColumn[i];
+                snapshotCents[n] = cents[i];
+                n++;
+            }
+            return new ColumnarSnapshot(products, regions, snapshotIds, snapshotDays,
+                    snapshotProducts, snapshotRegions, snapshotCents, System.currentTimeMillis());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 结束全量加载
+     */
+    public void endLoad() {
+        lock.writeLock().lock();
+        try {
+            touchedDuringLoad = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 新增或更新一条记录（按ID）
+     * @param sales 销售记录，ID不能为空
+     */
+    public void upsert(Sales sales) {
+        if (sales.getId() == null) {
+            throw new IllegalArgumentException("Sales ID cannot be null");
+        }
+        lock.writeLock().lock();
+        try {
+            if (touchedDuringLoad != null) {
+                touchedDuringLoad.add(sales.getId());
+            }
+            upsertInternal(sales);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 删除一条记录
+     * @param id 销售记录ID
+     * @return 记录是否存在
+     */
+    public boolean remove(Integer id) {
+        lock.writeLock().lock();
+        try {
+            if (touchedDuringLoad != null) {
+                touchedDuringLoad.add(id);
+            }
+            Integer row = rowById.remove(id);
+            if (row == null) {
+                return false;
+            }
+            productColumn[row] = DELETED;
+            deletedCount++;
+            if (deletedCount > INITIAL_CAPACITY && deletedCount > rowCount / 2) {
+                compact();
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 删除销售日期早于 before 的全部记录
+     * @param before 截止日期（不含）
+     * @return 删除的记录数
+     */
+    public int removeBefore(LocalDate before) {
+        int cutoff = (int) before.toEpochDay();
+        lock.writeLock().lock();
+        try {
+            minLiveDay = Math.max(minLiveDay, cutoff);
+            int removed = 0;
+            for (int i = 0; i < rowCount; i++) {
+                if (productColumn[i] != DELETED && days[i] < cutoff) {
+                    productColumn[i] = DELETED;
+                    rowById.remove(ids[i]);
+                    removed++;
+                }
+            }
+            deletedCount += removed;
+            if (deletedCount > INITIAL_CAPACITY && deletedCount > rowCount / 2) {
+                compact();
+            }
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 当前有效记录数
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return rowCount - deletedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 按 (日期, 产品, 区域) 分组聚合，语义与 SalesMapper.aggregateSales 一致
+     * @param date 销售日期，格式 yyyy-MM-dd，为空表示不过滤
+     * @param from 起始日期（含），为空表示不限
+     * @param to 截止日期（含），为空表示不限
+     * @param product 产品名称，为空表示不过滤
+     * @param region 区域，为空表示不过滤
+     * @return 按日期降序、金额降序排列的汇总结果
+     */
+    public List<SalesSummary> aggregate(String date, String from, String to, String product, String region) {
+        boolean filterProduct = product != null && !product.isEmpty();
+        boolean filterRegion = region != null && !region.isEmpty();
+
+        // 日期条件统一转换为闭区间 [minDay, maxDay]
+        int minDay = Integer.MIN_VALUE;
+        int maxDay = Integer.MAX_VALUE;
+        try {
+            if (date != null && !date.isEmpty()) {
+                minDay = maxDay = (int) LocalDate.parse(date).toEpochDay();
+            }
+            if (from != null && !from.isEmpty()) {
+                minDay = Math.max(minDay, (int) LocalDate.parse(from).toEpochDay());
+            }
+            if (to != null && !to.isEmpty()) {
+                maxDay = Math.min(maxDay, (int) LocalDate.parse(to).toEpochDay());
+            }
+        } catch (DateTimeParseException e) {
+            return new ArrayList<>();
+        }
+
+        lock.readLock().lock();
+        try {
+            int productFilter = 0;
+            if (filterProduct) {
+                Integer code = productCodes.get(product);
+                if (code == null) {
+                    return new ArrayList<>();
+                }
+                productFilter = code;
+            }
+            int regionFilter = 0;
+            if (filterRegion) {
+                Integer code = regionCodes.get(region);
+                if (code == null) {
+                    return new ArrayList<>();
+                }
+                regionFilter = code;
+            }
+
+            GroupTable groups = new GroupTable();
+            for (int i = 0; i < rowCount; i++) {
+                int p = productColumn[i];
+                int day = days[i];
+                if (p == DELETED
+                        || day < minDay || day > maxDay
+                        || (filterProduct && p != productFilter)
+                        || (filterRegion && regionColumn[i] != regionFilter)) {
+                    continue;
+                }
+                groups.add(groupKey(day, p, regionColumn[i]), cents[i]);
+            }
+            return toSummaries(groups);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<SalesSummary> toSummaries(GroupTable groups) {
+        Integer[] slots = groups.usedSlots();
+        Arrays.sort(slots, (a, b) -> {
+            int dayA = (int) (groups.keys[a] >> 32);
+            int dayB = (int) (groups.keys[b] >> 32);
+            if (dayA != dayB) {
+                return Integer.compare(dayB, dayA);
+            }
+            return Long.compare(groups.sums[b], groups.sums[a]);
+        });
+
+        List<SalesSummary> result = new ArrayList<>(slots.length);
+        for (int slot : slots) {
+            long key = groups.keys[slot];
+            SalesSummary summary = new SalesSummary();
+            summary.setDate(LocalDate.ofEpochDay((int) (key >> 32)).toString());
+            summary.setProduct(products.get((int) ((key >>> 16) & 0xFFFF)));
+            summary.setRegion(regions.get((int) (key & 0xFFFF)));
+            summary.setTotalAmount(MoneyUtils.fromCents(groups.sums[slot]));
+            summary.setCount((int) groups.counts[slot]);
+            result.add(summary);
+        }
+        return result;
+    }
+
+    private void upsertInternal(Sales sales) {
+        upsertRow(sales.getId(), toEpochDay(sales), encode(productCodes, products, sales.getProduct()),
+                encode(regionCodes, regions, sales.getRegion()), MoneyUtils.toCents(sales.getAmount()));
+    }
+
+    private void upsertRow(int id, int day, int product, int region, long amount) {
+        Integer row = rowById.get(id);
+        if (row == null) {
+            ensureCapacity(rowCount + 1);
+            row = rowCount++;
+            ids[row] = id;
+            rowById.put(id, row);
+        }
+        days[row] = day;
+        productColumn[row] = product;
+        regionColumn[row] = region;
+        cents[row] = amount;
+    }
+
+    private void clearInternal() {
+        productCodes.clear();
+        products.clear();
+        regionCodes.clear();
+        regions.clear();
+        rowById.clear();
+        ids = new int[INITIAL_CAPACITY];
+        days = new int[INITIAL_CAPACITY];
+        productColumn = new int[INITIAL_CAPACITY];
+        regionColumn = new int[INITIAL_CAPACITY];
+        cents = new long[INITIAL_CAPACITY];
+        rowCount = 0;
+        deletedCount = 0;
+    }
+
+    /**
+     * 移除已删除的行并重建ID索引
+     */
+    private void compact() {
+        int target = 0;
+        rowById.clear();
+        for (int i = 0; i < rowCount; i++) {
+            if (productColumn[i] == DELETED) {
+                continue;
+            }
+            ids[target] = ids[i];
+            days[target] = days[i];
+            productColumn[target] = productColumn[i];
+            regionColumn[target] = regionColumn[i];
+            cents[target] = cents[i];
+            rowById.put(ids[target], target);
+            target++;
+        }
+        rowCount = target;
+        deletedCount = 0;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(required, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, capacity);
+        days = Arrays.copyOf(days, capacity);
+        productColumn = Arrays.copyOf(productColumn, capacity);
+        regionColumn = Arrays.copyOf(regionColumn, capacity);
+        cents = Arrays.copyOf(cents, capacity);
+    }
+
+    private static int encode(Map<String, Integer> codes, List<String> values, String value) {
+        Integer code = codes.get(value);
+        if (code == null) {
+            if (values.size() >= MAX_DICTIONARY_SIZE) {
+                throw new IllegalStateException("Dictionary size exceeds " + MAX_DICTIONARY_SIZE);
+            }
+            code = values.size();
+            codes.put(value, code);
+            values.add(value);
+        }
+        return code;
+    }
+
+    private static int toEpochDay(Sales sales) {
+        return (int) sales.getSaleDate().toEpochDay();
+    }
+
+    private static long groupKey(int day, int product, int region) {
+        return ((long) day << 32) | ((long) product << 16) | region;
+    }
+
+    /**
+     * 以long为键的开放寻址哈希表，保存每个分组的金额合计和笔数
+     */
+    private static final class GroupTable {
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private long[] keys;
+        private long[] sums;
+        private long[] counts;
+        private int size;
+
+        GroupTable() {
+            allocate(64);
+        }
+
+        void add(long key, long amount) {
+            int mask = keys.length - 1;
+            int slot = mix(key) & mask;
+            while (keys[slot] != EMPTY && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == EMPTY) {
+                keys[slot] = key;
+                if (++size > keys.length >> 1) {
+                    rehash();
+                    add(key, amount);
+                    return;
+                }
+            }
+            sums[slot] = Math.addExact(sums[slot], amount);
+            counts[slot]++;
+        }
+
+        Integer[] usedSlots() {
+            Integer[] slots = new Integer[size];
+            int n = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != EMPTY) {
+                    slots[n++] = i;
+                }
+            }
+            return slots;
+        }
+
+        private void rehash() {
+            long[] oldKeys = keys;
+            long[] oldSums = sums;
+            long[] oldCounts = counts;
+            allocate(oldKeys.length << 1);
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] == EMPTY) {
+                    continue;
+                }
+                int slot = mix(oldKeys[i]) & mask;
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                sums[slot] = oldSums[i];
+                counts[slot] = oldCounts[i];
+                size++;
+            }
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            sums = new long[capacity];
+            counts = new long[capacity];
+            size = 0;
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
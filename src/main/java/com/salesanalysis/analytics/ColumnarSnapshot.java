@@ -0,0 +1,281 @@
+package com.salesanalysis.analytics;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * 列式存储的快照文件，用于重启后快速恢复和离线分析
+ * 文件格式（大端）：
+ * <pre>
+ * long  魔数 "SALESCOL"
+ * int   版本
+ * int   行数
+ * int   最大ID（追赶 MySQL 的水位）
+ * long  生成时间（epoch 毫秒）
+ * 产品字典、区域字典：int 个数，之后每项为 int 字节数 + UTF-8 字节
+ * 各列依次存放：ID、日期（epoch day）、金额（分）为与上一行之差的 zigzag 变长整数，
+ *             产品、区域字典编码为变长整数
+ * long  以上全部字节的 CRC32
+ * </pre>
+ */
+public final class ColumnarSnapshot {
+
+    static final long MAGIC = 0x53414C4553434F4CL; // "SALESCOL"
+    static final int VERSION = 1;
+
+    private final List<String> products;
+    private final List<String> regions;
+    private final int[] ids;
+    private final int[] days;
+    private final int[] productCodes;
+    private final int[] regionCodes;
+    private final long[] cents;
+    private final int maxId;
+    private final long createdAt;
+
+    public ColumnarSnapshot(List<String> products, List<String> regions, int[] ids, int[] days,
+                            int[] productCodes, int[] regionCodes, long[] cents, long createdAt) {
+        if (days.length != ids.length || productCodes.length != ids.length
+                || regionCodes.length != ids.length || cents.length != ids.length) {
+            throw new IllegalArgumentException("Snapshot columns must have the same length");
+        }
+        this.products = Collections.unmodifiableList(new ArrayList<>(products));
+        this.regions = Collections.unmodifiableList(new ArrayList<>(regions));
+        this.ids = ids;
+        this.days = days;
+        this.productCodes = productCodes;
+        this.regionCodes = regionCodes;
+        this.cents = cents;
+        int max = 0;
+        for (int id : ids) {
+            max = Math.max(max, id);
+        }
+        this.maxId = max;
+        this.createdAt = createdAt;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public int maxId() {
+        return maxId;
+    }
+
+    public long createdAt() {
+        return createdAt;
+    }
+
+    public List<String> products() {
+        return products;
+    }
+
+    public List<String> regions() {
+        return regions;
+    }
+
+    public int id(int row) {
+        return ids[row];
+    }
+
+    public int day(int row) {
+        return days[row];
+    }
+
+    public int productCode(int row) {
+        return productCodes[row];
+    }
+
+    public int regionCode(int row) {
+        return regionCodes[row];
+    }
+
+    public long cents(int row) {
+        return cents[row];
+    }
+
+    /**
+     * 写入快照：先写临时文件再原子替换，读取方不会看到写了一半的文件
+     * @param file 目标文件
+     */
+    public void write(Path file) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream raw = new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16)) {
+                CRC32 crc = new CRC32();
+                DataOutputStream out = new DataOutputStream(new CheckedOutputStream(raw, crc));
+                out.writeLong(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(ids.length);
+                out.writeInt(maxId);
+                out.writeLong(createdAt);
+                writeDictionary(out, products);
+                writeDictionary(out, regions);
+                writeDeltas(out, ids);
+                writeDeltas(out, days);
+                for (int code : productCodes) {
+                    writeVarLong(out, code);
+                }
+                for (int code : regionCodes) {
+                    writeVarLong(out, code);
+                }
+                long previous = 0;
+                for (long value : cents) {
+                    writeVarLong(out, zigzag(value - previous));
+                    previous = value;
+                }
+                out.flush();
+                new DataOutputStream(raw).writeLong(crc.getValue());
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * 通过内存映射读取快照
+     * @param file 快照文件
+     * @throws IOException 文件不存在、已损坏或版本不兼容
+     */
+    public static ColumnarSnapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 44 || size > Integer.MAX_VALUE) {
+                throw new IOException("Invalid snapshot size: " + size);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            CRC32 crc = new CRC32();
+            ByteBuffer body = buffer.duplicate();
+            body.limit((int) size - 8);
+            crc.update(body);
+            if (crc.getValue() != buffer.getLong((int) size - 8)) {
+                throw new IOException("Snapshot checksum mismatch: " + file);
+            }
+
+            if (buffer.getLong() != MAGIC) {
+                throw new IOException("Not a columnar snapshot: " + file);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version: " + version);
+            }
+            int rows = buffer.getInt();
+            buffer.getInt(); // 最大ID，由各行重新计算
+            long createdAt = buffer.getLong();
+            List<String> products = readDictionary(buffer);
+            List<String> regions = readDictionary(buffer);
+
+            int[] ids = readDeltas(buffer, rows);
+            int[] days = readDeltas(buffer, rows);
+            int[] productCodes = readCodes(buffer, rows, products.size());
+            int[] regionCodes = readCodes(buffer, rows, regions.size());
+            long[] cents = new long[rows];
+            long previous = 0;
+            for (int i = 0; i < rows; i++) {
+                previous += unzigzag(readVarLong(buffer));
+                cents[i] = previous;
+            }
+            return new ColumnarSnapshot(products, regions, ids, days, productCodes, regionCodes, cents, createdAt);
+        } catch (RuntimeException e) {
+            // 越界等格式错误统一按文件损坏处理
+            throw new IOException("Corrupted snapshot: " + file, e);
+        }
+    }
+
+    private static void writeDictionary(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static List<String> readDictionary(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            values.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return values;
+    }
+
+    private static void writeDeltas(DataOutputStream out, int[] values) throws IOException {
+        long previous = 0;
+        for (int value : values) {
+            writeVarLong(out, zigzag(value - previous));
+            previous = value;
+        }
+    }
+
+    private static int[] readDeltas(ByteBuffer buffer, int rows) {
+        int[] values = new int[rows];
+        long previous = 0;
+        for (int i = 0; i < rows; i++) {
+            previous += unzigzag(readVarLong(buffer));
+            values[i] = (int) previous;
+        }
+        return values;
+    }
+
+    private static int[] readCodes(ByteBuffer buffer, int rows, int dictionarySize) throws IOException {
+        int[] codes = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            long code = readVarLong(buffer);
+            if (code >= dictionarySize) {
+                throw new IOException("Dictionary code out of range: " + code);
+            }
+            codes[i] = (int) code;
+        }
+        return codes;
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed variable-length integer");
+    }
+}
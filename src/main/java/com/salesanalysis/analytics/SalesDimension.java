@@ -0,0 +1,36 @@
+package com.salesanalysis.analytics;
+
+/**
+ * 可用于排名和分组的维度，column 为汇总表中的列名
+ */
+public enum SalesDimension {
+    PRODUCT("product"),
+    REGION("region");
+
+    private final String column;
+
+    SalesDimension(String column) {
+        this.column = column;
+    }
+
+    public String column() {
+        return column;
+    }
+
+    /**
+     * 解析请求参数（不区分大小写）
+     * @param param 参数名，用于错误信息
+     * @param value 参数值，为空时返回 null
+     */
+    public static SalesDimension parse(String param, String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        for (SalesDimension dimension : values()) {
+            if (dimension.column.equalsIgnoreCase(value)) {
+                return dimension;
+            }
+        }
+        throw new IllegalArgumentException("Parameter '" + param + "' must be product or region: " + value);
+    }
+}
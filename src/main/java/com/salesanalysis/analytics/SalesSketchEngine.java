@@ -0,0 +1,580 @@
+package com.salesanalysis.analytics;
+
+import com.salesanalysis.mapper.SalesMapper;
+import com.salesanalysis.model.Sales;
+import com.salesanalysis.model.SalesApproxSummary;
+import com.salesanalysis.service.SalesChangeListener;
+import com.salesanalysis.util.MoneyUtils;
+import org.apache.datasketches.hll.HllSketch;
+import org.apache.datasketches.hll.Union;
+import org.apache.datasketches.kll.KllDoublesSketch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 近似聚合引擎，配置 sales.sketch.enabled=true 时启用
+ * 每个 (日期, 产品, 区域) 保存可合并的草图：HyperLogLog 估计不同金额数，KLL 估计单笔金额分位数，
+ * 金额合计和笔数精确累加；查询时按日期范围合并到 (产品, 区域)。
+ * 新增、更新、删除都增量维护：更新、删除从旧分组精确扣减金额合计和笔数，
+ * 草图不支持删除，被扣减的分组标记为过期，延迟一段时间后只从数据库重新读取这些日期刷新草图
+ */
+@Component
+@ConditionalOnProperty(name = "sales.sketch.enabled", havingValue = "true")
+public class SalesSketchEngine implements SalesChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SalesSketchEngine.class);
+
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99};
+
+    private final SalesMapper salesMapper;
+    private final int hllLgK;
+    private final int kllK;
+    private final long rebuildDelayMillis;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+    private final AtomicBoolean fullRebuildRequested = new AtomicBoolean();
+
+    private final Object lock = new Object();
+    private volatile SketchTable table;
+    // 重建期间的写入同时应用到新表，流式读到的同一ID跳过；由 lock 保护
+    private SketchTable building;
+    private Set<Integer> touchedDuringBuild;
+    private long lastStreamedId;
+    // 正在刷新的日期及刷新期间该日期是否有写入；由 lock 保护
+    private Long refreshingDay;
+    private boolean touchedDuringRefresh;
+    private volatile boolean ready;
+
+    @Autowired
+    public SalesSketchEngine(SalesMapper salesMapper,
+                             @Value("${sales.sketch.hll-lg-k:14}") int hllLgK,
+                             @Value("${sales.sketch.kll-k:400}") int kllK,
+                             @Value("${sales.sketch.rebuild-delay:30s}") Duration rebuildDelay) {
+        this.salesMapper = salesMapper;
+        this.hllLgK = hllLgK;
+        this.kllK = kllK;
+        this.rebuildDelayMillis = rebuildDelay.toMillis();
+        this.table = new SketchTable(hllLgK, kllK);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sales-sketch-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 应用启动完成后从数据库构建草图
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 从数据库流式读取全部记录重建草图，完成后整体替换
+     */
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        SketchTable next = new SketchTable(hllLgK, kllK);
+        synchronized (lock) {
+            building = next;
+            touchedDuringBuild = new HashSet<>();
+            lastStreamedId = Long.MIN_VALUE;
+        }
+        try {
+            salesMapper.streamAll(context -> {
+                Sales sales = context.getResultObject();
+                synchronized (lock) {
+                    lastStreamedId = sales.getId();
+                    if (!touchedDuringBuild.contains(sales.getId())) {
+                        next.add(sales);
+                    }
+                }
+            });
+            synchronized (lock) {
+                table = next;
+            }
+        } finally {
+            synchronized (lock) {
+                building = null;
+                touchedDuringBuild = null;
+            }
+        }
+        ready = true;
+        log.info("Sales sketches rebuilt with {} cells in {} ms", next.cellCount(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 逐个日期刷新过期分组的草图：按 sale_date 索引读取该日全部记录重新构建，
+     * 只替换过期分组的 HLL 与 KLL，金额合计和笔数仍由增量维护，不受刷新期间写入的影响
+     */
+    synchronized void refreshStaleDays() {
+        List<Long> days;
+        synchronized (lock) {
+            days = new ArrayList<>(table.staleDays);
+        }
+        for (Long day : days) {
+            refreshDay(day);
+        }
+    }
+
+    private void refreshDay(long epochDay) {
+        synchronized (lock) {
+            if (!table.staleDays.remove(epochDay)) {
+                return;
+            }
+            refreshingDay = epochDay;
+            touchedDuringRefresh = false;
+        }
+        SketchTable fresh = new SketchTable(hllLgK, kllK);
+        boolean refreshed = false;
+        try {
+            salesMapper.streamByDate(LocalDate.ofEpochDay(epochDay), context -> fresh.add(context.getResultObject()));
+            refreshed = true;
+        } finally {
+            synchronized (lock) {
+                boolean remaining = !refreshed || touchedDuringRefresh;
+                Map<GroupKey, SketchCell> cells = table.days.get(epochDay);
+                Map<GroupKey, SketchCell> freshCells = fresh.days.get(epochDay);
+                if (refreshed && cells != null) {
+                    for (Map.Entry<GroupKey, SketchCell> entry : cells.entrySet()) {
+                        SketchCell cell = entry.getValue();
+                        if (!cell.isStale()) {
+                            continue;
+                        }
+                        SketchCell freshCell = freshCells != null ? freshCells.get(entry.getKey()) : null;
+                        if (freshCell == null) {
+                            remaining = true;
+                        } else {
+                            // 刷新期间有写入时新草图可能漏掉这些写入，保持过期等待下次刷新
+                            cell.replaceSketches(freshCell, touchedDuringRefresh);
+                        }
+                    }
+                }
+                if (remaining && cells != null) {
+                    table.staleDays.add(epochDay);
+                }
+                refreshingDay = null;
+            }
+        }
+    }
+
+    /**
+     * 按日期范围合并草图，按 (产品, 区域) 分组
+     * @param from 起始日期（含），null 表示不限
+     * @param to 截止日期（含），null 表示不限
+     * @param product 产品名称，为空表示不过滤
+     * @param region 区域，为空表示不过滤
+     * @return 按金额合计降序排列
+     */
+    public List<SalesApproxSummary> aggregate(LocalDate from, LocalDate to, String product, String region) {
+        ConcurrentNavigableMap<Long, Map<GroupKey, SketchCell>> days = table.days;
+        if (from != null) {
+            days = days.tailMap(from.toEpochDay(), true);
+        }
+        if (to != null) {
+            days = days.headMap(to.toEpochDay(), true);
+        }
+        boolean filterProduct = product != null && !product.isEmpty();
+        boolean filterRegion = region != null && !region.isEmpty();
+
+        Map<GroupKey, Merged> groups = new HashMap<>();
+        for (Map<GroupKey, SketchCell> cells : days.values()) {
+            for (Map.Entry<GroupKey, SketchCell> entry : cells.entrySet()) {
+                GroupKey key = entry.getKey();
+                if ((filterProduct && !product.equals(key.product)) || (filterRegion && !region.equals(key.region))) {
+                    continue;
+                }
+                entry.getValue().mergeInto(groups.computeIfAbsent(key, k -> new Merged(hllLgK, kllK)));
+            }
+        }
+
+        List<SalesApproxSummary> result = new ArrayList<>(groups.size());
+        for (Map.Entry<GroupKey, Merged> entry : groups.entrySet()) {
+            result.add(entry.getValue().toSummary(entry.getKey()));
+        }
+        result.sort(Comparator.comparing(SalesApproxSummary::getTotalAmount).reversed()
+                .thenComparing(SalesApproxSummary::getProduct)
+                .thenComparing(SalesApproxSummary::getRegion));
+        return result;
+    }
+
+    /**
+     * 更新、删除需要旧记录才能从旧分组扣减
+     */
+    @Override
+    public boolean needsPreviousRows() {
+        return true;
+    }
+
+    @Override
+    public void onSalesInserted(List<Sales> salesList) {
+        synchronized (lock) {
+            for (Sales sales : salesList) {
+                table.add(sales);
+                touchDay(sales);
+                if (building != null) {
+                    building.add(sales);
+                    touchedDuringBuild.add(sales.getId());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onSalesUpdated(Sales previous, Sales current) {
+        if (previous == null) {
+            // 旧值未知，无法确定从哪个分组扣减，只能整体重建
+            requestFullRebuild();
+            return;
+        }
+        synchronized (lock) {
+            table.remove(previous);
+            table.add(current);
+            touchDay(previous);
+            touchDay(current);
+            if (building != null) {
+                if (streamedIntoBuilding(previous.getId())) {
+                    building.remove(previous);
+                }
+                building.add(current);
+                touchedDuringBuild.add(current.getId());
+            }
+        }
+        scheduleRefresh();
+    }
+
+    @Override
+    public void onSalesDeleted(Integer id, Sales previous) {
+        if (previous == null) {
+            requestFullRebuild();
+            return;
+        }
+        synchronized (lock) {
+            table.remove(previous);
+            touchDay(previous);
+            if (building != null) {
+                if (streamedIntoBuilding(id)) {
+                    building.remove(previous);
+                }
+                touchedDuringBuild.add(id);
+            }
+        }
+        scheduleRefresh();
+    }
+
+    @Override
+    public void onSalesRollupRebuilt(String from, String to) {
+        // 重建汇总表通常意味着数据库被直接修改过
+        requestFullRebuild();
+    }
+
+    @Override
+    public void onSalesExpired(LocalDate before) {
+        synchronized (lock) {
+            table.days.headMap(before.toEpochDay()).clear();
+            table.staleDays.removeIf(day -> day < before.toEpochDay());
+            if (building != null) {
+                building.days.headMap(before.toEpochDay()).clear();
+                building.staleDays.removeIf(day -> day < before.toEpochDay());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    // 调用方持有 lock
+    private boolean streamedIntoBuilding(Integer id) {
+        return touchedDuringBuild.contains(id) || id <= lastStreamedId;
+    }
+
+    // 调用方持有 lock
+    private void touchDay(Sales sales) {
+        if (refreshingDay != null && refreshingDay == sales.getSaleDate().toEpochDay()) {
+            touchedDuringRefresh = true;
+        }
+    }
+
+    private void requestFullRebuild() {
+        fullRebuildRequested.set(true);
+        scheduleRefresh();
+    }
+
+    /**
+     * 延迟刷新，延迟期间的多次变更合并为一次；仍有过期日期（刷新期间又有写入或读取失败）时继续安排
+     */
+    private void scheduleRefresh() {
+        if (!refreshScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        scheduler.schedule(() -> {
+            refreshScheduled.set(false);
+            try {
+                if (fullRebuildRequested.getAndSet(false)) {
+                    rebuild();
+                } else {
+                    refreshStaleDays();
+                }
+            } catch (RuntimeException e) {
+                log.warn("Sales sketch refresh failed", e);
+            }
+            if (!table.staleDays.isEmpty()) {
+                scheduleRefresh();
+            }
+        }, rebuildDelayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    boolean isRefreshScheduled() {
+        return refreshScheduled.get();
+    }
+
+    boolean isStale(LocalDate date) {
+        return table.staleDays.contains(date.toEpochDay());
+    }
+
+    /**
+     * 按 epoch day 排序的草图表
+     */
+    static final class SketchTable {
+        private final int hllLgK;
+        private final int kllK;
+        final ConcurrentSkipListMap<Long, Map<GroupKey, SketchCell>> days = new ConcurrentSkipListMap<>();
+        // 含过期草图的日期
+        final Set<Long> staleDays = ConcurrentHashMap.newKeySet();
+
+        SketchTable(int hllLgK, int kllK) {
+            this.hllLgK = hllLgK;
+            this.kllK = kllK;
+        }
+
+        void add(Sales sales) {
+            days.computeIfAbsent(sales.getSaleDate().toEpochDay(), day -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(new GroupKey(sales.getProduct(), sales.getRegion()), key -> new SketchCell(hllLgK, kllK))
+                    .add(MoneyUtils.toCents(sales.getAmount()));
+        }
+
+        /**
+         * 从记录所在分组扣减；分组清空时直接移除，否则该日期标记为过期
+         */
+        void remove(Sales sales) {
+            long day = sales.getSaleDate().toEpochDay();
+            Map<GroupKey, SketchCell> cells = days.get(day);
+            if (cells == null) {
+                return;
+            }
+            GroupKey key = new GroupKey(sales.getProduct(), sales.getRegion());
+            SketchCell cell = cells.get(key);
+            if (cell == null) {
+                return;
+            }
+            cell.remove(MoneyUtils.toCents(sales.getAmount()));
+            if (cell.isEmpty()) {
+                cells.remove(key);
+                if (cells.isEmpty()) {
+                    days.remove(day);
+                    staleDays.remove(day);
+                }
+            } else {
+                staleDays.add(day);
+            }
+        }
+
+        int cellCount() {
+            int count = 0;
+            for (Map<GroupKey, SketchCell> cells : days.values()) {
+                count += cells.size();
+            }
+            return count;
+        }
+    }
+
+    /**
+     * 一个 (日期, 产品, 区域) 的草图
+     * 笔数不超过 kllK 时直接保存金额（分），超过后才转为 KLL，避免小分组各自占用一个完整的 KLL 缓冲区
+     */
+    static final class SketchCell {
+        private final int kllK;
+        private HllSketch distinct;
+        private long[] values = new long[4];
+        private int size;
+        private KllDoublesSketch quantiles;
+        private long cents;
+        private long count;
+        // HLL 或 KLL 中仍含已扣减的金额
+        private boolean stale;
+
+        SketchCell(int hllLgK, int kllK) {
+            this.kllK = kllK;
+            this.distinct = new HllSketch(hllLgK);
+        }
+
+        synchronized void add(long amount) {
+            distinct.update(amount);
+            cents = MoneyUtils.add(cents, amount);
+            count++;
+            if (quantiles != null) {
+                quantiles.update(amount);
+                return;
+            }
+            if (size < kllK) {
+                if (size == values.length) {
+                    values = Arrays.copyOf(values, Math.min(values.length << 1, kllK));
+                }
+                values[size++] = amount;
+                return;
+            }
+            quantiles = KllDoublesSketch.newHeapInstance(kllK);
+            for (int i = 0; i < size; i++) {
+                quantiles.update(values[i]);
+            }
+            quantiles.update(amount);
+            values = null;
+            size = 0;
+        }
+
+        /**
+         * 金额合计和笔数精确扣减；直接保存的金额同时删除，HLL 与 KLL 无法删除，标记为过期
+         */
+        synchronized void remove(long amount) {
+            cents = MoneyUtils.add(cents, -amount);
+            count--;
+            stale = true;
+            if (values != null) {
+                for (int i = 0; i < size; i++) {
+                    if (values[i] == amount) {
+                        values[i] = values[--size];
+                        break;
+                    }
+                }
+            }
+        }
+
+        /**
+         * 用从数据库重新构建的草图替换 HLL 与 KLL，金额合计和笔数保持不变
+         */
+        synchronized void replaceSketches(SketchCell fresh, boolean stillStale) {
+            distinct = fresh.distinct;
+            values = fresh.values;
+            size = fresh.size;
+            quantiles = fresh.quantiles;
+            stale = stillStale;
+        }
+
+        synchronized boolean isEmpty() {
+            return count <= 0;
+        }
+
+        synchronized boolean isStale() {
+            return stale;
+        }
+
+        synchronized void mergeInto(Merged merged) {
+            merged.distinct.update(distinct);
+            merged.cents = MoneyUtils.add(merged.cents, cents);
+            merged.count += count;
+            if (quantiles != null) {
+                merged.quantiles.merge(quantiles);
+            } else {
+                for (int i = 0; i < size; i++) {
+                    merged.quantiles.update(values[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * 查询时一个 (产品, 区域) 的合并结果
+     */
+    static final class Merged {
+        private final Union distinct;
+        private final KllDoublesSketch quantiles;
+        private long cents;
+        private long count;
+
+        Merged(int hllLgK, int kllK) {
+            this.distinct = new Union(hllLgK);
+            this.quantiles = KllDoublesSketch.newHeapInstance(kllK);
+        }
+
+        SalesApproxSummary toSummary(GroupKey key) {
+            SalesApproxSummary summary = new SalesApproxSummary();
+            summary.setProduct(key.product);
+            summary.setRegion(key.region);
+            summary.setTotalAmount(MoneyUtils.fromCents(cents));
+            summary.setCount(count);
+            summary.setDistinctAmounts(Math.round(distinct.getEstimate()));
+            if (!quantiles.isEmpty()) {
+                double[] values = quantiles.getQuantiles(PERCENTILES);
+                summary.setP50(toAmount(values[0]));
+                summary.setP90(toAmount(values[1]));
+                summary.setP99(toAmount(values[2]));
+            }
+            return summary;
+        }
+
+        private static BigDecimal toAmount(double cents) {
+            return MoneyUtils.fromCents(Math.round(cents));
+        }
+    }
+
+    static final class GroupKey {
+        private final String product;
+        private final String region;
+
+        GroupKey(String product, String region) {
+            this.product = product;
+            this.region = region;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof GroupKey)) {
+                return false;
+            }
+            GroupKey that = (GroupKey) o;
+            return Objects.equals(product, that.product) && Objects.equals(region, that.region);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(product, region);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.salesanalysis.analytics;
+
+import com.salesanalysis.model.SalesSeriesPoint;
+import com.salesanalysis.util.DateUtils;
+import com.salesanalysis.util.MoneyUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 单次扫描把按日汇总的金额累加到 [from, to] 覆盖的各个区间，没有数据的区间为0
+ * 区间下标由日期直接算出，金额按分累加在数组中
+ */
+public class SeriesAccumulator {
+
+    static final int MAX_BUCKETS = 10000;
+
+    private final SeriesBucket bucket;
+    private final LocalDate first;
+    private final long[] cents;
+    private final long[] counts;
+
+    /**
+     * @param bucket 区间粒度
+     * @param from 起始日期（含），第一个区间从包含它的区间起始日开始
+     * @param to 截止日期（含）
+     */
+    public SeriesAccumulator(SeriesBucket bucket, LocalDate from, LocalDate to) {
+        this.bucket = bucket;
+        this.first = bucket.align(from);
+        long size = bucket.between(first, bucket.align(to)) + 1;
+        if (size > MAX_BUCKETS) {
+            throw new IllegalArgumentException("Series cannot contain more than " + MAX_BUCKETS + " buckets");
+        }
+        this.cents = new long[(int) size];
+        this.counts = new long[(int) size];
+    }
+
+    /**
+     * 累加一天（或一天内某个分组）的汇总，区间之外的日期忽略
+     */
+    public void add(LocalDate date, BigDecimal amount, long count) {
+        long index = bucket.between(first, bucket.align(date));
+        if (index < 0 || index >= cents.length) {
+            return;
+        }
+        int i = (int) index;
+        cents[i] = MoneyUtils.add(cents[i], MoneyUtils.toCents(amount));
+        counts[i] += count;
+    }
+
+    /**
+     * @return 按时间升序的全部区间，包含金额为0的区间
+     */
+    public List<SalesSeriesPoint> result() {
+        List<SalesSeriesPoint> result = new ArrayList<>(cents.length);
+        for (int i = 0; i < cents.length; i++) {
+            SalesSeriesPoint point = new SalesSeriesPoint();
+            point.setBucket(DateUtils.formatLocalDate(bucket.plus(first, i)));
+            point.setTotalAmount(MoneyUtils.fromCents(cents[i]));
+            point.setCount(counts[i]);
+            result.add(point);
+        }
+        return result;
+    }
+}
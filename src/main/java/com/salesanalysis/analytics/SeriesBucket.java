@@ -0,0 +1,72 @@
+package com.salesanalysis.analytics;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * 时间序列的区间粒度
+ */
+public enum SeriesBucket {
+    DAY,
+    WEEK, // 从周一开始
+    MONTH;
+
+    /**
+     * 包含 date 的区间的起始日
+     */
+    public LocalDate align(LocalDate date) {
+        switch (this) {
+            case WEEK:
+                return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH:
+                return date.withDayOfMonth(1);
+            default:
+                return date;
+        }
+    }
+
+    /**
+     * 两个已对齐的区间起始日之间相差的区间数
+     */
+    public long between(LocalDate alignedStart, LocalDate alignedDate) {
+        switch (this) {
+            case WEEK:
+                return ChronoUnit.DAYS.between(alignedStart, alignedDate) / 7;
+            case MONTH:
+                return ChronoUnit.MONTHS.between(alignedStart, alignedDate);
+            default:
+                return ChronoUnit.DAYS.between(alignedStart, alignedDate);
+        }
+    }
+
+    /**
+     * 已对齐的起始日之后第 n 个区间的起始日
+     */
+    public LocalDate plus(LocalDate alignedStart, long n) {
+        switch (this) {
+            case WEEK:
+                return alignedStart.plusWeeks(n);
+            case MONTH:
+                return alignedStart.plusMonths(n);
+            default:
+                return alignedStart.plusDays(n);
+        }
+    }
+
+    /**
+     * 解析请求参数（不区分大小写），为空时按日
+     */
+    public static SeriesBucket parse(String value) {
+        if (value == null || value.isEmpty()) {
+            return DAY;
+        }
+        for (SeriesBucket bucket : values()) {
+            if (bucket.name().equalsIgnoreCase(value)) {
+                return bucket;
+            }
+        }
+        throw new IllegalArgumentException("Parameter 'bucket' must be day, week or month: " + value);
+    }
+}
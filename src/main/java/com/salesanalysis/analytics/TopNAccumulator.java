@@ -0,0 +1,65 @@
+package com.salesanalysis.analytics;
+
+import com.salesanalysis.model.SalesRanking;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * 逐行接收已按 (分组, 名称) 汇总好的金额，每个分组只保留金额最大的前 N 项
+ * 每个分组一个容量为 N 的小顶堆，内存与分组数 × N 成正比，与输入行数无关
+ */
+public class TopNAccumulator {
+
+    // 金额升序，金额相同时名称靠后的排在前面，使堆顶总是下一个应被淘汰的项
+    private static final Comparator<SalesRanking> ASCENDING = Comparator
+            .comparing(SalesRanking::getTotalAmount)
+            .thenComparing(SalesRanking::getName, Comparator.nullsFirst(Comparator.<String>naturalOrder()).reversed());
+
+    private final int limit;
+    private final Map<String, PriorityQueue<SalesRanking>> heaps = new HashMap<>();
+
+    public TopNAccumulator(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        this.limit = limit;
+    }
+
+    /**
+     * 加入一项，同一 (分组, 名称) 只能出现一次
+     * @param item 分组值可以为 null（整体排名）
+     */
+    public void add(SalesRanking item) {
+        PriorityQueue<SalesRanking> heap = heaps.computeIfAbsent(item.getGroup(), g -> new PriorityQueue<>(limit + 1, ASCENDING));
+        if (heap.size() < limit) {
+            heap.add(item);
+        } else if (ASCENDING.compare(item, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(item);
+        }
+    }
+
+    /**
+     * @return 按分组值升序、组内按名次排列的结果，名次从1开始
+     */
+    public List<SalesRanking> result() {
+        Map<String, PriorityQueue<SalesRanking>> sorted = new TreeMap<>(Comparator.nullsFirst(Comparator.<String>naturalOrder()));
+        sorted.putAll(heaps);
+        List<SalesRanking> result = new ArrayList<>();
+        for (PriorityQueue<SalesRanking> heap : sorted.values()) {
+            List<SalesRanking> group = new ArrayList<>(heap);
+            group.sort(ASCENDING.reversed());
+            for (int i = 0; i < group.size(); i++) {
+                group.get(i).setRank(i + 1);
+            }
+            result.addAll(group);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,113 @@
+package com.salesanalysis.async;
+
+import com.salesanalysis.bulkhead.TrafficClass;
+import com.salesanalysis.bulkhead.TrafficContext;
+import com.salesanalysis.datasource.ReadRoutingTaskDecorator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Collections;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 分析类查询（全表读取、聚合、排名、时间序列）的有界执行器
+ * 控制器把这些阻塞的 MyBatis 调用提交到这里并返回 CompletableFuture，Tomcat 线程立即释放；
+ * 工作线程数默认为连接池大小的一半，慢查询最多同时占用这么多连接，其余连接留给按ID查询和写请求。
+ * 开启独立连接池时使用分析连接池；排队已满时抛出 ExecutorBusyException（503）；开启 sales.async.virtual-threads 且运行在 JDK 21+ 时工作线程为虚拟线程
+ */
+@Component
+public class AnalyticsExecutor implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsExecutor.class);
+
+    private final ThreadPoolExecutor executor;
+    private final TaskDecorator taskDecorator = new ReadRoutingTaskDecorator();
+
+    /**
+     * @param enabled 为 false 时在请求线程上直接执行
+     * @param threads 工作线程数，0 表示取连接池大小的一半
+     * @param queueCapacity 排队上限
+     * @param virtualThreads 工作线程是否使用虚拟线程
+     * @param poolSize 主库连接池大小
+     */
+    @Autowired
+    public AnalyticsExecutor(@Value("${sales.async.enabled:true}") boolean enabled,
+                             @Value("${sales.async.analytics-threads:0}") int threads,
+                             @Value("${sales.async.queue-capacity:100}") int queueCapacity,
+                             @Value("${sales.async.virtual-threads:false}") boolean virtualThreads,
+                             @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize) {
+        if (!enabled) {
+            this.executor = null;
+            return;
+        }
+        int workers = threads > 0 ? threads : Math.max(1, poolSize / 2);
+        ThreadFactory threadFactory = virtualThreads ? VirtualThreads.factory("sales-analytics-") : null;
+        if (virtualThreads && threadFactory == null) {
+            log.warn("Virtual threads require JDK 21+, analytics queries run on platform threads");
+        }
+        if (threadFactory == null) {
+            AtomicInteger threadCount = new AtomicInteger();
+            threadFactory = runnable -> {
+                Thread thread = new Thread(runnable, "sales-analytics-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 提交一个阻塞查询
+     * @param task 查询，执行线程沿用提交线程的读主库要求，流量类别为 ANALYTICS
+     * @return 查询结果，异常通过 future 传递
+     * @throws ExecutorBusyException 排队已满时抛出
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        if (executor == null) {
+            return CompletableFuture.completedFuture(task.get());
+        }
+        try {
+            return CompletableFuture.supplyAsync(task, runnable -> executor.execute(
+                    taskDecorator.decorate(TrafficContext.wrap(TrafficClass.ANALYTICS, runnable))));
+        } catch (RejectedExecutionException e) {
+            throw new ExecutorBusyException("Analytics queue is full, retry later");
+        }
+    }
+
+    /**
+     * 工作线程数，未启用时为0
+     */
+    public int getThreads() {
+        return executor != null ? executor.getMaximumPoolSize() : 0;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (executor != null) {
+            new ExecutorServiceMetrics(executor, "sales-analytics", Collections.emptyList()).bindTo(registry);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
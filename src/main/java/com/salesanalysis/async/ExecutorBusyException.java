@@ -0,0 +1,11 @@
+package com.salesanalysis.async;
+
+/**
+ * 执行器的工作线程和排队都已占满，控制器返回503并提示稍后重试
+ */
+public class ExecutorBusyException extends RuntimeException {
+
+    public ExecutorBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,87 @@
+package com.salesanalysis.bulkhead;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 一个流量类别的并发隔离舱：最多 maxConcurrent 个请求同时执行，
+ * 其余最多 maxQueued 个请求按到达顺序等待 maxWait，排队已满或等待超时即拒绝
+ */
+public class Bulkhead {
+
+    private final TrafficClass trafficClass;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final long maxWaitNanos;
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public Bulkhead(TrafficClass trafficClass, int maxConcurrent, int maxQueued, Duration maxWait) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("Bulkhead max-concurrent must be greater than zero: " + trafficClass);
+        }
+        this.trafficClass = trafficClass;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = Math.max(0, maxQueued);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * 申请执行许可，成功后必须调用 {@link #release()}
+     * @return 是否获得许可；排队已满或等待超时返回false
+     * @throws InterruptedException 等待期间线程被中断
+     */
+    public boolean tryAcquire() throws InterruptedException {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        if (waiting.incrementAndGet() > maxQueued) {
+            waiting.decrementAndGet();
+            rejected.incrementAndGet();
+            return false;
+        }
+        try {
+            if (permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+            rejected.incrementAndGet();
+            return false;
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public TrafficClass getTrafficClass() {
+        return trafficClass;
+    }
+
+    /**
+     * 正在执行的请求数
+     */
+    public int getActive() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    /**
+     * 正在排队的请求数
+     */
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    /**
+     * 累计拒绝的请求数
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+}
@@ -0,0 +1,178 @@
+package com.salesanalysis.bulkhead;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 按流量类别对 /api/sales 请求做准入控制：获得所属类别的许可后才进入控制器，
+ * 排队已满或等待超时立即返回503和 Retry-After，不占用连接池；
+ * 异步请求（分析查询、流式导出）在异步处理结束时才归还许可。长轮询 /changes 自带等待上限，不受限制
+ */
+public class BulkheadFilter extends OncePerRequestFilter implements MeterBinder {
+
+    static final String BASE_PATH = "/api/sales";
+
+    private final Map<TrafficClass, Bulkhead> bulkheads = new EnumMap<>(TrafficClass.class);
+    private final Map<TrafficClass, String> retryAfterSeconds = new EnumMap<>(TrafficClass.class);
+
+    public BulkheadFilter(BulkheadProperties properties) {
+        for (TrafficClass trafficClass : TrafficClass.values()) {
+            BulkheadProperties.Limit limit = properties.limitOf(trafficClass);
+            bulkheads.put(trafficClass, new Bulkhead(trafficClass, limit.getMaxConcurrent(),
+                    limit.getMaxQueued(), limit.getMaxWait()));
+            retryAfterSeconds.put(trafficClass, Long.toString(Math.max(1, limit.getRetryAfter().getSeconds())));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        TrafficClass trafficClass = classify(request.getMethod(),
+                request.getRequestURI().substring(request.getContextPath().length()));
+        if (trafficClass == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        Bulkhead bulkhead = bulkheads.get(trafficClass);
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            reject(response, trafficClass);
+            return;
+        }
+        TrafficContext.set(trafficClass);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            TrafficContext.clear();
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseListener(bulkhead));
+            } else {
+                bulkhead.release();
+            }
+        }
+    }
+
+    /**
+     * 按请求方法和路径判断流量类别
+     * @param method HTTP 方法
+     * @param path 去掉上下文路径后的请求路径
+     * @return 流量类别，不受限制的请求返回null
+     */
+    static TrafficClass classify(String method, String path) {
+        if (!path.startsWith(BASE_PATH)) {
+            return null;
+        }
+        String sub = path.substring(BASE_PATH.length());
+        if (!sub.isEmpty() && !sub.startsWith("/")) {
+            return null;
+        }
+        if (sub.equals("/changes")) {
+            return null;
+        }
+        if ("GET".equals(method) || "HEAD".equals(method)) {
+            if (sub.isEmpty() || sub.equals("/") || sub.equals("/stream") || sub.startsWith("/summary")
+                    || sub.equals("/top") || sub.equals("/series")) {
+                return TrafficClass.ANALYTICS;
+            }
+            return TrafficClass.CRUD;
+        }
+        if (sub.equals("/batch") || sub.equals("/bulk") || sub.startsWith("/imports")
+                || sub.equals("/rollup/rebuild") || sub.startsWith("/partitions")) {
+            return TrafficClass.BULK;
+        }
+        return TrafficClass.CRUD;
+    }
+
+    public Collection<Bulkhead> getBulkheads() {
+        return Collections.unmodifiableCollection(bulkheads.values());
+    }
+
+    Bulkhead bulkheadOf(TrafficClass trafficClass) {
+        return bulkheads.get(trafficClass);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Bulkhead bulkhead : bulkheads.values()) {
+            String name = bulkhead.getTrafficClass().name().toLowerCase();
+            Gauge.builder("sales.bulkhead.active", bulkhead, Bulkhead::getActive)
+                    .tag("class", name).register(registry);
+            Gauge.builder("sales.bulkhead.waiting", bulkhead, Bulkhead::getWaiting)
+                    .tag("class", name).register(registry);
+            FunctionCounter.builder("sales.bulkhead.rejected", bulkhead, Bulkhead::getRejected)
+                    .tag("class", name).register(registry);
+        }
+    }
+
+    private void reject(HttpServletResponse response, TrafficClass trafficClass) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds.get(trafficClass));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("Too many " + trafficClass.name().toLowerCase() + " requests, retry later");
+    }
+
+    /**
+     * 异步处理结束（完成、超时或出错）时归还许可，只归还一次
+     */
+    private static final class ReleaseListener implements AsyncListener {
+        private final Bulkhead bulkhead;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleaseListener(Bulkhead bulkhead) {
+            this.bulkhead = bulkhead;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                bulkhead.release();
+            }
+        }
+    }
+}
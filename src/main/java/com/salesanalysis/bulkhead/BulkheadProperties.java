@@ -0,0 +1,140 @@
+package com.salesanalysis.bulkhead;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 按流量类别隔离的配置（sales.bulkhead.*）
+ */
+@ConfigurationProperties(prefix = "sales.bulkhead")
+public class BulkheadProperties {
+
+    private boolean separatePools;
+    private Limit crud = new Limit(50, 100, Duration.ofMillis(100), Duration.ofSeconds(1), 0);
+    private Limit analytics = new Limit(8, 16, Duration.ofSeconds(2), Duration.ofSeconds(5), 4);
+    private Limit bulk = new Limit(2, 4, Duration.ofSeconds(5), Duration.ofSeconds(10), 2);
+
+    /**
+     * @param trafficClass 流量类别
+     * @return 该类别的限制
+     */
+    public Limit limitOf(TrafficClass trafficClass) {
+        switch (trafficClass) {
+            case ANALYTICS:
+                return analytics;
+            case BULK:
+                return bulk;
+            default:
+                return crud;
+        }
+    }
+
+    // getter and setter methods
+    public boolean isSeparatePools() {
+        return separatePools;
+    }
+
+    public void setSeparatePools(boolean separatePools) {
+        this.separatePools = separatePools;
+    }
+
+    public Limit getCrud() {
+        return crud;
+    }
+
+    public void setCrud(Limit crud) {
+        this.crud = crud;
+    }
+
+    public Limit getAnalytics() {
+        return analytics;
+    }
+
+    public void setAnalytics(Limit analytics) {
+        this.analytics = analytics;
+    }
+
+    public Limit getBulk() {
+        return bulk;
+    }
+
+    public void setBulk(Limit bulk) {
+        this.bulk = bulk;
+    }
+
+    /**
+     * 单个流量类别的并发上限、排队上限、最长排队时间、拒绝时建议的重试间隔，
+     * 以及独立连接池的大小（CRUD 沿用 spring.datasource.hikari）
+     */
+    public static class Limit {
+        private int maxConcurrent;
+        private int maxQueued;
+        private Duration maxWait;
+        private Duration retryAfter;
+        private int poolSize;
+
+        public Limit() {
+        }
+
+        public Limit(int maxConcurrent, int maxQueued, Duration maxWait, Duration retryAfter, int poolSize) {
+            this.maxConcurrent = maxConcurrent;
+            this.maxQueued = maxQueued;
+            this.maxWait = maxWait;
+            this.retryAfter = retryAfter;
+            this.poolSize = poolSize;
+        }
+
+        // getter and setter methods
+        public int getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public int getMaxQueued() {
+            return maxQueued;
+        }
+
+        public void setMaxQueued(int maxQueued) {
+            this.maxQueued = maxQueued;
+        }
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+
+        public Duration getRetryAfter() {
+            return retryAfter;
+        }
+
+        public void setRetryAfter(Duration retryAfter) {
+            this.retryAfter = retryAfter;
+        }
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public void setPoolSize(int poolSize) {
+            this.poolSize = poolSize;
+        }
+
+        @Override
+        public String toString() {
+            return "Limit{" +
+                    "maxConcurrent=" + maxConcurrent +
+                    ", maxQueued=" + maxQueued +
+                    ", maxWait=" + maxWait +
+                    ", retryAfter=" + retryAfter +
+                    ", poolSize=" + poolSize +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.salesanalysis.bulkhead;
+
+/**
+ * 请求的流量类别，每类有独立的并发上限，开启 sales.bulkhead.separate-pools 时还有独立的连接池
+ */
+public enum TrafficClass {
+    /** 单条记录的查询、新增、更新、删除和游标分页 */
+    CRUD,
+    /** 全表读取、流式导出、聚合、排名和时间序列 */
+    ANALYTICS,
+    /** 批量导入、批量更新删除、重建汇总表和分区维护 */
+    BULK
+}
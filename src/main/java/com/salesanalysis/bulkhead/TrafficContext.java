@@ -0,0 +1,54 @@
+package com.salesanalysis.bulkhead;
+
+/**
+ * 当前线程所属的流量类别，由 {@link BulkheadFilter} 设置，数据源据此选择连接池
+ */
+public final class TrafficContext {
+
+    private static final ThreadLocal<TrafficClass> CURRENT = new ThreadLocal<>();
+
+    private TrafficContext() {
+    }
+
+    /**
+     * @return 当前线程的流量类别，未设置时返回null
+     */
+    public static TrafficClass current() {
+        return CURRENT.get();
+    }
+
+    public static void set(TrafficClass trafficClass) {
+        CURRENT.set(trafficClass);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * 把提交线程的流量类别带到执行线程
+     */
+    public static Runnable wrap(Runnable runnable) {
+        TrafficClass trafficClass = current();
+        return trafficClass != null ? wrap(trafficClass, runnable) : runnable;
+    }
+
+    /**
+     * 以指定的流量类别执行，执行完恢复执行线程原来的类别
+     */
+    public static Runnable wrap(TrafficClass trafficClass, Runnable runnable) {
+        return () -> {
+            TrafficClass previous = current();
+            set(trafficClass);
+            try {
+                runnable.run();
+            } finally {
+                if (previous != null) {
+                    set(previous);
+                } else {
+                    clear();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,371 @@
+package com.salesanalysis.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.salesanalysis.model.Sales;
+import com.salesanalysis.model.SalesCacheStats;
+import com.salesanalysis.model.SalesRollupDelta;
+import com.salesanalysis.model.SalesSummary;
+import com.salesanalysis.service.SalesChangeListener;
+import com.salesanalysis.util.DateUtils;
+import com.salesanalysis.util.RollupDeltaUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 销售数据本地读缓存（Caffeine），分别缓存按ID查询和聚合查询的结果
+ * 写入提交后只失效受影响的汇总键：遍历已缓存的过滤条件，与变更记录的 (日期, 产品, 区域) 逐一匹配；
+ * 排在其他变更监听器之后执行，保证失效时列式引擎等派生数据已经更新；
+ * 命中率等统计通过 MeterBinder 导出为 cache.* 指标（标签 cache=sales-by-id / sales-summary）
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class SalesReadCache implements SalesChangeListener, MeterBinder {
+
+    static final String BY_ID = "sales-by-id";
+    static final String SUMMARY = "sales-summary";
+
+    private final boolean enabled;
+    private final Cache<Integer, Sales> byId;
+    private final Cache<SummaryKey, List<SalesSummary>> summaries;
+    // 每次失效递增，加载期间发生过失效的结果写入缓存后立即移除，避免缓存提交前读到的旧数据
+    private final AtomicLong invalidations = new AtomicLong();
+    private final AtomicLong byIdInvalidations = new AtomicLong();
+    private final AtomicLong summaryInvalidations = new AtomicLong();
+    // 读写分离时副本可能落后于主库：失效后这段时间内加载的结果只返回不缓存
+    private final long replicaLagNanos;
+    private volatile long lastInvalidationNanos;
+
+    public SalesReadCache(boolean enabled, long byIdMaxSize, Duration byIdTtl, long summaryMaxSize, Duration summaryTtl) {
+        this(enabled, byIdMaxSize, byIdTtl, summaryMaxSize, summaryTtl, Duration.ZERO);
+    }
+
+    @Autowired
+    public SalesReadCache(@Value("${sales.cache.enabled:true}") boolean enabled,
+                          @Value("${sales.cache.by-id.max-size:10000}") long byIdMaxSize,
+                          @Value("${sales.cache.by-id.ttl:10m}") Duration byIdTtl,
+                          @Value("${sales.cache.summary.max-size:1000}") long summaryMaxSize,
+                          @Value("${sales.cache.summary.ttl:5m}") Duration summaryTtl,
+                          @Value("${sales.cache.replica-lag:0ms}") Duration replicaLag) {
+        this.enabled = enabled;
+        this.replicaLagNanos = replicaLag.toNanos();
+        this.lastInvalidationNanos = System.nanoTime() - replicaLagNanos;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(byIdMaxSize)
+                .expireAfterWrite(byIdTtl)
+                .recordStats()
+                .build();
+        this.summaries = Caffeine.newBuilder()
+                .maximumSize(summaryMaxSize)
+                .expireAfterWrite(summaryTtl)
+                .recordStats()
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 按ID读取销售记录，未命中时调用 loader 加载；不存在的记录不缓存
+     * @param id 销售记录ID
+     * @param loader 数据库加载函数
+     * @return 销售记录，不存在时返回null
+     */
+    public Sales getById(Integer id, Function<Integer, Sales> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+        Sales cached = byId.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+        long version = invalidations.get();
+        boolean cacheable = outsideReplicaLag();
+        Sales loaded = loader.apply(id);
+        if (loaded != null && cacheable) {
+            byId.put(id, loaded);
+            if (invalidations.get() != version) {
+                byId.invalidate(id);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * 读取聚合查询结果，未命中时调用 loader 查询；过滤条件中的空串视为不限
+     * @param loader 聚合查询函数
+     * @return 不可修改的汇总列表
+     */
+    public List<SalesSummary> getSummary(String date, String from, String to, String product, String region,
+                                         Supplier<List<SalesSummary>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        SummaryKey key = new SummaryKey(date, from, to, product, region);
+        List<SalesSummary> cached = summaries.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long version = invalidations.get();
+        boolean cacheable = outsideReplicaLag();
+        List<SalesSummary> loaded = Collections.unmodifiableList(new ArrayList<>(loader.get()));
+        if (cacheable) {
+            summaries.put(key, loaded);
+            if (invalidations.get() != version) {
+                summaries.invalidate(key);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * 清空所有汇总缓存
+     */
+    public void invalidateAllSummaries() {
+        markInvalidated();
+        summaryInvalidations.addAndGet(summaries.estimatedSize());
+        summaries.invalidateAll();
+    }
+
+    /**
+     * 缓存统计
+     * @return 按ID缓存和汇总缓存的命中、未命中、淘汰与失效计数
+     */
+    public List<SalesCacheStats> stats() {
+        return Arrays.asList(toStats(BY_ID, byId, byIdInvalidations.get()),
+                toStats(SUMMARY, summaries, summaryInvalidations.get()));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, byId, BY_ID);
+        CaffeineCacheMetrics.monitor(registry, summaries, SUMMARY);
+    }
+
+    Cache<Integer, Sales> byIdCache() {
+        return byId;
+    }
+
+    Cache<SummaryKey, List<SalesSummary>> summaryCache() {
+        return summaries;
+    }
+
+    /**
+     * 汇总缓存为空时不需要旧记录：此时缓存中没有可精确失效的键，回调时旧值未知只会清空一个空缓存
+     */
+    @Override
+    public boolean needsPreviousRows() {
+        return enabled && summaries.estimatedSize() > 0;
+    }
+
+    @Override
+    public void onSalesInserted(List<Sales> salesList) {
+        invalidateSummaries(RollupDeltaUtils.forInserted(salesList));
+    }
+
+    @Override
+    public void onSalesUpdated(Sales previous, Sales current) {
+        Sales before = previous != null ? previous : byId.getIfPresent(current.getId());
+        invalidateById(current.getId());
+        if (before == null) {
+            // 不知道更新前的分组，无法精确失效
+            invalidateAllSummaries();
+        } else {
+            invalidateSummaries(RollupDeltaUtils.forUpdated(before, current));
+        }
+    }
+
+    @Override
+    public void onSalesDeleted(Integer id, Sales previous) {
+        Sales before = previous != null ? previous : byId.getIfPresent(id);
+        invalidateById(id);
+        if (before == null) {
+            invalidateAllSummaries();
+        } else {
+            invalidateSummaries(RollupDeltaUtils.forDeleted(before));
+        }
+    }
+
+    /**
+     * 批量更新只遍历一次汇总键；任一条旧值未知时整体失效
+     */
+    @Override
+    public void onSalesBulkUpdated(List<Sales> previous, List<Sales> current) {
+        List<SalesRollupDelta> groups = new ArrayList<>(current.size() * 2);
+        boolean unknown = false;
+        for (int i = 0; i < current.size(); i++) {
+            Sales before = previous.get(i) != null ? previous.get(i) : byId.getIfPresent(current.get(i).getId());
+            invalidateById(current.get(i).getId());
+            if (before == null) {
+                unknown = true;
+            } else {
+                groups.addAll(RollupDeltaUtils.forUpdated(before, current.get(i)));
+            }
+        }
+        if (unknown) {
+            invalidateAllSummaries();
+        } else {
+            invalidateSummaries(groups);
+        }
+    }
+
+    @Override
+    public void onSalesBulkDeleted(List<Integer> ids, List<Sales> previous) {
+        List<SalesRollupDelta> groups = new ArrayList<>(ids.size());
+        boolean unknown = false;
+        for (int i = 0; i < ids.size(); i++) {
+            Sales before = previous.get(i) != null ? previous.get(i) : byId.getIfPresent(ids.get(i));
+            invalidateById(ids.get(i));
+            if (before == null) {
+                unknown = true;
+            } else {
+                groups.addAll(RollupDeltaUtils.forDeleted(before));
+            }
+        }
+        if (unknown) {
+            invalidateAllSummaries();
+        } else {
+            invalidateSummaries(groups);
+        }
+    }
+
+    @Override
+    public void onSalesRollupRebuilt(String from, String to) {
+        invalidateAllSummaries();
+    }
+
+    @Override
+    public void onSalesExpired(LocalDate before) {
+        // 过期记录的ID未知，按ID缓存也全部清空
+        markInvalidated();
+        byIdInvalidations.addAndGet(byId.estimatedSize());
+        byId.invalidateAll();
+        invalidateAllSummaries();
+    }
+
+    private void invalidateById(Integer id) {
+        markInvalidated();
+        if (byId.asMap().remove(id) != null) {
+            byIdInvalidations.incrementAndGet();
+        }
+    }
+
+    /**
+     * 只失效过滤条件与任一变更分组匹配的汇总键
+     */
+    private void invalidateSummaries(List<SalesRollupDelta> groups) {
+        if (groups.isEmpty()) {
+            return;
+        }
+        List<String[]> changed = new ArrayList<>(groups.size());
+        for (SalesRollupDelta group : groups) {
+            changed.add(new String[]{DateUtils.formatLocalDate(group.getSaleDate()), group.getProduct(), group.getRegion()});
+        }
+        markInvalidated();
+        for (SummaryKey key : summaries.asMap().keySet()) {
+            for (String[] group : changed) {
+                if (key.matches(group[0], group[1], group[2])) {
+                    if (summaries.asMap().remove(key) != null) {
+                        summaryInvalidations.incrementAndGet();
+                    }
+                    break;
+                }
+            }
+        }
+    }
+
+    private void markInvalidated() {
+        invalidations.incrementAndGet();
+        lastInvalidationNanos = System.nanoTime();
+    }
+
+    private boolean outsideReplicaLag() {
+        return replicaLagNanos <= 0 || System.nanoTime() - lastInvalidationNanos >= replicaLagNanos;
+    }
+
+    private static SalesCacheStats toStats(String name, Cache<?, ?> cache, long invalidationCount) {
+        CacheStats stats = cache.stats();
+        SalesCacheStats result = new SalesCacheStats();
+        result.setName(name);
+        result.setSize(cache.estimatedSize());
+        result.setHitCount(stats.hitCount());
+        result.setMissCount(stats.missCount());
+        result.setHitRate(stats.hitRate());
+        result.setEvictionCount(stats.evictionCount());
+        result.setInvalidationCount(invalidationCount);
+        return result;
+    }
+
+    /**
+     * 规范化后的聚合过滤条件，null 表示不限
+     */
+    static final class SummaryKey {
+        private final String date;
+        private final String from;
+        private final String to;
+        private final String product;
+        private final String region;
+
+        SummaryKey(String date, String from, String to, String product, String region) {
+            this.date = normalize(date);
+            this.from = normalize(from);
+            this.to = normalize(to);
+            this.product = normalize(product);
+            this.region = normalize(region);
+        }
+
+        /**
+         * 判断某个 (日期, 产品, 区域) 分组的变更是否会影响该过滤条件的结果
+         */
+        boolean matches(String saleDate, String saleProduct, String saleRegion) {
+            return (date == null || date.equals(saleDate))
+                    && (from == null || from.compareTo(saleDate) <= 0)
+                    && (to == null || to.compareTo(saleDate) >= 0)
+                    && (product == null || product.equals(saleProduct))
+                    && (region == null || region.equals(saleRegion));
+        }
+
+        // 与 SalesMapper.xml 的 <if test="x != null and x != ''"> 一致：空串等同于不限
+        private static String normalize(String value) {
+            return value == null || value.isEmpty() ? null : value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SummaryKey)) {
+                return false;
+            }
+            SummaryKey that = (SummaryKey) o;
+            return Objects.equals(date, that.date) && Objects.equals(from, that.from)
+                    && Objects.equals(to, that.to) && Objects.equals(product, that.product)
+                    && Objects.equals(region, that.region);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(date, from, to, product, region);
+        }
+    }
+}
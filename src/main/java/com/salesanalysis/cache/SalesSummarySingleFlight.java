@@ -0,0 +1,199 @@
+package com.salesanalysis.cache;
+
+import com.salesanalysis.cache.SalesReadCache.SummaryKey;
+import com.salesanalysis.model.Sales;
+import com.salesanalysis.model.SalesSummary;
+import com.salesanalysis.service.SalesChangeListener;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 聚合查询合并执行（single-flight）：相同过滤条件的并发请求只执行一次查询，其余请求等待并共用结果
+ * 每次写入提交后递增版本号，之后到达的请求不再加入提交前开始的查询；
+ * result-ttl 大于0时，完成的结果在该时间内继续复用（版本号不变的前提下）。
+ * 排在读缓存之前收到变更通知，读缓存失效后重新加载时不会拿到提交前的结果
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class SalesSummarySingleFlight implements SalesChangeListener, MeterBinder {
+
+    private final boolean enabled;
+    private final long resultTtlNanos;
+    private final AtomicLong version = new AtomicLong();
+    private final ConcurrentHashMap<SummaryKey, Flight> flights = new ConcurrentHashMap<>();
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong shared = new AtomicLong();
+
+    @Autowired
+    public SalesSummarySingleFlight(@Value("${sales.cache.single-flight.enabled:true}") boolean enabled,
+                                    @Value("${sales.cache.single-flight.result-ttl:0ms}") Duration resultTtl) {
+        this.enabled = enabled;
+        this.resultTtlNanos = resultTtl.toNanos();
+    }
+
+    /**
+     * 执行聚合查询，相同过滤条件的查询正在执行时等待其结果；过滤条件中的空串视为不限
+     * @param loader 聚合查询函数，只在当前请求负责执行时调用
+     * @return 不可修改的汇总列表
+     */
+    public List<SalesSummary> execute(String date, String from, String to, String product, String region,
+                                      Supplier<List<SalesSummary>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        SummaryKey key = new SummaryKey(date, from, to, product, region);
+        long current = version.get();
+        Flight flight = new Flight(current);
+        while (true) {
+            Flight existing = flights.putIfAbsent(key, flight);
+            if (existing == null) {
+                break;
+            }
+            if (existing.reusable(current, resultTtlNanos)) {
+                shared.incrementAndGet();
+                return existing.await();
+            }
+            if (flights.replace(key, existing, flight)) {
+                break;
+            }
+        }
+
+        executions.incrementAndGet();
+        try {
+            List<SalesSummary> result = Collections.unmodifiableList(new ArrayList<>(loader.get()));
+            flight.complete(result);
+            if (resultTtlNanos <= 0) {
+                flights.remove(key, flight);
+            }
+            return result;
+        } catch (RuntimeException | Error e) {
+            // 失败的结果只交给已在等待的请求，之后的请求重新查询
+            flights.remove(key, flight);
+            flight.future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * 实际执行查询的次数
+     */
+    public long getExecutions() {
+        return executions.get();
+    }
+
+    /**
+     * 共用其他请求结果的次数
+     */
+    public long getShared() {
+        return shared.get();
+    }
+
+    int inFlight() {
+        return flights.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("sales.summary.singleflight", executions, AtomicLong::get)
+                .tag("result", "executed").register(registry);
+        FunctionCounter.builder("sales.summary.singleflight", shared, AtomicLong::get)
+                .tag("result", "shared").register(registry);
+    }
+
+    @Override
+    public void onSalesInserted(List<Sales> salesList) {
+        bumpVersion();
+    }
+
+    @Override
+    public void onSalesUpdated(Sales previous, Sales current) {
+        bumpVersion();
+    }
+
+    @Override
+    public void onSalesDeleted(Integer id, Sales previous) {
+        bumpVersion();
+    }
+
+    @Override
+    public void onSalesRollupRebuilt(String from, String to) {
+        bumpVersion();
+    }
+
+    @Override
+    public void onSalesExpired(LocalDate before) {
+        bumpVersion();
+    }
+
+    /**
+     * 旧版本的条目在下次同键请求时替换；保留了结果的条目一并清除，释放内存
+     */
+    private void bumpVersion() {
+        version.incrementAndGet();
+        if (resultTtlNanos > 0) {
+            flights.values().removeIf(flight -> flight.future.isDone());
+        }
+    }
+
+    /**
+     * 一次正在执行或已完成的查询
+     */
+    private static final class Flight {
+        private final long version;
+        private final CompletableFuture<List<SalesSummary>> future = new CompletableFuture<>();
+        private volatile long completedAtNanos;
+
+        Flight(long version) {
+            this.version = version;
+        }
+
+        void complete(List<SalesSummary> result) {
+            completedAtNanos = System.nanoTime();
+            future.complete(result);
+        }
+
+        /**
+         * 版本不早于请求到达时的版本，且仍在执行或结果未过期
+         */
+        boolean reusable(long currentVersion, long ttlNanos) {
+            if (version < currentVersion) {
+                return false;
+            }
+            if (!future.isDone()) {
+                return true;
+            }
+            return !future.isCompletedExceptionally() && System.nanoTime() - completedAtNanos < ttlNanos;
+        }
+
+        List<SalesSummary> await() {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw e;
+            }
+        }
+    }
+}
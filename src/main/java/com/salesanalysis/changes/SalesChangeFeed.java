@@ -0,0 +1,243 @@
+package com.salesanalysis.changes;
+
+import com.salesanalysis.datasource.ReplicaRead;
+import com.salesanalysis.mapper.SalesMapper;
+import com.salesanalysis.model.Sales;
+import com.salesanalysis.model.SalesChange;
+import com.salesanalysis.model.SalesChangePage;
+import com.salesanalysis.service.SalesChangeListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 销售记录增量变更订阅（读取 sales_changes 变更日志）
+ * 没有新变更时可以长轮询：本实例提交的变更通过变更监听器立即唤醒等待方，
+ * 其他实例提交的变更按 poll-interval 重新查询发现；同时等待的请求数有上限，超出时立即返回空结果。
+ * 变更日志按 retention 定期清理，since 之后已有变更被清理时返回 resetRequired，由消费方重新全量同步
+ */
+@Component
+public class SalesChangeFeed implements SalesChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SalesChangeFeed.class);
+
+    private static final int DEFAULT_LIMIT = 100; // 默认每次返回的变更数
+    private static final int MAX_LIMIT = 1000; // 每次返回的变更数上限
+    private static final int PURGE_BATCH_SIZE = 10000; // 清理时每条 DELETE 删除的行数
+
+    private final SalesMapper salesMapper;
+    private final long maxWaitMillis;
+    private final long pollIntervalMillis;
+    private final int maxWaiters;
+    private final Duration retention;
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final ScheduledExecutorService scheduler;
+
+    private final Object monitor = new Object();
+    // 本实例每提交一次变更递增，由 monitor 保护
+    private long signals;
+
+    @Autowired
+    public SalesChangeFeed(SalesMapper salesMapper,
+                           @Value("${sales.changes.max-wait:30s}") Duration maxWait,
+                           @Value("${sales.changes.poll-interval:1s}") Duration pollInterval,
+                           @Value("${sales.changes.max-waiters:64}") int maxWaiters,
+                           @Value("${sales.changes.retention:7d}") Duration retention) {
+        this.salesMapper = salesMapper;
+        this.maxWaitMillis = maxWait.toMillis();
+        this.pollIntervalMillis = Math.max(1, pollInterval.toMillis());
+        this.maxWaiters = maxWaiters;
+        this.retention = retention;
+        this.scheduler = retention.isZero() ? null : Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sales-changes-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 应用启动完成后开始按小时清理过期的变更日志
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startPurging() {
+        if (scheduler != null) {
+            scheduler.scheduleWithFixedDelay(this::purgeQuietly, 1, 60, TimeUnit.MINUTES);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 查询 since 之后的变更，没有新变更时最多等待 waitSeconds 秒
+     * @param since 上次读到的最后一个序号，首次传0
+     * @param limit 最多返回的变更数，默认100，最大1000
+     * @param waitSeconds 长轮询等待秒数，不传或0表示立即返回，超过 max-wait 时按 max-wait 等待
+     * @return 按序号升序的变更，nextSince 为下次请求的 since；
+     *         since 之后的变更已被清理时 resetRequired 为 true、不返回变更，nextSince 为当前最大序号
+     */
+    @ReplicaRead
+    public SalesChangePage changesSince(Long since, Integer limit, Integer waitSeconds) {
+        long from = since != null ? since : 0L;
+        if (from < 0) {
+            throw new IllegalArgumentException("Parameter 'since' must not be negative");
+        }
+        int size = limit != null ? limit : DEFAULT_LIMIT;
+        if (size <= 0) {
+            throw new IllegalArgumentException("Limit must be greater than zero");
+        }
+        size = Math.min(size, MAX_LIMIT);
+        if (waitSeconds != null && waitSeconds < 0) {
+            throw new IllegalArgumentException("Parameter 'wait' must not be negative");
+        }
+        long waitMillis = waitSeconds != null ? Math.min(TimeUnit.SECONDS.toMillis(waitSeconds), maxWaitMillis) : 0L;
+
+        List<SalesChange> rows = awaitChanges(from, size, waitMillis);
+        // 读取之后再检查：读取前已被清理的变更一定小于此时的最小序号；
+        // 自增序号因回滚留下的空洞只会导致多一次全量同步，不会漏掉变更
+        Long oldest = salesMapper.minChangeSeq();
+        if (oldest != null && from < oldest - 1) {
+            return resetPage(from);
+        }
+        // 多查一条用于判断是否还有更多变更
+        boolean hasMore = rows.size() > size;
+        List<SalesChange> items = hasMore ? rows.subList(0, size) : rows;
+
+        SalesChangePage page = new SalesChangePage();
+        page.setItems(items);
+        page.setHasMore(hasMore);
+        page.setNextSince(items.isEmpty() ? from : items.get(items.size() - 1).getSeq());
+        return page;
+    }
+
+    /**
+     * 删除超过保留期的变更日志，序号最大的一行始终保留
+     * @return 删除的行数
+     */
+    public long purge() {
+        if (retention.isZero()) {
+            return 0;
+        }
+        Long newest = salesMapper.maxChangeSeq();
+        if (newest == null) {
+            return 0;
+        }
+        LocalDateTime before = LocalDateTime.now().minus(retention);
+        long total = 0;
+        int deleted;
+        do {
+            deleted = salesMapper.purgeChanges(before, newest, PURGE_BATCH_SIZE);
+            total += deleted;
+        } while (deleted == PURGE_BATCH_SIZE);
+        if (total > 0) {
+            log.info("Purged {} sales changes before {}", total, before);
+        }
+        return total;
+    }
+
+    private SalesChangePage resetPage(long from) {
+        Long newest = salesMapper.maxChangeSeq();
+        SalesChangePage page = new SalesChangePage();
+        page.setItems(Collections.emptyList());
+        page.setResetRequired(true);
+        page.setNextSince(newest != null ? newest : from);
+        return page;
+    }
+
+    int waiting() {
+        return waiters.get();
+    }
+
+    private List<SalesChange> awaitChanges(long from, int size, long waitMillis) {
+        long observed = currentSignals();
+        List<SalesChange> rows = salesMapper.findChangesSince(from, size + 1);
+        if (!rows.isEmpty() || waitMillis <= 0) {
+            return rows;
+        }
+        if (waiters.incrementAndGet() > maxWaiters) {
+            waiters.decrementAndGet();
+            return rows;
+        }
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitMillis);
+            while (rows.isEmpty()) {
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMillis <= 0) {
+                    break;
+                }
+                synchronized (monitor) {
+                    if (signals == observed) {
+                        monitor.wait(Math.min(remainingMillis, pollIntervalMillis));
+                    }
+                    observed = signals;
+                }
+                rows = salesMapper.findChangesSince(from, size + 1);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            waiters.decrementAndGet();
+        }
+        return rows;
+    }
+
+    private long currentSignals() {
+        synchronized (monitor) {
+            return signals;
+        }
+    }
+
+    private void signal() {
+        synchronized (monitor) {
+            signals++;
+            monitor.notifyAll();
+        }
+    }
+
+    private void purgeQuietly() {
+        try {
+            purge();
+        } catch (RuntimeException e) {
+            log.warn("Failed to purge sales changes", e);
+        }
+    }
+
+    @Override
+    public void onSalesInserted(List<Sales> salesList) {
+        signal();
+    }
+
+    @Override
+    public void onSalesUpdated(Sales previous, Sales current) {
+        signal();
+    }
+
+    @Override
+    public void onSalesDeleted(Integer id, Sales previous) {
+        signal();
+    }
+
+    @Override
+    public void onSalesExpired(LocalDate before) {
+        signal();
+    }
+}
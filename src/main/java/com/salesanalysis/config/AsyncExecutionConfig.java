@@ -0,0 +1,30 @@
+package com.salesanalysis.config;
+
+import com.salesanalysis.async.VirtualThreads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 虚拟线程模式，sales.async.virtual-threads=true 且运行在 JDK 21+ 时启用
+ * Tomcat 为每个请求创建一个虚拟线程，阻塞在 JDBC 上的请求不再占用平台线程；
+ * 能同时访问数据库的请求数仍由连接池和 AnalyticsExecutor 限制
+ */
+@Configuration
+@ConditionalOnProperty(name = "sales.async.virtual-threads", havingValue = "true")
+public class AsyncExecutionConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncExecutionConfig.class);
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        if (!VirtualThreads.isSupported()) {
+            log.warn("Virtual threads require JDK 21+, Tomcat keeps its platform thread pool");
+            return protocolHandler -> { };
+        }
+        return protocolHandler -> protocolHandler.setExecutor(VirtualThreads.newPerTaskExecutor());
+    }
+}
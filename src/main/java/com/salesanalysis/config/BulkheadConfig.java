@@ -0,0 +1,96 @@
+package com.salesanalysis.config;
+
+import com.salesanalysis.bulkhead.BulkheadFilter;
+import com.salesanalysis.bulkhead.BulkheadProperties;
+import com.salesanalysis.bulkhead.TrafficContext;
+import com.salesanalysis.datasource.ReadRoutingTaskDecorator;
+import com.salesanalysis.datasource.TrafficClassRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * 按流量类别（CRUD、分析、批量写入）隔离，sales.bulkhead.enabled=true 时启用
+ * 每类有独立的并发和排队上限；sales.bulkhead.separate-pools=true 时分析和批量写入另建连接池
+ */
+@Configuration
+@ConditionalOnProperty(name = "sales.bulkhead.enabled", havingValue = "true")
+@EnableConfigurationProperties(BulkheadProperties.class)
+public class BulkheadConfig {
+
+    @Bean
+    public BulkheadFilter bulkheadFilter(BulkheadProperties properties) {
+        return new BulkheadFilter(properties);
+    }
+
+    @Bean
+    public FilterRegistrationBean<BulkheadFilter> bulkheadFilterRegistration(BulkheadFilter bulkheadFilter) {
+        FilterRegistrationBean<BulkheadFilter> registration = new FilterRegistrationBean<>(bulkheadFilter);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    /**
+     * Spring MVC 异步任务（流式导出）沿用请求线程的流量类别和读主库要求
+     * Boot 会把唯一的 TaskDecorator 装配到 applicationTaskExecutor 上
+     */
+    @Bean
+    public TaskDecorator requestContextTaskDecorator() {
+        ReadRoutingTaskDecorator readRouting = new ReadRoutingTaskDecorator();
+        return runnable -> readRouting.decorate(TrafficContext.wrap(runnable));
+    }
+
+    /**
+     * 独立连接池，启用读写分离时不生效（分析查询已经分配到副本连接池）
+     */
+    @Configuration
+    @ConditionalOnExpression("${sales.bulkhead.separate-pools:false} and !${sales.datasource.routing.enabled:false}")
+    static class SeparatePoolsConfig {
+
+        @Bean
+        @ConfigurationProperties("spring.datasource.hikari")
+        public HikariDataSource crudDataSource(DataSourceProperties properties) {
+            HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+            dataSource.setPoolName("crud");
+            return dataSource;
+        }
+
+        @Bean
+        public HikariDataSource analyticsDataSource(DataSourceProperties properties, BulkheadProperties bulkheadProperties) {
+            return pool(properties, "analytics", bulkheadProperties.getAnalytics().getPoolSize());
+        }
+
+        @Bean
+        public HikariDataSource bulkDataSource(DataSourceProperties properties, BulkheadProperties bulkheadProperties) {
+            return pool(properties, "bulk", bulkheadProperties.getBulk().getPoolSize());
+        }
+
+        @Bean
+        @Primary
+        public TrafficClassRoutingDataSource dataSource(HikariDataSource crudDataSource,
+                                                        HikariDataSource analyticsDataSource,
+                                                        HikariDataSource bulkDataSource) {
+            return new TrafficClassRoutingDataSource(crudDataSource, analyticsDataSource, bulkDataSource);
+        }
+
+        private static HikariDataSource pool(DataSourceProperties properties, String name, int poolSize) {
+            if (poolSize <= 0) {
+                throw new IllegalStateException("sales.bulkhead." + name + ".pool-size must be greater than zero");
+            }
+            HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+            dataSource.setPoolName(name);
+            dataSource.setMaximumPoolSize(poolSize);
+            dataSource.setMinimumIdle(Math.min(2, poolSize));
+            return dataSource;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.salesanalysis.config;
+
+import com.salesanalysis.datasource.ReadWriteRoutingDataSource;
+import com.salesanalysis.datasource.ReadYourWritesFilter;
+import com.salesanalysis.datasource.ReplicaDataSourceProperties;
+import com.salesanalysis.datasource.ReplicaReadAspect;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 读写分离配置，sales.datasource.routing.enabled=true 时启用
+ * 主库连接池沿用 spring.datasource；sales.datasource.replicas 中的每个副本各建一个只读连接池
+ */
+@Configuration
+@ConditionalOnProperty(name = "sales.datasource.routing.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public ReadWriteRoutingDataSource dataSource(HikariDataSource primaryDataSource, DataSourceProperties properties,
+                                                 ReplicaDataSourceProperties replicaProperties) {
+        List<DataSource> replicas = new ArrayList<>();
+        List<ReplicaDataSourceProperties.Replica> configured = replicaProperties.getReplicas();
+        for (int i = 0; i < configured.size(); i++) {
+            ReplicaDataSourceProperties.Replica replica = configured.get(i);
+            if (replica.getUrl() == null || replica.getUrl().isEmpty()) {
+                throw new IllegalStateException("sales.datasource.replicas[" + i + "].url must be set");
+            }
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + i);
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setDriverClassName(properties.determineDriverClassName());
+            dataSource.setUsername(replica.getUsername() != null ? replica.getUsername() : properties.determineUsername());
+            dataSource.setPassword(replica.getPassword() != null ? replica.getPassword() : properties.determinePassword());
+            dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+            dataSource.setReadOnly(true);
+            replicas.add(dataSource);
+        }
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicas);
+    }
+
+    /**
+     * 副本连接池不是容器中的Bean，Boot 不会自动导出其 hikaricp.* 指标，这里单独绑定
+     * 连接池在首次取连接时才启动，注册表初始化时绑定不会错过指标
+     */
+    @Bean
+    public MeterBinder replicaPoolMetrics(ReadWriteRoutingDataSource dataSource) {
+        return registry -> {
+            for (DataSource replica : dataSource.getReplicas()) {
+                if (replica instanceof HikariDataSource) {
+                    ((HikariDataSource) replica).setMetricRegistry(registry);
+                }
+            }
+        };
+    }
+
+    @Bean
+    public ReplicaReadAspect replicaReadAspect() {
+        return new ReplicaReadAspect();
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReplicaDataSourceProperties replicaProperties) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(replicaProperties.getReadYourWritesWindow()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,43 @@
+package com.salesanalysis.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.salesanalysis.web.ColumnarJsonHttpMessageConverter;
+import com.salesanalysis.web.NdjsonHttpMessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * 大列表响应的紧凑编码，客户端通过 Accept 选择：
+ * application/x-ndjson（逐行JSON）、application/x-columnar-json（列式数组）、application/cbor（二进制）
+ * 追加在转换器列表末尾，Accept 未指定或为通配时仍返回 application/json
+ */
+@Configuration
+public class ResponseEncodingConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+
+    public ResponseEncodingConfig(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 替换默认的 CBOR 转换器，使用与 JSON 相同的 Jackson 配置（如日期写成 "2023-01-01"）
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.createXmlMapper(false).factory(new CBORFactory()).build());
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new NdjsonHttpMessageConverter(objectMapper));
+        converters.add(new ColumnarJsonHttpMessageConverter(objectMapper));
+    }
+}
@@ -1,17 +1,55 @@
 package com.salesanalysis.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.salesanalysis.async.AnalyticsExecutor;
+import com.salesanalysis.async.ExecutorBusyException;
+import com.salesanalysis.cache.SalesReadCache;
+import com.salesanalysis.changes.SalesChangeFeed;
+import com.salesanalysis.ingest.ImportJobManager;
+import com.salesanalysis.ingest.ImportQueueFullException;
+import com.salesanalysis.ingest.SalesBulkMutator;
+import com.salesanalysis.ingest.SalesImportFormat;
+import com.salesanalysis.ingest.SalesStreamImporter;
+import com.salesanalysis.model.BulkMutationResult;
+import com.salesanalysis.model.ImportJobStatus;
+import com.salesanalysis.model.PartitionMaintenanceResult;
 import com.salesanalysis.model.Sales;
+import com.salesanalysis.model.SalesApproxSummary;
+import com.salesanalysis.model.SalesCacheStats;
+import com.salesanalysis.model.SalesChangePage;
+import com.salesanalysis.model.SalesImportSummary;
+import com.salesanalysis.model.SalesPage;
+import com.salesanalysis.model.SalesPartition;
+import com.salesanalysis.model.SalesRanking;
+import com.salesanalysis.model.SalesSeriesPoint;
+import com.salesanalysis.model.SalesSnapshot;
 import com.salesanalysis.model.SalesSummary;
+import com.salesanalysis.partition.SalesPartitionManager;
 import com.salesanalysis.service.SalesService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/sales")
@@ -19,17 +57,96 @@ import java.util.List;
 public class SalesController {
 
     private final SalesService salesService;
+    private final ObjectMapper objectMapper;
+    private final SalesStreamImporter streamImporter;
+    private final ImportJobManager importJobManager;
+    private final SalesReadCache readCache;
+    private final SalesBulkMutator bulkMutator;
+    private final SalesPartitionManager partitionManager;
+    private final SalesChangeFeed changeFeed;
+    private final AnalyticsExecutor analyticsExecutor;
 
     @Autowired
-    public SalesController(SalesService salesService) {
+    public SalesController(SalesService salesService, ObjectMapper objectMapper,
+                           SalesStreamImporter streamImporter, ImportJobManager importJobManager,
+                           SalesReadCache readCache, SalesBulkMutator bulkMutator,
+                           SalesPartitionManager partitionManager, SalesChangeFeed changeFeed,
+                           AnalyticsExecutor analyticsExecutor) {
         this.salesService = salesService;
+        this.objectMapper = objectMapper;
+        this.streamImporter = streamImporter;
+        this.importJobManager = importJobManager;
+        this.readCache = readCache;
+        this.bulkMutator = bulkMutator;
+        this.partitionManager = partitionManager;
+        this.changeFeed = changeFeed;
+        this.analyticsExecutor = analyticsExecutor;
     }
 
-    @Operation(summary = "获取所有销售记录")
+    @Operation(summary = "获取所有销售记录",
+            description = "响应带 ETag，带上次的 ETag 作为 If-None-Match 且数据未变化时返回304；"
+                    + "Accept 可选 application/json（默认）、application/x-ndjson、application/x-columnar-json、application/cbor")
     @GetMapping
-    public ResponseEntity<List<Sales>> getAllSales() {
-        List<Sales> salesList = salesService.findAllSales();
-        return ResponseEntity.ok(salesList);
+    public CompletableFuture<ResponseEntity<List<Sales>>> getAllSales(
+            @Parameter(description = "上次响应的 ETag") @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // 版本未变时只需两次主键索引查找；版本相同的数据库状态相同，客户端持有的数据不会比它旧
+        String currentETag = eTagOf(salesService.dataVersion());
+        if (matches(ifNoneMatch, currentETag)) {
+            return CompletableFuture.completedFuture(notModified(currentETag));
+        }
+        // 全表读取耗时与表大小成正比，与聚合查询一起在 AnalyticsExecutor 上执行；
+        // ETag 与数据在同一连接上读取，不会出现新 ETag 配旧数据
+        return analyticsExecutor.submit(() -> {
+            SalesSnapshot snapshot = salesService.findAllSalesSnapshot();
+            return conditional(eTagOf(snapshot.getVersion())).body(snapshot.getItems());
+        });
+    }
+
+    @Operation(summary = "游标分页获取销售记录")
+    @GetMapping("/page")
+    public ResponseEntity<SalesPage> getSalesPage(
+            @Parameter(description = "游标，上一页最后一条记录的ID，首页不传") @RequestParam(required = false) Integer cursor,
+            @Parameter(description = "每页记录数，默认100，最大1000") @RequestParam(required = false) Integer limit) {
+        SalesPage page = salesService.findSalesPage(cursor, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    @Operation(summary = "流式导出所有销售记录")
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllSales() {
+        // 逐行写出JSON数组，内存占用与表大小无关
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.writeStartArray();
+                salesService.streamAllSales(sales -> {
+                    try {
+                        generator.writeObject(sales);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    @Operation(summary = "增量获取销售记录变更",
+            description = "按变更序号返回 since 之后的新增、更新、删除和分区过期；没有新变更时可通过 wait 长轮询；"
+                    + "since 之后的变更已被清理时返回410，消费方重新全量同步后从响应的 nextSince 继续")
+    @GetMapping("/changes")
+    public ResponseEntity<SalesChangePage> getSalesChanges(
+            @Parameter(description = "上次返回的 nextSince，首次传0") @RequestParam(required = false) Long since,
+            @Parameter(description = "最多返回的变更数，默认100，最大1000") @RequestParam(required = false) Integer limit,
+            @Parameter(description = "没有新变更时最多等待的秒数，默认0，最大为 sales.changes.max-wait") @RequestParam(required = false) Integer wait) {
+        SalesChangePage page = changeFeed.changesSince(since, limit, wait);
+        if (page.isResetRequired()) {
+            // since 之后的变更已超过保留期被清理，消费方需要重新全量同步后从 nextSince 继续
+            return ResponseEntity.status(HttpStatus.GONE).body(page);
+        }
+        return ResponseEntity.ok(page);
     }
 
     @Operation(summary = "根据ID获取销售记录")
@@ -72,14 +189,80 @@ public class SalesController {
         return ResponseEntity.noContent().build();
     }
 
-    @Operation(summary = "聚合查询销售数据")
+    @Operation(summary = "批量更新销售记录",
+            description = "请求体为带ID的销售记录数组（最多10000条），在一个事务内批量执行，返回每个ID的结果：UPDATED、NOT_FOUND 或 INVALID")
+    @PutMapping("/bulk")
+    public ResponseEntity<BulkMutationResult> bulkUpdateSales(@RequestBody List<Sales> salesList) {
+        return ResponseEntity.ok(bulkMutator.updateAll(salesList));
+    }
+
+    @Operation(summary = "批量删除销售记录",
+            description = "请求体为ID数组（最多10000个），在一个事务内批量执行，返回每个ID的结果：DELETED、NOT_FOUND 或 INVALID")
+    @DeleteMapping("/bulk")
+    public ResponseEntity<BulkMutationResult> bulkDeleteSales(@RequestBody List<Integer> ids) {
+        return ResponseEntity.ok(bulkMutator.deleteAll(ids));
+    }
+
+    @Operation(summary = "聚合查询销售数据",
+            description = "与 GET /api/sales 相同，支持 If-None-Match 条件请求和 Accept 选择编码")
     @GetMapping("/summary")
-    public ResponseEntity<List<SalesSummary>> getSalesSummary(
+    public CompletableFuture<ResponseEntity<List<SalesSummary>>> getSalesSummary(
             @Parameter(description = "销售日期，格式：YYYY-MM-DD") @RequestParam(required = false) String date,
+            @Parameter(description = "起始日期（含），格式：YYYY-MM-DD") @RequestParam(required = false) String from,
+            @Parameter(description = "截止日期（含），格式：YYYY-MM-DD") @RequestParam(required = false) String to,
+            @Parameter(description = "产品名称") @RequestParam(required = false) String product,
+            @Parameter(description = "区域") @RequestParam(required = false) String region,
+            @Parameter(description = "上次响应的 ETag") @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // 汇总可能来自读缓存、列式引擎或合并的查询，它们在提交后才由监听器更新，
+        // 其他实例的写入也要等缓存过期才可见，因此 ETag 由返回的汇总本身生成，而不是数据库版本
+        return analyticsExecutor.submit(() -> {
+            List<SalesSummary> summaries = salesService.aggregateSales(date, from, to, product, region);
+            String eTag = eTagOf(digestOf(summaries));
+            if (matches(ifNoneMatch, eTag)) {
+                return notModified(eTag);
+            }
+            return conditional(eTag).body(summaries);
+        });
+    }
+
+    @Operation(summary = "近似聚合查询销售数据",
+            description = "按日期范围合并 (产品, 区域) 草图：金额合计和笔数精确，不同金额数（HyperLogLog）和单笔金额 p50/p90/p99（KLL）为约1%误差的估计值；需开启 sales.sketch.enabled")
+    @GetMapping("/summary/approx")
+    public ResponseEntity<List<SalesApproxSummary>> getSalesSummaryApprox(
+            @Parameter(description = "起始日期（含），格式：YYYY-MM-DD") @RequestParam(required = false) String from,
+            @Parameter(description = "截止日期（含），格式：YYYY-MM-DD") @RequestParam(required = false) String to,
+            @Parameter(description = "产品名称") @RequestParam(required = false) String product,
+            @Parameter(description = "区域") @RequestParam(required = false) String region) {
+        try {
+            return ResponseEntity.ok(salesService.aggregateSalesApprox(from, to, product, region));
+        } catch (IllegalStateException e) {
+            // 未启用近似模式或草图尚未加载完成
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    @Operation(summary = "销售额排名", description = "按产品或区域排名销售额前N名，指定 per 时在每个分组内分别排名，例如每个区域的前10个产品")
+    @GetMapping("/top")
+    public CompletableFuture<ResponseEntity<List<SalesRanking>>> getTopSales(
+            @Parameter(description = "排名维度：product 或 region") @RequestParam String by,
+            @Parameter(description = "分组维度：product 或 region，不传表示整体排名") @RequestParam(required = false) String per,
+            @Parameter(description = "每组名次数，默认10，最大100") @RequestParam(required = false) Integer limit,
+            @Parameter(description = "起始日期（含），格式：YYYY-MM-DD") @RequestParam(required = false) String from,
+            @Parameter(description = "截止日期（含），格式：YYYY-MM-DD") @RequestParam(required = false) String to,
             @Parameter(description = "产品名称") @RequestParam(required = false) String product,
             @Parameter(description = "区域") @RequestParam(required = false) String region) {
-        List<SalesSummary> summaryList = salesService.aggregateSales(date, product, region);
-        return ResponseEntity.ok(summaryList);
+        return analyticsExecutor.submit(() -> ResponseEntity.ok(salesService.topSales(by, per, limit, from, to, product, region)));
+    }
+
+    @Operation(summary = "销售额时间序列", description = "按日、周（周一开始）或月汇总，没有数据的区间补0")
+    @GetMapping("/series")
+    public CompletableFuture<ResponseEntity<List<SalesSeriesPoint>>> getSalesSeries(
+            @Parameter(description = "区间粒度：day、week 或 month，默认 day") @RequestParam(required = false) String bucket,
+            @Parameter(description = "起始日期（含），格式：YYYY-MM-DD") @RequestParam String from,
+            @Parameter(description = "截止日期（含），格式：YYYY-MM-DD") @RequestParam String to,
+            @Parameter(description = "产品名称") @RequestParam(required = false) String product,
+            @Parameter(description = "区域") @RequestParam(required = false) String region) {
+        return analyticsExecutor.submit(() -> ResponseEntity.ok(salesService.salesSeries(bucket, from, to, product, region)));
     }
 
     @Operation(summary = "批量导入销售数据")
@@ -94,7 +277,182 @@ public class SalesController {
         }
     }
 
+    @Operation(summary = "流式导入销售数据（NDJSON或CSV）",
+            description = "请求体为NDJSON（每行一个JSON对象）或带表头的CSV，逐行校验并分块提交，返回接受和拒绝的行数及拒绝行号")
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_NDJSON_VALUE, SalesStreamImporter.TEXT_CSV_VALUE})
+    public ResponseEntity<SalesImportSummary> streamImportSales(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream body) throws IOException {
+        try (Reader reader = new BufferedReader(new InputStreamReader(body, charsetOf(contentType)))) {
+            SalesImportSummary summary = streamImporter.importSales(reader, formatOf(contentType));
+            return ResponseEntity.ok(summary);
+        }
+    }
+
+    @Operation(summary = "提交异步导入任务（NDJSON或CSV）",
+            description = "请求体写入暂存文件后立即返回任务ID，后台分块提交；任务队列已满时返回429")
+    @PostMapping(value = "/imports", consumes = {MediaType.APPLICATION_NDJSON_VALUE, SalesStreamImporter.TEXT_CSV_VALUE})
+    public ResponseEntity<ImportJobStatus> submitImportJob(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream body) throws IOException {
+        ImportJobStatus status = importJobManager.submit(body, formatOf(contentType), charsetOf(contentType));
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+    }
+
+    @Operation(summary = "查询异步导入任务进度")
+    @GetMapping("/imports/{id}")
+    public ResponseEntity<ImportJobStatus> getImportJob(
+            @Parameter(description = "导入任务ID") @PathVariable String id) {
+        ImportJobStatus status = importJobManager.getStatus(id);
+        if (status == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(status);
+    }
+
+    @Operation(summary = "从最后提交的位置续传失败的导入任务")
+    @PostMapping("/imports/{id}/resume")
+    public ResponseEntity<ImportJobStatus> resumeImportJob(
+            @Parameter(description = "导入任务ID") @PathVariable String id) {
+        ImportJobStatus status;
+        try {
+            status = importJobManager.resume(id);
+        } catch (IllegalStateException e) {
+            // 任务未失败（排队、执行中或已完成）时不允许续传
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(importJobManager.getStatus(id));
+        }
+        if (status == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+    }
+
+    @Operation(summary = "重建按日销售汇总表")
+    @PostMapping("/rollup/rebuild")
+    public ResponseEntity<String> rebuildSalesRollup(
+            @Parameter(description = "起始日期（含），不传表示不限") @RequestParam(required = false) String from,
+            @Parameter(description = "截止日期（含），不传表示不限") @RequestParam(required = false) String to) {
+        int groups = salesService.rebuildSalesRollup(from, to);
+        return ResponseEntity.ok("Rollup rebuilt. " + groups + " groups.");
+    }
+
+    @Operation(summary = "查询销售表分区", description = "按月分区的名称、上界（不含）和估算行数")
+    @GetMapping("/partitions")
+    public ResponseEntity<List<SalesPartition>> getSalesPartitions() {
+        return ResponseEntity.ok(partitionManager.listPartitions());
+    }
+
+    @Operation(summary = "维护销售表分区",
+            description = "从 p_future 拆出未来月份的分区，并删除或归档超过保留期的分区；参数不传时使用 sales.partition 配置")
+    @PostMapping("/partitions/maintain")
+    public ResponseEntity<PartitionMaintenanceResult> maintainSalesPartitions(
+            @Parameter(description = "当月之后需要预先建好的月数") @RequestParam(required = false) Integer monthsAhead,
+            @Parameter(description = "保留当月之前的月数，0表示不过期") @RequestParam(required = false) Integer retentionMonths,
+            @Parameter(description = "过期分区是否转存到 sales_archive_{分区名} 表") @RequestParam(required = false) Boolean archive) {
+        try {
+            if (monthsAhead == null && retentionMonths == null && archive == null) {
+                return ResponseEntity.ok(partitionManager.maintain());
+            }
+            return ResponseEntity.ok(partitionManager.maintain(
+                    monthsAhead != null ? monthsAhead : partitionManager.getDefaultMonthsAhead(),
+                    retentionMonths != null ? retentionMonths : partitionManager.getDefaultRetentionMonths(),
+                    archive != null ? archive : partitionManager.isDefaultArchive()));
+        } catch (IllegalStateException e) {
+            // 表未分区或分区布局不符合约定
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @Operation(summary = "查询读缓存统计", description = "按ID缓存和汇总缓存的大小、命中、未命中、淘汰和失效次数")
+    @GetMapping("/cache/stats")
+    public ResponseEntity<List<SalesCacheStats>> getCacheStats() {
+        return ResponseEntity.ok(readCache.stats());
+    }
+
+    /**
+     * 弱 ETag：同一数据的 JSON、NDJSON、列式、CBOR 以及 gzip 后的响应语义相同，共用一个 ETag
+     */
+    private static String eTagOf(String dataVersion) {
+        return "W/\"" + dataVersion + "\"";
+    }
+
+    /**
+     * 汇总结果的摘要，与序列化方式无关，避免对每种编码分别计算
+     */
+    static String digestOf(List<SalesSummary> summaries) {
+        StringBuilder canonical = new StringBuilder();
+        for (SalesSummary summary : summaries) {
+            canonical.append(summary.getDate()).append('\u0001')
+                    .append(summary.getProduct()).append('\u0001')
+                    .append(summary.getRegion()).append('\u0001')
+                    .append(summary.getTotalAmount() != null ? summary.getTotalAmount().toPlainString() : null).append('\u0001')
+                    .append(summary.getCount()).append('\n');
+        }
+        return DigestUtils.md5DigestAsHex(canonical.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * If-None-Match 按弱比较匹配：忽略 W/ 前缀，支持逗号分隔的多个 ETag 和 *
+     */
+    static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || ifNoneMatch.isEmpty()) {
+            return false;
+        }
+        String opaque = eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*")) {
+                return true;
+            }
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 客户端每次都带 If-None-Match 重新验证；响应体随 Accept 不同而不同
+     */
+    private static ResponseEntity.BodyBuilder conditional(String eTag) {
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT);
+    }
+
+    private static <T> ResponseEntity<T> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .build();
+    }
+
+    private static SalesImportFormat formatOf(MediaType contentType) {
+        return MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType) ? SalesImportFormat.NDJSON : SalesImportFormat.CSV;
+    }
+
+    private static Charset charsetOf(MediaType contentType) {
+        return contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+    }
+
     // 全局异常处理
+    @ExceptionHandler(ImportQueueFullException.class)
+    public ResponseEntity<String> handleImportQueueFullException(ImportQueueFullException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(ex.getMessage());
+    }
+
+    @ExceptionHandler(ExecutorBusyException.class)
+    public ResponseEntity<String> handleExecutorBusyException(ExecutorBusyException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ex.getMessage());
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<String> handleIllegalArgumentException(IllegalArgumentException ex) {
         return ResponseEntity.badRequest().body(ex.getMessage());
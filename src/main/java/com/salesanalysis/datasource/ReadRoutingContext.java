@@ -0,0 +1,45 @@
+package com.salesanalysis.datasource;
+
+/**
+ * 当前线程的路由状态：是否处于只读方法内、是否必须读主库（读己之写窗口内或写请求中）
+ */
+final class ReadRoutingContext {
+
+    private static final ThreadLocal<Boolean> REPLICA_READ = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private ReadRoutingContext() {
+    }
+
+    static boolean isReplicaRead() {
+        return Boolean.TRUE.equals(REPLICA_READ.get());
+    }
+
+    static boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(PRIMARY_REQUIRED.get());
+    }
+
+    /**
+     * 进入只读方法
+     * @return 进入前的状态，传给 {@link #exitReplicaRead(boolean)} 以支持嵌套调用
+     */
+    static boolean enterReplicaRead() {
+        boolean previous = isReplicaRead();
+        REPLICA_READ.set(Boolean.TRUE);
+        return previous;
+    }
+
+    static void exitReplicaRead(boolean previous) {
+        if (!previous) {
+            REPLICA_READ.remove();
+        }
+    }
+
+    static void requirePrimary() {
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+    }
+
+    static void clearPrimaryRequired() {
+        PRIMARY_REQUIRED.remove();
+    }
+}
@@ -0,0 +1,25 @@
+package com.salesanalysis.datasource;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * 把提交线程的"必须读主库"状态带到执行线程：读己之写窗口内的请求转到异步执行后仍读主库
+ * 只读方法标记由 @ReplicaRead 切面在执行线程上重新设置，不需要传递
+ */
+public class ReadRoutingTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        if (!ReadRoutingContext.isPrimaryRequired()) {
+            return runnable;
+        }
+        return () -> {
+            ReadRoutingContext.requirePrimary();
+            try {
+                runnable.run();
+            } finally {
+                ReadRoutingContext.clearPrimaryRequired();
+            }
+        };
+    }
+}
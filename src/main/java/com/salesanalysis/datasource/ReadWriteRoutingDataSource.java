@@ -0,0 +1,92 @@
+package com.salesanalysis.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 读写分离数据源：事务内、写请求中和读己之写窗口内的连接都来自主库，
+ * 只有 {@link ReplicaRead} 方法中的非事务查询按轮询分配到副本；副本取连接失败时退回主库
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas) {
+        this.primary = primary;
+        this.replicas = new ArrayList<>(replicas);
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(replicaKey(i), replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicas.isEmpty()
+                || !ReadRoutingContext.isReplicaRead()
+                || ReadRoutingContext.isPrimaryRequired()
+                || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return PRIMARY;
+        }
+        return replicaKey(Math.floorMod(nextReplica.getAndIncrement(), replicas.size()));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSource target = determineTargetDataSource();
+        try {
+            return target.getConnection();
+        } catch (SQLException e) {
+            if (target == primary) {
+                throw e;
+            }
+            log.warn("Replica connection failed, falling back to primary", e);
+            return primary.getConnection();
+        }
+    }
+
+    public List<DataSource> getReplicas() {
+        return Collections.unmodifiableList(replicas);
+    }
+
+    /**
+     * 关闭副本连接池；主库连接池由容器管理
+     */
+    @Override
+    public void destroy() throws IOException {
+        for (DataSource replica : replicas) {
+            if (replica instanceof Closeable) {
+                ((Closeable) replica).close();
+            }
+        }
+    }
+
+    static String replicaKey(int index) {
+        return "replica-" + index;
+    }
+}
@@ -0,0 +1,69 @@
+package com.salesanalysis.datasource;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * 按客户端实现读己之写：写请求（非 GET/HEAD/OPTIONS）全部走主库，并在响应中写入带时间戳的 Cookie；
+ * 之后窗口期内携带该 Cookie 的读请求也走主库，其他客户端（包括导入任务期间）的读请求仍使用副本
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE_NAME = "sales-last-write";
+
+    private final long windowMillis;
+
+    public ReadYourWritesFilter(Duration window) {
+        this.windowMillis = window.toMillis();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean write = !isSafeMethod(request.getMethod());
+        if (write && windowMillis > 0) {
+            // 在执行前写入，避免响应提交后无法再添加 Cookie；窗口从请求开始时计算
+            Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(System.currentTimeMillis()));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, (windowMillis + 999) / 1000));
+            response.addCookie(cookie);
+        }
+        if (write || wroteRecently(request)) {
+            ReadRoutingContext.requirePrimary();
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadRoutingContext.clearPrimaryRequired();
+        }
+    }
+
+    private boolean wroteRecently(HttpServletRequest request) {
+        if (windowMillis <= 0 || request.getCookies() == null) {
+            return false;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    long elapsed = System.currentTimeMillis() - Long.parseLong(cookie.getValue());
+                    return elapsed >= 0 && elapsed < windowMillis;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSafeMethod(String method) {
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+    }
+}
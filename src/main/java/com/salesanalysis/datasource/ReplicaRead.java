@@ -0,0 +1,17 @@
+package com.salesanalysis.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标记只读的服务方法：启用读写分离时，方法内不在事务中的查询路由到只读副本
+ * 方法本身不能开启写事务；未启用读写分离时没有任何效果
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReplicaRead {
+}
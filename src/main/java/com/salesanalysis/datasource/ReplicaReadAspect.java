@@ -0,0 +1,22 @@
+package com.salesanalysis.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * 在 {@link ReplicaRead} 方法执行期间标记当前线程为只读，由 {@link ReadWriteRoutingDataSource} 据此选择副本
+ */
+@Aspect
+public class ReplicaReadAspect {
+
+    @Around("@annotation(com.salesanalysis.datasource.ReplicaRead)")
+    public Object routeToReplica(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean previous = ReadRoutingContext.enterReplicaRead();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReadRoutingContext.exitReplicaRead(previous);
+        }
+    }
+}
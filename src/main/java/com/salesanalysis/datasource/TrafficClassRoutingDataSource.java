@@ -0,0 +1,32 @@
+package com.salesanalysis.datasource;
+
+import com.salesanalysis.bulkhead.TrafficClass;
+import com.salesanalysis.bulkhead.TrafficContext;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 按流量类别选择连接池：分析查询和批量写入各用一个独立的小连接池，
+ * 其余请求和未标记类别的后台任务使用 CRUD 连接池；事务内的连接在事务开始时确定
+ */
+public class TrafficClassRoutingDataSource extends AbstractRoutingDataSource {
+
+    public TrafficClassRoutingDataSource(DataSource crud, DataSource analytics, DataSource bulk) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(TrafficClass.CRUD, crud);
+        targets.put(TrafficClass.ANALYTICS, analytics);
+        targets.put(TrafficClass.BULK, bulk);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(crud);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        TrafficClass trafficClass = TrafficContext.current();
+        return trafficClass != null ? trafficClass : TrafficClass.CRUD;
+    }
+}
@@ -0,0 +1,76 @@
+package com.salesanalysis.ingest;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * 按行读取字符流，单行长度超过上限时丢弃该行剩余内容，保证内存占用有上限
+ */
+class BoundedLineReader {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+    private final int maxLineLength;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder line = new StringBuilder();
+    private int position;
+    private int limit;
+    private long lineNumber;
+    private boolean overflow;
+
+    BoundedLineReader(Reader reader, int maxLineLength) {
+        this.reader = reader;
+        this.maxLineLength = maxLineLength;
+    }
+
+    /**
+     * 读取下一行（不含换行符）
+     * @return 行内容，流结束时返回null
+     * @throws IOException 读取异常
+     */
+    String readLine() throws IOException {
+        line.setLength(0);
+        overflow = false;
+        boolean sawAny = false;
+        while (true) {
+            if (position >= limit) {
+                limit = reader.read(buffer, 0, BUFFER_SIZE);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    if (!sawAny) {
+                        return null;
+                    }
+                    break;
+                }
+            }
+            sawAny = true;
+            char c = buffer[position++];
+            if (c == '\n') {
+                break;
+            }
+            if (line.length() < maxLineLength) {
+                line.append(c);
+            } else {
+                overflow = true;
+            }
+        }
+        lineNumber++;
+        int length = line.length();
+        if (length > 0 && line.charAt(length - 1) == '\r') {
+            line.setLength(length - 1);
+        }
+        return line.toString();
+    }
+
+    // 当前行号，从1开始
+    long getLineNumber() {
+        return lineNumber;
+    }
+
+    // 上一次读取的行是否因超长被截断
+    boolean isOverflow() {
+        return overflow;
+    }
+}
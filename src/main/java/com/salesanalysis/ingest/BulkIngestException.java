@@ -0,0 +1,24 @@
+package com.salesanalysis.ingest;
+
+/**
+ * 批量写入中途失败，已提交的块不会回滚
+ */
+public class BulkIngestException extends RuntimeException {
+
+    private final int committedChunks;
+    private final long committedRows;
+
+    public BulkIngestException(String message, int committedChunks, long committedRows, Throwable cause) {
+        super(message, cause);
+        this.committedChunks = committedChunks;
+        this.committedRows = committedRows;
+    }
+
+    public int getCommittedChunks() {
+        return committedChunks;
+    }
+
+    public long getCommittedRows() {
+        return committedRows;
+    }
+}
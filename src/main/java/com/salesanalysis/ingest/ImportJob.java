@@ -0,0 +1,169 @@
+package com.salesanalysis.ingest;
+
+import com.salesanalysis.model.ImportJobState;
+import com.salesanalysis.model.ImportJobStatus;
+import com.salesanalysis.model.SalesImportRejection;
+
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 异步导入任务的运行状态，由工作线程更新、查询接口读取
+ * 计数只在提交时生效：失败后未提交部分的拒绝记录被丢弃，续传时重新统计
+ */
+public class ImportJob implements SalesImportListener {
+
+    private final String id;
+    private final Path spoolFile;
+    private final SalesImportFormat format;
+    private final Charset charset;
+    private final Date createdAt = new Date();
+
+    private ImportJobState state = ImportJobState.QUEUED;
+    private long acceptedRows;
+    private long rejectedRows;
+    private long lastCommittedRow;
+    private long runStartAccepted;
+    private long pendingRejected;
+    private final List<SalesImportRejection> rejections = new ArrayList<>();
+    private final List<SalesImportRejection> pendingRejections = new ArrayList<>();
+    private int attempts;
+    private String error;
+    private Date startedAt;
+    private Date finishedAt;
+    private long activeNanos;
+    private long runStartNanos;
+
+    public ImportJob(String id, Path spoolFile, SalesImportFormat format, Charset charset) {
+        this.id = id;
+        this.spoolFile = spoolFile;
+        this.format = format;
+        this.charset = charset;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Path getSpoolFile() {
+        return spoolFile;
+    }
+
+    public SalesImportFormat getFormat() {
+        return format;
+    }
+
+    public Charset getCharset() {
+        return charset;
+    }
+
+    public synchronized ImportJobState getState() {
+        return state;
+    }
+
+    public synchronized long getLastCommittedRow() {
+        return lastCommittedRow;
+    }
+
+    synchronized Date getFinishedAt() {
+        return finishedAt;
+    }
+
+    synchronized void markQueued() {
+        state = ImportJobState.QUEUED;
+    }
+
+    /**
+     * 开始一次执行（首次或续传）
+     */
+    public synchronized void start() {
+        state = ImportJobState.RUNNING;
+        attempts++;
+        error = null;
+        if (startedAt == null) {
+            startedAt = new Date();
+        }
+        runStartNanos = System.nanoTime();
+        runStartAccepted = acceptedRows;
+        pendingRejected = 0;
+        pendingRejections.clear();
+    }
+
+    public synchronized void complete() {
+        adoptPendingRejections();
+        finish(ImportJobState.COMPLETED);
+    }
+
+    /**
+     * 本次执行失败、等待自动重试：丢弃未提交部分的拒绝记录，状态不是 FAILED，续传接口不会再排队一次
+     */
+    public synchronized void retry(String message) {
+        pendingRejected = 0;
+        pendingRejections.clear();
+        error = message;
+        if (state == ImportJobState.RUNNING) {
+            activeNanos += System.nanoTime() - runStartNanos;
+        }
+        state = ImportJobState.RETRYING;
+    }
+
+    public synchronized void fail(String message) {
+        pendingRejected = 0;
+        pendingRejections.clear();
+        error = message;
+        finish(ImportJobState.FAILED);
+    }
+
+    @Override
+    public synchronized void onRejected(long rowNumber, String message) {
+        pendingRejected++;
+        if (rejections.size() + pendingRejections.size() < SalesStreamImporter.MAX_REPORTED_REJECTIONS) {
+            pendingRejections.add(new SalesImportRejection(rowNumber, message));
+        }
+    }
+
+    @Override
+    public synchronized void onCommitted(long lastRowNumber, long committedRows) {
+        lastCommittedRow = lastRowNumber;
+        acceptedRows = runStartAccepted + committedRows;
+        adoptPendingRejections();
+    }
+
+    public synchronized ImportJobStatus toStatus() {
+        ImportJobStatus status = new ImportJobStatus();
+        status.setId(id);
+        status.setState(state);
+        status.setFormat(format.name());
+        status.setAcceptedRows(acceptedRows);
+        status.setRejectedRows(rejectedRows);
+        status.setRowsProcessed(acceptedRows + rejectedRows);
+        status.setLastCommittedRow(lastCommittedRow);
+        long nanos = activeNanos + (state == ImportJobState.RUNNING ? System.nanoTime() - runStartNanos : 0);
+        status.setRowsPerSecond(nanos > 0 ? (acceptedRows + rejectedRows) * 1_000_000_000L / nanos : 0);
+        status.setAttempts(attempts);
+        status.setError(error);
+        status.setRejections(new ArrayList<>(rejections));
+        status.setCreatedAt(createdAt);
+        status.setStartedAt(startedAt);
+        status.setFinishedAt(finishedAt);
+        return status;
+    }
+
+    private void adoptPendingRejections() {
+        rejectedRows += pendingRejected;
+        rejections.addAll(pendingRejections);
+        pendingRejected = 0;
+        pendingRejections.clear();
+    }
+
+    private void finish(ImportJobState finalState) {
+        if (state == ImportJobState.RUNNING) {
+            activeNanos += System.nanoTime() - runStartNanos;
+        }
+        state = finalState;
+        finishedAt = new Date();
+    }
+}
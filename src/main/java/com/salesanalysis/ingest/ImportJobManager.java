@@ -0,0 +1,223 @@
+package com.salesanalysis.ingest;
+
+import com.salesanalysis.bulkhead.TrafficClass;
+import com.salesanalysis.bulkhead.TrafficContext;
+import com.salesanalysis.model.ImportJobState;
+import com.salesanalysis.model.ImportJobStatus;
+import com.salesanalysis.util.DataInsertManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 异步导入任务管理
+ * 请求体先写入暂存文件后立即返回任务ID，由有界线程池和有界队列执行，队列满时拒绝提交；
+ * 任务失败后保留暂存文件，可从最后一次提交的位置续传
+ */
+@Component
+public class ImportJobManager {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportJobManager.class);
+
+    private final DataInsertManager dataInsertManager;
+    private final ThreadPoolExecutor executor;
+    private final Path spoolDir;
+    private final int maxAttempts;
+    private final int retainedJobs;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ImportJobManager(DataInsertManager dataInsertManager,
+                            @Value("${sales.import.workers:2}") int workers,
+                            @Value("${sales.import.queue-capacity:8}") int queueCapacity,
+                            @Value("${sales.import.max-attempts:3}") int maxAttempts,
+                            @Value("${sales.import.retained-jobs:100}") int retainedJobs,
+                            @Value("${sales.import.spool-dir:${java.io.tmpdir}/sales-imports}") String spoolDir) {
+        this.dataInsertManager = dataInsertManager;
+        this.maxAttempts = maxAttempts;
+        this.retainedJobs = retainedJobs;
+        this.spoolDir = Paths.get(spoolDir);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "sales-import-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 提交导入任务
+     * @param body 请求体，读取完毕后由调用方关闭
+     * @param format 数据格式
+     * @param charset 请求体字符集
+     * @return 任务状态
+     * @throws ImportQueueFullException 队列已满时抛出
+     * @throws IOException 写入暂存文件失败
+     */
+    public ImportJobStatus submit(InputStream body, SalesImportFormat format, Charset charset) throws IOException {
+        // 暂存前先检查一次，避免在队列已满时仍读取整个请求体
+        if (executor.getQueue().remainingCapacity() == 0) {
+            throw new ImportQueueFullException("Import queue is full, retry later");
+        }
+        Files.createDirectories(spoolDir);
+        String id = UUID.randomUUID().toString();
+        Path spoolFile = spoolDir.resolve(id + ".dat");
+        Files.copy(body, spoolFile, StandardCopyOption.REPLACE_EXISTING);
+
+        ImportJob job = new ImportJob(id, spoolFile, format, charset);
+        evictFinishedJobs();
+        jobs.put(id, job);
+        try {
+            enqueue(job);
+        } catch (ImportQueueFullException e) {
+            jobs.remove(id);
+            deleteQuietly(spoolFile);
+            throw e;
+        }
+        return job.toStatus();
+    }
+
+    /**
+     * 查询任务状态
+     * @param id 任务ID
+     * @return 任务状态，不存在时返回null
+     */
+    public ImportJobStatus getStatus(String id) {
+        ImportJob job = jobs.get(id);
+        return job != null ? job.toStatus() : null;
+    }
+
+    /**
+     * 从最后一次提交的位置续传失败的任务
+     * @param id 任务ID
+     * @return 任务状态，不存在时返回null
+     * @throws IllegalStateException 任务不是失败状态时抛出
+     * @throws ImportQueueFullException 队列已满时抛出
+     */
+    public ImportJobStatus resume(String id) {
+        ImportJob job = jobs.get(id);
+        if (job == null) {
+            return null;
+        }
+        synchronized (job) {
+            if (job.getState() != ImportJobState.FAILED) {
+                throw new IllegalStateException("Only failed import jobs can be resumed, current state: " + job.getState());
+            }
+            job.markQueued();
+        }
+        try {
+            enqueue(job);
+        } catch (ImportQueueFullException e) {
+            job.fail(e.getMessage());
+            throw e;
+        }
+        return job.toStatus();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void enqueue(ImportJob job) {
+        try {
+            // 开启独立连接池时导入任务使用批量写入连接池
+            executor.execute(TrafficContext.wrap(TrafficClass.BULK, () -> run(job)));
+        } catch (RejectedExecutionException e) {
+            throw new ImportQueueFullException("Import queue is full, retry later");
+        }
+    }
+
+    /**
+     * 执行任务，写入失败时自动从最后提交的位置重试，数据格式错误不重试
+     */
+    private void run(ImportJob job) {
+        for (int attempt = 1; ; attempt++) {
+            job.start();
+            try {
+                dataInsertManager.runImportJob(job);
+                job.complete();
+                deleteQuietly(job.getSpoolFile());
+                log.info("Import job {} completed: {}", job.getId(), job.toStatus());
+                return;
+            } catch (BulkIngestException e) {
+                String message = e.getMessage() + ": " + rootMessage(e);
+                if (attempt >= maxAttempts) {
+                    job.fail(message);
+                    log.warn("Import job {} failed after {} attempts, resumable from row {}",
+                            job.getId(), attempt, job.getLastCommittedRow(), e);
+                    return;
+                }
+                // 等待重试期间保持 RETRYING，只有最后一次失败才允许续传，避免两个线程从同一位置重复导入
+                job.retry(message);
+                log.warn("Import job {} failed, retrying from row {}", job.getId(), job.getLastCommittedRow(), e);
+                try {
+                    TimeUnit.SECONDS.sleep(attempt);
+                } catch (InterruptedException interrupted) {
+                    job.fail(message);
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            } catch (IOException | RuntimeException e) {
+                job.fail(rootMessage(e));
+                log.warn("Import job {} failed", job.getId(), e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * 保留最近的已结束任务，超出上限时移除最早结束的任务及其暂存文件
+     */
+    private void evictFinishedJobs() {
+        int excess = jobs.size() - retainedJobs + 1;
+        if (excess <= 0) {
+            return;
+        }
+        jobs.values().stream()
+                .filter(job -> job.getState() == ImportJobState.COMPLETED || job.getState() == ImportJobState.FAILED)
+                .sorted(Comparator.comparing(ImportJob::getFinishedAt))
+                .limit(excess)
+                .forEach(job -> {
+                    jobs.remove(job.getId());
+                    deleteQuietly(job.getSpoolFile());
+                });
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return root.getMessage() != null ? root.getMessage() : root.getClass().getSimpleName();
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete import spool file {}", file, e);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.salesanalysis.ingest;
+
+/**
+ * 导入任务队列已满，调用方应稍后重试
+ */
+public class ImportQueueFullException extends RuntimeException {
+
+    public ImportQueueFullException(String message) {
+        super(message);
+    }
+}
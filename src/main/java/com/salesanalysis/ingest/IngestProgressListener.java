@@ -0,0 +1,18 @@
+package com.salesanalysis.ingest;
+
+/**
+ * 批量写入进度回调
+ */
+public interface IngestProgressListener {
+
+    IngestProgressListener NONE = new IngestProgressListener() {
+    };
+
+    // 一个块已发送到数据库（尚未提交），chunkIndex 从0开始
+    default void onChunkWritten(int chunkIndex, int rows, long elapsedNanos) {
+    }
+
+    // 一次提交完成，参数为累计已提交的块数和行数
+    default void onCommitted(int committedChunks, long committedRows) {
+    }
+}
@@ -0,0 +1,190 @@
+package com.salesanalysis.ingest;
+
+import com.salesanalysis.mapper.SalesMapper;
+import com.salesanalysis.model.BulkIngestResult;
+import com.salesanalysis.model.Sales;
+import com.salesanalysis.service.SalesChangeListener;
+import com.salesanalysis.util.RollupDeltaUtils;
+import com.salesanalysis.util.SalesChangeUtils;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 大批量销售数据写入管道
+ * 使用 MyBatis BATCH 执行器逐行 addBatch，每个块 flushStatements 一次，
+ * 配合连接参数 rewriteBatchedStatements=true 由驱动改写为多值 INSERT 并按 max_allowed_packet 自动拆分；
+ * 每 commitEveryChunks 个块提交一次事务，内存中最多只保留一个提交组的数据
+ */
+@Component
+public class SalesBulkIngestor {
+
+    private static final Logger log = LoggerFactory.getLogger(SalesBulkIngestor.class);
+
+    private final SqlSession batchSession;
+    private final SalesMapper batchMapper;
+    private final TransactionOperations transactionOperations;
+    private final int defaultChunkSize;
+    private final int defaultCommitEveryChunks;
+    private List<SalesChangeListener> changeListeners = Collections.emptyList();
+
+    @Autowired
+    public SalesBulkIngestor(SqlSessionFactory sqlSessionFactory,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${sales.ingest.chunk-size:1000}") int chunkSize,
+                             @Value("${sales.ingest.commit-every-chunks:10}") int commitEveryChunks) {
+        // 批处理模板只在本类内部使用，不注册为Bean，避免替换掉默认的 SqlSessionTemplate
+        this(new SqlSessionTemplate(sqlSessionFactory, ExecutorType.BATCH),
+                new TransactionTemplate(transactionManager), chunkSize, commitEveryChunks);
+    }
+
+    SalesBulkIngestor(SqlSession batchSession, TransactionOperations transactionOperations,
+                      int chunkSize, int commitEveryChunks) {
+        if (chunkSize <= 0 || commitEveryChunks <= 0) {
+            throw new IllegalArgumentException("Chunk size and commit interval must be greater than zero");
+        }
+        this.batchSession = batchSession;
+        this.batchMapper = batchSession.getMapper(SalesMapper.class);
+        this.transactionOperations = transactionOperations;
+        this.defaultChunkSize = chunkSize;
+        this.defaultCommitEveryChunks = commitEveryChunks;
+    }
+
+    @Autowired(required = false)
+    public void setChangeListeners(List<SalesChangeListener> changeListeners) {
+        this.changeListeners = changeListeners;
+    }
+
+    /**
+     * 使用配置的块大小和提交间隔写入
+     * @param rows 待写入的销售数据（调用方负责校验）
+     * @return 写入统计
+     */
+    public BulkIngestResult ingest(Iterator<Sales> rows) {
+        return ingest(rows, defaultChunkSize, defaultCommitEveryChunks, IngestProgressListener.NONE);
+    }
+
+    /**
+     * 使用配置的块大小和提交间隔写入，并回调进度
+     * @param rows 待写入的销售数据（调用方负责校验）
+     * @param progressListener 进度回调
+     * @return 写入统计
+     */
+    public BulkIngestResult ingest(Iterator<Sales> rows, IngestProgressListener progressListener) {
+        return ingest(rows, defaultChunkSize, defaultCommitEveryChunks, progressListener);
+    }
+
+    /**
+     * 分块写入销售数据，同时维护日汇总表
+     * @param rows 待写入的销售数据（调用方负责校验）
+     * @param chunkSize 每块行数
+     * @param commitEveryChunks 每提交一次包含的块数
+     * @param progressListener 进度回调
+     * @return 写入统计
+     * @throws BulkIngestException 某个提交组失败时抛出，之前已提交的块保留
+     */
+    public BulkIngestResult ingest(Iterator<Sales> rows, int chunkSize, int commitEveryChunks,
+                                   IngestProgressListener progressListener) {
+        if (rows == null) {
+            throw new IllegalArgumentException("Rows cannot be null");
+        }
+        if (chunkSize <= 0 || commitEveryChunks <= 0) {
+            throw new IllegalArgumentException("Chunk size and commit interval must be greater than zero");
+        }
+
+        long start = System.nanoTime();
+        long[] chunkNanos = new long[]{Long.MAX_VALUE, 0L, 0L}; // 最小、最大、合计
+        int committedChunks = 0;
+        long committedRows = 0;
+        int commits = 0;
+
+        while (rows.hasNext()) {
+            List<Sales> group = new ArrayList<>();
+            int firstChunk = committedChunks;
+            int groupChunks;
+            try {
+                groupChunks = transactionOperations.execute(status -> {
+                    int chunks = 0;
+                    while (chunks < commitEveryChunks && rows.hasNext()) {
+                        List<Sales> chunk = nextChunk(rows, chunkSize);
+                        long chunkStart = System.nanoTime();
+                        for (Sales sales : chunk) {
+                            batchMapper.insert(sales);
+                        }
+                        batchMapper.upsertRollup(RollupDeltaUtils.forInserted(chunk));
+                        batchSession.flushStatements();
+                        long elapsed = System.nanoTime() - chunkStart;
+
+                        chunkNanos[0] = Math.min(chunkNanos[0], elapsed);
+                        chunkNanos[1] = Math.max(chunkNanos[1], elapsed);
+                        chunkNanos[2] += elapsed;
+                        log.debug("Chunk {} wrote {} rows in {} ms",
+                                firstChunk + chunks, chunk.size(), elapsed / 1_000_000.0);
+                        progressListener.onChunkWritten(firstChunk + chunks, chunk.size(), elapsed);
+                        group.addAll(chunk);
+                        chunks++;
+                    }
+                    // ID已在逐块刷新时回填；变更日志留在批次中随事务提交一起发送，缩短持有序号行锁的时间
+                    batchMapper.recordChanges(SalesChangeUtils.forInserted(group));
+                    return chunks;
+                });
+            } catch (RuntimeException e) {
+                throw new BulkIngestException("Bulk ingest failed after " + committedRows + " committed rows",
+                        committedChunks, committedRows, e);
+            }
+
+            committedChunks += groupChunks;
+            committedRows += group.size();
+            commits++;
+            progressListener.onCommitted(committedChunks, committedRows);
+            notifyListeners(group);
+        }
+
+        BulkIngestResult result = new BulkIngestResult();
+        long elapsedNanos = System.nanoTime() - start;
+        result.setRows(committedRows);
+        result.setChunks(committedChunks);
+        result.setCommits(commits);
+        result.setElapsedMillis(elapsedNanos / 1_000_000);
+        if (committedChunks > 0) {
+            result.setMinChunkMillis(chunkNanos[0] / 1_000_000.0);
+            result.setMaxChunkMillis(chunkNanos[1] / 1_000_000.0);
+            result.setAvgChunkMillis(chunkNanos[2] / 1_000_000.0 / committedChunks);
+        }
+        result.setRowsPerSecond(elapsedNanos > 0 ? committedRows * 1_000_000_000L / elapsedNanos : 0);
+        log.info("Bulk ingest finished: {}", result);
+        return result;
+    }
+
+    private static List<Sales> nextChunk(Iterator<Sales> rows, int chunkSize) {
+        List<Sales> chunk = new ArrayList<>(chunkSize);
+        while (chunk.size() < chunkSize && rows.hasNext()) {
+            chunk.add(rows.next());
+        }
+        return chunk;
+    }
+
+    private void notifyListeners(List<Sales> committed) {
+        for (SalesChangeListener listener : changeListeners) {
+            try {
+                listener.onSalesInserted(committed);
+            } catch (RuntimeException e) {
+                log.warn("Sales change listener {} failed", listener.getClass().getSimpleName(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.salesanalysis.ingest;
+
+import com.salesanalysis.mapper.SalesMapper;
+import com.salesanalysis.model.BulkItemResult;
+import com.salesanalysis.model.BulkItemStatus;
+import com.salesanalysis.model.BulkMutationResult;
+import com.salesanalysis.model.Sales;
+import com.salesanalysis.service.SalesChangeListener;
+import com.salesanalysis.service.SalesService;
+import com.salesanalysis.util.SalesChangeUtils;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 批量更新、删除销售记录
+ * 所有语句通过 MyBatis BATCH 执行器在一个事务内批量发送，按JDBC返回的影响行数得到每个ID的结果，
+ * 不存在的ID不会导致整批回滚；监听器需要旧记录时才在写语句之前按ID分块加锁读取，提交后一次性通知监听器；
+ * 汇总表由 sales 表上的触发器维护，变更日志在事务最后写入
+ */
+@Component
+public class SalesBulkMutator {
+
+    private static final Logger log = LoggerFactory.getLogger(SalesBulkMutator.class);
+
+    static final int MAX_ITEMS = 10000; // 单次请求最多处理的记录数
+    private static final int FLUSH_EVERY = 1000; // 每累计多少条语句发送一次
+
+    private final SqlSession batchSession;
+    private final SalesMapper batchMapper;
+    private final TransactionOperations transactionOperations;
+    private final SalesService salesService;
+    private List<SalesChangeListener> changeListeners = Collections.emptyList();
+
+    @Autowired
+    public SalesBulkMutator(SqlSessionFactory sqlSessionFactory, PlatformTransactionManager transactionManager,
+                            SalesService salesService) {
+        this(new SqlSessionTemplate(sqlSessionFactory, ExecutorType.BATCH),
+                new TransactionTemplate(transactionManager), salesService);
+    }
+
+    SalesBulkMutator(SqlSession batchSession, TransactionOperations transactionOperations, SalesService salesService) {
+        this.batchSession = batchSession;
+        this.batchMapper = batchSession.getMapper(SalesMapper.class);
+        this.transactionOperations = transactionOperations;
+        this.salesService = salesService;
+    }
+
+    @Autowired(required = false)
+    public void setChangeListeners(List<SalesChangeListener> changeListeners) {
+        this.changeListeners = changeListeners;
+    }
+
+    /**
+     * 批量更新销售记录
+     * @param salesList 待更新的记录，每条都必须带ID
+     * @return 每条记录的结果，顺序与请求一致
+     */
+    public BulkMutationResult updateAll(List<Sales> salesList) {
+        checkSize(salesList);
+        List<BulkItemResult> results = new ArrayList<>(salesList.size());
+        List<Sales> accepted = new ArrayList<>(salesList.size());
+        List<BulkItemResult> pending = new ArrayList<>(salesList.size());
+        for (Sales sales : salesList) {
+            Integer id = sales != null ? sales.getId() : null;
+            try {
+                if (id == null) {
+                    throw new IllegalArgumentException("Sales ID cannot be null for update");
+                }
+                salesService.validateSales(sales);
+            } catch (IllegalArgumentException e) {
+                results.add(new BulkItemResult(id, BulkItemStatus.INVALID, e.getMessage()));
+                continue;
+            }
+            BulkItemResult result = new BulkItemResult(id, BulkItemStatus.UPDATED, null);
+            results.add(result);
+            accepted.add(sales);
+            pending.add(result);
+        }
+
+        List<Sales> updated = new ArrayList<>();
+        List<Sales> previous = new ArrayList<>();
+        transactionOperations.executeWithoutResult(status -> {
+            List<Integer> ids = new ArrayList<>(accepted.size());
+            for (Sales sales : accepted) {
+                ids.add(sales.getId());
+            }
+            Map<Integer, Sales> locked = lockPrevious(ids);
+            List<Integer> counts = new ArrayList<>(accepted.size());
+            for (int i = 0; i < accepted.size(); i++) {
+                batchMapper.update(accepted.get(i));
+                if ((i + 1) % FLUSH_EVERY == 0) {
+                    collectCounts(batchSession.flushStatements(), counts);
+                }
+            }
+            collectCounts(batchSession.flushStatements(), counts);
+            for (int i = 0; i < pending.size(); i++) {
+                if (isAffected(counts, i)) {
+                    updated.add(accepted.get(i));
+                    previous.add(locked.get(accepted.get(i).getId()));
+                } else {
+                    pending.get(i).setStatus(BulkItemStatus.NOT_FOUND);
+                }
+            }
+            // 变更日志留在批次中随事务提交一起发送
+            batchMapper.recordChanges(SalesChangeUtils.forUpdated(updated));
+        });
+
+        if (!updated.isEmpty()) {
+            notifyListeners(listener -> listener.onSalesBulkUpdated(previous, updated));
+        }
+        return summarize(results);
+    }
+
+    /**
+     * 批量删除销售记录
+     * @param ids 待删除的ID
+     * @return 每个ID的结果，顺序与请求一致
+     */
+    public BulkMutationResult deleteAll(List<Integer> ids) {
+        checkSize(ids);
+        List<BulkItemResult> results = new ArrayList<>(ids.size());
+        List<Integer> accepted = new ArrayList<>(ids.size());
+        List<BulkItemResult> pending = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            if (id == null) {
+                results.add(new BulkItemResult(null, BulkItemStatus.INVALID, "ID cannot be null"));
+                continue;
+            }
+            BulkItemResult result = new BulkItemResult(id, BulkItemStatus.DELETED, null);
+            results.add(result);
+            accepted.add(id);
+            pending.add(result);
+        }
+
+        List<Integer> deleted = new ArrayList<>();
+        List<Sales> previous = new ArrayList<>();
+        transactionOperations.executeWithoutResult(status -> {
+            Map<Integer, Sales> locked = lockPrevious(accepted);
+            List<Integer> counts = new ArrayList<>(accepted.size());
+            for (int i = 0; i < accepted.size(); i++) {
+                batchMapper.delete(accepted.get(i));
+                if ((i + 1) % FLUSH_EVERY == 0) {
+                    collectCounts(batchSession.flushStatements(), counts);
+                }
+            }
+            collectCounts(batchSession.flushStatements(), counts);
+            for (int i = 0; i < pending.size(); i++) {
+                if (isAffected(counts, i)) {
+                    deleted.add(accepted.get(i));
+                    previous.add(locked.get(accepted.get(i)));
+                } else {
+                    pending.get(i).setStatus(BulkItemStatus.NOT_FOUND);
+                }
+            }
+            batchMapper.recordChanges(SalesChangeUtils.forDeleted(deleted));
+        });
+
+        if (!deleted.isEmpty()) {
+            notifyListeners(listener -> listener.onSalesBulkDeleted(deleted, previous));
+        }
+        return summarize(results);
+    }
+
+    /**
+     * 加锁读取旧值，供监听器按旧分组失效缓存或扣减；没有监听器需要时不读取，旧值按 null 通知
+     * BATCH 执行器在查询前会先发送已累积的语句并丢弃其影响行数，所以必须在写语句之前读取
+     */
+    private Map<Integer, Sales> lockPrevious(List<Integer> ids) {
+        if (!previousRowsNeeded()) {
+            return Collections.emptyMap();
+        }
+        Map<Integer, Sales> previous = new HashMap<>(ids.size() * 2);
+        for (int i = 0; i < ids.size(); i += FLUSH_EVERY) {
+            for (Sales sales : batchMapper.findByIdsForUpdate(ids.subList(i, Math.min(i + FLUSH_EVERY, ids.size())))) {
+                previous.put(sales.getId(), sales);
+            }
+        }
+        return previous;
+    }
+
+    private boolean previousRowsNeeded() {
+        for (SalesChangeListener listener : changeListeners) {
+            if (listener.needsPreviousRows()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void checkSize(List<?> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Request must contain at least one item");
+        }
+        if (items.size() > MAX_ITEMS) {
+            throw new IllegalArgumentException("Request cannot contain more than " + MAX_ITEMS + " items");
+        }
+    }
+
+    private static void collectCounts(List<BatchResult> batchResults, List<Integer> counts) {
+        for (BatchResult batchResult : batchResults) {
+            for (int count : batchResult.getUpdateCounts()) {
+                counts.add(count);
+            }
+        }
+    }
+
+    // 驱动改写批次后可能只返回 SUCCESS_NO_INFO，此时按成功处理
+    private static boolean isAffected(List<Integer> counts, int index) {
+        if (index >= counts.size()) {
+            throw new IllegalStateException("Batch returned " + counts.size() + " update counts for more statements");
+        }
+        int count = counts.get(index);
+        return count > 0 || count == Statement.SUCCESS_NO_INFO;
+    }
+
+    private static BulkMutationResult summarize(List<BulkItemResult> results) {
+        BulkMutationResult summary = new BulkMutationResult();
+        summary.setRequested(results.size());
+        for (BulkItemResult result : results) {
+            if (result.getStatus() == BulkItemStatus.NOT_FOUND) {
+                summary.setNotFound(summary.getNotFound() + 1);
+            } else if (result.getStatus() == BulkItemStatus.INVALID) {
+                summary.setInvalid(summary.getInvalid() + 1);
+            } else {
+                summary.setSucceeded(summary.getSucceeded() + 1);
+            }
+        }
+        summary.setResults(results);
+        return summary;
+    }
+
+    private void notifyListeners(Consumer<SalesChangeListener> event) {
+        for (SalesChangeListener listener : changeListeners) {
+            try {
+                event.accept(listener);
+            } catch (RuntimeException e) {
+                log.warn("Sales change listener {} failed", listener.getClass().getSimpleName(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.salesanalysis.ingest;
+
+/**
+ * 流式导入支持的数据格式
+ */
+public enum SalesImportFormat {
+    // 每行一个JSON对象
+    NDJSON,
+    // 首行为表头的逗号分隔文本
+    CSV
+}
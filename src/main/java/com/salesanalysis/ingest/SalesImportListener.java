@@ -0,0 +1,18 @@
+package com.salesanalysis.ingest;
+
+/**
+ * 流式导入进度回调，用于导入任务记录进度和续传位置
+ */
+public interface SalesImportListener {
+
+    SalesImportListener NONE = new SalesImportListener() {
+    };
+
+    // 某行解析或校验失败被拒绝
+    default void onRejected(long rowNumber, String message) {
+    }
+
+    // 一个提交组已提交，lastRowNumber 为该组最后一行的行号，可作为续传位置；committedRows 为本次导入累计提交的行数
+    default void onCommitted(long lastRowNumber, long committedRows) {
+    }
+}
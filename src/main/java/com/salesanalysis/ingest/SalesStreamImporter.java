@@ -0,0 +1,289 @@
+package com.salesanalysis.ingest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.salesanalysis.model.BulkIngestResult;
+import com.salesanalysis.model.Sales;
+import com.salesanalysis.model.SalesImportRejection;
+import com.salesanalysis.model.SalesImportSummary;
+import com.salesanalysis.service.SalesService;
+import com.salesanalysis.util.DateUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+/**
+ * 流式导入 NDJSON / CSV 格式的销售数据
+ * 逐行解析并按 SalesService.validateSales 的规则校验，合格的行交给 SalesBulkIngestor 分块写入；
+ * 任意时刻只在内存中保留一个提交组的数据和有限条拒绝明细
+ */
+@Component
+public class SalesStreamImporter {
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+    static final int MAX_LINE_LENGTH = 64 * 1024; // 单行最大字符数
+    static final int MAX_REPORTED_REJECTIONS = 1000; // 返回的拒绝明细上限，超出部分只计数
+
+    private final SalesService salesService;
+    private final SalesBulkIngestor bulkIngestor;
+    private final ObjectReader salesReader;
+
+    @Autowired
+    public SalesStreamImporter(SalesService salesService, SalesBulkIngestor bulkIngestor, ObjectMapper objectMapper) {
+        this.salesService = salesService;
+        this.bulkIngestor = bulkIngestor;
+        this.salesReader = objectMapper.readerFor(Sales.class);
+    }
+
+    /**
+     * 导入销售数据
+     * @param input 字符输入流，由调用方负责关闭
+     * @param format 数据格式
+     * @return 导入结果，行号从1开始（CSV表头为第1行），空行不计入
+     * @throws IllegalArgumentException CSV表头缺少必需列时抛出
+     */
+    public SalesImportSummary importSales(Reader input, SalesImportFormat format) {
+        return importSales(input, format, 0, SalesImportListener.NONE);
+    }
+
+    /**
+     * 从指定行之后继续导入销售数据，用于失败任务续传
+     * @param input 字符输入流，由调用方负责关闭
+     * @param format 数据格式
+     * @param resumeAfterRow 跳过行号不大于该值的数据行，0表示从头导入
+     * @param listener 拒绝和提交回调
+     * @return 本次导入的结果，不包含跳过的行
+     * @throws IllegalArgumentException CSV表头缺少必需列时抛出
+     */
+    public SalesImportSummary importSales(Reader input, SalesImportFormat format, long resumeAfterRow,
+                                          SalesImportListener listener) {
+        if (input == null || format == null || listener == null) {
+            throw new IllegalArgumentException("Input, format and listener cannot be null");
+        }
+        long start = System.currentTimeMillis();
+        BoundedLineReader lines = new BoundedLineReader(input, MAX_LINE_LENGTH);
+        RowParser parser = format == SalesImportFormat.CSV ? csvParser(lines) : this::parseJson;
+
+        ValidatingRowIterator rows = new ValidatingRowIterator(lines, parser, resumeAfterRow, listener);
+        BulkIngestResult result = bulkIngestor.ingest(rows, new IngestProgressListener() {
+            @Override
+            public void onCommitted(int committedChunks, long committedRows) {
+                // 提交时迭代器尚未预读下一行，最后返回的行即为续传位置
+                listener.onCommitted(rows.lastReturnedRow, committedRows);
+            }
+        });
+
+        SalesImportSummary summary = new SalesImportSummary();
+        summary.setAcceptedRows(result.getRows());
+        summary.setRejectedRows(rows.rejectedRows);
+        summary.setTotalRows(result.getRows() + rows.rejectedRows);
+        summary.setRejections(rows.rejections);
+        summary.setRejectionsTruncated(rows.rejectedRows > rows.rejections.size());
+        summary.setElapsedMillis(System.currentTimeMillis() - start);
+        return summary;
+    }
+
+    private Sales parseJson(String line) {
+        try {
+            return salesReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    /**
+     * 读取CSV表头并返回按列名取值的解析器
+     * 必需列：sale_date（或 saleDate）、product、region、amount，其余列忽略
+     */
+    private static RowParser csvParser(BoundedLineReader lines) {
+        String header;
+        try {
+            header = lines.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (header == null) {
+            throw new IllegalArgumentException("CSV header is missing");
+        }
+        // 去掉UTF-8 BOM
+        if (header.startsWith("\uFEFF")) {
+            header = header.substring(1);
+        }
+        List<String> columns = splitCsvLine(header);
+        int dateIndex = -1;
+        int productIndex = -1;
+        int regionIndex = -1;
+        int amountIndex = -1;
+        for (int i = 0; i < columns.size(); i++) {
+            String column = columns.get(i).trim().toLowerCase(Locale.ROOT).replace("_", "");
+            if ("saledate".equals(column)) {
+                dateIndex = i;
+            } else if ("product".equals(column)) {
+                productIndex = i;
+            } else if ("region".equals(column)) {
+                regionIndex = i;
+            } else if ("amount".equals(column)) {
+                amountIndex = i;
+            }
+        }
+        if (dateIndex < 0 || productIndex < 0 || regionIndex < 0 || amountIndex < 0) {
+            throw new IllegalArgumentException("CSV header must contain sale_date, product, region and amount");
+        }
+
+        int width = columns.size();
+        int[] index = {dateIndex, productIndex, regionIndex, amountIndex};
+        return line -> {
+            List<String> fields = splitCsvLine(line);
+            if (fields.size() != width) {
+                throw new IllegalArgumentException("Expected " + width + " columns but found " + fields.size());
+            }
+            Sales sales = new Sales();
+            String date = fields.get(index[0]).trim();
+            if (!date.isEmpty()) {
+                LocalDate saleDate = DateUtils.parseLocalDate(date);
+                if (saleDate == null) {
+                    throw new IllegalArgumentException("Invalid sale date: " + date);
+                }
+                sales.setSaleDate(saleDate);
+            }
+            sales.setProduct(fields.get(index[1]));
+            sales.setRegion(fields.get(index[2]));
+            String amount = fields.get(index[3]).trim();
+            if (!amount.isEmpty()) {
+                try {
+                    sales.setAmount(new BigDecimal(amount));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid amount: " + amount);
+                }
+            }
+            return sales;
+        };
+    }
+
+    /**
+     * 按RFC 4180拆分一行CSV，支持双引号包裹和 "" 转义，不支持字段内换行
+     */
+    static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * 单行解析器，解析失败抛出 IllegalArgumentException
+     */
+    private interface RowParser {
+        Sales parse(String line);
+    }
+
+    /**
+     * 逐行解析并校验，只向下游输出合格的记录，不合格的行记录行号和原因
+     */
+    private class ValidatingRowIterator implements Iterator<Sales> {
+
+        private final BoundedLineReader lines;
+        private final RowParser parser;
+        private final long resumeAfterRow;
+        private final SalesImportListener listener;
+        private final List<SalesImportRejection> rejections = new ArrayList<>();
+        private long rejectedRows;
+        private long nextRow;
+        private long lastReturnedRow;
+        private Sales next;
+        private boolean finished;
+
+        ValidatingRowIterator(BoundedLineReader lines, RowParser parser, long resumeAfterRow,
+                              SalesImportListener listener) {
+            this.lines = lines;
+            this.parser = parser;
+            this.resumeAfterRow = resumeAfterRow;
+            this.listener = listener;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && !finished) {
+                String line;
+                try {
+                    line = lines.readLine();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (line == null) {
+                    finished = true;
+                } else if (lines.getLineNumber() <= resumeAfterRow) {
+                    continue;
+                } else if (lines.isOverflow()) {
+                    reject(lines.getLineNumber(), "Line exceeds " + MAX_LINE_LENGTH + " characters");
+                } else if (!line.trim().isEmpty()) {
+                    try {
+                        Sales sales = parser.parse(line);
+                        salesService.validateSales(sales);
+                        next = sales;
+                        nextRow = lines.getLineNumber();
+                    } catch (IllegalArgumentException e) {
+                        reject(lines.getLineNumber(), e.getMessage());
+                    }
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Sales next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Sales sales = next;
+            next = null;
+            lastReturnedRow = nextRow;
+            return sales;
+        }
+
+        private void reject(long rowNumber, String message) {
+            rejectedRows++;
+            listener.onRejected(rowNumber, message);
+            if (rejections.size() < MAX_REPORTED_REJECTIONS) {
+                rejections.add(new SalesImportRejection(rowNumber, message));
+            }
+        }
+    }
+}
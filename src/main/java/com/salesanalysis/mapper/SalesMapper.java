@@ -1,10 +1,17 @@
 package com.salesanalysis.mapper;
 
 import com.salesanalysis.model.Sales;
+import com.salesanalysis.model.SalesChange;
+import com.salesanalysis.model.SalesDataVersion;
+import com.salesanalysis.model.SalesRanking;
+import com.salesanalysis.model.SalesRollupDelta;
 import com.salesanalysis.model.SalesSummary;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Mapper
@@ -12,9 +19,30 @@ public interface SalesMapper {
     // 查询所有销售记录
     List<Sales> findAll();
 
+    // 统计销售记录总数
+    long countAll();
+
+    // 基于游标（上一页最后一条记录ID）的分页查询
+    List<Sales> findPage(@Param("cursor") Integer cursor, @Param("limit") int limit);
+
+    // 流式查询所有销售记录，逐行回调，不在内存中保留整表
+    void streamAll(ResultHandler<Sales> handler);
+
+    // 按ID顺序流式查询ID大于 afterId 的记录，用于从快照水位追赶
+    void streamAfter(@Param("afterId") int afterId, ResultHandler<Sales> handler);
+
+    // 流式查询某一天的全部记录，用于刷新该日期的草图
+    void streamByDate(@Param("saleDate") LocalDate saleDate, ResultHandler<Sales> handler);
+
     // 根据ID查询销售记录
     Sales findById(Integer id);
 
+    // 加锁读取更新、删除前的记录
+    Sales findByIdForUpdate(Integer id);
+
+    // 加锁批量读取更新、删除前的记录，不存在的ID不返回
+    List<Sales> findByIdsForUpdate(@Param("ids") List<Integer> ids);
+
     // 新增销售记录
     int insert(Sales sales);
 
@@ -24,12 +52,69 @@ public interface SalesMapper {
     // 删除销售记录
     int delete(Integer id);
 
-    // 聚合查询销售数据
+    // 聚合查询销售数据（读取按日预聚合的汇总表）
     List<SalesSummary> aggregateSales(
             @Param("date") String date,
+            @Param("from") String from,
+            @Param("to") String to,
             @Param("product") String product,
             @Param("region") String region);
 
+    // 按排名维度（及可选的分组维度）汇总金额，逐行回调；by/per 为 SalesDimension 的列名
+    void rankTotals(@Param("by") String byColumn,
+                    @Param("per") String perColumn,
+                    @Param("from") String from,
+                    @Param("to") String to,
+                    @Param("product") String product,
+                    @Param("region") String region,
+                    ResultHandler<SalesRanking> handler);
+
+    // 按日汇总金额（不分产品、区域），逐行回调
+    void dailyTotals(@Param("from") String from,
+                     @Param("to") String to,
+                     @Param("product") String product,
+                     @Param("region") String region,
+                     ResultHandler<SalesSummary> handler);
+
     // 批量插入销售数据
     int batchInsert(@Param("salesList") List<Sales> salesList);
+
+    // 按 (日期, 产品, 区域) 累加汇总表增量
+    int upsertRollup(@Param("deltas") List<SalesRollupDelta> deltas);
+
+    // 清空汇总表指定日期范围（为空表示不限）的分组
+    int clearRollup(@Param("from") String from, @Param("to") String to);
+
+    // 从原始销售数据重新计算汇总表指定日期范围（为空表示不限）的分组
+    int rebuildRollup(@Param("from") String from, @Param("to") String to);
+
+    // 锁定变更日志的序号行，持有到事务结束，使变更序号的分配顺序与提交顺序一致
+    int lockChangeLog();
+
+    // 写入变更日志，序号由自增列分配
+    int insertChanges(@Param("changes") List<SalesChange> changes);
+
+    // 按序号查询 since 之后的变更
+    List<SalesChange> findChangesSince(@Param("since") long since, @Param("limit") int limit);
+
+    // 查询数据版本（最大ID与最大变更序号），两次主键索引查找
+    SalesDataVersion dataVersion();
+
+    // 变更日志中最小的序号，没有变更时为null
+    Long minChangeSeq();
+
+    // 变更日志中最大的序号，没有变更时为null
+    Long maxChangeSeq();
+
+    // 删除早于指定时间且序号小于 keepFrom 的变更日志，每次最多删除 limit 条
+    int purgeChanges(@Param("before") LocalDateTime before, @Param("keepFrom") long keepFrom, @Param("limit") int limit);
+
+    // 在当前事务内记录变更；应作为事务的最后一条语句，缩短持有序号行锁的时间
+    default void recordChanges(List<SalesChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        lockChangeLog();
+        insertChanges(changes);
+    }
 }
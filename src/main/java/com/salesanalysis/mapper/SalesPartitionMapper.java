@@ -0,0 +1,31 @@
+package com.salesanalysis.mapper;
+
+import com.salesanalysis.model.SalesPartition;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * sales 表分区维护，DDL 中的分区名和表名由 SalesPartitionManager 生成并校验后拼接
+ */
+@Mapper
+public interface SalesPartitionMapper {
+    // 按顺序列出 sales 表的分区，未分区时返回空列表
+    List<SalesPartition> listPartitions();
+
+    // 从 p_future 拆出新的月度分区，p_future 为空时只修改元数据
+    int reorganizeFuturePartition(@Param("partitions") List<SalesPartition> partitions);
+
+    // 删除分区及其中的数据
+    int dropPartitions(@Param("names") List<String> names);
+
+    // 创建与 sales 结构相同的未分区归档表
+    int createArchiveTable(@Param("table") String table);
+
+    // 去掉归档表从 sales 复制来的分区定义，EXCHANGE PARTITION 要求目标表未分区
+    int removeArchiveTablePartitioning(@Param("table") String table);
+
+    // 用空的归档表交换分区，交换后分区为空、数据在归档表中
+    int exchangePartition(@Param("partition") String partition, @Param("table") String table);
+}
@@ -0,0 +1,133 @@
+package com.salesanalysis.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.reflection.ExceptionUtil;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MyBatis 插件：按语句ID记录执行耗时（mybatis.statement）和返回/影响行数（mybatis.statement.rows）
+ * 由 mybatis-spring-boot 自动注册到 SqlSessionFactory，BATCH 执行器的语句只记录入队耗时，不记录行数
+ */
+@Component
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "update",
+                args = {MappedStatement.class, Object.class})
+})
+public class MybatisMetricsInterceptor implements Interceptor {
+
+    static final String TIMER_NAME = "mybatis.statement";
+    static final String ROWS_NAME = "mybatis.statement.rows";
+
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public MybatisMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object[] args = invocation.getArgs();
+        MappedStatement statement = (MappedStatement) args[0];
+        String statementId = shortId(statement.getId());
+        String command = statement.getSqlCommandType().name();
+
+        // 流式查询通过 ResultHandler 逐行回调，返回值为空，需包装回调计数
+        CountingResultHandler countingHandler = null;
+        if (args.length > 3 && args[3] instanceof ResultHandler) {
+            countingHandler = new CountingResultHandler((ResultHandler) args[3]);
+            args[3] = countingHandler;
+        }
+
+        long start = System.nanoTime();
+        String exception = "none";
+        Object result = null;
+        try {
+            result = invocation.proceed();
+            return result;
+        } catch (Throwable e) {
+            // Invocation.proceed 通过反射调用，真实异常包在 InvocationTargetException 中
+            exception = ExceptionUtil.unwrapThrowable(e).getClass().getSimpleName();
+            throw e;
+        } finally {
+            Timer.builder(TIMER_NAME)
+                    .description("MyBatis statement latency")
+                    .tag("statement", statementId)
+                    .tag("command", command)
+                    .tag("exception", exception)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            long rows = countingHandler != null ? countingHandler.count() : rowsOf(result);
+            if (rows >= 0) {
+                DistributionSummary.builder(ROWS_NAME)
+                        .description("Rows returned or affected per MyBatis statement")
+                        .tag("statement", statementId)
+                        .tag("command", command)
+                        .register(meterRegistry)
+                        .record(rows);
+            }
+        }
+    }
+
+    // com.salesanalysis.mapper.SalesMapper.findById -> SalesMapper.findById
+    static String shortId(String id) {
+        int method = id.lastIndexOf('.');
+        int type = method > 0 ? id.lastIndexOf('.', method - 1) : -1;
+        return type >= 0 ? id.substring(type + 1) : id;
+    }
+
+    // 查询返回列表大小，更新返回影响行数；BATCH 执行器返回的占位值为负数，忽略
+    static long rowsOf(Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Integer) {
+            return (Integer) result;
+        }
+        return -1;
+    }
+
+    /**
+     * 透传结果回调并统计行数
+     */
+    static final class CountingResultHandler<T> implements ResultHandler<T> {
+        private final ResultHandler<T> delegate;
+        private long count;
+
+        CountingResultHandler(ResultHandler<T> delegate) {
+            this.delegate = delegate;
+        }
+
+        long count() {
+            return count;
+        }
+
+        @Override
+        public void handleResult(ResultContext<? extends T> resultContext) {
+            count++;
+            delegate.handleResult(resultContext);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.salesanalysis.metrics;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.ExceptionUtil;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Array;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * MyBatis 慢查询日志插件，替代逐条输出SQL的 StdOutImpl
+ * 耗时超过阈值的语句全部记录，其余按采样率抽样记录；日志写入独立的 sales.slow-query 记录器，
+ * 由 logback-spring.xml 中的异步追加器输出，参数摘要只在确定要记录时才生成
+ */
+@Component
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "update",
+                args = {MappedStatement.class, Object.class})
+})
+public class SlowQueryInterceptor implements Interceptor {
+
+    static final String LOGGER_NAME = "sales.slow-query";
+
+    private static final Logger log = LoggerFactory.getLogger(LOGGER_NAME);
+    private static final Pattern GENERATED_PARAM = Pattern.compile("param\\d+");
+
+    private final long thresholdNanos;
+    private final double sampleRate;
+    private final int maxParameterLength;
+
+    @Autowired
+    public SlowQueryInterceptor(@Value("${sales.slow-query.threshold:200ms}") Duration threshold,
+                                @Value("${sales.slow-query.sample-rate:0.0}") double sampleRate,
+                                @Value("${sales.slow-query.max-parameter-length:256}") int maxParameterLength) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("sales.slow-query.sample-rate must be between 0 and 1");
+        }
+        this.thresholdNanos = threshold.toNanos();
+        this.sampleRate = sampleRate;
+        this.maxParameterLength = maxParameterLength;
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object[] args = invocation.getArgs();
+        MybatisMetricsInterceptor.CountingResultHandler countingHandler = null;
+        if (args.length > 3 && args[3] instanceof ResultHandler) {
+            countingHandler = new MybatisMetricsInterceptor.CountingResultHandler((ResultHandler) args[3]);
+            args[3] = countingHandler;
+        }
+
+        long start = System.nanoTime();
+        Object result = null;
+        Throwable failure = null;
+        try {
+            result = invocation.proceed();
+            return result;
+        } catch (Throwable e) {
+            failure = ExceptionUtil.unwrapThrowable(e);
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            boolean slow = elapsed >= thresholdNanos;
+            if (slow || sampled()) {
+                MappedStatement statement = (MappedStatement) args[0];
+                long rows = countingHandler != null ? countingHandler.count()
+                        : MybatisMetricsInterceptor.rowsOf(result);
+                log(statement, args[1], elapsed, rows, slow, failure);
+            }
+        }
+    }
+
+    private boolean sampled() {
+        return sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    private void log(MappedStatement statement, Object parameter, long elapsedNanos, long rows,
+                     boolean slow, Throwable failure) {
+        String message = "statement={} elapsedMs={} rows={} slow={} params={}";
+        Object[] values = {MybatisMetricsInterceptor.shortId(statement.getId()),
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                rows >= 0 ? rows : "n/a", slow, summarize(parameter)};
+        if (failure != null) {
+            log.warn(message + " error={}", append(values, failure.toString()));
+        } else if (slow) {
+            log.warn(message, values);
+        } else {
+            log.info(message, values);
+        }
+    }
+
+    /**
+     * 生成有长度上限的参数摘要：集合只输出元素个数，Map 输出各键的摘要
+     * MyBatis 为多参数方法生成的 param1、param2 等重复键会被跳过
+     */
+    String summarize(Object parameter) {
+        StringBuilder builder = new StringBuilder();
+        appendSummary(builder, parameter);
+        if (builder.length() > maxParameterLength) {
+            builder.setLength(maxParameterLength);
+            builder.append("...");
+        }
+        return builder.toString();
+    }
+
+    private void appendSummary(StringBuilder builder, Object value) {
+        if (value instanceof Map) {
+            builder.append('{');
+            Iterator<? extends Map.Entry<?, ?>> entries = ((Map<?, ?>) value).entrySet().iterator();
+            boolean first = true;
+            while (entries.hasNext() && builder.length() <= maxParameterLength) {
+                Map.Entry<?, ?> entry = entries.next();
+                String key = String.valueOf(entry.getKey());
+                if (GENERATED_PARAM.matcher(key).matches()) {
+                    continue;
+                }
+                if (!first) {
+                    builder.append(", ");
+                }
+                first = false;
+                builder.append(key).append('=');
+                appendScalar(builder, entry.getValue());
+            }
+            builder.append('}');
+        } else {
+            appendScalar(builder, value);
+        }
+    }
+
+    private static void appendScalar(StringBuilder builder, Object value) {
+        if (value instanceof Collection) {
+            builder.append('[').append(((Collection<?>) value).size()).append(" items]");
+        } else if (value != null && value.getClass().isArray()) {
+            builder.append('[').append(Array.getLength(value)).append(" items]");
+        } else {
+            builder.append(value);
+        }
+    }
+
+    private static Object[] append(Object[] values, Object last) {
+        Object[] result = new Object[values.length + 1];
+        System.arraycopy(values, 0, result, 0, values.length);
+        result[values.length] = last;
+        return result;
+    }
+}
@@ -0,0 +1,91 @@
+package com.salesanalysis.model;
+
+public class BulkIngestResult {
+    private long rows;
+    private int chunks;
+    private int commits;
+    private long elapsedMillis;
+    private double minChunkMillis;
+    private double maxChunkMillis;
+    private double avgChunkMillis;
+    private long rowsPerSecond;
+
+    // getter and setter methods
+    public long getRows() {
+        return rows;
+    }
+
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+
+    public int getChunks() {
+        return chunks;
+    }
+
+    public void setChunks(int chunks) {
+        this.chunks = chunks;
+    }
+
+    public int getCommits() {
+        return commits;
+    }
+
+    public void setCommits(int commits) {
+        this.commits = commits;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public double getMinChunkMillis() {
+        return minChunkMillis;
+    }
+
+    public void setMinChunkMillis(double minChunkMillis) {
+        this.minChunkMillis = minChunkMillis;
+    }
+
+    public double getMaxChunkMillis() {
+        return maxChunkMillis;
+    }
+
+    public void setMaxChunkMillis(double maxChunkMillis) {
+        this.maxChunkMillis = maxChunkMillis;
+    }
+
+    public double getAvgChunkMillis() {
+        return avgChunkMillis;
+    }
+
+    public void setAvgChunkMillis(double avgChunkMillis) {
+        this.avgChunkMillis = avgChunkMillis;
+    }
+
+    public long getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(long rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkIngestResult{" +
+                "rows=" + rows +
+                ", chunks=" + chunks +
+                ", commits=" + commits +
+                ", elapsedMillis=" + elapsedMillis +
+                ", minChunkMillis=" + minChunkMillis +
+                ", maxChunkMillis=" + maxChunkMillis +
+                ", avgChunkMillis=" + avgChunkMillis +
+                ", rowsPerSecond=" + rowsPerSecond +
+                '}';
+    }
+}
@@ -0,0 +1,50 @@
+package com.salesanalysis.model;
+
+public class BulkItemResult {
+    private Integer id;
+    private BulkItemStatus status;
+    private String message;
+
+    public BulkItemResult() {
+    }
+
+    public BulkItemResult(Integer id, BulkItemStatus status, String message) {
+        this.id = id;
+        this.status = status;
+        this.message = message;
+    }
+
+    // getter and setter methods
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public BulkItemStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(BulkItemStatus status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkItemResult{" +
+                "id=" + id +
+                ", status=" + status +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,12 @@
+package com.salesanalysis.model;
+
+public enum BulkItemStatus {
+    // 已更新
+    UPDATED,
+    // 已删除
+    DELETED,
+    // 记录不存在
+    NOT_FOUND,
+    // 校验未通过，未执行
+    INVALID
+}
@@ -0,0 +1,62 @@
+package com.salesanalysis.model;
+
+import java.util.List;
+
+public class BulkMutationResult {
+    private int requested;
+    private int succeeded;
+    private int notFound;
+    private int invalid;
+    private List<BulkItemResult> results;
+
+    // getter and setter methods
+    public int getRequested() {
+        return requested;
+    }
+
+    public void setRequested(int requested) {
+        this.requested = requested;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    public int getNotFound() {
+        return notFound;
+    }
+
+    public void setNotFound(int notFound) {
+        this.notFound = notFound;
+    }
+
+    public int getInvalid() {
+        return invalid;
+    }
+
+    public void setInvalid(int invalid) {
+        this.invalid = invalid;
+    }
+
+    public List<BulkItemResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<BulkItemResult> results) {
+        this.results = results;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkMutationResult{" +
+                "requested=" + requested +
+                ", succeeded=" + succeeded +
+                ", notFound=" + notFound +
+                ", invalid=" + invalid +
+                '}';
+    }
+}
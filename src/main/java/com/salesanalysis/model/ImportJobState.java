@@ -0,0 +1,14 @@
+package com.salesanalysis.model;
+
+public enum ImportJobState {
+    // 已排队等待执行
+    QUEUED,
+    // 正在执行
+    RUNNING,
+    // 写入失败，等待自动重试，不能续传
+    RETRYING,
+    // 已全部导入
+    COMPLETED,
+    // 执行失败，可从最后提交的位置续传
+    FAILED
+}
@@ -0,0 +1,150 @@
+package com.salesanalysis.model;
+
+import java.util.Date;
+import java.util.List;
+
+public class ImportJobStatus {
+    private String id;
+    private ImportJobState state;
+    private String format;
+    private long rowsProcessed;
+    private long acceptedRows;
+    private long rejectedRows;
+    private long lastCommittedRow;
+    private long rowsPerSecond;
+    private int attempts;
+    private String error;
+    private List<SalesImportRejection> rejections;
+    private Date createdAt;
+    private Date startedAt;
+    private Date finishedAt;
+
+    // getter and setter methods
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public ImportJobState getState() {
+        return state;
+    }
+
+    public void setState(ImportJobState state) {
+        this.state = state;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public long getRowsProcessed() {
+        return rowsProcessed;
+    }
+
+    public void setRowsProcessed(long rowsProcessed) {
+        this.rowsProcessed = rowsProcessed;
+    }
+
+    public long getAcceptedRows() {
+        return acceptedRows;
+    }
+
+    public void setAcceptedRows(long acceptedRows) {
+        this.acceptedRows = acceptedRows;
+    }
+
+    public long getRejectedRows() {
+        return rejectedRows;
+    }
+
+    public void setRejectedRows(long rejectedRows) {
+        this.rejectedRows = rejectedRows;
+    }
+
+    public long getLastCommittedRow() {
+        return lastCommittedRow;
+    }
+
+    public void setLastCommittedRow(long lastCommittedRow) {
+        this.lastCommittedRow = lastCommittedRow;
+    }
+
+    public long getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(long rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public List<SalesImportRejection> getRejections() {
+        return rejections;
+    }
+
+    public void setRejections(List<SalesImportRejection> rejections) {
+        this.rejections = rejections;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Date getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Date startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Date getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Date finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportJobStatus{" +
+                "id='" + id + '\'' +
+                ", state=" + state +
+                ", format='" + format + '\'' +
+                ", rowsProcessed=" + rowsProcessed +
+                ", acceptedRows=" + acceptedRows +
+                ", rejectedRows=" + rejectedRows +
+                ", lastCommittedRow=" + lastCommittedRow +
+                ", rowsPerSecond=" + rowsPerSecond +
+                ", attempts=" + attempts +
+                ", error='" + error + '\'' +
+                '}';
+    }
+}
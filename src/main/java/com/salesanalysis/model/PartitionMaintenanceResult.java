@@ -0,0 +1,64 @@
+package com.salesanalysis.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PartitionMaintenanceResult {
+    private List<String> created = new ArrayList<>();
+    private List<String> dropped = new ArrayList<>();
+    private List<String> archiveTables = new ArrayList<>();
+    private String expiredBefore; // 早于该日期的数据已过期，未启用保留期时为 null
+    private int rollupRowsDeleted;
+
+    // getter and setter methods
+    public List<String> getCreated() {
+        return created;
+    }
+
+    public void setCreated(List<String> created) {
+        this.created = created;
+    }
+
+    public List<String> getDropped() {
+        return dropped;
+    }
+
+    public void setDropped(List<String> dropped) {
+        this.dropped = dropped;
+    }
+
+    public List<String> getArchiveTables() {
+        return archiveTables;
+    }
+
+    public void setArchiveTables(List<String> archiveTables) {
+        this.archiveTables = archiveTables;
+    }
+
+    public String getExpiredBefore() {
+        return expiredBefore;
+    }
+
+    public void setExpiredBefore(String expiredBefore) {
+        this.expiredBefore = expiredBefore;
+    }
+
+    public int getRollupRowsDeleted() {
+        return rollupRowsDeleted;
+    }
+
+    public void setRollupRowsDeleted(int rollupRowsDeleted) {
+        this.rollupRowsDeleted = rollupRowsDeleted;
+    }
+
+    @Override
+    public String toString() {
+        return "PartitionMaintenanceResult{" +
+                "created=" + created +
+                ", dropped=" + dropped +
+                ", archiveTables=" + archiveTables +
+                ", expiredBefore='" + expiredBefore + '\'' +
+                ", rollupRowsDeleted=" + rollupRowsDeleted +
+                '}';
+    }
+}
@@ -1,11 +1,11 @@
 package com.salesanalysis.model;
 
 import java.math.BigDecimal;
-import java.util.Date;
+import java.time.LocalDate;
 
 public class Sales {
     private Integer id;
-    private Date saleDate;
+    private LocalDate saleDate;
     private String product;
     private String region;
     private BigDecimal amount;
@@ -19,11 +19,11 @@ public class Sales {
         this.id = id;
     }
 
-    public Date getSaleDate() {
+    public LocalDate getSaleDate() {
         return saleDate;
     }
 
-    public void setSaleDate(Date saleDate) {
+    public void setSaleDate(LocalDate saleDate) {
         this.saleDate = saleDate;
     }
 
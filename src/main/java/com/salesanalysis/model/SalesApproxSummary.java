@@ -0,0 +1,93 @@
+package com.salesanalysis.model;
+
+import java.math.BigDecimal;
+
+public class SalesApproxSummary {
+    private String product;
+    private String region;
+    private BigDecimal totalAmount; // 精确值
+    private long count; // 精确值
+    private long distinctAmounts; // 不同金额数的估计值（HyperLogLog）
+    private BigDecimal p50; // 单笔金额分位数的估计值（KLL）
+    private BigDecimal p90;
+    private BigDecimal p99;
+
+    // getter and setter methods
+    public String getProduct() {
+        return product;
+    }
+
+    public void setProduct(String product) {
+        this.product = product;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public void setRegion(String region) {
+        this.region = region;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public long getDistinctAmounts() {
+        return distinctAmounts;
+    }
+
+    public void setDistinctAmounts(long distinctAmounts) {
+        this.distinctAmounts = distinctAmounts;
+    }
+
+    public BigDecimal getP50() {
+        return p50;
+    }
+
+    public void setP50(BigDecimal p50) {
+        this.p50 = p50;
+    }
+
+    public BigDecimal getP90() {
+        return p90;
+    }
+
+    public void setP90(BigDecimal p90) {
+        this.p90 = p90;
+    }
+
+    public BigDecimal getP99() {
+        return p99;
+    }
+
+    public void setP99(BigDecimal p99) {
+        this.p99 = p99;
+    }
+
+    @Override
+    public String toString() {
+        return "SalesApproxSummary{" +
+                "product='" + product + '\'' +
+                ", region='" + region + '\'' +
+                ", totalAmount=" + totalAmount +
+                ", count=" + count +
+                ", distinctAmounts=" + distinctAmounts +
+                ", p50=" + p50 +
+                ", p90=" + p90 +
+                ", p99=" + p99 +
+                '}';
+    }
+}
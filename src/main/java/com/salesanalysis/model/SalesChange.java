@@ -0,0 +1,95 @@
+package com.salesanalysis.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public class SalesChange {
+    private Long seq;
+    private SalesChangeType type;
+    private Integer salesId;
+    private LocalDate saleDate;
+    private String product;
+    private String region;
+    private BigDecimal amount;
+    private LocalDateTime changedAt;
+
+    // getter and setter methods
+    public Long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(Long seq) {
+        this.seq = seq;
+    }
+
+    public SalesChangeType getType() {
+        return type;
+    }
+
+    public void setType(SalesChangeType type) {
+        this.type = type;
+    }
+
+    public Integer getSalesId() {
+        return salesId;
+    }
+
+    public void setSalesId(Integer salesId) {
+        this.salesId = salesId;
+    }
+
+    public LocalDate getSaleDate() {
+        return saleDate;
+    }
+
+    public void setSaleDate(LocalDate saleDate) {
+        this.saleDate = saleDate;
+    }
+
+    public String getProduct() {
+        return product;
+    }
+
+    public void setProduct(String product) {
+        this.product = product;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public void setRegion(String region) {
+        this.region = region;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "SalesChange{" +
+                "seq=" + seq +
+                ", type=" + type +
+                ", salesId=" + salesId +
+                ", saleDate=" + saleDate +
+                ", product='" + product + '\'' +
+                ", region='" + region + '\'' +
+                ", amount=" + amount +
+                ", changedAt=" + changedAt +
+                '}';
+    }
+}
@@ -0,0 +1,53 @@
+package com.salesanalysis.model;
+
+import java.util.List;
+
+public class SalesChangePage {
+    private List<SalesChange> items;
+    private long nextSince;
+    private boolean hasMore;
+    private boolean resetRequired;
+
+    // getter and setter methods
+    public List<SalesChange> getItems() {
+        return items;
+    }
+
+    public void setItems(List<SalesChange> items) {
+        this.items = items;
+    }
+
+    public long getNextSince() {
+        return nextSince;
+    }
+
+    public void setNextSince(long nextSince) {
+        this.nextSince = nextSince;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public boolean isResetRequired() {
+        return resetRequired;
+    }
+
+    public void setResetRequired(boolean resetRequired) {
+        this.resetRequired = resetRequired;
+    }
+
+    @Override
+    public String toString() {
+        return "SalesChangePage{" +
+                "items=" + (items != null ? items.size() : 0) +
+                ", nextSince=" + nextSince +
+                ", hasMore=" + hasMore +
+                ", resetRequired=" + resetRequired +
+                '}';
+    }
+}
@@ -0,0 +1,12 @@
+package com.salesanalysis.model;
+
+public enum SalesChangeType {
+    // 新增，携带新增后的完整记录
+    INSERT,
+    // 更新，携带更新后的完整记录
+    UPDATE,
+    // 删除，只携带记录ID
+    DELETE,
+    // 分区过期，saleDate 之前的记录全部删除，不携带记录ID
+    EXPIRE
+}
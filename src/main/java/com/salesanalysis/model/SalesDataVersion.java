@@ -0,0 +1,31 @@
+package com.salesanalysis.model;
+
+public class SalesDataVersion {
+    private long maxId;
+    private long maxChangeSeq;
+
+    // getter and setter methods
+    public long getMaxId() {
+        return maxId;
+    }
+
+    public void setMaxId(long maxId) {
+        this.maxId = maxId;
+    }
+
+    public long getMaxChangeSeq() {
+        return maxChangeSeq;
+    }
+
+    public void setMaxChangeSeq(long maxChangeSeq) {
+        this.maxChangeSeq = maxChangeSeq;
+    }
+
+    @Override
+    public String toString() {
+        return "SalesDataVersion{" +
+                "maxId=" + maxId +
+                ", maxChangeSeq=" + maxChangeSeq +
+                '}';
+    }
+}
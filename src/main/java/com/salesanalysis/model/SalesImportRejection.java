@@ -0,0 +1,39 @@
+package com.salesanalysis.model;
+
+public class SalesImportRejection {
+    private long rowNumber;
+    private String message;
+
+    public SalesImportRejection() {
+    }
+
+    public SalesImportRejection(long rowNumber, String message) {
+        this.rowNumber = rowNumber;
+        this.message = message;
+    }
+
+    // getter and setter methods
+    public long getRowNumber() {
+        return rowNumber;
+    }
+
+    public void setRowNumber(long rowNumber) {
+        this.rowNumber = rowNumber;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public String toString() {
+        return "SalesImportRejection{" +
+                "rowNumber=" + rowNumber +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,72 @@
+package com.salesanalysis.model;
+
+import java.util.List;
+
+public class SalesImportSummary {
+    private long totalRows;
+    private long acceptedRows;
+    private long rejectedRows;
+    private List<SalesImportRejection> rejections;
+    private boolean rejectionsTruncated;
+    private long elapsedMillis;
+
+    // getter and setter methods
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    public void setTotalRows(long totalRows) {
+        this.totalRows = totalRows;
+    }
+
+    public long getAcceptedRows() {
+        return acceptedRows;
+    }
+
+    public void setAcceptedRows(long acceptedRows) {
+        this.acceptedRows = acceptedRows;
+    }
+
+    public long getRejectedRows() {
+        return rejectedRows;
+    }
+
+    public void setRejectedRows(long rejectedRows) {
+        this.rejectedRows = rejectedRows;
+    }
+
+    public List<SalesImportRejection> getRejections() {
+        return rejections;
+    }
+
+    public void setRejections(List<SalesImportRejection> rejections) {
+        this.rejections = rejections;
+    }
+
+    public boolean isRejectionsTruncated() {
+        return rejectionsTruncated;
+    }
+
+    public void setRejectionsTruncated(boolean rejectionsTruncated) {
+        this.rejectionsTruncated = rejectionsTruncated;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "SalesImportSummary{" +
+                "totalRows=" + totalRows +
+                ", acceptedRows=" + acceptedRows +
+                ", rejectedRows=" + rejectedRows +
+                ", rejectionsTruncated=" + rejectionsTruncated +
+                ", elapsedMillis=" + elapsedMillis +
+                '}';
+    }
+}
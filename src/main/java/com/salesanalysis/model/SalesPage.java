@@ -0,0 +1,43 @@
+package com.salesanalysis.model;
+
+import java.util.List;
+
+public class SalesPage {
+    private List<Sales> items;
+    private Integer nextCursor;
+    private boolean hasMore;
+
+    // getter and setter methods
+    public List<Sales> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Sales> items) {
+        this.items = items;
+    }
+
+    public Integer getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Integer nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    @Override
+    public String toString() {
+        return "SalesPage{" +
+                "items=" + (items != null ? items.size() : 0) +
+                ", nextCursor=" + nextCursor +
+                ", hasMore=" + hasMore +
+                '}';
+    }
+}
@@ -0,0 +1,49 @@
+package com.salesanalysis.model;
+
+public class SalesPartition {
+    private String name;
+    private String lessThan; // 分区上界（不含），格式 yyyy-MM-dd，最后一个分区为 MAXVALUE
+    private long rows; // INFORMATION_SCHEMA 中的估算行数
+
+    public SalesPartition() {
+    }
+
+    public SalesPartition(String name, String lessThan) {
+        this.name = name;
+        this.lessThan = lessThan;
+    }
+
+    // getter and setter methods
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getLessThan() {
+        return lessThan;
+    }
+
+    public void setLessThan(String lessThan) {
+        this.lessThan = lessThan;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+
+    @Override
+    public String toString() {
+        return "SalesPartition{" +
+                "name='" + name + '\'' +
+                ", lessThan='" + lessThan + '\'' +
+                ", rows=" + rows +
+                '}';
+    }
+}
@@ -0,0 +1,63 @@
+package com.salesanalysis.model;
+
+import java.math.BigDecimal;
+
+public class SalesRanking {
+    private String group; // 分组内排名时的分组值（如区域），整体排名时为 null
+    private String name; // 被排名的产品或区域
+    private int rank;
+    private BigDecimal totalAmount;
+    private long count;
+
+    // getter and setter methods
+    public String getGroup() {
+        return group;
+    }
+
+    public void setGroup(String group) {
+        this.group = group;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public void setRank(int rank) {
+        this.rank = rank;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    @Override
+    public String toString() {
+        return "SalesRanking{" +
+                "group='" + group + '\'' +
+                ", name='" + name + '\'' +
+                ", rank=" + rank +
+                ", totalAmount=" + totalAmount +
+                ", count=" + count +
+                '}';
+    }
+}
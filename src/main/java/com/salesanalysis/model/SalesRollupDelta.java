@@ -0,0 +1,75 @@
+package com.salesanalysis.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class SalesRollupDelta {
+    private LocalDate saleDate;
+    private String product;
+    private String region;
+    private BigDecimal amountDelta;
+    private int countDelta;
+
+    public SalesRollupDelta() {
+    }
+
+    public SalesRollupDelta(LocalDate saleDate, String product, String region, BigDecimal amountDelta, int countDelta) {
+        this.saleDate = saleDate;
+        this.product = product;
+        this.region = region;
+        this.amountDelta = amountDelta;
+        this.countDelta = countDelta;
+    }
+
+    // getter and setter methods
+    public LocalDate getSaleDate() {
+        return saleDate;
+    }
+
+    public void setSaleDate(LocalDate saleDate) {
+        this.saleDate = saleDate;
+    }
+
+    public String getProduct() {
+        return product;
+    }
+
+    public void setProduct(String product) {
+        this.product = product;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public void setRegion(String region) {
+        this.region = region;
+    }
+
+    public BigDecimal getAmountDelta() {
+        return amountDelta;
+    }
+
+    public void setAmountDelta(BigDecimal amountDelta) {
+        this.amountDelta = amountDelta;
+    }
+
+    public int getCountDelta() {
+        return countDelta;
+    }
+
+    public void setCountDelta(int countDelta) {
+        this.countDelta = countDelta;
+    }
+
+    @Override
+    public String toString() {
+        return "SalesRollupDelta{" +
+                "saleDate=" + saleDate +
+                ", product='" + product + '\'' +
+                ", region='" + region + '\'' +
+                ", amountDelta=" + amountDelta +
+                ", countDelta=" + countDelta +
+                '}';
+    }
+}
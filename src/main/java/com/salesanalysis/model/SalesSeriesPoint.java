@@ -0,0 +1,43 @@
+package com.salesanalysis.model;
+
+import java.math.BigDecimal;
+
+public class SalesSeriesPoint {
+    private String bucket; // 区间起始日期，格式 yyyy-MM-dd（周从周一开始，月从1日开始）
+    private BigDecimal totalAmount;
+    private long count;
+
+    // getter and setter methods
+    public String getBucket() {
+        return bucket;
+    }
+
+    public void setBucket(String bucket) {
+        this.bucket = bucket;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    @Override
+    public String toString() {
+        return "SalesSeriesPoint{" +
+                "bucket='" + bucket + '\'' +
+                ", totalAmount=" + totalAmount +
+                ", count=" + count +
+                '}';
+    }
+}
@@ -0,0 +1,33 @@
+package com.salesanalysis.model;
+
+import java.util.List;
+
+public class SalesSnapshot {
+    private String version;
+    private List<Sales> items;
+
+    // getter and setter methods
+    public String getVersion() {
+        return version;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    public List<Sales> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Sales> items) {
+        this.items = items;
+    }
+
+    @Override
+    public String toString() {
+        return "SalesSnapshot{" +
+                "version='" + version + '\'' +
+                ", items=" + (items != null ? items.size() : 0) +
+                '}';
+    }
+}
@@ -0,0 +1,243 @@
+package com.salesanalysis.partition;
+
+import com.salesanalysis.mapper.SalesMapper;
+import com.salesanalysis.mapper.SalesPartitionMapper;
+import com.salesanalysis.model.PartitionMaintenanceResult;
+import com.salesanalysis.model.SalesPartition;
+import com.salesanalysis.service.SalesChangeListener;
+import com.salesanalysis.util.DateUtils;
+import com.salesanalysis.util.SalesChangeUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * sales 表月度分区维护
+ * 向前：从空的 p_future 拆出未来几个月的分区，只修改元数据；
+ * 过期：保留期之前的分区整体删除，或先与空的归档表交换再删除，耗时与分区行数无关；
+ * 分区删除不触发行级触发器，同时清理汇总表中对应日期的行、写入一条 EXPIRE 变更并通知变更监听器
+ */
+@Component
+public class SalesPartitionManager {
+
+    private static final Logger log = LoggerFactory.getLogger(SalesPartitionManager.class);
+
+    static final String FUTURE_PARTITION = "p_future";
+    static final String MAXVALUE = "MAXVALUE";
+    static final String ARCHIVE_TABLE_PREFIX = "sales_archive_";
+    static final int MAX_MONTHS_AHEAD = 120;
+
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'uuuuMM");
+    // 分区名会直接拼接进 DDL，只接受字母、数字和下划线
+    private static final Pattern SAFE_NAME = Pattern.compile("[A-Za-z0-9_]{1,48}");
+
+    private final SalesPartitionMapper partitionMapper;
+    private final SalesMapper salesMapper;
+    private final TransactionOperations transactionOperations;
+    private final Clock clock;
+    private final int defaultMonthsAhead;
+    private final int defaultRetentionMonths;
+    private final boolean defaultArchive;
+    private List<SalesChangeListener> changeListeners = Collections.emptyList();
+
+    @Autowired
+    public SalesPartitionManager(SalesPartitionMapper partitionMapper, SalesMapper salesMapper,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${sales.partition.months-ahead:3}") int monthsAhead,
+                                 @Value("${sales.partition.retention-months:0}") int retentionMonths,
+                                 @Value("${sales.partition.archive:false}") boolean archive) {
+        this(partitionMapper, salesMapper, new TransactionTemplate(transactionManager), Clock.systemDefaultZone(),
+                monthsAhead, retentionMonths, archive);
+    }
+
+    SalesPartitionManager(SalesPartitionMapper partitionMapper, SalesMapper salesMapper,
+                          TransactionOperations transactionOperations, Clock clock,
+                          int monthsAhead, int retentionMonths, boolean archive) {
+        checkMonths(monthsAhead, retentionMonths);
+        this.partitionMapper = partitionMapper;
+        this.salesMapper = salesMapper;
+        this.transactionOperations = transactionOperations;
+        this.clock = clock;
+        this.defaultMonthsAhead = monthsAhead;
+        this.defaultRetentionMonths = retentionMonths;
+        this.defaultArchive = archive;
+    }
+
+    @Autowired(required = false)
+    public void setChangeListeners(List<SalesChangeListener> changeListeners) {
+        this.changeListeners = changeListeners;
+    }
+
+    public int getDefaultMonthsAhead() {
+        return defaultMonthsAhead;
+    }
+
+    public int getDefaultRetentionMonths() {
+        return defaultRetentionMonths;
+    }
+
+    public boolean isDefaultArchive() {
+        return defaultArchive;
+    }
+
+    /**
+     * 列出 sales 表的分区
+     * @return 按分区顺序排列，未分区时为空列表
+     */
+    public List<SalesPartition> listPartitions() {
+        return partitionMapper.listPartitions();
+    }
+
+    /**
+     * 按配置的默认值维护分区
+     */
+    public PartitionMaintenanceResult maintain() {
+        return maintain(defaultMonthsAhead, defaultRetentionMonths, defaultArchive);
+    }
+
+    /**
+     * 维护分区：补齐到当月之后 monthsAhead 个月，并使早于保留期的分区过期
+     * @param monthsAhead 当月之后需要预先建好的月数
+     * @param retentionMonths 保留当月之前的月数，0 表示不过期
+     * @param archive 过期分区是否转存到 sales_archive_{分区名} 表，否则直接删除
+     * @return 新建、删除和归档的分区
+     */
+    public synchronized PartitionMaintenanceResult maintain(int monthsAhead, int retentionMonths, boolean archive) {
+        checkMonths(monthsAhead, retentionMonths);
+        List<SalesPartition> partitions = partitionMapper.listPartitions();
+        if (partitions.isEmpty()) {
+            throw new IllegalStateException("Table sales is not partitioned, run db/upgrade_partitioning.sql first");
+        }
+        SalesPartition last = partitions.get(partitions.size() - 1);
+        if (!FUTURE_PARTITION.equals(last.getName()) || !MAXVALUE.equals(last.getLessThan())) {
+            throw new IllegalStateException("Last partition of table sales must be "
+                    + FUTURE_PARTITION + " VALUES LESS THAN (MAXVALUE)");
+        }
+
+        LocalDate currentMonth = LocalDate.now(clock).withDayOfMonth(1);
+        PartitionMaintenanceResult result = new PartitionMaintenanceResult();
+
+        List<SalesPartition> created = planFuturePartitions(partitions, currentMonth.plusMonths(monthsAhead + 1L));
+        if (!created.isEmpty()) {
+            partitionMapper.reorganizeFuturePartition(created);
+            for (SalesPartition partition : created) {
+                result.getCreated().add(partition.getName());
+            }
+        }
+
+        if (retentionMonths > 0) {
+            LocalDate cutoff = currentMonth.minusMonths(retentionMonths);
+            List<String> expired = expiredPartitions(partitions, cutoff);
+            if (!expired.isEmpty()) {
+                if (archive) {
+                    for (String name : expired) {
+                        String table = ARCHIVE_TABLE_PREFIX + name;
+                        partitionMapper.createArchiveTable(table);
+                        partitionMapper.removeArchiveTablePartitioning(table);
+                        partitionMapper.exchangePartition(name, table);
+                        result.getArchiveTables().add(table);
+                    }
+                }
+                partitionMapper.dropPartitions(expired);
+                result.getDropped().addAll(expired);
+                result.setExpiredBefore(DateUtils.formatLocalDate(cutoff));
+                // 变更日志的行锁要持有到 EXPIRE 行提交，否则并发写入可能分配到更小的序号却更晚提交
+                transactionOperations.executeWithoutResult(status -> {
+                    result.setRollupRowsDeleted(salesMapper.clearRollup(null,
+                            DateUtils.formatLocalDate(cutoff.minusDays(1))));
+                    salesMapper.recordChanges(SalesChangeUtils.forExpired(cutoff));
+                });
+                notifyExpired(cutoff);
+            }
+        }
+
+        log.info("Sales partitions maintained: {}", result);
+        return result;
+    }
+
+    /**
+     * 从最后一个有界分区的上界开始逐月补齐，直到上界达到 target
+     */
+    static List<SalesPartition> planFuturePartitions(List<SalesPartition> partitions, LocalDate target) {
+        LocalDate next = null;
+        for (SalesPartition partition : partitions) {
+            if (!MAXVALUE.equals(partition.getLessThan())) {
+                next = parseBound(partition);
+            }
+        }
+        List<SalesPartition> created = new ArrayList<>();
+        if (next == null) {
+            return created;
+        }
+        while (next.isBefore(target)) {
+            LocalDate upper = next.withDayOfMonth(1).plusMonths(1);
+            created.add(new SalesPartition(PARTITION_NAME.format(next), DateUtils.formatLocalDate(upper)));
+            next = upper;
+        }
+        return created;
+    }
+
+    /**
+     * 上界不晚于 cutoff 的分区中所有数据都早于 cutoff
+     */
+    static List<String> expiredPartitions(List<SalesPartition> partitions, LocalDate cutoff) {
+        List<String> expired = new ArrayList<>();
+        for (SalesPartition partition : partitions) {
+            if (MAXVALUE.equals(partition.getLessThan())) {
+                continue;
+            }
+            if (!parseBound(partition).isAfter(cutoff)) {
+                expired.add(checkName(partition.getName()));
+            }
+        }
+        return expired;
+    }
+
+    private static LocalDate parseBound(SalesPartition partition) {
+        LocalDate bound = DateUtils.parseLocalDate(partition.getLessThan());
+        if (bound == null) {
+            throw new IllegalStateException("Partition " + partition.getName()
+                    + " has unsupported upper bound: " + partition.getLessThan());
+        }
+        return bound;
+    }
+
+    private static String checkName(String name) {
+        if (name == null || !SAFE_NAME.matcher(name).matches()) {
+            throw new IllegalStateException("Unsupported partition name: " + name);
+        }
+        return name;
+    }
+
+    private static void checkMonths(int monthsAhead, int retentionMonths) {
+        if (monthsAhead < 0 || monthsAhead > MAX_MONTHS_AHEAD) {
+            throw new IllegalArgumentException("monthsAhead must be between 0 and " + MAX_MONTHS_AHEAD);
+        }
+        if (retentionMonths < 0) {
+            throw new IllegalArgumentException("retentionMonths must not be negative");
+        }
+    }
+
+    private void notifyExpired(LocalDate before) {
+        for (SalesChangeListener listener : changeListeners) {
+            try {
+                listener.onSalesExpired(before);
+            } catch (RuntimeException e) {
+                log.warn("Sales change listener {} failed", listener.getClass().getSimpleName(), e);
+            }
+        }
+    }
+}
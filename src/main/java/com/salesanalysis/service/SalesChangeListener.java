@@ -0,0 +1,48 @@
+package com.salesanalysis.service;
+
+import com.salesanalysis.model.Sales;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 销售数据变更监听器，在写入事务提交后由 SalesService 回调，
+ * 用于维护缓存、内存分析引擎等派生数据
+ */
+public interface SalesChangeListener {
+    // 新增销售记录（单条或批量）
+    void onSalesInserted(List<Sales> salesList);
+
+    // 更新、删除前是否需要读取旧记录；任一监听器需要时写入方才在写语句之前加锁读取，否则 previous 为 null
+    default boolean needsPreviousRows() {
+        return false;
+    }
+
+    // 更新销售记录，previous 为更新前的记录，未知时为 null
+    void onSalesUpdated(Sales previous, Sales current);
+
+    // 删除销售记录，previous 为删除前的记录，未知时为 null
+    void onSalesDeleted(Integer id, Sales previous);
+
+    // 批量更新，previous 与 current 按位置对应；默认逐条回调 onSalesUpdated
+    default void onSalesBulkUpdated(List<Sales> previous, List<Sales> current) {
+        for (int i = 0; i < current.size(); i++) {
+            onSalesUpdated(previous.get(i), current.get(i));
+        }
+    }
+
+    // 批量删除，previous 与 ids 按位置对应；默认逐条回调 onSalesDeleted
+    default void onSalesBulkDeleted(List<Integer> ids, List<Sales> previous) {
+        for (int i = 0; i < ids.size(); i++) {
+            onSalesDeleted(ids.get(i), previous.get(i));
+        }
+    }
+
+    // 按日汇总表已从原始数据重建，from/to 为重建的日期范围，null 表示不限
+    default void onSalesRollupRebuilt(String from, String to) {
+    }
+
+    // 销售日期早于 before 的记录已随过期分区整体删除或归档，不会逐条回调删除
+    default void onSalesExpired(LocalDate before) {
+    }
+}
@@ -1,14 +1,26 @@
 package com.salesanalysis.service;
 
 import com.salesanalysis.model.Sales;
+import com.salesanalysis.model.SalesApproxSummary;
+import com.salesanalysis.model.SalesPage;
+import com.salesanalysis.model.SalesRanking;
+import com.salesanalysis.model.SalesSeriesPoint;
+import com.salesanalysis.model.SalesSnapshot;
 import com.salesanalysis.model.SalesSummary;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface SalesService {
     // 查询所有销售记录
     List<Sales> findAllSales();
 
+    // 基于游标分页查询销售记录
+    SalesPage findSalesPage(Integer cursor, Integer limit);
+
+    // 流式遍历所有销售记录
+    void streamAllSales(Consumer<Sales> consumer);
+
     // 根据ID查询销售记录
     Sales findSalesById(Integer id);
 
@@ -22,8 +34,29 @@ public interface SalesService {
     boolean deleteSales(Integer id);
 
     // 聚合查询销售数据
-    List<SalesSummary> aggregateSales(String date, String product, String region);
+    List<SalesSummary> aggregateSales(String date, String from, String to, String product, String region);
+
+    // 近似聚合：按日期范围合并草图，按 (产品, 区域) 返回精确的金额合计、笔数以及近似的不同金额数和金额分位数
+    List<SalesApproxSummary> aggregateSalesApprox(String from, String to, String product, String region);
+
+    // 按产品或区域（by）排名销售额前 limit 名，per 不为空时在每个分组内分别排名
+    List<SalesRanking> topSales(String by, String per, Integer limit, String from, String to, String product, String region);
+
+    // 按日、周或月（bucket）汇总 [from, to] 的销售额时间序列，没有数据的区间补0
+    List<SalesSeriesPoint> salesSeries(String bucket, String from, String to, String product, String region);
 
     // 批量导入销售数据
     boolean batchImportSales(List<Sales> salesList);
+
+    // 校验单条销售记录，不合格时抛出 IllegalArgumentException
+    void validateSales(Sales sales);
+
+    // 数据版本号：最大ID和变更日志最大序号，所有写入路径都在事务内追加变更日志，提交后版本改变
+    String dataVersion();
+
+    // 在同一连接上先读数据版本再读全部销售记录，记录不会比版本旧，用作 GET /api/sales 的 ETag
+    SalesSnapshot findAllSalesSnapshot();
+
+    // 从原始数据重建按日汇总表（可限定日期范围），返回汇总分组数
+    int rebuildSalesRollup(String from, String to);
 }
@@ -2,35 +2,147 @@ package com.salesanalysis.service.impl;
 
 import com.salesanalysis.mapper.SalesMapper;
 import com.salesanalysis.model.Sales;
+import com.salesanalysis.model.SalesApproxSummary;
+import com.salesanalysis.model.SalesDataVersion;
+import com.salesanalysis.model.SalesPage;
+import com.salesanalysis.model.SalesRanking;
+import com.salesanalysis.model.SalesSeriesPoint;
+import com.salesanalysis.model.SalesSnapshot;
 import com.salesanalysis.model.SalesSummary;
+import com.salesanalysis.analytics.ColumnarAggregationEngine;
+import com.salesanalysis.analytics.SalesDimension;
+import com.salesanalysis.analytics.SalesSketchEngine;
+import com.salesanalysis.analytics.SeriesAccumulator;
+import com.salesanalysis.analytics.SeriesBucket;
+import com.salesanalysis.analytics.TopNAccumulator;
+import com.salesanalysis.cache.SalesReadCache;
+import com.salesanalysis.cache.SalesSummarySingleFlight;
+import com.salesanalysis.datasource.ReplicaRead;
+import com.salesanalysis.service.SalesChangeListener;
 import com.salesanalysis.service.SalesService;
+import com.salesanalysis.util.DateUtils;
+import com.salesanalysis.util.MoneyUtils;
+import com.salesanalysis.util.RollupDeltaUtils;
+import com.salesanalysis.util.SalesChangeUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.math.BigDecimal;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 public class SalesServiceImpl implements SalesService {
 
+    private static final Logger log = LoggerFactory.getLogger(SalesServiceImpl.class);
+    private static final int DEFAULT_PAGE_SIZE = 100; // 默认每页记录数
+    private static final int MAX_PAGE_SIZE = 1000; // 每页记录数上限
+    private static final int BATCH_INSERT_CHUNK_SIZE = 1000; // 批量导入时单条INSERT语句的最大行数
+    private static final int DEFAULT_TOP_N = 10; // 默认排名数
+    private static final int MAX_TOP_N = 100; // 排名数上限
+
     private final SalesMapper salesMapper;
+    private List<SalesChangeListener> changeListeners = Collections.emptyList();
+    private ColumnarAggregationEngine columnarEngine;
+    private SalesSketchEngine sketchEngine;
+    private SalesReadCache readCache;
+    private SalesSummarySingleFlight summarySingleFlight;
 
     @Autowired
     public SalesServiceImpl(SalesMapper salesMapper) {
         this.salesMapper = salesMapper;
     }
 
+    @Autowired(required = false)
+    public void setChangeListeners(List<SalesChangeListener> changeListeners) {
+        this.changeListeners = changeListeners;
+    }
+
+    @Autowired(required = false)
+    public void setColumnarEngine(ColumnarAggregationEngine columnarEngine) {
+        this.columnarEngine = columnarEngine;
+    }
+
+    @Autowired(required = false)
+    public void setSketchEngine(SalesSketchEngine sketchEngine) {
+        this.sketchEngine = sketchEngine;
+    }
+
+    @Autowired(required = false)
+    public void setReadCache(SalesReadCache readCache) {
+        this.readCache = readCache;
+    }
+
+    @Autowired(required = false)
+    public void setSummarySingleFlight(SalesSummarySingleFlight summarySingleFlight) {
+        this.summarySingleFlight = summarySingleFlight;
+    }
+
     @Override
+    @ReplicaRead
     public List<Sales> findAllSales() {
         return salesMapper.findAll();
     }
 
+    /**
+     * SUPPORTS 不开启事务，查询仍按 {@link ReplicaRead} 路由，但两次查询绑定到同一个连接：
+     * 同一副本按提交顺序回放，后读的记录不会比先读的版本旧
+     */
+    @Override
+    @ReplicaRead
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public SalesSnapshot findAllSalesSnapshot() {
+        SalesSnapshot snapshot = new SalesSnapshot();
+        snapshot.setVersion(dataVersion());
+        snapshot.setItems(salesMapper.findAll());
+        return snapshot;
+    }
+
+    @Override
+    @ReplicaRead
+    public SalesPage findSalesPage(Integer cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Limit must be greater than zero");
+        }
+        pageSize = Math.min(pageSize, MAX_PAGE_SIZE);
+
+        // 多查一条用于判断是否还有下一页
+        List<Sales> rows = salesMapper.findPage(cursor, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<Sales> items = hasMore ? rows.subList(0, pageSize) : rows;
+
+        SalesPage page = new SalesPage();
+        page.setItems(items);
+        page.setHasMore(hasMore);
+        page.setNextCursor(items.isEmpty() ? cursor : items.get(items.size() - 1).getId());
+        return page;
+    }
+
     @Override
+    @ReplicaRead
+    public void streamAllSales(Consumer<Sales> consumer) {
+        if (consumer == null) {
+            throw new IllegalArgumentException("Consumer cannot be null");
+        }
+        salesMapper.streamAll(context -> consumer.accept(context.getResultObject()));
+    }
+
+    @Override
+    @ReplicaRead
     public Sales findSalesById(Integer id) {
         if (id == null) {
             throw new IllegalArgumentException("ID cannot be null");
         }
+        if (readCache != null) {
+            return readCache.getById(id, salesMapper::findById);
+        }
         return salesMapper.findById(id);
     }
 
@@ -39,6 +151,9 @@ public class SalesServiceImpl implements SalesService {
     public Sales saveSales(Sales sales) {
         validateSales(sales);
         salesMapper.insert(sales);
+        salesMapper.upsertRollup(RollupDeltaUtils.forInserted(Collections.singletonList(sales)));
+        salesMapper.recordChanges(SalesChangeUtils.forInserted(Collections.singletonList(sales)));
+        publishAfterCommit(listener -> listener.onSalesInserted(Collections.singletonList(sales)));
         return sales;
     }
 
@@ -50,13 +165,13 @@ public class SalesServiceImpl implements SalesService {
         }
         validateSales(sales);
         
-        // 检查记录是否存在
-        Sales existingSales = salesMapper.findById(sales.getId());
-        if (existingSales == null) {
+        // 记录是否存在由影响行数判断，不再先查询；汇总表由 sales 表的 AFTER UPDATE 触发器按新旧值调整
+        Sales previous = previousRowsNeeded() ? salesMapper.findByIdForUpdate(sales.getId()) : null;
+        if (salesMapper.update(sales) == 0) {
             throw new RuntimeException("Sales record not found with id: " + sales.getId());
         }
-        
-        salesMapper.update(sales);
+        salesMapper.recordChanges(SalesChangeUtils.forUpdated(Collections.singletonList(sales)));
+        publishAfterCommit(listener -> listener.onSalesUpdated(previous, sales));
         return sales;
     }
 
@@ -67,19 +182,95 @@ public class SalesServiceImpl implements SalesService {
             throw new IllegalArgumentException("ID cannot be null");
         }
         
-        // 检查记录是否存在
-        Sales existingSales = salesMapper.findById(id);
-        if (existingSales == null) {
-            return false;
-        }
-        
+        // 汇总表由 AFTER DELETE 触发器扣减
+        Sales previous = previousRowsNeeded() ? salesMapper.findByIdForUpdate(id) : null;
         int result = salesMapper.delete(id);
+        if (result > 0) {
+            salesMapper.recordChanges(SalesChangeUtils.forDeleted(Collections.singletonList(id)));
+            publishAfterCommit(listener -> listener.onSalesDeleted(id, previous));
+        }
         return result > 0;
     }
 
     @Override
-    public List<SalesSummary> aggregateSales(String date, String product, String region) {
-        return salesMapper.aggregateSales(date, product, region);
+    @ReplicaRead
+    public List<SalesSummary> aggregateSales(String date, String from, String to, String product, String region) {
+        validateDateRange(date, from, to);
+        if (readCache != null) {
+            return readCache.getSummary(date, from, to, product, region,
+                    () -> loadAggregate(date, from, to, product, region));
+        }
+        return loadAggregate(date, from, to, product, region);
+    }
+
+    /**
+     * 缓存未命中时执行聚合查询，相同条件的并发查询合并为一次
+     */
+    private List<SalesSummary> loadAggregate(String date, String from, String to, String product, String region) {
+        if (summarySingleFlight != null) {
+            return summarySingleFlight.execute(date, from, to, product, region,
+                    () -> queryAggregate(date, from, to, product, region));
+        }
+        return queryAggregate(date, from, to, product, region);
+    }
+
+    private List<SalesSummary> queryAggregate(String date, String from, String to, String product, String region) {
+        // 启用列式引擎且已加载完成时走内存聚合，否则走SQL
+        if (columnarEngine != null && columnarEngine.isReady()) {
+            return columnarEngine.aggregate(date, from, to, product, region);
+        }
+        return salesMapper.aggregateSales(date, from, to, product, region);
+    }
+
+    @Override
+    public List<SalesApproxSummary> aggregateSalesApprox(String from, String to, String product, String region) {
+        validateDateRange(null, from, to);
+        if (sketchEngine == null || !sketchEngine.isReady()) {
+            throw new IllegalStateException("Approximate aggregation is not available, enable sales.sketch.enabled and wait for sketches to load");
+        }
+        return sketchEngine.aggregate(DateUtils.parseLocalDate(from), DateUtils.parseLocalDate(to), product, region);
+    }
+
+    @Override
+    @ReplicaRead
+    public List<SalesRanking> topSales(String by, String per, Integer limit, String from, String to,
+                                       String product, String region) {
+        SalesDimension byDimension = SalesDimension.parse("by", by);
+        if (byDimension == null) {
+            throw new IllegalArgumentException("Parameter 'by' is required");
+        }
+        SalesDimension perDimension = SalesDimension.parse("per", per);
+        if (perDimension == byDimension) {
+            throw new IllegalArgumentException("Parameters 'by' and 'per' must be different");
+        }
+        int n = limit != null ? limit : DEFAULT_TOP_N;
+        if (n <= 0 || n > MAX_TOP_N) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_TOP_N);
+        }
+        validateDateRange(null, from, to);
+
+        TopNAccumulator top = new TopNAccumulator(n);
+        salesMapper.rankTotals(byDimension.column(), perDimension != null ? perDimension.column() : null,
+                from, to, product, region, context -> top.add(context.getResultObject()));
+        return top.result();
+    }
+
+    @Override
+    @ReplicaRead
+    public List<SalesSeriesPoint> salesSeries(String bucket, String from, String to, String product, String region) {
+        SeriesBucket seriesBucket = SeriesBucket.parse(bucket);
+        if (from == null || from.isEmpty() || to == null || to.isEmpty()) {
+            throw new IllegalArgumentException("Parameters 'from' and 'to' are required");
+        }
+        validateDateRange(null, from, to);
+
+        SeriesAccumulator series = new SeriesAccumulator(seriesBucket,
+                DateUtils.parseLocalDate(from), DateUtils.parseLocalDate(to));
+        salesMapper.dailyTotals(from, to, product, region, context -> {
+            SalesSummary day = context.getResultObject();
+            series.add(DateUtils.parseLocalDate(day.getDate()), day.getTotalAmount(), day.getCount());
+        });
+        return series.result();
     }
 
     @Override
@@ -94,14 +285,96 @@ public class SalesServiceImpl implements SalesService {
             validateSales(sales);
         }
         
-        int result = salesMapper.batchInsert(salesList);
+        // 分块执行多值INSERT，避免整个列表拼成一条超大SQL；仍在同一事务内，保持全部成功或全部回滚
+        int result = 0;
+        for (int i = 0; i < salesList.size(); i += BATCH_INSERT_CHUNK_SIZE) {
+            result += salesMapper.batchInsert(salesList.subList(i, Math.min(i + BATCH_INSERT_CHUNK_SIZE, salesList.size())));
+        }
+        salesMapper.upsertRollup(RollupDeltaUtils.forInserted(salesList));
+        salesMapper.recordChanges(SalesChangeUtils.forInserted(salesList));
+        publishAfterCommit(listener -> listener.onSalesInserted(salesList));
         return result == salesList.size();
     }
 
+    @Override
+    @ReplicaRead
+    public String dataVersion() {
+        SalesDataVersion version = salesMapper.dataVersion();
+        return version.getMaxId() + "." + version.getMaxChangeSeq();
+    }
+
+    @Override
+    @Transactional
+    public int rebuildSalesRollup(String from, String to) {
+        validateDateRange(null, from, to);
+        salesMapper.clearRollup(from, to);
+        int groups = salesMapper.rebuildRollup(from, to);
+        publishAfterCommit(listener -> listener.onSalesRollupRebuilt(from, to));
+        return groups;
+    }
+
+    /**
+     * 只有监听器需要旧记录时（汇总缓存非空、启用了近似聚合）才在写语句前加锁读取，
+     * 加锁保证读到的就是被本次写入覆盖的版本；否则更新、删除只发送一条语句
+     */
+    private boolean previousRowsNeeded() {
+        for (SalesChangeListener listener : changeListeners) {
+            if (listener.needsPreviousRows()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 在当前事务提交后通知变更监听器，无事务时立即执行
+     */
+    private void publishAfterCommit(Consumer<SalesChangeListener> event) {
+        Runnable publish = () -> {
+            for (SalesChangeListener listener : changeListeners) {
+                try {
+                    event.accept(listener);
+                } catch (RuntimeException e) {
+                    // 派生数据更新失败不影响已提交的写入
+                    log.warn("Sales change listener {} failed", listener.getClass().getSimpleName(), e);
+                }
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish.run();
+                }
+            });
+        } else {
+            publish.run();
+        }
+    }
+
+    /**
+     * 验证日期查询参数格式（yyyy-MM-dd）以及起止日期顺序
+     */
+    private void validateDateRange(String date, String from, String to) {
+        validateDateParam("date", date);
+        validateDateParam("from", from);
+        validateDateParam("to", to);
+        if (from != null && !from.isEmpty() && to != null && !to.isEmpty() && from.compareTo(to) > 0) {
+            throw new IllegalArgumentException("Parameter 'from' must not be after 'to'");
+        }
+    }
+
+    private void validateDateParam(String name, String value) {
+        if (value != null && !value.isEmpty() && !DateUtils.isValidDate(value)) {
+            throw new IllegalArgumentException("Invalid " + name + " date, expected format yyyy-MM-dd: " + value);
+        }
+    }
+
     /**
      * 验证销售记录的有效性
      */
-    private void validateSales(Sales sales) {
+    @Override
+    public void validateSales(Sales sales) {
         if (sales == null) {
             throw new IllegalArgumentException("Sales cannot be null");
         }
@@ -114,8 +387,21 @@ public class SalesServiceImpl implements SalesService {
         if (sales.getRegion() == null || sales.getRegion().trim().isEmpty()) {
             throw new IllegalArgumentException("Region cannot be null or empty");
         }
-        if (sales.getAmount() == null || sales.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+        if (sales.getAmount() == null || sales.getAmount().signum() <= 0) {
             throw new IllegalArgumentException("Amount must be greater than zero");
         }
+        // 按写入 DECIMAL(10,2) 的舍入规则换算为分再检查范围
+        long cents;
+        try {
+            cents = MoneyUtils.toCents(sales.getAmount());
+        } catch (ArithmeticException e) {
+            cents = Long.MAX_VALUE;
+        }
+        if (cents == 0) {
+            throw new IllegalArgumentException("Amount must be greater than zero");
+        }
+        if (!MoneyUtils.fitsAmountColumn(cents)) {
+            throw new IllegalArgumentException("Amount must not exceed " + MoneyUtils.fromCents(MoneyUtils.MAX_AMOUNT_CENTS));
+        }
     }
 }
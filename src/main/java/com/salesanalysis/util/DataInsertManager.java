@@ -1,62 +1,93 @@
 package com.salesanalysis.util;
 
+import com.salesanalysis.ingest.ImportJob;
+import com.salesanalysis.ingest.IngestProgressListener;
+import com.salesanalysis.ingest.SalesBulkIngestor;
+import com.salesanalysis.ingest.SalesStreamImporter;
 import com.salesanalysis.mapper.SalesMapper;
+import com.salesanalysis.model.BulkIngestResult;
 import com.salesanalysis.model.Sales;
+import com.salesanalysis.service.SalesService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
 import java.util.List;
 
 @Component
 public class DataInsertManager {
     private final SalesMapper salesMapper;
-    private static final int BATCH_SIZE = 100; // 每批次插入的记录数
+    private final SalesService salesService;
+    private final SalesBulkIngestor bulkIngestor;
+    private final SalesStreamImporter streamImporter;
+    private final int chunkSize; // 每块插入的记录数
+    private final int commitEveryChunks; // 每次提交包含的块数
     
     @Autowired
-    public DataInsertManager(SalesMapper salesMapper) {
+    public DataInsertManager(SalesMapper salesMapper, SalesService salesService, SalesBulkIngestor bulkIngestor,
+                             SalesStreamImporter streamImporter,
+                             @Value("${sales.ingest.chunk-size:1000}") int chunkSize,
+                             @Value("${sales.ingest.commit-every-chunks:10}") int commitEveryChunks) {
         this.salesMapper = salesMapper;
+        this.salesService = salesService;
+        this.bulkIngestor = bulkIngestor;
+        this.streamImporter = streamImporter;
+        this.chunkSize = chunkSize;
+        this.commitEveryChunks = commitEveryChunks;
     }
     
     /**
      * 批量插入销售数据
+     * 通过批量写入管道分块写入并定期提交，中途失败时已提交的块不会回滚
      * @param salesList 销售数据列表
      * @return 插入成功的记录数
      */
-    @Transactional
     public int insertSalesDataBatch(List<Sales> salesList) {
         if (salesList == null || salesList.isEmpty()) {
             System.out.println("没有数据需要插入");
             return 0;
         }
         
-        int totalInserted = 0;
         int totalSize = salesList.size();
-        
         System.out.println("开始批量插入" + totalSize + "条销售数据...");
         
-        // 分批插入，避免单次插入过多数据导致数据库压力过大
-        for (int i = 0; i < totalSize; i += BATCH_SIZE) {
-            int endIndex = Math.min(i + BATCH_SIZE, totalSize);
-            List<Sales> batchList = salesList.subList(i, endIndex);
-            
-            int inserted = salesMapper.batchInsert(batchList);
-            totalInserted += inserted;
-            
-            System.out.println("已插入第" + (i + 1) + "-" + endIndex + "条数据，当前进度：" + endIndex + "/" + totalSize);
-        }
+        BulkIngestResult result = bulkIngestor.ingest(salesList.iterator(), chunkSize, commitEveryChunks,
+                new IngestProgressListener() {
+                    @Override
+                    public void onCommitted(int committedChunks, long committedRows) {
+                        System.out.println("已提交" + committedChunks + "块数据，当前进度：" + committedRows + "/" + totalSize);
+                    }
+                });
         
-        System.out.println("批量插入完成，共成功插入" + totalInserted + "条数据");
-        return totalInserted;
+        System.out.println("批量插入完成，共成功插入" + result.getRows() + "条数据，耗时" + result.getElapsedMillis()
+                + "ms，单块平均" + String.format("%.1f", result.getAvgChunkMillis()) + "ms，最慢"
+                + String.format("%.1f", result.getMaxChunkMillis()) + "ms");
+        return (int) result.getRows();
+    }
+    
+    /**
+     * 执行异步导入任务（导入任务线程池的工作方法）
+     * 从任务暂存文件读取数据，跳过上次已提交的行，按块写入并在每次提交后记录续传位置
+     * @param job 导入任务
+     * @throws IOException 读取暂存文件失败
+     */
+    public void runImportJob(ImportJob job) throws IOException {
+        try (Reader reader = Files.newBufferedReader(job.getSpoolFile(), job.getCharset())) {
+            streamImporter.importSales(reader, job.getFormat(), job.getLastCommittedRow(), job);
+        }
     }
     
     /**
      * 单独插入一条销售数据（用于测试）
+     * 通过 SalesService 写入，与接口新增一样校验并在同一事务内累加汇总表、记录变更日志，提交后通知监听器
      * @param sales 销售数据
      * @return 插入是否成功
      */
     public boolean insertSalesData(Sales sales) {
-        int result = salesMapper.insert(sales);
-        return result > 0;
+        return salesService.saveSales(sales).getId() != null;
     }
     
     /**
@@ -64,7 +95,6 @@ public class DataInsertManager {
      * @return 销售记录总数
      */
     public int getSalesCount() {
-        List<Sales> allSales = salesMapper.findAll();
-        return allSales != null ? allSales.size() : 0;
+        return (int) salesMapper.countAll();
     }
-}
\ No newline at end of file
+}
@@ -1,38 +1,88 @@
 package com.salesanalysis.util;
 
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.chrono.IsoChronology;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
 import java.util.Date;
 
 public class DateUtils {
 
-    private static final String DEFAULT_DATE_FORMAT = "yyyy-MM-dd";
+    private static final String DEFAULT_DATE_FORMAT = "uuuu-MM-dd";
+
+    // DateTimeFormatter 不可变且线程安全，全局共享
+    public static final DateTimeFormatter DATE_FORMATTER =
+            DateTimeFormatter.ofPattern(DEFAULT_DATE_FORMAT).withResolverStyle(ResolverStyle.STRICT);
+
+    // 兼容 SimpleDateFormat 对 yyyy-M-d 等不补零写法的接受
+    private static final DateTimeFormatter LENIENT_WIDTH_FORMATTER =
+            DateTimeFormatter.ofPattern("u-M-d").withResolverStyle(ResolverStyle.STRICT);
+
+    /**
+     * 将日期格式化为 yyyy-MM-dd 字符串
+     * @param date 日期
+     * @return 格式化后的日期字符串
+     */
+    public static String formatLocalDate(LocalDate date) {
+        if (date == null) {
+            return null;
+        }
+        return DATE_FORMATTER.format(date);
+    }
 
     /**
      * 将日期对象格式化为字符串
-     * @param date 日期对象
+     * @param date 日期对象，按系统时区取日期
      * @return 格式化后的日期字符串
      */
     public static String formatDate(Date date) {
         if (date == null) {
             return null;
         }
-        SimpleDateFormat sdf = new SimpleDateFormat(DEFAULT_DATE_FORMAT);
-        return sdf.format(date);
+        return formatLocalDate(toLocalDate(date));
+    }
+
+    /**
+     * 将字符串解析为日期
+     * @param dateStr 日期字符串
+     * @return 日期，格式不正确或日期不存在时返回null，不抛异常
+     */
+    public static LocalDate parseLocalDate(String dateStr) {
+        if (dateStr == null) {
+            return null;
+        }
+        if (dateStr.length() == 10) {
+            return parseFixedWidth(dateStr);
+        }
+        // 其余长度只可能是不补零的写法（最短 y-M-d），走格式化器
+        if (dateStr.length() < 5 || dateStr.length() > 10) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(dateStr, LENIENT_WIDTH_FORMATTER);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
     }
 
     /**
      * 将字符串解析为日期对象
      * @param dateStr 日期字符串
-     * @return 日期对象
+     * @return 日期对象（系统时区当天零点）
      * @throws ParseException 解析异常
      */
     public static Date parseDate(String dateStr) throws ParseException {
         if (dateStr == null || dateStr.trim().isEmpty()) {
             return null;
         }
-        SimpleDateFormat sdf = new SimpleDateFormat(DEFAULT_DATE_FORMAT);
-        return sdf.parse(dateStr);
+        LocalDate date = parseLocalDate(dateStr);
+        if (date == null) {
+            throw new ParseException("Unparseable date: \"" + dateStr + "\"", 0);
+        }
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
     }
 
     /**
@@ -41,16 +91,65 @@ public class DateUtils {
      * @return 是否有效
      */
     public static boolean isValidDate(String dateStr) {
-        if (dateStr == null || dateStr.trim().isEmpty()) {
-            return false;
+        return parseLocalDate(dateStr) != null;
+    }
+
+    /**
+     * 将旧的日期对象转换为 LocalDate
+     * @param date java.sql.Date 直接取日期，其他按系统时区换算
+     * @return 日期
+     */
+    public static LocalDate toLocalDate(Date date) {
+        if (date == null) {
+            return null;
         }
-        try {
-            SimpleDateFormat sdf = new SimpleDateFormat(DEFAULT_DATE_FORMAT);
-            sdf.setLenient(false); // 严格模式，不宽松解析
-            sdf.parse(dateStr);
-            return true;
-        } catch (ParseException e) {
-            return false;
+        if (date instanceof java.sql.Date) {
+            return ((java.sql.Date) date).toLocalDate();
+        }
+        return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    /**
+     * 快速路径：固定 yyyy-MM-dd 格式逐位解析，不使用正则和异常
+     * @return 日期，不是该格式或日期不存在时返回null
+     */
+    static LocalDate parseFixedWidth(CharSequence s) {
+        if (s.length() != 10 || s.charAt(4) != '-' || s.charAt(7) != '-') {
+            return null;
+        }
+        int year = digits(s, 0, 4);
+        int month = digits(s, 5, 7);
+        int day = digits(s, 8, 10);
+        if (year < 0 || month < 1 || month > 12 || day < 1) {
+            return null;
+        }
+        int maxDay;
+        switch (month) {
+            case 2:
+                maxDay = IsoChronology.INSTANCE.isLeapYear(year) ? 29 : 28;
+                break;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                maxDay = 30;
+                break;
+            default:
+                maxDay = 31;
+        }
+        return day <= maxDay ? LocalDate.of(year, month, day) : null;
+    }
+
+    // 解析 [from, to) 区间内的十进制数字，存在非数字字符时返回-1
+    private static int digits(CharSequence s, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
         }
+        return value;
     }
 }
@@ -3,23 +3,49 @@ package com.salesanalysis.util;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
-import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Random;
 
 public class MockarooClient {
     private static final String MOCKAROO_API_URL = "https://api.mockaroo.com/api/generate.json";
+    private static final int CONNECT_TIMEOUT_MILLIS = 10_000;
+    private static final int READ_TIMEOUT_MILLIS = 120_000;
+
+    // 字段定义，SyntheticSalesGenerator 按相同的取值范围在本地生成
+    static final String[] PRODUCTS = {
+        "产品A", "产品B", "产品C", "产品D", "产品E",
+        "产品F", "产品G", "产品H", "产品I", "产品J"
+    };
+    static final String[] REGIONS = {
+        "华东", "华北", "华南", "华中", "西南", "西北", "东北"
+    };
+    static final String MIN_DATE = "1/1/2023";
+    static final String MAX_DATE = "12/31/2025";
+    static final int MIN_AMOUNT = 100;
+    static final int MAX_AMOUNT = 10000;
+
     private final String apiKey;
-    
+    private final String apiUrl;
+
     public MockarooClient(String apiKey) {
+        this(apiKey, MOCKAROO_API_URL);
+    }
+
+    /**
+     * @param apiKey API密钥
+     * @param apiUrl 生成接口地址，测试时可以指向本地桩服务
+     */
+    public MockarooClient(String apiKey, String apiUrl) {
         this.apiKey = apiKey;
+        this.apiUrl = apiUrl;
     }
-    
+
     /**
      * 从Mockaroo API获取销售数据
      * @param count 需要生成的数据条数
@@ -27,87 +53,104 @@ public class MockarooClient {
      * @throws Exception 可能的异常
      */
     public JSONArray generateSalesData(int count) throws Exception {
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(
+                openSalesDataStream(count), StandardCharsets.UTF_8))) {
+            StringBuilder response = new StringBuilder();
+            String output;
+            while ((output = br.readLine()) != null) {
+                response.append(output);
+            }
+            // 解析JSON响应
+            return new JSONArray(response.toString());
+        }
+    }
+
+    /**
+     * 请求Mockaroo API并返回响应体，由调用方按流解析，关闭流时断开连接
+     * @param count 需要生成的数据条数
+     * @return 响应体（JSON数组）
+     * @throws IOException 连接失败或响应状态不是200
+     */
+    public InputStream openSalesDataStream(int count) throws IOException {
         // 构建API请求URL
-        StringBuilder urlBuilder = new StringBuilder(MOCKAROO_API_URL);
-        urlBuilder.append("?key=").append(apiKey);
-        urlBuilder.append("&count=").append(count);
-        
-        // 添加字段定义 - 使用JSON数组格式发送请求体
+        URL url = new URL(apiUrl + "?key=" + apiKey + "&count=" + count);
+
+        // 创建HTTP连接
+        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+        conn.setRequestMethod("POST");
+        conn.setRequestProperty("Content-Type", "application/json");
+        conn.setRequestProperty("Accept", "application/json");
+        conn.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+        conn.setReadTimeout(READ_TIMEOUT_MILLIS);
+        conn.setDoOutput(true);
+
+        // 发送请求体 - 使用JSON数组格式的字段定义
+        try (OutputStream out = conn.getOutputStream()) {
+            out.write(buildFields().toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        // 检查响应状态
+        int responseCode = conn.getResponseCode();
+        if (responseCode != 200) {
+            StringBuilder errorResponse = new StringBuilder();
+            if (conn.getErrorStream() != null) {
+                try (BufferedReader errorReader = new BufferedReader(new InputStreamReader(
+                        conn.getErrorStream(), StandardCharsets.UTF_8))) {
+                    String errorLine;
+                    while ((errorLine = errorReader.readLine()) != null) {
+                        errorResponse.append(errorLine);
+                    }
+                }
+            }
+            conn.disconnect();
+            throw new IOException("Failed : HTTP error code : " + responseCode + ", Response: " + errorResponse);
+        }
+
+        return new FilterInputStream(conn.getInputStream()) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    conn.disconnect();
+                }
+            }
+        };
+    }
+
+    private static JSONArray buildFields() {
         JSONArray fields = new JSONArray();
-        
+
         // 销售日期字段
         JSONObject dateField = new JSONObject();
         dateField.put("name", "sale_date");
         dateField.put("type", "Datetime");
+        dateField.put("min", MIN_DATE);
+        dateField.put("max", MAX_DATE);
         fields.put(dateField);
-        
+
         // 产品名称字段
         JSONObject productField = new JSONObject();
         productField.put("name", "product");
         productField.put("type", "Custom List");
-        productField.put("values", new JSONArray(new String[]{
-            "产品A", "产品B", "产品C", "产品D", "产品E", 
-            "产品F", "产品G", "产品H", "产品I", "产品J"
-        }));
+        productField.put("values", new JSONArray(PRODUCTS));
         fields.put(productField);
-        
+
         // 销售区域字段
         JSONObject regionField = new JSONObject();
         regionField.put("name", "region");
         regionField.put("type", "Custom List");
-        regionField.put("values", new JSONArray(new String[]{
-            "华东", "华北", "华南", "华中", "西南", "西北", "东北"
-        }));
+        regionField.put("values", new JSONArray(REGIONS));
         fields.put(regionField);
-        
+
         // 销售金额字段
         JSONObject amountField = new JSONObject();
         amountField.put("name", "amount");
         amountField.put("type", "Number");
-        amountField.put("min", 100);
-        amountField.put("max", 10000);
+        amountField.put("min", MIN_AMOUNT);
+        amountField.put("max", MAX_AMOUNT);
         amountField.put("decimals", 2);
         fields.put(amountField);
-        
-        // 创建HTTP连接
-        URL url = new URL(urlBuilder.toString());
-        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-        conn.setRequestMethod("POST");
-        conn.setRequestProperty("Content-Type", "application/json");
-        conn.setRequestProperty("Accept", "application/json");
-        conn.setDoOutput(true);
-        
-        // 发送请求体
-        String jsonString = fields.toString();
-        conn.getOutputStream().write(jsonString.getBytes(StandardCharsets.UTF_8));
-        
-        // 检查响应状态
-        int responseCode = conn.getResponseCode();
-        if (responseCode != 200) {
-            BufferedReader errorReader = new BufferedReader(new InputStreamReader(
-                conn.getErrorStream(), StandardCharsets.UTF_8));
-            StringBuilder errorResponse = new StringBuilder();
-            String errorLine;
-            while ((errorLine = errorReader.readLine()) != null) {
-                errorResponse.append(errorLine);
-            }
-            conn.disconnect();
-            throw new RuntimeException("Failed : HTTP error code : " + responseCode + ", Response: " + errorResponse.toString());
-        }
-        
-        // 读取响应内容
-        BufferedReader br = new BufferedReader(new InputStreamReader(
-            (conn.getInputStream()), StandardCharsets.UTF_8));
-        
-        StringBuilder response = new StringBuilder();
-        String output;
-        while ((output = br.readLine()) != null) {
-            response.append(output);
-        }
-        
-        conn.disconnect();
-        
-        // 解析JSON响应
-        return new JSONArray(response.toString());
+        return fields;
     }
-}
\ No newline at end of file
+}
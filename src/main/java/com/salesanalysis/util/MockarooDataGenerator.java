@@ -1,23 +1,33 @@
 package com.salesanalysis.util;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.salesanalysis.model.Sales;
-import org.json.JSONArray;
-import org.json.JSONObject;
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
-import java.text.SimpleDateFormat;
+import java.math.RoundingMode;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
 
-public class MockarooDataGenerator {
+public class MockarooDataGenerator implements SalesPageGenerator {
+    // 不可变、线程安全，可在并行生成时共享
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
     private final MockarooClient mockarooClient;
-    private final SimpleDateFormat dateFormat;
-    
+
     public MockarooDataGenerator(String apiKey) {
-        this.mockarooClient = new MockarooClient(apiKey);
-        this.dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssX");
+        this(new MockarooClient(apiKey));
     }
-    
+
+    public MockarooDataGenerator(MockarooClient mockarooClient) {
+        this.mockarooClient = mockarooClient;
+    }
+
     /**
      * 生成指定数量的销售数据
      * @param count 需要生成的数据条数
@@ -25,39 +35,74 @@ public class MockarooDataGenerator {
      * @throws Exception 可能的异常
      */
     public List<Sales> generateSalesList(int count) throws Exception {
-        List<Sales> salesList = new ArrayList<>(count);
-        
-        // 从Mockaroo获取数据
-        JSONArray dataArray = mockarooClient.generateSalesData(count);
-        
-        // 转换JSON数据为Sales对象
-        for (int i = 0; i < dataArray.length(); i++) {
-            JSONObject jsonObject = dataArray.getJSONObject(i);
-            Sales sales = new Sales();
-            
-            // 设置销售日期
-            String saleDateStr = jsonObject.getString("sale_date");
-            // 处理日期格式 "2025-05-15T14:22:17+00:00"
-            Date saleDate = dateFormat.parse(saleDateStr);
-            sales.setSaleDate(saleDate);
-            
-            // 设置产品名称
-            sales.setProduct(jsonObject.getString("product"));
-            
-            // 设置销售区域
-            sales.setRegion(jsonObject.getString("region"));
-            
-            // 设置销售金额
-            double amountDouble = jsonObject.getDouble("amount");
-            BigDecimal amount = BigDecimal.valueOf(amountDouble);
-            sales.setAmount(amount.setScale(2, BigDecimal.ROUND_HALF_UP));
-            
-            salesList.add(sales);
+        return generatePage(0, count);
+    }
+
+    /**
+     * 请求一页数据，边读取响应边解析，不在内存中保留整个响应文本
+     * @param offset Mockaroo 每次随机生成，忽略
+     * @param count 该页记录数
+     */
+    @Override
+    public List<Sales> generatePage(long offset, int count) throws IOException {
+        try (InputStream in = mockarooClient.openSalesDataStream(count)) {
+            return parseSales(in, count);
+        }
+    }
+
+    /**
+     * 流式解析 Mockaroo 返回的JSON数组
+     * @param in 响应体
+     * @param expected 预计的记录数
+     * @return 销售数据列表
+     * @throws IOException 响应不是对象数组或字段格式错误
+     */
+    static List<Sales> parseSales(InputStream in, int expected) throws IOException {
+        List<Sales> salesList = new ArrayList<>(expected);
+        try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array from Mockaroo");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+                salesList.add(parseSales(parser));
+            }
+            if (token != JsonToken.END_ARRAY) {
+                throw new IOException("Unexpected token in Mockaroo response: " + token);
+            }
         }
-        
         return salesList;
     }
-    
+
+    private static Sales parseSales(JsonParser parser) throws IOException {
+        Sales sales = new Sales();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "sale_date":
+                    // 处理日期格式 "2025-05-15T14:22:17+00:00"，取该时区下的日期
+                    sales.setSaleDate(OffsetDateTime.parse(parser.getText(), DATE_TIME_FORMAT).toLocalDate());
+                    break;
+                case "product":
+                    sales.setProduct(parser.getText());
+                    break;
+                case "region":
+                    sales.setRegion(parser.getText());
+                    break;
+                case "amount":
+                    // 直接读取十进制值，不经过 double
+                    BigDecimal amount = value == JsonToken.VALUE_STRING
+                            ? new BigDecimal(parser.getText()) : parser.getDecimalValue();
+                    sales.setAmount(amount.setScale(2, RoundingMode.HALF_UP));
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return sales;
+    }
+
     /**
      * 生成1000条测试数据
      * @return List<Sales> 包含1000条销售数据的列表
@@ -69,4 +114,4 @@ public class MockarooDataGenerator {
         System.out.println("成功生成1000条测试数据");
         return salesList;
     }
-}
\ No newline at end of file
+}
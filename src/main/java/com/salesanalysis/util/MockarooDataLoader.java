@@ -2,102 +2,205 @@ package com.salesanalysis.util;
 
 import com.salesanalysis.mapper.SalesMapper;
 import com.salesanalysis.model.Sales;
-import org.springframework.context.ApplicationContext;
-import org.springframework.context.support.ClassPathXmlApplicationContext;
 import org.springframework.jdbc.datasource.DriverManagerDataSource;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.apache.ibatis.session.SqlSessionFactoryBuilder;
 import org.apache.ibatis.io.Resources;
-import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * 测试数据加载程序，参数（均可省略）：
+ * <pre>
+ * --rows=1000          生成的记录数
+ * --offline            不调用 Mockaroo，在本地生成同分布的数据
+ * --seed=42            离线模式的随机种子，相同种子生成相同数据
+ * --threads=N          生成线程数，离线模式默认为CPU核数，Mockaroo 默认为4
+ * --writers=2          并行写库的连接数
+ * --page-size=1000     每页记录数，即每次 Mockaroo 请求和每次提交的行数
+ * --api-key=KEY        Mockaroo API密钥
+ * --url=URL            Mockaroo 生成接口地址
+ * </pre>
+ * 生成与写库流水线并行：生成线程把每页放入有界队列，写库线程各自使用一个连接批量插入并提交，
+ * 队列满时生成线程等待；汇总表和变更日志随每页在同一事务内写入
+ */
 public class MockarooDataLoader {
     private static final String API_KEY = "86296520"; // 用户提供的Mockaroo API密钥
-    
+    private static final int MAX_ROWS_PER_INSERT = 1000; // 单条INSERT语句的最大行数
+    private static final List<Sales> END = Collections.unmodifiableList(new ArrayList<>()); // 通知写库线程结束，按引用比较
+
     public static void main(String[] args) {
         System.out.println("开始执行Mockaroo数据加载程序...");
-        
+
         try {
-            // 1. 从Mockaroo生成1000条测试数据
-            MockarooDataGenerator generator = new MockarooDataGenerator(API_KEY);
-            List<Sales> salesList = generator.generate1000TestData();
-            
-            // 2. 显示部分生成的数据，用于验证
-            System.out.println("\n部分生成的数据样本：");
-            for (int i = 0; i < Math.min(5, salesList.size()); i++) {
-                System.out.println(salesList.get(i));
+            long rows = longOption(args, "rows", 1000);
+            boolean offline = hasOption(args, "offline");
+            int threads = (int) longOption(args, "threads", offline ? Runtime.getRuntime().availableProcessors() : 4);
+            int writers = (int) longOption(args, "writers", 2);
+            int pageSize = (int) longOption(args, "page-size", 1000);
+
+            // 1. 选择数据来源
+            SalesPageGenerator generator;
+            if (offline) {
+                long seed = longOption(args, "seed", 42);
+                generator = new SyntheticSalesGenerator(seed);
+                System.out.println("离线生成" + rows + "条数据，种子：" + seed + "，线程数：" + threads);
+            } else {
+                String apiKey = option(args, "api-key", API_KEY);
+                String url = option(args, "url", null);
+                generator = new MockarooDataGenerator(url != null
+                        ? new MockarooClient(apiKey, url) : new MockarooClient(apiKey));
+                System.out.println("从Mockaroo生成" + rows + "条数据，并发请求数：" + threads);
+            }
+
+            // 2. 边生成边通过MyBatis插入数据库
+            SqlSessionFactory sqlSessionFactory;
+            try (InputStream inputStream = Resources.getResourceAsStream("mybatis-config.xml")) {
+                sqlSessionFactory = new SqlSessionFactoryBuilder().build(inputStream);
             }
-            
-            // 3. 通过MyBatis直接插入数据到数据库
-            int insertedCount = insertDataDirectly(salesList);
-            
+            long start = System.nanoTime();
+            long insertedCount = load(generator, sqlSessionFactory, rows, pageSize, threads, writers);
+            long elapsedMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
             System.out.println("\n数据加载程序执行完成！");
-            System.out.println("总共生成：" + salesList.size() + "条数据");
-            System.out.println("成功插入数据库：" + insertedCount + "条数据");
-            
+            System.out.println("成功插入数据库：" + insertedCount + "条数据，耗时" + elapsedMillis + " ms，"
+                    + insertedCount * 1000 / elapsedMillis + "行/秒");
+
         } catch (Exception e) {
             System.err.println("执行过程中出现错误：" + e.getMessage());
             e.printStackTrace();
         }
     }
-    
+
     /**
-     * 直接使用MyBatis插入数据，不依赖Spring上下文
-     * @param salesList 销售数据列表
+     * 并发生成并流水线写入数据库
+     * @param generator 数据来源
+     * @param sqlSessionFactory 每个写库线程从中打开一个会话
+     * @param rows 总记录数
+     * @param pageSize 每页记录数
+     * @param threads 生成线程数
+     * @param writers 写库线程数
      * @return 插入成功的记录数
-     * @throws IOException 配置文件读取异常
+     * @throws Exception 生成或写库失败时抛出，已提交的页保留
      */
-    private static int insertDataDirectly(List<Sales> salesList) throws IOException {
-        // 读取MyBatis配置文件
-        InputStream inputStream = Resources.getResourceAsStream("mybatis-config.xml");
-        SqlSessionFactory sqlSessionFactory = new SqlSessionFactoryBuilder().build(inputStream);
-        
-        int insertedCount = 0;
-        SqlSession sqlSession = null;
-        
+    static long load(SalesPageGenerator generator, SqlSessionFactory sqlSessionFactory,
+                     long rows, int pageSize, int threads, int writers) throws Exception {
+        if (writers <= 0) {
+            throw new IllegalArgumentException("Writers must be greater than zero");
+        }
+        BlockingQueue<List<Sales>> queue = new ArrayBlockingQueue<>(writers * 2);
+        AtomicLong insertedCount = new AtomicLong();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        long reportEvery = Math.max(pageSize, rows / 20);
+
+        List<Thread> writerThreads = new ArrayList<>(writers);
+        for (int i = 0; i < writers; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    insertPages(sqlSessionFactory, queue, insertedCount, reportEvery, rows);
+                } catch (Exception e) {
+                    failure.compareAndSet(null, e);
+                }
+            }, "sales-loader-writer-" + (i + 1));
+            thread.start();
+            writerThreads.add(thread);
+        }
+
         try {
-            sqlSession = sqlSessionFactory.openSession(false); // 不自动提交
+            generator.generatePages(rows, pageSize, threads, page -> {
+                // 写库线程已失败时不再等待队列空位
+                while (!queue.offer(page, 100, TimeUnit.MILLISECONDS)) {
+                    if (failure.get() != null) {
+                        throw new IllegalStateException("Insert failed", failure.get());
+                    }
+                }
+            });
+        } finally {
+            for (int i = 0; i < writers; i++) {
+                while (!queue.offer(END, 100, TimeUnit.MILLISECONDS)) {
+                    if (failure.get() != null) {
+                        queue.clear();
+                    }
+                }
+            }
+            for (Thread thread : writerThreads) {
+                thread.join();
+            }
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        return insertedCount.get();
+    }
+
+    /**
+     * 写库线程：每页在一个事务内分块插入、累加汇总表并记录变更日志
+     */
+    private static void insertPages(SqlSessionFactory sqlSessionFactory, BlockingQueue<List<Sales>> queue,
+                                    AtomicLong insertedCount, long reportEvery, long rows) throws Exception {
+        try (SqlSession sqlSession = sqlSessionFactory.openSession(false)) { // 不自动提交
             SalesMapper salesMapper = sqlSession.getMapper(SalesMapper.class);
-            
-            // 分批次插入数据
-            int batchSize = 100;
-            int totalSize = salesList.size();
-            
-            System.out.println("\n开始将数据插入到数据库...");
-            
-            for (int i = 0; i < totalSize; i += batchSize) {
-                int endIndex = Math.min(i + batchSize, totalSize);
-                List<Sales> batchList = salesList.subList(i, endIndex);
-                
-                int batchInserted = salesMapper.batchInsert(batchList);
-                insertedCount += batchInserted;
-                
-                // 每批次提交一次
-                sqlSession.commit();
-                
-                System.out.println("已插入第" + (i + 1) + "-" + endIndex + "条数据，当前进度：" + endIndex + "/" + totalSize);
+            List<Sales> page;
+            while ((page = queue.take()) != END) {
+                try {
+                    for (int i = 0; i < page.size(); i += MAX_ROWS_PER_INSERT) {
+                        salesMapper.batchInsert(page.subList(i, Math.min(i + MAX_ROWS_PER_INSERT, page.size())));
+                    }
+                    salesMapper.upsertRollup(RollupDeltaUtils.forInserted(page));
+                    // ID已由批量插入回填；变更日志是提交前的最后一条语句，缩短持有序号行锁的时间
+                    salesMapper.recordChanges(SalesChangeUtils.forInserted(page));
+                    sqlSession.commit();
+                } catch (Exception e) {
+                    sqlSession.rollback();
+                    throw e;
+                }
+                long total = insertedCount.addAndGet(page.size());
+                if (total / reportEvery != (total - page.size()) / reportEvery) {
+                    System.out.println("当前进度：" + total + "/" + rows);
+                }
             }
-            
-            System.out.println("数据插入完成！");
-            
-        } catch (Exception e) {
-            if (sqlSession != null) {
-                sqlSession.rollback();
+        }
+    }
+
+    private static boolean hasOption(String[] args, String name) {
+        for (String arg : args) {
+            if (arg.equals("--" + name)) {
+                return true;
             }
-            System.err.println("数据插入过程中发生错误：" + e.getMessage());
-            e.printStackTrace();
-            throw e;
-        } finally {
-            if (sqlSession != null) {
-                sqlSession.close();
+        }
+        return false;
+    }
+
+    private static String option(String[] args, String name, String defaultValue) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
             }
         }
-        
-        return insertedCount;
+        return defaultValue;
     }
-    
+
+    private static long longOption(String[] args, String name, long defaultValue) {
+        String value = option(args, name, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid --" + name + ": " + value);
+        }
+    }
+
     /**
      * 创建一个简单的数据源，用于连接数据库
      * @return DriverManagerDataSource
@@ -110,4 +213,4 @@ public class MockarooDataLoader {
         dataSource.setPassword("password");
         return dataSource;
     }
-}
\ No newline at end of file
+}
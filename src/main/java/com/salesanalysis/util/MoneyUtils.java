@@ -0,0 +1,56 @@
+package com.salesanalysis.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * 金额的定点表示：内部统一用 long 表示分，只在 REST/MyBatis 边界转换为 BigDecimal
+ * 舍入规则与 MySQL 写入 DECIMAL(10,2) 一致（四舍五入，远离零），
+ * 转回的 BigDecimal 标度固定为2，与 SUM(DECIMAL(10,2)) 的结果逐位相同
+ */
+public class MoneyUtils {
+
+    public static final int SCALE = 2;
+
+    // DECIMAL(10,2) 可表示的最大值 99999999.99
+    public static final long MAX_AMOUNT_CENTS = 9_999_999_999L;
+
+    private MoneyUtils() {
+    }
+
+    /**
+     * 将金额转换为分
+     * @param amount 金额，超过两位小数时四舍五入
+     * @return 分
+     * @throws ArithmeticException 超出 long 范围
+     */
+    public static long toCents(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * 将分转换为标度为2的金额
+     * @param cents 分
+     * @return 金额
+     */
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    /**
+     * 累加两个以分表示的金额
+     * @throws ArithmeticException 结果溢出 long
+     */
+    public static long add(long cents, long delta) {
+        return Math.addExact(cents, delta);
+    }
+
+    /**
+     * 判断金额是否在 DECIMAL(10,2) 列的取值范围内
+     * @param cents 分
+     * @return 是否可写入
+     */
+    public static boolean fitsAmountColumn(long cents) {
+        return cents >= -MAX_AMOUNT_CENTS && cents <= MAX_AMOUNT_CENTS;
+    }
+}
@@ -0,0 +1,85 @@
+package com.salesanalysis.util;
+
+import com.salesanalysis.model.Sales;
+import com.salesanalysis.model.SalesRollupDelta;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class RollupDeltaUtils {
+
+    private RollupDeltaUtils() {
+    }
+
+    /**
+     * 将一批新增记录按 (日期, 产品, 区域) 预聚合为汇总表增量
+     * @param salesList 新增的销售记录
+     * @return 每个分组一条的增量列表
+     */
+    public static List<SalesRollupDelta> forInserted(Collection<Sales> salesList) {
+        Map<String, Group> deltas = new LinkedHashMap<>();
+        for (Sales sales : salesList) {
+            accumulate(deltas, sales, 1);
+        }
+        return toDeltas(deltas);
+    }
+
+    /**
+     * 计算更新一条记录时的汇总表增量：减去旧值、加上新值
+     * @param oldSales 更新前的记录
+     * @param newSales 更新后的记录
+     * @return 增量列表，分组未变化时合并为一条
+     */
+    public static List<SalesRollupDelta> forUpdated(Sales oldSales, Sales newSales) {
+        Map<String, Group> deltas = new LinkedHashMap<>();
+        accumulate(deltas, oldSales, -1);
+        accumulate(deltas, newSales, 1);
+        return toDeltas(deltas);
+    }
+
+    /**
+     * 计算删除一条记录时的汇总表增量
+     * @param oldSales 被删除的记录
+     * @return 增量列表
+     */
+    public static List<SalesRollupDelta> forDeleted(Sales oldSales) {
+        Map<String, Group> deltas = new LinkedHashMap<>();
+        accumulate(deltas, oldSales, -1);
+        return toDeltas(deltas);
+    }
+
+    // 按分累加，避免每次相加创建新的 BigDecimal；只在生成增量时转换一次
+    private static void accumulate(Map<String, Group> deltas, Sales sales, int sign) {
+        String key = sales.getSaleDate() + "|" + sales.getProduct() + "|" + sales.getRegion();
+        Group group = deltas.get(key);
+        if (group == null) {
+            group = new Group(sales);
+            deltas.put(key, group);
+        }
+        long cents = MoneyUtils.toCents(sales.getAmount());
+        group.cents = MoneyUtils.add(group.cents, sign > 0 ? cents : -cents);
+        group.count += sign;
+    }
+
+    private static List<SalesRollupDelta> toDeltas(Map<String, Group> deltas) {
+        List<SalesRollupDelta> result = new ArrayList<>(deltas.size());
+        for (Group group : deltas.values()) {
+            result.add(new SalesRollupDelta(group.sales.getSaleDate(), group.sales.getProduct(),
+                    group.sales.getRegion(), MoneyUtils.fromCents(group.cents), group.count));
+        }
+        return result;
+    }
+
+    private static final class Group {
+        private final Sales sales; // 分组内第一条记录，只取日期、产品、区域
+        private long cents;
+        private int count;
+
+        private Group(Sales sales) {
+            this.sales = sales;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.salesanalysis.util;
+
+import com.salesanalysis.model.Sales;
+import com.salesanalysis.model.SalesChange;
+import com.salesanalysis.model.SalesChangeType;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+public class SalesChangeUtils {
+
+    private SalesChangeUtils() {
+    }
+
+    /**
+     * 新增记录的变更，须在生成ID之后调用
+     * @param salesList 新增的销售记录
+     * @return 每条记录一个变更
+     */
+    public static List<SalesChange> forInserted(Collection<Sales> salesList) {
+        List<SalesChange> changes = new ArrayList<>(salesList.size());
+        for (Sales sales : salesList) {
+            changes.add(of(SalesChangeType.INSERT, sales));
+        }
+        return changes;
+    }
+
+    /**
+     * 更新记录的变更
+     * @param salesList 更新后的销售记录
+     * @return 每条记录一个变更
+     */
+    public static List<SalesChange> forUpdated(Collection<Sales> salesList) {
+        List<SalesChange> changes = new ArrayList<>(salesList.size());
+        for (Sales sales : salesList) {
+            changes.add(of(SalesChangeType.UPDATE, sales));
+        }
+        return changes;
+    }
+
+    /**
+     * 删除记录的变更
+     * @param ids 被删除的记录ID
+     * @return 每个ID一个变更
+     */
+    public static List<SalesChange> forDeleted(Collection<Integer> ids) {
+        List<SalesChange> changes = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            SalesChange change = new SalesChange();
+            change.setType(SalesChangeType.DELETE);
+            change.setSalesId(id);
+            changes.add(change);
+        }
+        return changes;
+    }
+
+    /**
+     * 分区过期的变更：before 之前的记录全部删除
+     * @param before 过期截止日期（不含）
+     * @return 单个变更
+     */
+    public static List<SalesChange> forExpired(LocalDate before) {
+        SalesChange change = new SalesChange();
+        change.setType(SalesChangeType.EXPIRE);
+        change.setSaleDate(before);
+        return Collections.singletonList(change);
+    }
+
+    private static SalesChange of(SalesChangeType type, Sales sales) {
+        SalesChange change = new SalesChange();
+        change.setType(type);
+        change.setSalesId(sales.getId());
+        change.setSaleDate(sales.getSaleDate());
+        change.setProduct(sales.getProduct());
+        change.setRegion(sales.getRegion());
+        change.setAmount(sales.getAmount());
+        return change;
+    }
+}
@@ -0,0 +1,88 @@
+package com.salesanalysis.util;
+
+import com.salesanalysis.model.Sales;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按页生成测试用销售数据
+ */
+public interface SalesPageGenerator {
+
+    /**
+     * 生成一页数据
+     * @param offset 该页第一条记录的序号，确定性生成器据此得到与线程数无关的结果
+     * @param count 该页记录数
+     * @return 销售数据列表
+     * @throws Exception 可能的异常
+     */
+    List<Sales> generatePage(long offset, int count) throws Exception;
+
+    /**
+     * 用 parallelism 个线程并发生成 total 条数据，每页生成后立即交给 sink
+     * 每个线程同一时刻只持有一页，sink 阻塞时生成随之放慢，内存占用与 total 无关
+     * @param total 总记录数
+     * @param pageSize 每页记录数
+     * @param parallelism 并发线程数
+     * @param sink 接收每一页，会被多个线程同时调用
+     * @return 实际生成的记录数
+     * @throws Exception 任一页生成或 sink 失败时取消其余页并抛出
+     */
+    default long generatePages(long total, int pageSize, int parallelism, Sink sink) throws Exception {
+        if (total < 0 || pageSize <= 0 || parallelism <= 0) {
+            throw new IllegalArgumentException("Total must not be negative, page size and parallelism must be greater than zero");
+        }
+        long pages = (total + pageSize - 1) / pageSize;
+        AtomicLong nextPage = new AtomicLong();
+        AtomicLong generated = new AtomicLong();
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "sales-generator-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> workers = new ArrayList<>(parallelism);
+            for (int i = 0; i < parallelism; i++) {
+                workers.add(executor.submit(() -> {
+                    long page;
+                    while ((page = nextPage.getAndIncrement()) < pages && !Thread.currentThread().isInterrupted()) {
+                        long offset = page * pageSize;
+                        List<Sales> rows = generatePage(offset, (int) Math.min(pageSize, total - offset));
+                        sink.accept(rows);
+                        generated.addAndGet(rows.size());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                try {
+                    worker.get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof Exception) {
+                        throw (Exception) cause;
+                    }
+                    throw (Error) cause;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return generated.get();
+    }
+
+    /**
+     * 接收生成的页，可以阻塞以实现背压
+     */
+    interface Sink {
+        void accept(List<Sales> page) throws InterruptedException;
+    }
+}
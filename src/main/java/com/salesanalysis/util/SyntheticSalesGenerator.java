@@ -0,0 +1,67 @@
+package com.salesanalysis.util;
+
+import com.salesanalysis.model.Sales;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 离线生成与 Mockaroo 字段定义同分布的销售数据：产品、区域在同样的列表中均匀选取，
+ * 日期在 [2023-01-01, 2025-12-31] 内均匀分布，金额在 [100.00, 10000.00] 内按分均匀分布。
+ * 第 i 条记录只由种子和 i 决定，相同种子在任意线程数下生成完全相同的数据
+ */
+public class SyntheticSalesGenerator implements SalesPageGenerator {
+
+    private static final DateTimeFormatter MOCKAROO_DATE = DateTimeFormatter.ofPattern("M/d/yyyy");
+    private static final LocalDate FIRST_DAY = LocalDate.parse(MockarooClient.MIN_DATE, MOCKAROO_DATE);
+    private static final long DAYS = ChronoUnit.DAYS.between(FIRST_DAY,
+            LocalDate.parse(MockarooClient.MAX_DATE, MOCKAROO_DATE)) + 1;
+    private static final long MIN_CENTS = MockarooClient.MIN_AMOUNT * 100L;
+    private static final long CENTS_SPAN = (MockarooClient.MAX_AMOUNT - MockarooClient.MIN_AMOUNT) * 100L + 1;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+
+    public SyntheticSalesGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * 生成第 index 条记录
+     * @param index 记录序号
+     * @return 销售数据，不含ID
+     */
+    public Sales row(long index) {
+        long h1 = mix(seed + (index + 1) * GOLDEN_GAMMA);
+        long h2 = mix(h1 + GOLDEN_GAMMA);
+        long h3 = mix(h2 + GOLDEN_GAMMA);
+        long h4 = mix(h3 + GOLDEN_GAMMA);
+
+        Sales sales = new Sales();
+        sales.setSaleDate(FIRST_DAY.plusDays(Long.remainderUnsigned(h1, DAYS)));
+        sales.setProduct(MockarooClient.PRODUCTS[(int) Long.remainderUnsigned(h2, MockarooClient.PRODUCTS.length)]);
+        sales.setRegion(MockarooClient.REGIONS[(int) Long.remainderUnsigned(h3, MockarooClient.REGIONS.length)]);
+        sales.setAmount(BigDecimal.valueOf(MIN_CENTS + Long.remainderUnsigned(h4, CENTS_SPAN), 2));
+        return sales;
+    }
+
+    @Override
+    public List<Sales> generatePage(long offset, int count) {
+        List<Sales> page = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            page.add(row(offset + i));
+        }
+        return page;
+    }
+
+    // SplitMix64 的输出函数，相邻输入得到统计上独立的输出
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,139 @@
+package com.salesanalysis.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.salesanalysis.model.Sales;
+import com.salesanalysis.model.SalesSummary;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 把 List&lt;Sales&gt; 和 List&lt;SalesSummary&gt; 写成列式JSON（application/x-columnar-json）：
+ * <pre>{"count":2,"id":[1,2],"saleDate":["2023-01-01","2023-01-02"],"product":[...],...}</pre>
+ * 字段名只出现一次，重复的产品、区域集中在同一数组内，gzip 后明显小于对象数组
+ */
+public class ColumnarJsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<List<?>> {
+
+    public static final String APPLICATION_COLUMNAR_JSON_VALUE = "application/x-columnar-json";
+    public static final MediaType APPLICATION_COLUMNAR_JSON = MediaType.valueOf(APPLICATION_COLUMNAR_JSON_VALUE);
+
+    private static final Map<Class<?>, List<Column>> COLUMNS = new HashMap<>();
+
+    static {
+        COLUMNS.put(Sales.class, Arrays.asList(
+                new Column("id", item -> ((Sales) item).getId()),
+                new Column("saleDate", item -> ((Sales) item).getSaleDate()),
+                new Column("product", item -> ((Sales) item).getProduct()),
+                new Column("region", item -> ((Sales) item).getRegion()),
+                new Column("amount", item -> ((Sales) item).getAmount())));
+        COLUMNS.put(SalesSummary.class, Arrays.asList(
+                new Column("date", item -> ((SalesSummary) item).getDate()),
+                new Column("product", item -> ((SalesSummary) item).getProduct()),
+                new Column("region", item -> ((SalesSummary) item).getRegion()),
+                new Column("totalAmount", item -> ((SalesSummary) item).getTotalAmount()),
+                new Column("count", item -> ((SalesSummary) item).getCount())));
+    }
+
+    private final ObjectMapper objectMapper;
+
+    public ColumnarJsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(APPLICATION_COLUMNAR_JSON);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz);
+    }
+
+    /**
+     * 元素类型可解析时只接受 Sales 和 SalesSummary；无法解析时按第一个元素判断
+     */
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!canWrite(clazz, mediaType)) {
+            return false;
+        }
+        if (type == null) {
+            return true;
+        }
+        Class<?> element = ResolvableType.forType(type).asCollection().resolveGeneric(0);
+        return element == null || element == Object.class || COLUMNS.containsKey(element);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected void writeInternal(List<?> items, Type type, HttpOutputMessage outputMessage) throws IOException {
+        List<Column> columns = columnsOf(items, type);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(outputMessage.getBody());
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.writeStartObject();
+        generator.writeNumberField("count", items.size());
+        for (Column column : columns) {
+            generator.writeArrayFieldStart(column.name);
+            for (Object item : items) {
+                generator.writeObject(column.getter.apply(item));
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+        generator.close();
+    }
+
+    private static List<Column> columnsOf(List<?> items, Type type) {
+        Class<?> element = type != null ? ResolvableType.forType(type).asCollection().resolveGeneric(0) : null;
+        if (element == null || element == Object.class) {
+            if (items.isEmpty()) {
+                return Collections.emptyList();
+            }
+            element = items.get(0).getClass();
+        }
+        List<Column> columns = COLUMNS.get(element);
+        if (columns == null) {
+            throw new IllegalArgumentException("Columnar encoding is not supported for " + element.getSimpleName());
+        }
+        return columns;
+    }
+
+    @Override
+    public List<?> read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Columnar request bodies are not supported", inputMessage);
+    }
+
+    @Override
+    protected List<?> readInternal(Class<? extends List<?>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Columnar request bodies are not supported", inputMessage);
+    }
+
+    private static final class Column {
+        private final String name;
+        private final Function<Object, Object> getter;
+
+        Column(String name, Function<Object, Object> getter) {
+            this.name = name;
+            this.getter = getter;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.salesanalysis.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+/**
+ * 把集合写成 NDJSON（application/x-ndjson）：每个元素一行JSON，客户端可以边接收边解析，不必等整个数组结束
+ * 只用于响应，导入接口直接读取请求体
+ */
+public class NdjsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Collection<?>> {
+
+    private final ObjectMapper objectMapper;
+
+    public NdjsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_NDJSON);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Collection.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected void writeInternal(Collection<?> items, Type type, HttpOutputMessage outputMessage) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(outputMessage.getBody());
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        for (Object item : items) {
+            generator.writeObject(item);
+            generator.writeRaw('\n');
+        }
+        generator.close();
+    }
+
+    @Override
+    public Collection<?> read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("NDJSON request bodies are not supported here", inputMessage);
+    }
+
+    @Override
+    protected Collection<?> readInternal(Class<? extends Collection<?>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("NDJSON request bodies are not supported here", inputMessage);
+    }
+}
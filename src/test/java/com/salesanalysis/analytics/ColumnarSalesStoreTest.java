@@ -0,0 +1,158 @@
+package com.salesanalysis.analytics;
+
+import com.salesanalysis.model.Sales;
+import com.salesanalysis.model.SalesSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarSalesStoreTest {
+
+    private ColumnarSalesStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new ColumnarSalesStore();
+        store.upsert(sales(1, "2023-01-01", "产品A", "华东", "100.00"));
+        store.upsert(sales(2, "2023-01-01", "产品A", "华东", "200.50"));
+        store.upsert(sales(3, "2023-01-01", "产品B", "华北", "999.99"));
+        store.upsert(sales(4, "2023-01-02", "产品A", "华北", "50.00"));
+    }
+
+    @Test
+    void testAggregate_NoFilter() {
+        // 执行测试
+        List<SalesSummary> result = store.aggregate(null, null, null, null, null);
+
+        // 验证结果 - 按日期降序、金额降序
+        assertEquals(3, result.size());
+        assertEquals("2023-01-02", result.get(0).getDate());
+        assertEquals("产品B", result.get(1).getProduct());
+        assertEquals(new BigDecimal("999.99"), result.get(1).getTotalAmount());
+        assertEquals("产品A", result.get(2).getProduct());
+        assertEquals(new BigDecimal("300.50"), result.get(2).getTotalAmount());
+        assertEquals(2, result.get(2).getCount());
+    }
+
+    @Test
+    void testAggregate_WithFilters() {
+        // 执行测试
+        List<SalesSummary> result = store.aggregate("2023-01-01", null, null, "产品A", "华东");
+
+        // 验证结果
+        assertEquals(1, result.size());
+        assertEquals(new BigDecimal("300.50"), result.get(0).getTotalAmount());
+        assertEquals(2, result.get(0).getCount());
+    }
+
+    @Test
+    void testAggregate_DateRange() {
+        // 执行测试 - 起止日期均包含在内
+        List<SalesSummary> result = store.aggregate(null, "2023-01-02", "2023-01-31", null, null);
+
+        // 验证结果
+        assertEquals(1, result.size());
+        assertEquals("2023-01-02", result.get(0).getDate());
+        assertEquals(3, store.aggregate(null, "2022-12-31", "2023-01-02", null, null).size());
+    }
+
+    @Test
+    void testAggregate_UnknownProduct() {
+        // 执行测试 - 字典中不存在的产品
+        List<SalesSummary> result = store.aggregate(null, null, null, "产品Z", null);
+
+        // 验证结果
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void testUpsert_MovesRowToNewGroup() {
+        // 执行测试 - 更新记录2到新的分组
+        store.upsert(sales(2, "2023-01-02", "产品A", "华北", "25.00"));
+        List<SalesSummary> result = store.aggregate(null, null, null, "产品A", null);
+
+        // 验证结果
+        assertEquals(2, result.size());
+        assertEquals(new BigDecimal("75.00"), result.get(0).getTotalAmount());
+        assertEquals(2, result.get(0).getCount());
+        assertEquals(new BigDecimal("100.00"), result.get(1).getTotalAmount());
+        assertEquals(1, result.get(1).getCount());
+    }
+
+    @Test
+    void testRemove() {
+        // 执行测试
+        assertTrue(store.remove(3));
+        assertFalse(store.remove(3));
+
+        // 验证结果
+        assertEquals(3, store.size());
+        assertTrue(store.aggregate(null, null, null, "产品B", null).isEmpty());
+    }
+
+    @Test
+    void testRemoveBefore() {
+        // 执行测试 - 早于2023-01-02的记录过期
+        int removed = store.removeBefore(LocalDate.parse("2023-01-02"));
+
+        // 验证结果 - 之后重新加载读到的过期记录也被跳过
+        assertEquals(3, removed);
+        assertEquals(1, store.size());
+        assertFalse(store.remove(1));
+        store.loadRow(sales(5, "2023-01-01", "产品A", "华东", "10.00"));
+        assertEquals(1, store.size());
+        assertEquals("2023-01-02", store.aggregate(null, null, null, null, null).get(0).getDate());
+    }
+
+    @Test
+    void testLoad_SkipsRowsChangedDuringLoad() {
+        // 执行测试 - 加载过程中记录1被删除，随后读到的旧快照应被跳过
+        store.beginLoad();
+        store.remove(1);
+        store.loadRow(sales(1, "2023-01-01", "产品A", "华东", "100.00"));
+        store.loadRow(sales(2, "2023-01-01", "产品A", "华东", "200.50"));
+        store.endLoad();
+
+        // 验证结果
+        assertEquals(1, store.size());
+        assertEquals(new BigDecimal("200.50"), store.aggregate(null, null, null, null, null).get(0).getTotalAmount());
+    }
+
+    @Test
+    void testSnapshot_RoundTrip() {
+        // 准备测试数据 - 新存储中已有的字典编码顺序与快照不同
+        store.remove(2);
+        ColumnarSnapshot snapshot = store.toSnapshot();
+        ColumnarSalesStore restored = new ColumnarSalesStore();
+        restored.upsert(sales(9, "2023-01-03", "产品B", "华南", "1.00"));
+
+        // 执行测试
+        restored.beginLoad();
+        restored.remove(9);
+        restored.loadSnapshot(snapshot);
+        restored.endLoad();
+
+        // 验证结果 - 删除的记录不在快照中，字典按名称重新映射
+        assertEquals(3, snapshot.size());
+        assertEquals(4, snapshot.maxId());
+        assertEquals(3, restored.size());
+        assertEquals(store.aggregate(null, null, null, null, null).toString(),
+                restored.aggregate(null, null, null, null, null).toString());
+        assertEquals(new BigDecimal("999.99"), restored.aggregate(null, null, null, "产品B", null).get(0).getTotalAmount());
+    }
+
+    private static Sales sales(int id, String date, String product, String region, String amount) {
+        Sales sales = new Sales();
+        sales.setId(id);
+        sales.setSaleDate(LocalDate.parse(date));
+        sales.setProduct(product);
+        sales.setRegion(region);
+        sales.setAmount(new BigDecimal(amount));
+        return sales;
+    }
+}
@@ -0,0 +1,83 @@
+package com.salesanalysis.analytics;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testWriteAndRead() throws IOException {
+        // 准备测试数据 - ID和日期乱序，金额含负差值
+        ColumnarSnapshot snapshot = new ColumnarSnapshot(Arrays.asList("产品A", "产品B"), Arrays.asList("华东"),
+                new int[]{7, 3, 100000}, new int[]{19358, 19000, 19400},
+                new int[]{1, 0, 1}, new int[]{0, 0, 0}, new long[]{99999, 1, Long.MAX_VALUE / 2}, 1700000000000L);
+        Path file = tempDir.resolve("sub").resolve("sales.snapshot");
+
+        // 执行测试
+        snapshot.write(file);
+        ColumnarSnapshot read = ColumnarSnapshot.read(file);
+
+        // 验证结果
+        assertEquals(3, read.size());
+        assertEquals(100000, read.maxId());
+        assertEquals(1700000000000L, read.createdAt());
+        assertEquals(Arrays.asList("产品A", "产品B"), read.products());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(snapshot.id(i), read.id(i));
+            assertEquals(snapshot.day(i), read.day(i));
+            assertEquals(snapshot.productCode(i), read.productCode(i));
+            assertEquals(snapshot.regionCode(i), read.regionCode(i));
+            assertEquals(snapshot.cents(i), read.cents(i));
+        }
+    }
+
+    @Test
+    void testRead_Corrupted() throws IOException {
+        // 准备测试数据
+        Path file = tempDir.resolve("sales.snapshot");
+        new ColumnarSnapshot(Arrays.asList("产品A"), Arrays.asList("华东"), new int[]{1}, new int[]{19358},
+                new int[]{0}, new int[]{0}, new long[]{100}, 0L).write(file);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(file, bytes);
+
+        // 执行测试并验证结果
+        assertThrows(IOException.class, () -> ColumnarSnapshot.read(file));
+        Files.write(file, new byte[]{1, 2, 3});
+        assertThrows(IOException.class, () -> ColumnarSnapshot.read(file));
+    }
+
+    @Test
+    void testVarLong() throws IOException {
+        // 准备测试数据
+        long[] values = {0, 1, -1, 63, -64, 300, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE};
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        // 执行测试
+        for (long value : values) {
+            ColumnarSnapshot.writeVarLong(out, ColumnarSnapshot.zigzag(value));
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+
+        // 验证结果 - 0、1、-1 经 zigzag 后各占一个字节
+        assertArrayEquals(new byte[]{0, 2, 1}, Arrays.copyOf(bytes.toByteArray(), 3));
+        for (long value : values) {
+            assertEquals(value, ColumnarSnapshot.unzigzag(ColumnarSnapshot.readVarLong(buffer)));
+        }
+        assertFalse(buffer.hasRemaining());
+    }
+}
@@ -0,0 +1,206 @@
+package com.salesanalysis.analytics;
+
+import com.salesanalysis.mapper.SalesMapper;
+import com.salesanalysis.model.Sales;
+import com.salesanalysis.model.SalesApproxSummary;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class SalesSketchEngineTest {
+
+    private final SalesMapper salesMapper = mock(SalesMapper.class);
+    private SalesSketchEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new SalesSketchEngine(salesMapper, 14, 200, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    void testAggregate_MergesAcrossDays() {
+        // 准备测试数据 - 两天共1000笔，金额为 1.00 ~ 1000.00，超过 kll-k 后转为 KLL
+        List<Sales> salesList = new ArrayList<>();
+        for (int i = 1; i <= 1000; i++) {
+            salesList.add(sales(i, i % 2 == 0 ? "2023-01-01" : "2023-01-02", "产品A", "华东", i + ".00"));
+        }
+        salesList.add(sales(1001, "2023-01-03", "产品B", "华北", "5.00"));
+        engine.onSalesInserted(salesList);
+
+        // 执行测试
+        List<SalesApproxSummary> result = engine.aggregate(LocalDate.parse("2023-01-01"), LocalDate.parse("2023-01-02"), null, null);
+
+        // 验证结果 - 金额合计和笔数精确，分位数和不同值数在误差范围内
+        assertEquals(1, result.size());
+        SalesApproxSummary summary = result.get(0);
+        assertEquals(new BigDecimal("500500.00"), summary.getTotalAmount());
+        assertEquals(1000, summary.getCount());
+        assertEquals(1000, summary.getDistinctAmounts(), 20);
+        assertEquals(500, summary.getP50().doubleValue(), 30);
+        assertEquals(990, summary.getP99().doubleValue(), 30);
+    }
+
+    @Test
+    void testAggregate_Filters() {
+        // 准备测试数据
+        engine.onSalesInserted(Arrays.asList(
+                sales(1, "2023-01-01", "产品A", "华东", "100.00"),
+                sales(2, "2023-01-01", "产品A", "华北", "300.00"),
+                sales(3, "2023-01-01", "产品A", "华北", "100.00")));
+
+        // 执行测试
+        List<SalesApproxSummary> result = engine.aggregate(null, null, "产品A", "华北");
+
+        // 验证结果
+        assertEquals(1, result.size());
+        assertEquals(2, result.get(0).getCount());
+        assertEquals(2, result.get(0).getDistinctAmounts());
+        assertEquals(new BigDecimal("300.00"), result.get(0).getP99());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testRebuild_SkipsRowsInsertedDuringBuild() {
+        // 准备模拟数据 - 重建过程中记录1通过写入回调到达，之后又被流式读到
+        doAnswer(invocation -> {
+            ResultHandler<Sales> handler = invocation.getArgument(0);
+            engine.onSalesInserted(Collections.singletonList(sales(1, "2023-01-01", "产品A", "华东", "100.00")));
+            DefaultResultContext<Sales> context = new DefaultResultContext<>();
+            context.nextResultObject(sales(1, "2023-01-01", "产品A", "华东", "100.00"));
+            handler.handleResult(context);
+            context.nextResultObject(sales(2, "2023-01-01", "产品A", "华东", "50.00"));
+            handler.handleResult(context);
+            return null;
+        }).when(salesMapper).streamAll(any());
+
+        // 执行测试
+        engine.rebuild();
+
+        // 验证结果
+        assertTrue(engine.isReady());
+        List<SalesApproxSummary> result = engine.aggregate(null, null, null, null);
+        assertEquals(2, result.get(0).getCount());
+        assertEquals(new BigDecimal("150.00"), result.get(0).getTotalAmount());
+    }
+
+    @Test
+    void testUpdateAndExpire() {
+        // 准备测试数据
+        engine.onSalesInserted(Arrays.asList(
+                sales(1, "2023-01-01", "产品A", "华东", "100.00"),
+                sales(2, "2023-02-01", "产品A", "华东", "200.00")));
+
+        // 执行测试 - 旧值未知的更新只能整体重建，过期直接移除早于截止日期的草图
+        engine.onSalesUpdated(null, sales(1, "2023-01-01", "产品A", "华东", "120.00"));
+        engine.onSalesExpired(LocalDate.parse("2023-02-01"));
+
+        // 验证结果
+        assertTrue(engine.isRefreshScheduled());
+        List<SalesApproxSummary> result = engine.aggregate(null, null, null, null);
+        assertEquals(1, result.get(0).getCount());
+        assertEquals(new BigDecimal("200.00"), result.get(0).getTotalAmount());
+    }
+
+    @Test
+    void testUpdate_MovesBetweenGroupsExactly() {
+        // 准备测试数据
+        engine.onSalesInserted(Arrays.asList(
+                sales(1, "2023-01-01", "产品A", "华东", "100.00"),
+                sales(2, "2023-01-01", "产品A", "华东", "50.00")));
+
+        // 执行测试 - 记录1改到另一天的产品B
+        engine.onSalesUpdated(sales(1, "2023-01-01", "产品A", "华东", "100.00"),
+                sales(1, "2023-01-02", "产品B", "华东", "120.00"));
+
+        // 验证结果 - 金额合计和笔数立即精确，只有旧分组所在日期等待刷新，不整体重建
+        List<SalesApproxSummary> result = engine.aggregate(null, null, null, null);
+        assertEquals(2, result.size());
+        assertEquals("产品B", result.get(0).getProduct());
+        assertEquals(new BigDecimal("120.00"), result.get(0).getTotalAmount());
+        assertEquals(1, result.get(0).getCount());
+        assertEquals(new BigDecimal("50.00"), result.get(1).getTotalAmount());
+        assertEquals(1, result.get(1).getCount());
+        assertEquals(new BigDecimal("50.00"), result.get(1).getP99());
+        assertTrue(engine.isStale(LocalDate.parse("2023-01-01")));
+        assertFalse(engine.isStale(LocalDate.parse("2023-01-02")));
+        assertTrue(engine.isRefreshScheduled());
+        verify(salesMapper, never()).streamAll(any());
+    }
+
+    @Test
+    void testDelete_RemovesEmptyGroup() {
+        // 准备测试数据
+        engine.onSalesInserted(Arrays.asList(
+                sales(1, "2023-01-01", "产品A", "华东", "100.00"),
+                sales(2, "2023-01-01", "产品B", "华东", "50.00")));
+
+        // 执行测试
+        engine.onSalesDeleted(1, sales(1, "2023-01-01", "产品A", "华东", "100.00"));
+
+        // 验证结果 - 分组清空后直接移除，不需要刷新
+        List<SalesApproxSummary> result = engine.aggregate(null, null, null, null);
+        assertEquals(1, result.size());
+        assertEquals("产品B", result.get(0).getProduct());
+        assertFalse(engine.isStale(LocalDate.parse("2023-01-01")));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testRefreshStaleDays_ReadsOnlyStaleDay() {
+        // 准备测试数据 - 删除后产品A在1月1日只剩金额为50.00的一笔，但HLL仍含100.00
+        engine.onSalesInserted(Arrays.asList(
+                sales(1, "2023-01-01", "产品A", "华东", "100.00"),
+                sales(2, "2023-01-01", "产品A", "华东", "50.00"),
+                sales(3, "2023-01-02", "产品A", "华东", "70.00")));
+        engine.onSalesDeleted(1, sales(1, "2023-01-01", "产品A", "华东", "100.00"));
+        doAnswer(invocation -> {
+            ResultHandler<Sales> handler = invocation.getArgument(1);
+            DefaultResultContext<Sales> context = new DefaultResultContext<>();
+            context.nextResultObject(sales(2, "2023-01-01", "产品A", "华东", "50.00"));
+            handler.handleResult(context);
+            return null;
+        }).when(salesMapper).streamByDate(eq(LocalDate.parse("2023-01-01")), any());
+
+        // 执行测试
+        engine.refreshStaleDays();
+
+        // 验证结果 - 只读取过期的一天，金额合计不变，不同值数恢复精确
+        verify(salesMapper, times(1)).streamByDate(eq(LocalDate.parse("2023-01-01")), any());
+        verify(salesMapper, never()).streamAll(any());
+        assertFalse(engine.isStale(LocalDate.parse("2023-01-01")));
+        SalesApproxSummary day = engine.aggregate(LocalDate.parse("2023-01-01"), LocalDate.parse("2023-01-01"), null, null).get(0);
+        assertEquals(new BigDecimal("50.00"), day.getTotalAmount());
+        assertEquals(1, day.getCount());
+        assertEquals(1, day.getDistinctAmounts());
+    }
+
+    private static Sales sales(int id, String date, String product, String region, String amount) {
+        Sales sales = new Sales();
+        sales.setId(id);
+        sales.setSaleDate(LocalDate.parse(date));
+        sales.setProduct(product);
+        sales.setRegion(region);
+        sales.setAmount(new BigDecimal(amount));
+        return sales;
+    }
+}
@@ -0,0 +1,70 @@
+package com.salesanalysis.analytics;
+
+import com.salesanalysis.model.SalesSeriesPoint;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeriesAccumulatorTest {
+
+    @Test
+    void testDaily_ZeroFill() {
+        // 准备测试数据
+        SeriesAccumulator series = new SeriesAccumulator(SeriesBucket.DAY,
+                LocalDate.parse("2023-01-01"), LocalDate.parse("2023-01-03"));
+        series.add(LocalDate.parse("2023-01-03"), new BigDecimal("10.50"), 2);
+
+        // 执行测试
+        List<SalesSeriesPoint> result = series.result();
+
+        // 验证结果
+        assertEquals(3, result.size());
+        assertEquals("2023-01-01", result.get(0).getBucket());
+        assertEquals(new BigDecimal("0.00"), result.get(0).getTotalAmount());
+        assertEquals(0, result.get(1).getCount());
+        assertEquals(new BigDecimal("10.50"), result.get(2).getTotalAmount());
+        assertEquals(2, result.get(2).getCount());
+    }
+
+    @Test
+    void testWeekly_AlignsToMonday() {
+        // 准备测试数据 - 2023-01-01 是周日，属于从 2022-12-26 开始的周
+        SeriesAccumulator series = new SeriesAccumulator(SeriesBucket.WEEK,
+                LocalDate.parse("2023-01-01"), LocalDate.parse("2023-01-09"));
+        series.add(LocalDate.parse("2023-01-01"), new BigDecimal("1.00"), 1);
+        series.add(LocalDate.parse("2023-01-02"), new BigDecimal("2.00"), 1);
+        series.add(LocalDate.parse("2023-01-08"), new BigDecimal("3.00"), 1);
+
+        // 执行测试
+        List<SalesSeriesPoint> result = series.result();
+
+        // 验证结果
+        assertEquals(3, result.size());
+        assertEquals("2022-12-26", result.get(0).getBucket());
+        assertEquals(new BigDecimal("1.00"), result.get(0).getTotalAmount());
+        assertEquals("2023-01-02", result.get(1).getBucket());
+        assertEquals(new BigDecimal("5.00"), result.get(1).getTotalAmount());
+        assertEquals("2023-01-09", result.get(2).getBucket());
+        assertEquals(0, result.get(2).getCount());
+    }
+
+    @Test
+    void testMonthly_TooManyBuckets() {
+        // 执行测试 - 按月统计
+        SeriesAccumulator series = new SeriesAccumulator(SeriesBucket.MONTH,
+                LocalDate.parse("2023-01-15"), LocalDate.parse("2023-03-01"));
+        series.add(LocalDate.parse("2023-02-28"), new BigDecimal("7.00"), 1);
+
+        // 验证结果
+        List<SalesSeriesPoint> result = series.result();
+        assertEquals(3, result.size());
+        assertEquals("2023-02-01", result.get(1).getBucket());
+        assertEquals(new BigDecimal("7.00"), result.get(1).getTotalAmount());
+        assertThrows(IllegalArgumentException.class, () -> new SeriesAccumulator(SeriesBucket.DAY,
+                LocalDate.parse("1990-01-01"), LocalDate.parse("2030-01-01")));
+    }
+}
@@ -0,0 +1,62 @@
+package com.salesanalysis.analytics;
+
+import com.salesanalysis.model.SalesRanking;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopNAccumulatorTest {
+
+    @Test
+    void testResult_KeepsLargestPerGroup() {
+        // 准备测试数据
+        TopNAccumulator top = new TopNAccumulator(2);
+        top.add(ranking("华东", "产品A", "100.00"));
+        top.add(ranking("华东", "产品B", "300.00"));
+        top.add(ranking("华北", "产品A", "50.00"));
+        top.add(ranking("华东", "产品C", "200.00"));
+        top.add(ranking("华东", "产品D", "10.00"));
+
+        // 执行测试
+        List<SalesRanking> result = top.result();
+
+        // 验证结果 - 分组按名称升序（"华东" < "华北"），组内按金额降序
+        assertEquals(3, result.size());
+        assertEquals("华东", result.get(0).getGroup());
+        assertEquals("产品B", result.get(0).getName());
+        assertEquals(1, result.get(0).getRank());
+        assertEquals("产品C", result.get(1).getName());
+        assertEquals(2, result.get(1).getRank());
+        assertEquals("华北", result.get(2).getGroup());
+        assertEquals(1, result.get(2).getRank());
+    }
+
+    @Test
+    void testResult_TiesBrokenByName() {
+        // 准备测试数据 - 整体排名，分组为 null
+        TopNAccumulator top = new TopNAccumulator(2);
+        top.add(ranking(null, "产品C", "100.00"));
+        top.add(ranking(null, "产品A", "100.00"));
+        top.add(ranking(null, "产品B", "100.00"));
+
+        // 执行测试
+        List<SalesRanking> result = top.result();
+
+        // 验证结果
+        assertEquals(2, result.size());
+        assertEquals("产品A", result.get(0).getName());
+        assertEquals("产品B", result.get(1).getName());
+    }
+
+    private static SalesRanking ranking(String group, String name, String amount) {
+        SalesRanking ranking = new SalesRanking();
+        ranking.setGroup(group);
+        ranking.setName(name);
+        ranking.setTotalAmount(new BigDecimal(amount));
+        ranking.setCount(1);
+        return ranking;
+    }
+}
@@ -0,0 +1,119 @@
+package com.salesanalysis.async;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalyticsExecutorTest {
+
+    private AnalyticsExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testSubmit_RunsOnAnalyticsThread() throws Exception {
+        // 准备测试数据
+        executor = new AnalyticsExecutor(true, 2, 10, false, 10);
+
+        // 执行测试
+        String threadName = executor.submit(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+
+        // 验证结果
+        assertTrue(threadName.startsWith("sales-analytics-"));
+    }
+
+    @Test
+    void testThreads_DefaultToHalfOfConnectionPool() {
+        // 执行测试
+        executor = new AnalyticsExecutor(true, 0, 10, false, 10);
+        AnalyticsExecutor small = new AnalyticsExecutor(true, 0, 10, false, 1);
+
+        // 验证结果
+        assertEquals(5, executor.getThreads());
+        assertEquals(1, small.getThreads());
+        small.shutdown();
+    }
+
+    @Test
+    void testSubmit_QueueFull_ThrowsBusy() throws Exception {
+        // 准备测试数据 - 一个工作线程被占用，一个任务排队
+        executor = new AnalyticsExecutor(true, 1, 1, false, 10);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Integer> running = executor.submit(() -> {
+            started.countDown();
+            await(release);
+            return 1;
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Integer> queued = executor.submit(() -> 2);
+
+        // 执行测试 & 验证结果
+        assertThrows(ExecutorBusyException.class, () -> executor.submit(() -> 3));
+        release.countDown();
+        assertEquals(1, running.get(5, TimeUnit.SECONDS));
+        assertEquals(2, queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testSubmit_FailurePropagatesThroughFuture() {
+        // 准备测试数据
+        executor = new AnalyticsExecutor(true, 1, 10, false, 10);
+
+        // 执行测试
+        CompletableFuture<Object> future = executor.submit(() -> {
+            throw new IllegalArgumentException("Invalid date format");
+        });
+
+        // 验证结果
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof IllegalArgumentException);
+    }
+
+    @Test
+    void testDisabled_RunsInline() throws Exception {
+        // 准备测试数据
+        executor = new AnalyticsExecutor(false, 0, 10, false, 10);
+        Thread caller = Thread.currentThread();
+
+        // 执行测试
+        CompletableFuture<Thread> future = executor.submit(Thread::currentThread);
+
+        // 验证结果
+        assertTrue(future.isDone());
+        assertSame(caller, future.get());
+        assertEquals(0, executor.getThreads());
+    }
+
+    @Test
+    void testVirtualThreads_FallBackToPlatformThreadsOnOlderJdk() throws Exception {
+        // 准备测试数据
+        executor = new AnalyticsExecutor(true, 1, 10, true, 10);
+
+        // 执行测试
+        String threadName = executor.submit(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+
+        // 验证结果 - 两种线程都按相同前缀命名
+        assertTrue(threadName.startsWith("sales-analytics-"));
+        assertEquals(VirtualThreads.isSupported(), VirtualThreads.factory("test-") != null);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.salesanalysis.bulkhead;
+
+import com.salesanalysis.datasource.TrafficClassRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "sales.bulkhead.separate-pools=true")
+class BulkheadConfigTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    @Qualifier("analyticsDataSource")
+    private HikariDataSource analyticsDataSource;
+
+    @Autowired
+    @Qualifier("bulkDataSource")
+    private HikariDataSource bulkDataSource;
+
+    @Test
+    void testSeparatePools() {
+        // 验证结果 - 连接池在首次取连接时才建立，不需要数据库
+        assertTrue(dataSource instanceof TrafficClassRoutingDataSource);
+        assertEquals("analytics", analyticsDataSource.getPoolName());
+        assertEquals(4, analyticsDataSource.getMaximumPoolSize());
+        assertEquals("bulk", bulkDataSource.getPoolName());
+        assertEquals(2, bulkDataSource.getMaximumPoolSize());
+    }
+}
@@ -0,0 +1,103 @@
+package com.salesanalysis.bulkhead;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadFilterTest {
+
+    @Test
+    void testClassify() {
+        // 执行测试 & 验证结果
+        assertEquals(TrafficClass.CRUD, BulkheadFilter.classify("GET", "/api/sales/1"));
+        assertEquals(TrafficClass.CRUD, BulkheadFilter.classify("GET", "/api/sales/page"));
+        assertEquals(TrafficClass.CRUD, BulkheadFilter.classify("POST", "/api/sales"));
+        assertEquals(TrafficClass.CRUD, BulkheadFilter.classify("DELETE", "/api/sales/1"));
+        assertEquals(TrafficClass.ANALYTICS, BulkheadFilter.classify("GET", "/api/sales"));
+        assertEquals(TrafficClass.ANALYTICS, BulkheadFilter.classify("GET", "/api/sales/stream"));
+        assertEquals(TrafficClass.ANALYTICS, BulkheadFilter.classify("GET", "/api/sales/summary"));
+        assertEquals(TrafficClass.ANALYTICS, BulkheadFilter.classify("GET", "/api/sales/summary/approx"));
+        assertEquals(TrafficClass.ANALYTICS, BulkheadFilter.classify("GET", "/api/sales/top"));
+        assertEquals(TrafficClass.BULK, BulkheadFilter.classify("POST", "/api/sales/batch"));
+        assertEquals(TrafficClass.BULK, BulkheadFilter.classify("PUT", "/api/sales/bulk"));
+        assertEquals(TrafficClass.BULK, BulkheadFilter.classify("POST", "/api/sales/imports"));
+        assertEquals(TrafficClass.BULK, BulkheadFilter.classify("POST", "/api/sales/rollup/rebuild"));
+        assertNull(BulkheadFilter.classify("GET", "/api/sales/changes"));
+        assertNull(BulkheadFilter.classify("GET", "/api/salesx"));
+        assertNull(BulkheadFilter.classify("GET", "/actuator/health"));
+    }
+
+    @Test
+    void testSyncRequest_SetsTrafficClassAndReleases() throws Exception {
+        // 准备测试数据
+        BulkheadFilter filter = new BulkheadFilter(new BulkheadProperties());
+        AtomicReference<TrafficClass> seen = new AtomicReference<>();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                seen.set(TrafficContext.current());
+            }
+        });
+
+        // 执行测试
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/sales/summary"), new MockHttpServletResponse(), chain);
+
+        // 验证结果
+        assertEquals(TrafficClass.ANALYTICS, seen.get());
+        assertNull(TrafficContext.current());
+        assertEquals(0, filter.bulkheadOf(TrafficClass.ANALYTICS).getActive());
+    }
+
+    @Test
+    void testFullBulkhead_Returns503WithRetryAfter() throws Exception {
+        // 准备测试数据 - 批量写入只允许一个并发且不排队
+        BulkheadProperties properties = new BulkheadProperties();
+        properties.setBulk(new BulkheadProperties.Limit(1, 0, Duration.ZERO, Duration.ofSeconds(10), 1));
+        BulkheadFilter filter = new BulkheadFilter(properties);
+        assertTrue(filter.bulkheadOf(TrafficClass.BULK).tryAcquire());
+        AtomicBoolean invoked = new AtomicBoolean();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockHttpServletResponse crudResponse = new MockHttpServletResponse();
+
+        // 执行测试
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/sales/batch"), response,
+                (request, res) -> invoked.set(true));
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/sales/1"), crudResponse, new MockFilterChain());
+
+        // 验证结果 - 批量写入被拒绝，CRUD 请求不受影响
+        assertFalse(invoked.get());
+        assertEquals(503, response.getStatus());
+        assertEquals("10", response.getHeader("Retry-After"));
+        assertEquals(1, filter.bulkheadOf(TrafficClass.BULK).getRejected());
+        assertEquals(200, crudResponse.getStatus());
+    }
+
+    @Test
+    void testAsyncRequest_ReleasesOnComplete() throws Exception {
+        // 准备测试数据
+        BulkheadFilter filter = new BulkheadFilter(new BulkheadProperties());
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/sales/summary");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // 执行测试 - 控制器返回 CompletableFuture 后请求线程先退出过滤器
+        filter.doFilter(request, response, (req, res) -> req.startAsync());
+        int activeWhileAsync = filter.bulkheadOf(TrafficClass.ANALYTICS).getActive();
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+
+        // 验证结果
+        assertEquals(1, activeWhileAsync);
+        assertEquals(0, filter.bulkheadOf(TrafficClass.ANALYTICS).getActive());
+    }
+}
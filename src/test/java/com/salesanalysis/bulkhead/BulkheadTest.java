@@ -0,0 +1,83 @@
+package com.salesanalysis.bulkhead;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadTest {
+
+    @Test
+    void testTryAcquire_WithinLimit() throws Exception {
+        // 准备测试数据
+        Bulkhead bulkhead = new Bulkhead(TrafficClass.CRUD, 2, 0, Duration.ZERO);
+
+        // 执行测试
+        boolean first = bulkhead.tryAcquire();
+        boolean second = bulkhead.tryAcquire();
+        boolean third = bulkhead.tryAcquire();
+
+        // 验证结果 - 不允许排队时第三个请求立即被拒绝
+        assertTrue(first);
+        assertTrue(second);
+        assertFalse(third);
+        assertEquals(2, bulkhead.getActive());
+        assertEquals(1, bulkhead.getRejected());
+        bulkhead.release();
+        assertTrue(bulkhead.tryAcquire());
+    }
+
+    @Test
+    void testTryAcquire_WaitTimesOut() throws Exception {
+        // 准备测试数据
+        Bulkhead bulkhead = new Bulkhead(TrafficClass.ANALYTICS, 1, 1, Duration.ofMillis(50));
+        assertTrue(bulkhead.tryAcquire());
+
+        // 执行测试
+        long start = System.nanoTime();
+        boolean acquired = bulkhead.tryAcquire();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // 验证结果
+        assertFalse(acquired);
+        assertTrue(elapsedMillis >= 40, "waited " + elapsedMillis + " ms");
+        assertEquals(0, bulkhead.getWaiting());
+        assertEquals(1, bulkhead.getRejected());
+    }
+
+    @Test
+    void testTryAcquire_QueuedRequestGetsReleasedPermit() throws Exception {
+        // 准备测试数据 - 一个请求执行中，一个请求排队，第三个请求超出排队上限
+        Bulkhead bulkhead = new Bulkhead(TrafficClass.BULK, 1, 1, Duration.ofSeconds(5));
+        assertTrue(bulkhead.tryAcquire());
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> {
+            try {
+                return bulkhead.tryAcquire();
+            } catch (InterruptedException e) {
+                return false;
+            }
+        });
+        long deadline = System.currentTimeMillis() + 5000;
+        while (bulkhead.getWaiting() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+
+        // 执行测试
+        boolean overflow = bulkhead.tryAcquire();
+        bulkhead.release();
+
+        // 验证结果
+        assertFalse(overflow);
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+        assertEquals(1, bulkhead.getActive());
+    }
+
+    @Test
+    void testConstructor_InvalidMaxConcurrent() {
+        // 执行测试 & 验证结果
+        assertThrows(IllegalArgumentException.class, () -> new Bulkhead(TrafficClass.CRUD, 0, 10, Duration.ZERO));
+    }
+}
@@ -0,0 +1,174 @@
+package com.salesanalysis.cache;
+
+import com.salesanalysis.model.Sales;
+import com.salesanalysis.model.SalesCacheStats;
+import com.salesanalysis.model.SalesSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SalesReadCacheTest {
+
+    private SalesReadCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = new SalesReadCache(true, 100, Duration.ofMinutes(10), 100, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void testGetSummary_EmptyFilterSharesKey() {
+        // 执行测试 - 空串与null视为同一过滤条件
+        cache.getSummary(null, null, null, "产品A", "", this::load);
+        cache.getSummary("", null, null, "产品A", null, this::load);
+
+        // 验证结果
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.summaryCache().estimatedSize());
+    }
+
+    @Test
+    void testOnSalesInserted_InvalidatesOnlyMatchingKeys() {
+        // 准备数据 - 缓存5个不同的过滤条件
+        cache.getSummary(null, null, null, null, null, this::load);
+        cache.getSummary("2023-01-01", null, null, null, null, this::load);
+        cache.getSummary("2023-01-02", null, null, null, null, this::load);
+        cache.getSummary(null, "2023-01-01", "2023-01-31", "产品A", null, this::load);
+        cache.getSummary(null, null, null, "产品B", null, this::load);
+
+        // 执行测试 - 新增一条 2023-01-01/产品A/华东 的记录
+        cache.onSalesInserted(Collections.singletonList(sales(1, "2023-01-01", "产品A", "华东")));
+
+        // 验证结果 - 只剩不匹配的 2023-01-02 和 产品B
+        assertEquals(2, cache.summaryCache().estimatedSize());
+        cache.getSummary("2023-01-02", null, null, null, null, this::load);
+        cache.getSummary(null, null, null, "产品B", null, this::load);
+        assertEquals(5, loads.get());
+        assertEquals(3, statsOf(SalesReadCache.SUMMARY).getInvalidationCount());
+    }
+
+    @Test
+    void testReplicaLag_SkipsCachingRightAfterInvalidation() {
+        // 准备数据 - 副本延迟窗口足够长
+        SalesReadCache lagging = new SalesReadCache(true, 100, Duration.ofMinutes(10), 100, Duration.ofMinutes(5),
+                Duration.ofMinutes(1));
+        lagging.getSummary(null, null, null, null, null, this::load);
+        assertEquals(1, lagging.summaryCache().estimatedSize());
+
+        // 执行测试 - 失效后窗口内加载的结果可能来自落后的副本
+        lagging.invalidateAllSummaries();
+        lagging.getSummary(null, null, null, null, null, this::load);
+        lagging.getSummary(null, null, null, null, null, this::load);
+
+        // 验证结果 - 结果正常返回但不缓存
+        assertEquals(3, loads.get());
+        assertEquals(0, lagging.summaryCache().estimatedSize());
+    }
+
+    @Test
+    void testOnSalesUpdated_UsesPreviousAndCurrentGroups() {
+        // 准备数据
+        cache.getSummary(null, null, null, "产品A", null, this::load);
+        cache.getSummary(null, null, null, "产品B", null, this::load);
+        cache.getSummary(null, null, null, "产品C", null, this::load);
+
+        // 执行测试 - 记录从产品A改为产品B
+        cache.onSalesUpdated(sales(1, "2023-01-01", "产品A", "华东"), sales(1, "2023-01-01", "产品B", "华东"));
+
+        // 验证结果
+        assertEquals(1, cache.summaryCache().estimatedSize());
+    }
+
+    @Test
+    void testOnSalesDeleted_UnknownPreviousInvalidatesAllSummaries() {
+        // 准备数据
+        cache.getSummary(null, null, null, "产品A", null, this::load);
+        cache.getSummary(null, null, null, "产品B", null, this::load);
+
+        // 执行测试
+        cache.onSalesDeleted(99, null);
+
+        // 验证结果
+        assertEquals(0, cache.summaryCache().estimatedSize());
+    }
+
+    @Test
+    void testOnSalesBulkDeleted_InvalidatesOnce() {
+        // 准备数据
+        cache.getSummary(null, null, null, "产品A", null, this::load);
+        cache.getSummary(null, null, null, "产品B", null, this::load);
+        cache.getSummary(null, null, null, "产品C", null, this::load);
+
+        // 执行测试 - 批量删除两条产品A、一条产品B
+        cache.onSalesBulkDeleted(Arrays.asList(1, 2, 3), Arrays.asList(sales(1, "2023-01-01", "产品A", "华东"),
+                sales(2, "2023-01-02", "产品A", "华东"), sales(3, "2023-01-01", "产品B", "华北")));
+
+        // 验证结果 - 产品C保留
+        assertEquals(1, cache.summaryCache().estimatedSize());
+        assertEquals(2, statsOf(SalesReadCache.SUMMARY).getInvalidationCount());
+    }
+
+    @Test
+    void testGetById_CachesAndInvalidates() {
+        // 执行测试
+        Sales first = cache.getById(1, id -> {
+            loads.incrementAndGet();
+            return sales(id, "2023-01-01", "产品A", "华东");
+        });
+        Sales second = cache.getById(1, id -> {
+            loads.incrementAndGet();
+            return null;
+        });
+
+        // 验证结果
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertNull(cache.getById(2, id -> null));
+        assertEquals(1, statsOf(SalesReadCache.BY_ID).getHitCount());
+
+        // 删除后失效
+        cache.onSalesDeleted(1, null);
+        assertNull(cache.byIdCache().getIfPresent(1));
+    }
+
+    @Test
+    void testGetSummary_InvalidatedDuringLoadIsNotCached() {
+        // 执行测试 - 加载过程中发生写入
+        cache.getSummary(null, null, null, null, null, () -> {
+            cache.onSalesInserted(Collections.singletonList(sales(1, "2023-01-01", "产品A", "华东")));
+            return load();
+        });
+
+        // 验证结果
+        assertEquals(0, cache.summaryCache().estimatedSize());
+    }
+
+    private List<SalesSummary> load() {
+        loads.incrementAndGet();
+        return Collections.singletonList(new SalesSummary());
+    }
+
+    private SalesCacheStats statsOf(String name) {
+        return cache.stats().stream().filter(stats -> stats.getName().equals(name)).findFirst().orElseThrow(IllegalStateException::new);
+    }
+
+    private static Sales sales(int id, String date, String product, String region) {
+        Sales sales = new Sales();
+        sales.setId(id);
+        sales.setSaleDate(LocalDate.parse(date));
+        sales.setProduct(product);
+        sales.setRegion(region);
+        sales.setAmount(new BigDecimal("10.00"));
+        return sales;
+    }
+}
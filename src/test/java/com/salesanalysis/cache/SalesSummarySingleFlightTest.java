@@ -0,0 +1,120 @@
+package com.salesanalysis.cache;
+
+import com.salesanalysis.model.SalesSummary;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SalesSummarySingleFlightTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void testExecute_WithoutTtl_RunsAgainAfterCompletion() {
+        // 准备测试数据
+        SalesSummarySingleFlight singleFlight = new SalesSummarySingleFlight(true, Duration.ZERO);
+
+        // 执行测试 - 前一次已完成，不并发的相同查询各自执行
+        singleFlight.execute(null, null, null, "产品A", null, this::load);
+        singleFlight.execute(null, null, null, "产品A", "", this::load);
+
+        // 验证结果
+        assertEquals(2, loads.get());
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    void testExecute_WithTtl_ReusesResultUntilWrite() {
+        // 准备测试数据
+        SalesSummarySingleFlight singleFlight = new SalesSummarySingleFlight(true, Duration.ofMinutes(1));
+
+        // 执行测试
+        singleFlight.execute("2023-01-01", null, null, null, null, this::load);
+        singleFlight.execute("2023-01-01", null, null, null, null, this::load);
+        singleFlight.onSalesInserted(Collections.emptyList());
+        singleFlight.execute("2023-01-01", null, null, null, null, this::load);
+
+        // 验证结果 - 写入提交后不再复用
+        assertEquals(2, loads.get());
+        assertEquals(1, singleFlight.getShared());
+    }
+
+    @Test
+    void testExecute_WriteDuringFlight_LaterRequestRunsNewQuery() throws Exception {
+        // 准备测试数据 - 第一次查询在写入提交前开始，执行中阻塞
+        SalesSummarySingleFlight singleFlight = new SalesSummarySingleFlight(true, Duration.ZERO);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<List<SalesSummary>> stale = CompletableFuture.supplyAsync(() ->
+                singleFlight.execute(null, null, null, null, null, () -> {
+                    started.countDown();
+                    await(release);
+                    return load();
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // 执行测试 - 写入提交后到达的相同请求
+        singleFlight.onSalesUpdated(null, null);
+        singleFlight.execute(null, null, null, null, null, this::load);
+        release.countDown();
+        stale.get(5, TimeUnit.SECONDS);
+
+        // 验证结果
+        assertEquals(2, loads.get());
+        assertEquals(0, singleFlight.getShared());
+    }
+
+    @Test
+    void testExecute_FailureIsNotReused() {
+        // 准备测试数据
+        SalesSummarySingleFlight singleFlight = new SalesSummarySingleFlight(true, Duration.ofMinutes(1));
+
+        // 执行测试
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute(null, null, null, null, null, () -> {
+            throw new IllegalStateException("Database unavailable");
+        }));
+        List<SalesSummary> result = singleFlight.execute(null, null, null, null, null, this::load);
+
+        // 验证结果
+        assertEquals(1, result.size());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testDisabled_AlwaysLoads() {
+        // 准备测试数据
+        SalesSummarySingleFlight singleFlight = new SalesSummarySingleFlight(false, Duration.ofMinutes(1));
+
+        // 执行测试
+        singleFlight.execute(null, null, null, null, null, this::load);
+        singleFlight.execute(null, null, null, null, null, this::load);
+
+        // 验证结果
+        assertEquals(2, loads.get());
+        assertEquals(0, singleFlight.getExecutions());
+    }
+
+    private List<SalesSummary> load() {
+        loads.incrementAndGet();
+        List<SalesSummary> result = new ArrayList<>();
+        result.add(new SalesSummary());
+        return result;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
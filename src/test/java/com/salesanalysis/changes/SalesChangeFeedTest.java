@@ -0,0 +1,140 @@
+package com.salesanalysis.changes;
+
+import com.salesanalysis.mapper.SalesMapper;
+import com.salesanalysis.model.SalesChange;
+import com.salesanalysis.model.SalesChangePage;
+import com.salesanalysis.model.SalesChangeType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class SalesChangeFeedTest {
+
+    private final SalesMapper salesMapper = mock(SalesMapper.class);
+    private SalesChangeFeed feed = new SalesChangeFeed(salesMapper, Duration.ofSeconds(30),
+            Duration.ofMinutes(1), 1, Duration.ofDays(7));
+
+    @AfterEach
+    void tearDown() {
+        feed.shutdown();
+    }
+
+    @Test
+    void testChangesSince_ReturnsPage() {
+        // 准备模拟数据 - 多查一条用于判断 hasMore
+        when(salesMapper.findChangesSince(10L, 3)).thenReturn(Arrays.asList(change(11), change(12), change(15)));
+
+        // 执行测试
+        SalesChangePage page = feed.changesSince(10L, 2, null);
+
+        // 验证结果
+        assertEquals(2, page.getItems().size());
+        assertEquals(12L, page.getNextSince());
+        assertTrue(page.isHasMore());
+        verify(salesMapper, times(1)).findChangesSince(anyLong(), anyInt());
+    }
+
+    @Test
+    void testChangesSince_LongPollWokenByLocalCommit() throws Exception {
+        // 准备模拟数据 - 第一次查询为空，提交后再次查询读到新变更
+        when(salesMapper.findChangesSince(0L, 101))
+                .thenReturn(Collections.emptyList())
+                .thenReturn(Collections.singletonList(change(1)));
+
+        // 执行测试 - 轮询间隔为1分钟，只有本地提交的通知能及时唤醒
+        CompletableFuture<SalesChangePage> result = CompletableFuture.supplyAsync(() -> feed.changesSince(null, null, 30));
+        long start = System.nanoTime();
+        while (feed.waiting() == 0 && System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5)) {
+            Thread.sleep(5);
+        }
+        feed.onSalesDeleted(1, null);
+
+        // 验证结果
+        SalesChangePage page = result.get(5, TimeUnit.SECONDS);
+        assertEquals(1L, page.getNextSince());
+        assertEquals(0, feed.waiting());
+    }
+
+    @Test
+    void testChangesSince_TooManyWaiters() throws Exception {
+        // 准备模拟数据
+        when(salesMapper.findChangesSince(0L, 101)).thenReturn(Collections.emptyList());
+        CompletableFuture<SalesChangePage> first = CompletableFuture.supplyAsync(() -> feed.changesSince(0L, null, 30));
+        long start = System.nanoTime();
+        while (feed.waiting() == 0 && System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5)) {
+            Thread.sleep(5);
+        }
+
+        // 执行测试 - 等待数已达上限，第二个请求立即返回空结果
+        SalesChangePage page = feed.changesSince(0L, null, 30);
+
+        // 验证结果
+        assertTrue(page.getItems().isEmpty());
+        assertEquals(0L, page.getNextSince());
+        feed.onSalesInserted(Collections.emptyList());
+        when(salesMapper.findChangesSince(0L, 101)).thenReturn(Collections.singletonList(change(3)));
+        feed.onSalesInserted(Collections.emptyList());
+        assertEquals(3L, first.get(5, TimeUnit.SECONDS).getNextSince());
+    }
+
+    @Test
+    void testChangesSince_InvalidArguments() {
+        // 执行测试并验证结果
+        assertThrows(IllegalArgumentException.class, () -> feed.changesSince(-1L, null, null));
+        assertThrows(IllegalArgumentException.class, () -> feed.changesSince(0L, 0, null));
+        assertThrows(IllegalArgumentException.class, () -> feed.changesSince(0L, null, -1));
+        verifyNoInteractions(salesMapper);
+    }
+
+    @Test
+    void testChangesSince_ResetRequiredAfterPurge() {
+        // 准备模拟数据 - 序号100之前的变更已被清理
+        when(salesMapper.findChangesSince(10L, 101)).thenReturn(Arrays.asList(change(100), change(101)));
+        when(salesMapper.minChangeSeq()).thenReturn(100L);
+        when(salesMapper.maxChangeSeq()).thenReturn(250L);
+
+        // 执行测试
+        SalesChangePage lost = feed.changesSince(10L, null, null);
+        SalesChangePage current = feed.changesSince(99L, null, null);
+
+        // 验证结果 - 落后的消费方不返回残缺的变更，从当前最大序号继续
+        assertTrue(lost.isResetRequired());
+        assertTrue(lost.getItems().isEmpty());
+        assertEquals(250L, lost.getNextSince());
+        assertFalse(current.isResetRequired());
+    }
+
+    @Test
+    void testPurge_DeletesInBatches() {
+        // 准备模拟数据
+        when(salesMapper.maxChangeSeq()).thenReturn(30000L);
+        when(salesMapper.purgeChanges(any(LocalDateTime.class), anyLong(), anyInt())).thenReturn(10000, 10000, 5);
+
+        // 执行测试
+        long purged = feed.purge();
+
+        // 验证结果 - 序号最大的一行保留
+        assertEquals(20005, purged);
+        verify(salesMapper, times(3)).purgeChanges(any(LocalDateTime.class), eq(30000L), eq(10000));
+    }
+
+    private static SalesChange change(long seq) {
+        SalesChange change = new SalesChange();
+        change.setSeq(seq);
+        change.setType(SalesChangeType.INSERT);
+        change.setSalesId((int) seq);
+        return change;
+    }
+}
@@ -1,23 +1,52 @@
 package com.salesanalysis.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.salesanalysis.changes.SalesChangeFeed;
+import com.salesanalysis.ingest.ImportJobManager;
+import com.salesanalysis.ingest.ImportQueueFullException;
+import com.salesanalysis.ingest.SalesBulkMutator;
+import com.salesanalysis.ingest.SalesImportFormat;
+import com.salesanalysis.ingest.SalesStreamImporter;
+import com.salesanalysis.model.BulkItemResult;
+import com.salesanalysis.model.BulkItemStatus;
+import com.salesanalysis.model.BulkMutationResult;
+import com.salesanalysis.model.ImportJobState;
+import com.salesanalysis.model.ImportJobStatus;
+import com.salesanalysis.model.PartitionMaintenanceResult;
 import com.salesanalysis.model.Sales;
+import com.salesanalysis.model.SalesChange;
+import com.salesanalysis.model.SalesChangePage;
+import com.salesanalysis.model.SalesChangeType;
+import com.salesanalysis.model.SalesImportSummary;
+import com.salesanalysis.model.SalesPage;
+import com.salesanalysis.model.SalesSeriesPoint;
+import com.salesanalysis.model.SalesSnapshot;
 import com.salesanalysis.model.SalesSummary;
+import com.salesanalysis.partition.SalesPartitionManager;
 import com.salesanalysis.service.SalesService;
+import com.salesanalysis.web.ColumnarJsonHttpMessageConverter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.Arrays;
-import java.util.Date;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -39,6 +68,21 @@ class SalesControllerTest {
     @MockBean
     private SalesService salesService;
 
+    @MockBean
+    private SalesStreamImporter streamImporter;
+
+    @MockBean
+    private ImportJobManager importJobManager;
+
+    @MockBean
+    private SalesBulkMutator bulkMutator;
+
+    @MockBean
+    private SalesPartitionManager partitionManager;
+
+    @MockBean
+    private SalesChangeFeed changeFeed;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -50,7 +94,7 @@ class SalesControllerTest {
         // 创建测试数据
         sales = new Sales();
         sales.setId(1);
-        sales.setSaleDate(new Date());
+        sales.setSaleDate(LocalDate.now());
         sales.setProduct("产品A");
         sales.setRegion("华东");
         sales.setAmount(new BigDecimal(1299.00));
@@ -62,24 +106,215 @@ class SalesControllerTest {
         salesSummary.setRegion("华东");
         salesSummary.setTotalAmount(new BigDecimal(1299.00));
         salesSummary.setCount(1);
+
+        when(salesService.dataVersion()).thenReturn("1.1");
     }
 
     @Test
     void testGetAllSales() throws Exception {
         // 准备模拟数据
         List<Sales> salesList = Arrays.asList(sales);
-        when(salesService.findAllSales()).thenReturn(salesList);
+        when(salesService.findAllSalesSnapshot()).thenReturn(snapshotOf("1.1", salesList));
 
-        // 执行测试
-        mockMvc.perform(get("/api/sales"))
+        // 执行测试 - 全表读取在 AnalyticsExecutor 上异步执行
+        MvcResult result = mockMvc.perform(get("/api/sales"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.length()").value(1))
                 .andExpect(jsonPath("$[0].id").value(1))
-                .andExpect(jsonPath("$[0].product").value("产品A"));
+                .andExpect(jsonPath("$[0].product").value("产品A"))
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"1.1\""));
+
+        // 验证服务方法被调用
+        verify(salesService, times(1)).findAllSalesSnapshot();
+    }
+
+    @Test
+    void testGetAllSales_NotModified() throws Exception {
+        // 执行测试 - If-None-Match 与当前数据版本一致
+        MvcResult result = mockMvc.perform(get("/api/sales")
+                .header(HttpHeaders.IF_NONE_MATCH, "W/\"1.1\""))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"1.1\""))
+                .andExpect(content().string(""));
+
+        // 验证结果 - 未读取数据
+        verify(salesService, never()).findAllSalesSnapshot();
+    }
+
+    @Test
+    void testGetAllSales_Modified() throws Exception {
+        // 准备模拟数据 - 客户端的 ETag 已过期
+        when(salesService.findAllSalesSnapshot()).thenReturn(snapshotOf("1.1", Arrays.asList(sales)));
+
+        // 执行测试
+        MvcResult result = mockMvc.perform(get("/api/sales")
+                .header(HttpHeaders.IF_NONE_MATCH, "W/\"1.0\""))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void testGetAllSales_ETagFromSnapshot() throws Exception {
+        // 准备模拟数据 - 预检查读到的版本落后于读取数据的连接（如不同副本），ETag 以数据所在连接为准
+        when(salesService.findAllSalesSnapshot()).thenReturn(snapshotOf("1.2", Arrays.asList(sales)));
+
+        // 执行测试
+        MvcResult result = mockMvc.perform(get("/api/sales")
+                .header(HttpHeaders.IF_NONE_MATCH, "W/\"1.0\""))
+                .andReturn();
+
+        // 验证结果
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"1.2\""));
+    }
+
+    @Test
+    void testGetAllSales_Ndjson() throws Exception {
+        // 准备模拟数据
+        Sales other = new Sales();
+        other.setId(2);
+        other.setSaleDate(LocalDate.of(2023, 1, 2));
+        other.setProduct("产品B");
+        other.setRegion("华北");
+        other.setAmount(new BigDecimal("10.50"));
+        when(salesService.findAllSalesSnapshot()).thenReturn(snapshotOf("1.1", Arrays.asList(sales, other)));
+
+        // 执行测试
+        MvcResult result = mockMvc.perform(get("/api/sales").accept(MediaType.APPLICATION_NDJSON))
+                .andReturn();
+
+        // 验证结果 - 每条记录一行
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(1, objectMapper.readTree(lines[0]).get("id").asInt());
+        assertEquals("产品B", objectMapper.readTree(lines[1]).get("product").asText());
+    }
+
+    @Test
+    void testGetAllSales_Cbor() throws Exception {
+        // 准备模拟数据
+        when(salesService.findAllSalesSnapshot()).thenReturn(snapshotOf("1.1", Arrays.asList(sales)));
+
+        // 执行测试
+        MvcResult result = mockMvc.perform(get("/api/sales").accept(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // 验证结果 - 日期与JSON一样写成字符串
+        JsonNode decoded = new ObjectMapper(new CBORFactory()).readTree(body);
+        assertEquals(1, decoded.get(0).get("id").asInt());
+        assertEquals(sales.getSaleDate().toString(), decoded.get(0).get("saleDate").asText());
+    }
+
+    @Test
+    void testGetSalesPage() throws Exception {
+        // 准备模拟数据
+        SalesPage page = new SalesPage();
+        page.setItems(Arrays.asList(sales));
+        page.setNextCursor(1);
+        page.setHasMore(true);
+        when(salesService.findSalesPage(0, 1)).thenReturn(page);
+
+        // 执行测试
+        mockMvc.perform(get("/api/sales/page")
+                .param("cursor", "0")
+                .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.nextCursor").value(1))
+                .andExpect(jsonPath("$.hasMore").value(true));
 
         // 验证服务方法被调用
-        verify(salesService, times(1)).findAllSales();
+        verify(salesService, times(1)).findSalesPage(0, 1);
+    }
+
+    @Test
+    void testGetSalesChanges() throws Exception {
+        // 准备模拟数据
+        SalesChange change = new SalesChange();
+        change.setSeq(42L);
+        change.setType(SalesChangeType.DELETE);
+        change.setSalesId(7);
+        SalesChangePage page = new SalesChangePage();
+        page.setItems(Arrays.asList(change));
+        page.setNextSince(42L);
+        when(changeFeed.changesSince(41L, null, 10)).thenReturn(page);
+
+        // 执行测试
+        mockMvc.perform(get("/api/sales/changes")
+                .param("since", "41")
+                .param("wait", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].seq").value(42))
+                .andExpect(jsonPath("$.items[0].type").value("DELETE"))
+                .andExpect(jsonPath("$.items[0].salesId").value(7))
+                .andExpect(jsonPath("$.nextSince").value(42))
+                .andExpect(jsonPath("$.hasMore").value(false));
+
+        // 验证结果
+        verify(changeFeed, times(1)).changesSince(41L, null, 10);
+    }
+
+    @Test
+    void testGetSalesChanges_ResetRequired() throws Exception {
+        // 准备模拟数据 - since 之后的变更已被清理
+        SalesChangePage page = new SalesChangePage();
+        page.setItems(Collections.emptyList());
+        page.setResetRequired(true);
+        page.setNextSince(250L);
+        when(changeFeed.changesSince(1L, null, null)).thenReturn(page);
+
+        // 执行测试并验证结果
+        mockMvc.perform(get("/api/sales/changes").param("since", "1"))
+                .andExpect(status().isGone())
+                .andExpect(jsonPath("$.resetRequired").value(true))
+                .andExpect(jsonPath("$.nextSince").value(250));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStreamAllSales() throws Exception {
+        // 准备模拟数据 - 逐条回调两条记录
+        doAnswer(invocation -> {
+            Consumer<Sales> consumer = invocation.getArgument(0);
+            consumer.accept(sales);
+            consumer.accept(sales);
+            return null;
+        }).when(salesService).streamAllSales(any(Consumer.class));
+
+        // 执行测试 - StreamingResponseBody为异步响应
+        MvcResult result = mockMvc.perform(get("/api/sales/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[1].product").value("产品A"));
+
+        // 验证服务方法被调用
+        verify(salesService, times(1)).streamAllSales(any(Consumer.class));
     }
 
     @Test
@@ -134,7 +369,7 @@ class SalesControllerTest {
         // 准备模拟数据
         Sales updatedSales = new Sales();
         updatedSales.setId(1);
-        updatedSales.setSaleDate(new Date());
+        updatedSales.setSaleDate(LocalDate.now());
         updatedSales.setProduct("产品B");
         updatedSales.setRegion("华北");
         updatedSales.setAmount(new BigDecimal(1599.00));
@@ -184,13 +419,17 @@ class SalesControllerTest {
     void testGetSalesSummary() throws Exception {
         // 准备模拟数据
         List<SalesSummary> summaryList = Arrays.asList(salesSummary);
-        when(salesService.aggregateSales("2023-01-01", "产品A", "华东")).thenReturn(summaryList);
+        when(salesService.aggregateSales("2023-01-01", null, null, "产品A", "华东")).thenReturn(summaryList);
 
         // 执行测试
-        mockMvc.perform(get("/api/sales/summary")
+        MvcResult result = mockMvc.perform(get("/api/sales/summary")
                 .param("date", "2023-01-01")
                 .param("product", "产品A")
                 .param("region", "华东"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.length()").value(1))
@@ -201,7 +440,91 @@ class SalesControllerTest {
                 .andExpect(jsonPath("$[0].count").value(1));
 
         // 验证服务方法被调用
-        verify(salesService, times(1)).aggregateSales("2023-01-01", "产品A", "华东");
+        verify(salesService, times(1)).aggregateSales("2023-01-01", null, null, "产品A", "华东");
+    }
+
+    @Test
+    void testGetSalesSummary_DateRange() throws Exception {
+        // 准备模拟数据
+        when(salesService.aggregateSales(null, "2023-01-01", "2023-01-31", null, null))
+                .thenReturn(Arrays.asList(salesSummary));
+
+        // 执行测试
+        MvcResult result = mockMvc.perform(get("/api/sales/summary")
+                .param("from", "2023-01-01")
+                .param("to", "2023-01-31"))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+
+        // 验证服务方法被调用
+        verify(salesService, times(1)).aggregateSales(null, "2023-01-01", "2023-01-31", null, null);
+    }
+
+    @Test
+    void testGetSalesSummary_NotModified() throws Exception {
+        // 准备模拟数据
+        when(salesService.aggregateSales(null, null, null, null, null)).thenReturn(Arrays.asList(salesSummary));
+        String digest = SalesController.digestOf(Arrays.asList(salesSummary));
+
+        // 执行测试 - If-None-Match 列表中包含当前 ETag（强格式也按弱比较匹配）
+        MvcResult result = mockMvc.perform(get("/api/sales/summary")
+                .header(HttpHeaders.IF_NONE_MATCH, "W/\"0\", \"" + digest + "\""))
+                .andReturn();
+
+        // 验证结果
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"" + digest + "\""))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void testGetSalesSummary_ETagFollowsBody() throws Exception {
+        // 准备模拟数据 - 数据库版本不变（如缓存过期后读到其他实例的写入），但返回的汇总已变化
+        SalesSummary changed = new SalesSummary();
+        changed.setDate("2023-01-01");
+        changed.setProduct("产品A");
+        changed.setRegion("华东");
+        changed.setTotalAmount(new BigDecimal("1399.00"));
+        changed.setCount(2);
+        when(salesService.aggregateSales(null, null, null, null, null)).thenReturn(Arrays.asList(changed));
+        String staleETag = "W/\"" + SalesController.digestOf(Arrays.asList(salesSummary)) + "\"";
+
+        // 执行测试
+        MvcResult result = mockMvc.perform(get("/api/sales/summary")
+                .header(HttpHeaders.IF_NONE_MATCH, staleETag))
+                .andReturn();
+
+        // 验证结果 - 返回新数据和新 ETag，不会对旧数据返回304
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"" + SalesController.digestOf(Arrays.asList(changed)) + "\""))
+                .andExpect(jsonPath("$[0].count").value(2));
+    }
+
+    @Test
+    void testGetSalesSummary_Columnar() throws Exception {
+        // 准备模拟数据
+        when(salesService.aggregateSales(null, null, null, null, null)).thenReturn(Arrays.asList(salesSummary));
+
+        // 执行测试
+        MvcResult result = mockMvc.perform(get("/api/sales/summary")
+                .accept(ColumnarJsonHttpMessageConverter.APPLICATION_COLUMNAR_JSON))
+                .andReturn();
+
+        // 验证结果 - 每个字段一个数组
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(ColumnarJsonHttpMessageConverter.APPLICATION_COLUMNAR_JSON))
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"" + SalesController.digestOf(Arrays.asList(salesSummary)) + "\""))
+                .andExpect(jsonPath("$.count").value(1))
+                .andExpect(jsonPath("$.date[0]").value("2023-01-01"))
+                .andExpect(jsonPath("$.product[0]").value("产品A"))
+                .andExpect(jsonPath("$.region[0]").value("华东"))
+                .andExpect(jsonPath("$.totalAmount[0]").value(1299.00));
     }
 
     @Test
@@ -221,6 +544,230 @@ class SalesControllerTest {
         verify(salesService, times(1)).batchImportSales(any(List.class));
     }
 
+    @Test
+    void testStreamImportSales_Ndjson() throws Exception {
+        // 准备模拟数据
+        SalesImportSummary summary = new SalesImportSummary();
+        summary.setTotalRows(2);
+        summary.setAcceptedRows(2);
+        when(streamImporter.importSales(any(), eq(SalesImportFormat.NDJSON))).thenReturn(summary);
+
+        // 执行测试
+        mockMvc.perform(post("/api/sales/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("{\"saleDate\":\"2023-01-01\",\"product\":\"产品A\",\"region\":\"华东\",\"amount\":10}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.acceptedRows").value(2));
+
+        // 验证JSON数组请求仍走原有接口
+        verify(salesService, never()).batchImportSales(any(List.class));
+    }
+
+    @Test
+    void testStreamImportSales_Csv() throws Exception {
+        // 准备模拟数据
+        when(streamImporter.importSales(any(), eq(SalesImportFormat.CSV))).thenReturn(new SalesImportSummary());
+
+        // 执行测试
+        mockMvc.perform(post("/api/sales/batch")
+                .contentType("text/csv")
+                .content("sale_date,product,region,amount\n2023-01-01,产品A,华东,10\n"))
+                .andExpect(status().isOk());
+
+        // 验证服务方法被调用
+        verify(streamImporter, times(1)).importSales(any(), eq(SalesImportFormat.CSV));
+    }
+
+    @Test
+    void testSubmitImportJob() throws Exception {
+        // 准备模拟数据
+        ImportJobStatus status = new ImportJobStatus();
+        status.setId("job-1");
+        status.setState(ImportJobState.QUEUED);
+        when(importJobManager.submit(any(), eq(SalesImportFormat.NDJSON), any())).thenReturn(status);
+
+        // 执行测试
+        mockMvc.perform(post("/api/sales/imports")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("{}\n"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").value("job-1"))
+                .andExpect(jsonPath("$.state").value("QUEUED"));
+    }
+
+    @Test
+    void testSubmitImportJob_QueueFull() throws Exception {
+        // 准备模拟数据
+        when(importJobManager.submit(any(), any(), any())).thenThrow(new ImportQueueFullException("Import queue is full, retry later"));
+
+        // 执行测试
+        mockMvc.perform(post("/api/sales/imports")
+                .contentType("text/csv")
+                .content("sale_date,product,region,amount\n"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "5"));
+    }
+
+    @Test
+    void testGetImportJob_NotFound() throws Exception {
+        // 准备模拟数据
+        when(importJobManager.getStatus("missing")).thenReturn(null);
+
+        // 执行测试
+        mockMvc.perform(get("/api/sales/imports/missing"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testGetSalesSeries() throws Exception {
+        // 准备模拟数据
+        SalesSeriesPoint point = new SalesSeriesPoint();
+        point.setBucket("2023-01-02");
+        point.setTotalAmount(new BigDecimal("0.00"));
+        when(salesService.salesSeries("week", "2023-01-02", "2023-01-08", null, null))
+                .thenReturn(Arrays.asList(point));
+
+        // 执行测试
+        MvcResult result = mockMvc.perform(get("/api/sales/series")
+                .param("bucket", "week")
+                .param("from", "2023-01-02")
+                .param("to", "2023-01-08"))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].bucket").value("2023-01-02"))
+                .andExpect(jsonPath("$[0].count").value(0));
+    }
+
+    @Test
+    void testGetSalesSummary_InvalidDateIsBadRequest() throws Exception {
+        // 准备模拟数据 - 异步执行中抛出的参数错误仍由异常处理方法转换
+        when(salesService.aggregateSales("bad", null, null, null, null))
+                .thenThrow(new IllegalArgumentException("Invalid date format"));
+
+        // 执行测试
+        MvcResult result = mockMvc.perform(get("/api/sales/summary").param("date", "bad"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Invalid date format"));
+    }
+
+    @Test
+    void testGetSalesSummaryApprox_NotEnabled() throws Exception {
+        // 准备模拟数据
+        when(salesService.aggregateSalesApprox(null, null, null, null))
+                .thenThrow(new IllegalStateException("Approximate aggregation is not available"));
+
+        // 执行测试
+        mockMvc.perform(get("/api/sales/summary/approx"))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void testGetTopSales_MissingDimension() throws Exception {
+        // 执行测试
+        mockMvc.perform(get("/api/sales/top"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testMaintainSalesPartitions() throws Exception {
+        // 准备模拟数据
+        PartitionMaintenanceResult result = new PartitionMaintenanceResult();
+        result.getCreated().add("p202701");
+        result.getDropped().add("p202301");
+        result.setExpiredBefore("2023-02-01");
+        when(partitionManager.getDefaultMonthsAhead()).thenReturn(3);
+        when(partitionManager.isDefaultArchive()).thenReturn(false);
+        when(partitionManager.maintain(3, 12, false)).thenReturn(result);
+
+        // 执行测试 - 未传的参数使用配置的默认值
+        mockMvc.perform(post("/api/sales/partitions/maintain").param("retentionMonths", "12"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created[0]").value("p202701"))
+                .andExpect(jsonPath("$.dropped[0]").value("p202301"))
+                .andExpect(jsonPath("$.expiredBefore").value("2023-02-01"));
+    }
+
+    @Test
+    void testMaintainSalesPartitions_NotPartitioned() throws Exception {
+        // 准备模拟数据
+        when(partitionManager.maintain()).thenThrow(new IllegalStateException("Table sales is not partitioned"));
+
+        // 执行测试
+        mockMvc.perform(post("/api/sales/partitions/maintain"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void testGetCacheStats() throws Exception {
+        // 执行测试
+        mockMvc.perform(get("/api/sales/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("sales-by-id"))
+                .andExpect(jsonPath("$[1].name").value("sales-summary"));
+    }
+
+    @Test
+    void testBulkDeleteSales() throws Exception {
+        // 准备模拟数据
+        BulkMutationResult result = new BulkMutationResult();
+        result.setRequested(2);
+        result.setSucceeded(1);
+        result.setNotFound(1);
+        result.setResults(Arrays.asList(new BulkItemResult(1, BulkItemStatus.DELETED, null),
+                new BulkItemResult(100, BulkItemStatus.NOT_FOUND, null)));
+        when(bulkMutator.deleteAll(Arrays.asList(1, 100))).thenReturn(result);
+
+        // 执行测试
+        mockMvc.perform(delete("/api/sales/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1, 100]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.results[1].status").value("NOT_FOUND"));
+
+        // 验证单条删除接口未被调用
+        verify(salesService, never()).deleteSales(any());
+    }
+
+    @Test
+    void testBulkUpdateSales() throws Exception {
+        // 准备模拟数据
+        BulkMutationResult result = new BulkMutationResult();
+        result.setRequested(1);
+        result.setSucceeded(1);
+        when(bulkMutator.updateAll(any(List.class))).thenReturn(result);
+
+        // 执行测试
+        mockMvc.perform(put("/api/sales/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Arrays.asList(sales))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(1));
+
+        // 验证服务方法被调用
+        verify(bulkMutator, times(1)).updateAll(any(List.class));
+    }
+
+    @Test
+    void testRebuildSalesRollup() throws Exception {
+        // 准备模拟数据
+        when(salesService.rebuildSalesRollup("2023-01-01", null)).thenReturn(3);
+
+        // 执行测试
+        mockMvc.perform(post("/api/sales/rollup/rebuild").param("from", "2023-01-01"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("3 groups")));
+
+        // 验证服务方法被调用
+        verify(salesService, times(1)).rebuildSalesRollup("2023-01-01", null);
+    }
+
     @Test
     void testHandleIllegalArgumentException() throws Exception {
         // 准备模拟数据 - 抛出IllegalArgumentException
@@ -242,4 +789,11 @@ class SalesControllerTest {
                 .andExpect(status().isInternalServerError())
                 .andExpect(content().string("Internal error"));
     }
+
+    private static SalesSnapshot snapshotOf(String version, List<Sales> items) {
+        SalesSnapshot snapshot = new SalesSnapshot();
+        snapshot.setVersion(version);
+        snapshot.setItems(items);
+        return snapshot;
+    }
 }
@@ -0,0 +1,47 @@
+package com.salesanalysis.datasource;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadRoutingTaskDecoratorTest {
+
+    private final ReadRoutingTaskDecorator decorator = new ReadRoutingTaskDecorator();
+
+    @Test
+    void testDecorate_PropagatesPrimaryRequired() throws Exception {
+        // 准备测试数据 - 提交线程处于读己之写窗口内
+        AtomicBoolean primaryRequired = new AtomicBoolean();
+        ReadRoutingContext.requirePrimary();
+        Runnable task;
+        try {
+            task = decorator.decorate(() -> primaryRequired.set(ReadRoutingContext.isPrimaryRequired()));
+        } finally {
+            ReadRoutingContext.clearPrimaryRequired();
+        }
+        AtomicBoolean clearedAfterRun = new AtomicBoolean();
+
+        // 执行测试
+        Thread thread = new Thread(() -> {
+            task.run();
+            clearedAfterRun.set(!ReadRoutingContext.isPrimaryRequired());
+        });
+        thread.start();
+        thread.join();
+
+        // 验证结果
+        assertTrue(primaryRequired.get());
+        assertTrue(clearedAfterRun.get());
+    }
+
+    @Test
+    void testDecorate_WithoutPrimaryRequired_ReturnsSameTask() {
+        // 准备测试数据
+        Runnable task = () -> { };
+
+        // 执行测试 & 验证结果
+        assertSame(task, decorator.decorate(task));
+    }
+}
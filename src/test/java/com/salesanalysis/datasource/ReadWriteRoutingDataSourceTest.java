@@ -0,0 +1,108 @@
+package com.salesanalysis.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica0;
+    private DataSource replica1;
+    private Connection primaryConnection;
+    private Connection replica0Connection;
+    private Connection replica1Connection;
+    private ReadWriteRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = mock(DataSource.class);
+        replica0 = mock(DataSource.class);
+        replica1 = mock(DataSource.class);
+        primaryConnection = mock(Connection.class);
+        replica0Connection = mock(Connection.class);
+        replica1Connection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica0.getConnection()).thenReturn(replica0Connection);
+        when(replica1.getConnection()).thenReturn(replica1Connection);
+        routing = new ReadWriteRoutingDataSource(primary, Arrays.asList(replica0, replica1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadRoutingContext.exitReplicaRead(false);
+        ReadRoutingContext.clearPrimaryRequired();
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void testDefaultRoutesToPrimary() throws SQLException {
+        // 执行测试 - 不在只读方法中
+        assertSame(primaryConnection, routing.getConnection());
+    }
+
+    @Test
+    void testReplicaRead_RoundRobin() throws SQLException {
+        // 执行测试
+        ReadRoutingContext.enterReplicaRead();
+
+        // 验证结果 - 依次轮询两个副本
+        assertSame(replica0Connection, routing.getConnection());
+        assertSame(replica1Connection, routing.getConnection());
+        assertSame(replica0Connection, routing.getConnection());
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    void testReplicaRead_InTransactionUsesPrimary() throws SQLException {
+        // 执行测试 - 事务内的查询必须与写入使用同一连接
+        ReadRoutingContext.enterReplicaRead();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        // 验证结果
+        assertSame(primaryConnection, routing.getConnection());
+    }
+
+    @Test
+    void testReplicaRead_PrimaryRequired() throws SQLException {
+        // 执行测试 - 读己之写窗口内
+        ReadRoutingContext.enterReplicaRead();
+        ReadRoutingContext.requirePrimary();
+
+        // 验证结果
+        assertSame(primaryConnection, routing.getConnection());
+    }
+
+    @Test
+    void testReplicaFailure_FallsBackToPrimary() throws SQLException {
+        // 准备测试数据
+        when(replica0.getConnection()).thenThrow(new SQLException("replica down"));
+        ReadRoutingContext.enterReplicaRead();
+
+        // 执行测试
+        Connection connection = routing.getConnection();
+
+        // 验证结果
+        assertSame(primaryConnection, connection);
+    }
+
+    @Test
+    void testNoReplicas() throws SQLException {
+        // 执行测试 - 未配置副本时所有连接来自主库
+        ReadWriteRoutingDataSource primaryOnly = new ReadWriteRoutingDataSource(primary, Collections.emptyList());
+        ReadRoutingContext.enterReplicaRead();
+
+        // 验证结果
+        assertSame(primaryConnection, primaryOnly.getConnection());
+    }
+}
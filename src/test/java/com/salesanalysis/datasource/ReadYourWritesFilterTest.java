@@ -0,0 +1,77 @@
+package com.salesanalysis.datasource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.Cookie;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadYourWritesFilterTest {
+
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5));
+
+    @Test
+    void testWriteRequest_SetsCookieAndUsesPrimary() throws Exception {
+        // 准备测试数据
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/sales");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean primaryRequired = new AtomicBoolean();
+
+        // 执行测试
+        filter.doFilter(request, response, capture(primaryRequired));
+
+        // 验证结果
+        assertTrue(primaryRequired.get());
+        Cookie cookie = response.getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        assertNotNull(cookie);
+        assertEquals(5, cookie.getMaxAge());
+        assertFalse(ReadRoutingContext.isPrimaryRequired());
+    }
+
+    @Test
+    void testReadAfterRecentWrite_UsesPrimary() throws Exception {
+        // 准备测试数据
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/sales/summary");
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME, Long.toString(System.currentTimeMillis() - 1000)));
+        AtomicBoolean primaryRequired = new AtomicBoolean();
+
+        // 执行测试
+        filter.doFilter(request, new MockHttpServletResponse(), capture(primaryRequired));
+
+        // 验证结果
+        assertTrue(primaryRequired.get());
+    }
+
+    @Test
+    void testReadOutsideWindow_UsesReplica() throws Exception {
+        // 准备测试数据 - 写入发生在窗口之前，或没有写入记录
+        MockHttpServletRequest stale = new MockHttpServletRequest("GET", "/api/sales/summary");
+        stale.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME, Long.toString(System.currentTimeMillis() - 60000)));
+        AtomicBoolean staleRequired = new AtomicBoolean();
+        AtomicBoolean freshRequired = new AtomicBoolean();
+
+        // 执行测试
+        filter.doFilter(stale, new MockHttpServletResponse(), capture(staleRequired));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/sales"), response, capture(freshRequired));
+
+        // 验证结果
+        assertFalse(staleRequired.get());
+        assertFalse(freshRequired.get());
+        assertNull(response.getCookie(ReadYourWritesFilter.COOKIE_NAME));
+    }
+
+    private static MockFilterChain capture(AtomicBoolean primaryRequired) {
+        return new MockFilterChain(new javax.servlet.http.HttpServlet() {
+            @Override
+            protected void service(javax.servlet.http.HttpServletRequest req, javax.servlet.http.HttpServletResponse res) {
+                primaryRequired.set(ReadRoutingContext.isPrimaryRequired());
+            }
+        });
+    }
+}
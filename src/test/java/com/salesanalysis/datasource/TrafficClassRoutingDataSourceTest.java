@@ -0,0 +1,40 @@
+package com.salesanalysis.datasource;
+
+import com.salesanalysis.bulkhead.TrafficClass;
+import com.salesanalysis.bulkhead.TrafficContext;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TrafficClassRoutingDataSourceTest {
+
+    @Test
+    void testRoutesByTrafficClass() throws Exception {
+        // 准备模拟数据
+        DataSource crud = mock(DataSource.class);
+        DataSource analytics = mock(DataSource.class);
+        DataSource bulk = mock(DataSource.class);
+        Connection crudConnection = mock(Connection.class);
+        Connection analyticsConnection = mock(Connection.class);
+        Connection bulkConnection = mock(Connection.class);
+        when(crud.getConnection()).thenReturn(crudConnection);
+        when(analytics.getConnection()).thenReturn(analyticsConnection);
+        when(bulk.getConnection()).thenReturn(bulkConnection);
+        TrafficClassRoutingDataSource dataSource = new TrafficClassRoutingDataSource(crud, analytics, bulk);
+
+        // 执行测试 & 验证结果 - 未标记类别的后台任务使用 CRUD 连接池
+        assertSame(crudConnection, dataSource.getConnection());
+        try {
+            TrafficContext.set(TrafficClass.ANALYTICS);
+            assertSame(analyticsConnection, dataSource.getConnection());
+            TrafficContext.set(TrafficClass.BULK);
+            assertSame(bulkConnection, dataSource.getConnection());
+        } finally {
+            TrafficContext.clear();
+        }
+    }
+}
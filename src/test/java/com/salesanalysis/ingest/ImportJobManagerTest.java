@@ -0,0 +1,160 @@
+package com.salesanalysis.ingest;
+
+import com.salesanalysis.model.ImportJobState;
+import com.salesanalysis.model.ImportJobStatus;
+import com.salesanalysis.util.DataInsertManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ImportJobManagerTest {
+
+    @TempDir
+    Path spoolDir;
+
+    private final DataInsertManager dataInsertManager = mock(DataInsertManager.class);
+    private ImportJobManager manager;
+
+    @AfterEach
+    void tearDown() {
+        manager.shutdown();
+    }
+
+    @Test
+    void testSubmit_RejectsWhenQueueFull() throws Exception {
+        // 准备 - 1个工作线程、队列容量1，第一个任务阻塞
+        manager = new ImportJobManager(dataInsertManager, 1, 1, 1, 100, spoolDir.toString());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(dataInsertManager).runImportJob(any());
+
+        // 执行测试
+        ImportJobStatus first = manager.submit(body(), SalesImportFormat.CSV, StandardCharsets.UTF_8);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        ImportJobStatus second = manager.submit(body(), SalesImportFormat.CSV, StandardCharsets.UTF_8);
+        assertThrows(ImportQueueFullException.class, () -> {
+            manager.submit(body(), SalesImportFormat.CSV, StandardCharsets.UTF_8);
+        });
+
+        // 验证结果 - 被拒绝的任务不保留暂存文件
+        assertEquals(ImportJobState.QUEUED, manager.getStatus(second.getId()).getState());
+        assertEquals(2, countSpoolFiles());
+        release.countDown();
+        awaitState(first.getId(), ImportJobState.COMPLETED);
+        awaitState(second.getId(), ImportJobState.COMPLETED);
+        assertEquals(0, countSpoolFiles());
+    }
+
+    @Test
+    void testRun_RetriesFromLastCommittedRow() throws Exception {
+        // 准备 - 第一次提交到第3行后失败，第二次从第3行之后继续
+        manager = new ImportJobManager(dataInsertManager, 1, 1, 2, 100, spoolDir.toString());
+        List<Long> resumeRows = new ArrayList<>();
+        doAnswer(invocation -> {
+            ImportJob job = invocation.getArgument(0);
+            resumeRows.add(job.getLastCommittedRow());
+            if (resumeRows.size() == 1) {
+                job.onRejected(2, "Amount must be greater than zero");
+                job.onCommitted(3, 1);
+                job.onRejected(4, "Amount must be greater than zero");
+                throw new BulkIngestException("Bulk ingest failed", 1, 1, new RuntimeException("Deadlock"));
+            }
+            job.onRejected(4, "Amount must be greater than zero");
+            job.onCommitted(5, 1);
+            return null;
+        }).when(dataInsertManager).runImportJob(any());
+
+        // 执行测试
+        ImportJobStatus submitted = manager.submit(body(), SalesImportFormat.CSV, StandardCharsets.UTF_8);
+        ImportJobStatus status = awaitState(submitted.getId(), ImportJobState.COMPLETED);
+
+        // 验证结果 - 未提交部分的拒绝记录不重复计数
+        assertEquals(2, status.getAttempts());
+        assertEquals(0L, resumeRows.get(0));
+        assertEquals(3L, resumeRows.get(1));
+        assertEquals(2, status.getAcceptedRows());
+        assertEquals(2, status.getRejectedRows());
+        assertEquals(5, status.getLastCommittedRow());
+        assertNull(status.getError());
+    }
+
+    @Test
+    void testResume_RejectedWhileRetrying() throws Exception {
+        // 准备 - 第一次写入失败，等待1秒后自动重试
+        manager = new ImportJobManager(dataInsertManager, 1, 1, 2, 100, spoolDir.toString());
+        doThrow(new BulkIngestException("Bulk ingest failed", 0, 0, new RuntimeException("Deadlock")))
+                .doNothing()
+                .when(dataInsertManager).runImportJob(any());
+
+        // 执行测试 - 在重试等待期间续传
+        ImportJobStatus submitted = manager.submit(body(), SalesImportFormat.CSV, StandardCharsets.UTF_8);
+        awaitState(submitted.getId(), ImportJobState.RETRYING);
+        assertThrows(IllegalStateException.class, () -> manager.resume(submitted.getId()));
+
+        // 验证结果 - 只有自动重试执行了一次
+        assertEquals(2, awaitState(submitted.getId(), ImportJobState.COMPLETED).getAttempts());
+        verify(dataInsertManager, times(2)).runImportJob(any());
+    }
+
+    @Test
+    void testResume_FailedJob() throws Exception {
+        // 准备 - 数据错误不自动重试
+        manager = new ImportJobManager(dataInsertManager, 1, 1, 3, 100, spoolDir.toString());
+        doThrow(new IllegalArgumentException("CSV header is missing"))
+                .doNothing()
+                .when(dataInsertManager).runImportJob(any());
+
+        // 执行测试
+        ImportJobStatus submitted = manager.submit(body(), SalesImportFormat.CSV, StandardCharsets.UTF_8);
+        ImportJobStatus failed = awaitState(submitted.getId(), ImportJobState.FAILED);
+        assertEquals("CSV header is missing", failed.getError());
+        assertEquals(1, countSpoolFiles());
+        manager.resume(submitted.getId());
+
+        // 验证结果
+        assertEquals(2, awaitState(submitted.getId(), ImportJobState.COMPLETED).getAttempts());
+        assertThrows(IllegalStateException.class, () -> manager.resume(submitted.getId()));
+        assertNull(manager.resume("unknown"));
+    }
+
+    private static InputStream body() {
+        return new ByteArrayInputStream("sale_date,product,region,amount\n".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long countSpoolFiles() throws IOException {
+        try (Stream<Path> files = Files.list(spoolDir)) {
+            return files.count();
+        }
+    }
+
+    private ImportJobStatus awaitState(String id, ImportJobState state) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        ImportJobStatus status = manager.getStatus(id);
+        while (status.getState() != state && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            status = manager.getStatus(id);
+        }
+        assertEquals(state, status.getState());
+        return status;
+    }
+}
@@ -0,0 +1,99 @@
+package com.salesanalysis.ingest;
+
+import com.salesanalysis.mapper.SalesMapper;
+import com.salesanalysis.model.BulkIngestResult;
+import com.salesanalysis.model.Sales;
+import com.salesanalysis.service.SalesChangeListener;
+import org.apache.ibatis.session.SqlSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class SalesBulkIngestorTest {
+
+    @Mock
+    private SqlSession batchSession;
+
+    @Mock
+    private SalesMapper batchMapper;
+
+    @Mock
+    private SalesChangeListener changeListener;
+
+    private SalesBulkIngestor ingestor;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(batchSession.getMapper(SalesMapper.class)).thenReturn(batchMapper);
+        ingestor = new SalesBulkIngestor(batchSession, TransactionOperations.withoutTransaction(), 1000, 2);
+        ingestor.setChangeListeners(Collections.singletonList(changeListener));
+    }
+
+    @Test
+    void testIngest_ChunksAndCommits() {
+        // 调用方法 - 2500行，每块1000行，每2块提交一次
+        BulkIngestResult result = ingestor.ingest(rows(2500).iterator());
+
+        // 验证结果
+        assertEquals(2500, result.getRows());
+        assertEquals(3, result.getChunks());
+        assertEquals(2, result.getCommits());
+        verify(batchMapper, times(2500)).insert(any(Sales.class));
+        verify(batchMapper, times(3)).upsertRollup(anyList());
+        verify(batchSession, times(3)).flushStatements();
+        verify(changeListener, times(2)).onSalesInserted(anyList());
+    }
+
+    @Test
+    void testIngest_FailureKeepsCommittedProgress() {
+        // 准备模拟数据 - 第3块刷新时失败
+        when(batchSession.flushStatements())
+                .thenReturn(Collections.emptyList())
+                .thenReturn(Collections.emptyList())
+                .thenThrow(new RuntimeException("Deadlock"));
+
+        // 调用方法
+        BulkIngestException e = assertThrows(BulkIngestException.class, () -> {
+            ingestor.ingest(rows(2500).iterator());
+        });
+
+        // 验证结果 - 前两块已提交
+        assertEquals(2, e.getCommittedChunks());
+        assertEquals(2000, e.getCommittedRows());
+        verify(changeListener, times(1)).onSalesInserted(anyList());
+    }
+
+    @Test
+    void testIngest_InvalidChunkSize() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            ingestor.ingest(rows(1).iterator(), 0, 1, IngestProgressListener.NONE);
+        });
+    }
+
+    private static List<Sales> rows(int count) {
+        List<Sales> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Sales sales = new Sales();
+            sales.setSaleDate(LocalDate.parse("2023-01-01"));
+            sales.setProduct("产品A");
+            sales.setRegion("华东");
+            sales.setAmount(new BigDecimal("10.00"));
+            rows.add(sales);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,139 @@
+package com.salesanalysis.ingest;
+
+import com.salesanalysis.mapper.SalesMapper;
+import com.salesanalysis.model.BulkItemStatus;
+import com.salesanalysis.model.BulkMutationResult;
+import com.salesanalysis.model.Sales;
+import com.salesanalysis.service.SalesChangeListener;
+import com.salesanalysis.service.impl.SalesServiceImpl;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class SalesBulkMutatorTest {
+
+    private final SqlSession batchSession = mock(SqlSession.class);
+    private final SalesMapper batchMapper = mock(SalesMapper.class);
+    private final SalesChangeListener changeListener = mock(SalesChangeListener.class);
+    private SalesBulkMutator mutator;
+
+    @BeforeEach
+    void setUp() {
+        when(batchSession.getMapper(SalesMapper.class)).thenReturn(batchMapper);
+        mutator = new SalesBulkMutator(batchSession, TransactionOperations.withoutTransaction(),
+                new SalesServiceImpl(mock(SalesMapper.class)));
+        mutator.setChangeListeners(Collections.singletonList(changeListener));
+    }
+
+    @Test
+    void testDeleteAll_PerIdResults() {
+        // 准备模拟数据 - 第二个ID不存在，监听器需要旧值
+        when(changeListener.needsPreviousRows()).thenReturn(true);
+        Sales first = sales(1, "100.00");
+        Sales third = sales(3, "300.00");
+        when(batchMapper.findByIdsForUpdate(Arrays.asList(1, 2, 3))).thenReturn(Arrays.asList(first, third));
+        when(batchSession.flushStatements()).thenReturn(batchResult(1, 0, 1));
+
+        // 执行测试
+        BulkMutationResult result = mutator.deleteAll(Arrays.asList(1, 2, null, 3));
+
+        // 验证结果
+        assertEquals(4, result.getRequested());
+        assertEquals(2, result.getSucceeded());
+        assertEquals(1, result.getNotFound());
+        assertEquals(1, result.getInvalid());
+        assertEquals(BulkItemStatus.DELETED, result.getResults().get(0).getStatus());
+        assertEquals(BulkItemStatus.NOT_FOUND, result.getResults().get(1).getStatus());
+        assertEquals(BulkItemStatus.INVALID, result.getResults().get(2).getStatus());
+        assertEquals(BulkItemStatus.DELETED, result.getResults().get(3).getStatus());
+        verify(batchMapper, times(3)).delete(anyInt());
+        verify(batchSession, times(1)).flushStatements();
+        verify(changeListener, times(1)).onSalesBulkDeleted(Arrays.asList(1, 3), Arrays.asList(first, third));
+        verify(batchMapper).recordChanges(argThat(changes -> changes.size() == 2
+                && changes.get(0).getSalesId() == 1 && changes.get(1).getSalesId() == 3));
+    }
+
+    @Test
+    void testUpdateAll_SkipsInvalidRows() {
+        // 准备模拟数据 - 第二条金额无效，不发送到数据库
+        Sales valid = sales(1, "100.00");
+        Sales invalid = sales(2, "-1");
+        Sales previous = sales(1, "50.00");
+        when(changeListener.needsPreviousRows()).thenReturn(true);
+        when(batchMapper.findByIdsForUpdate(Collections.singletonList(1))).thenReturn(Collections.singletonList(previous));
+        when(batchSession.flushStatements()).thenReturn(batchResult(1));
+
+        // 执行测试
+        BulkMutationResult result = mutator.updateAll(Arrays.asList(valid, invalid));
+
+        // 验证结果
+        assertEquals(1, result.getSucceeded());
+        assertEquals(BulkItemStatus.UPDATED, result.getResults().get(0).getStatus());
+        assertEquals("Amount must be greater than zero", result.getResults().get(1).getMessage());
+        verify(batchMapper, times(1)).update(valid);
+        verify(batchMapper, never()).update(invalid);
+        verify(changeListener, times(1)).onSalesBulkUpdated(Collections.singletonList(previous), Collections.singletonList(valid));
+    }
+
+    @Test
+    void testDeleteAll_SkipsPreviousReadWhenNotNeeded() {
+        // 准备模拟数据 - 监听器不需要旧值
+        when(batchSession.flushStatements()).thenReturn(batchResult(1, 1));
+
+        // 执行测试
+        BulkMutationResult result = mutator.deleteAll(Arrays.asList(1, 2));
+
+        // 验证结果 - 只发送批量 DELETE，旧值按 null 通知
+        assertEquals(2, result.getSucceeded());
+        verify(batchMapper, never()).findByIdsForUpdate(any());
+        verify(changeListener, times(1)).onSalesBulkDeleted(Arrays.asList(1, 2), Arrays.asList(null, null));
+    }
+
+    @Test
+    void testDeleteAll_TooManyIds() {
+        // 准备数据
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i <= SalesBulkMutator.MAX_ITEMS; i++) {
+            ids.add(i);
+        }
+
+        // 执行测试
+        assertThrows(IllegalArgumentException.class, () -> mutator.deleteAll(ids));
+        assertThrows(IllegalArgumentException.class, () -> mutator.deleteAll(Collections.emptyList()));
+    }
+
+    private static List<BatchResult> batchResult(int... counts) {
+        MappedStatement statement = new MappedStatement.Builder(new Configuration(), "delete",
+                parameterObject -> null, SqlCommandType.DELETE).build();
+        BatchResult result = new BatchResult(statement, "DELETE");
+        result.setUpdateCounts(counts);
+        return Collections.singletonList(result);
+    }
+
+    private static Sales sales(int id, String amount) {
+        Sales sales = new Sales();
+        sales.setId(id);
+        sales.setSaleDate(LocalDate.parse("2023-01-01"));
+        sales.setProduct("产品A");
+        sales.setRegion("华东");
+        sales.setAmount(new BigDecimal(amount));
+        return sales;
+    }
+}
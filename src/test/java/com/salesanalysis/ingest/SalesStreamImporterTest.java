@@ -0,0 +1,133 @@
+package com.salesanalysis.ingest;
+
+import com.salesanalysis.mapper.SalesMapper;
+import com.salesanalysis.model.BulkIngestResult;
+import com.salesanalysis.model.Sales;
+import com.salesanalysis.model.SalesImportSummary;
+import com.salesanalysis.service.impl.SalesServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SalesStreamImporterTest {
+
+    private final List<Sales> ingested = new ArrayList<>();
+    private SalesStreamImporter importer;
+
+    @BeforeEach
+    void setUp() {
+        // 模拟写入管道：消费迭代器并记录写入的行，每2行提交一次
+        SalesBulkIngestor ingestor = mock(SalesBulkIngestor.class);
+        when(ingestor.ingest(any(), any(IngestProgressListener.class))).thenAnswer(invocation -> {
+            Iterator<Sales> rows = invocation.getArgument(0);
+            IngestProgressListener progress = invocation.getArgument(1);
+            while (rows.hasNext()) {
+                ingested.add(rows.next());
+                if (ingested.size() % 2 == 0 || !rows.hasNext()) {
+                    progress.onCommitted(ingested.size(), ingested.size());
+                }
+            }
+            BulkIngestResult result = new BulkIngestResult();
+            result.setRows(ingested.size());
+            return result;
+        });
+        importer = new SalesStreamImporter(new SalesServiceImpl(mock(SalesMapper.class)), ingestor, Jackson2ObjectMapperBuilder.json().build());
+    }
+
+    @Test
+    void testImportNdjson() {
+        // 准备数据 - 第2行金额为负，第3行为空行，第4行不是合法JSON
+        String body = "{\"saleDate\":\"2023-01-01\",\"product\":\"产品A\",\"region\":\"华东\",\"amount\":10.5}\n"
+                + "{\"saleDate\":\"2023-01-01\",\"product\":\"产品A\",\"region\":\"华东\",\"amount\":-1}\n"
+                + "\n"
+                + "{not json}\n"
+                + "{\"saleDate\":\"2023-01-02\",\"product\":\"产品B\",\"region\":\"华北\",\"amount\":20}";
+
+        // 执行测试
+        SalesImportSummary summary = importer.importSales(new StringReader(body), SalesImportFormat.NDJSON);
+
+        // 验证结果
+        assertEquals(4, summary.getTotalRows());
+        assertEquals(2, summary.getAcceptedRows());
+        assertEquals(2, summary.getRejectedRows());
+        assertEquals(2, summary.getRejections().get(0).getRowNumber());
+        assertEquals("Amount must be greater than zero", summary.getRejections().get(0).getMessage());
+        assertEquals(4, summary.getRejections().get(1).getRowNumber());
+        assertFalse(summary.isRejectionsTruncated());
+        assertEquals(new BigDecimal("10.5"), ingested.get(0).getAmount());
+    }
+
+    @Test
+    void testImportCsv() {
+        // 准备数据 - 列顺序与默认不同，包含带引号的字段
+        String body = "id,amount,region,product,sale_date\r\n"
+                + "1,99.90,华东,\"产品A, 旗舰版\",2023-01-01\r\n"
+                + "2,abc,华东,产品A,2023-01-01\r\n"
+                + "3,10,华东,产品A,2023-02-30\r\n";
+
+        // 执行测试
+        SalesImportSummary summary = importer.importSales(new StringReader(body), SalesImportFormat.CSV);
+
+        // 验证结果
+        assertEquals(1, summary.getAcceptedRows());
+        assertEquals(2, summary.getRejectedRows());
+        assertEquals(3, summary.getRejections().get(0).getRowNumber());
+        assertEquals("产品A, 旗舰版", ingested.get(0).getProduct());
+    }
+
+    @Test
+    void testImportCsv_ResumeAfterRow() {
+        // 准备数据 - 第2、3行已在上次导入中提交
+        String body = "sale_date,product,region,amount\n"
+                + "2023-01-01,产品A,华东,1\n"
+                + "2023-01-01,产品A,华东,2\n"
+                + "2023-01-01,产品A,华东,0\n"
+                + "2023-01-01,产品A,华东,4\n";
+        List<Long> checkpoints = new ArrayList<>();
+        List<Long> rejectedRows = new ArrayList<>();
+        SalesImportListener listener = new SalesImportListener() {
+            @Override
+            public void onRejected(long rowNumber, String message) {
+                rejectedRows.add(rowNumber);
+            }
+
+            @Override
+            public void onCommitted(long lastRowNumber, long committedRows) {
+                checkpoints.add(lastRowNumber);
+            }
+        };
+
+        // 执行测试
+        SalesImportSummary summary = importer.importSales(new StringReader(body), SalesImportFormat.CSV, 3, listener);
+
+        // 验证结果 - 只导入第5行，第4行被拒绝
+        assertEquals(1, summary.getAcceptedRows());
+        assertEquals(new BigDecimal("4"), ingested.get(0).getAmount());
+        assertEquals(Arrays.asList(4L), rejectedRows);
+        assertEquals(Arrays.asList(5L), checkpoints);
+    }
+
+    @Test
+    void testImportCsv_MissingColumn() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            importer.importSales(new StringReader("sale_date,product,amount\n"), SalesImportFormat.CSV);
+        });
+    }
+
+    @Test
+    void testSplitCsvLine() {
+        assertEquals(Arrays.asList("a", "b \"c\"", ""), SalesStreamImporter.splitCsvLine("a,\"b \"\"c\"\"\","));
+        assertThrows(IllegalArgumentException.class, () -> SalesStreamImporter.splitCsvLine("\"open"));
+    }
+}
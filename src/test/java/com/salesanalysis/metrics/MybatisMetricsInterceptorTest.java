@@ -0,0 +1,117 @@
+package com.salesanalysis.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class MybatisMetricsInterceptorTest {
+
+    private SimpleMeterRegistry registry;
+    private MybatisMetricsInterceptor interceptor;
+    private Executor executor;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        interceptor = new MybatisMetricsInterceptor(registry);
+        executor = mock(Executor.class);
+    }
+
+    @Test
+    void testQuery_RecordsLatencyAndRows() throws Throwable {
+        // 准备测试数据
+        MappedStatement statement = statement("com.salesanalysis.mapper.SalesMapper.findAll", SqlCommandType.SELECT);
+        when(executor.query(eq(statement), any(), any(RowBounds.class), any())).thenReturn(Arrays.asList("a", "b", "c"));
+
+        // 执行测试
+        interceptor.intercept(queryInvocation(statement, Executor.NO_RESULT_HANDLER));
+
+        // 验证结果
+        Timer timer = registry.find(MybatisMetricsInterceptor.TIMER_NAME)
+                .tags("statement", "SalesMapper.findAll", "command", "SELECT", "exception", "none").timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+        DistributionSummary rows = registry.find(MybatisMetricsInterceptor.ROWS_NAME)
+                .tag("statement", "SalesMapper.findAll").summary();
+        assertEquals(3.0, rows.totalAmount());
+    }
+
+    @Test
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void testStreamingQuery_CountsHandledRows() throws Throwable {
+        // 准备测试数据 - 流式查询通过 ResultHandler 回调两行
+        MappedStatement statement = statement("com.salesanalysis.mapper.SalesMapper.streamAll", SqlCommandType.SELECT);
+        ResultHandler handler = mock(ResultHandler.class);
+        when(executor.query(eq(statement), any(), any(RowBounds.class), any())).thenAnswer(invocation -> {
+            ResultHandler wrapped = invocation.getArgument(3);
+            DefaultResultContext<Object> context = new DefaultResultContext<>();
+            context.nextResultObject("a");
+            wrapped.handleResult(context);
+            context.nextResultObject("b");
+            wrapped.handleResult(context);
+            return null;
+        });
+
+        // 执行测试
+        interceptor.intercept(queryInvocation(statement, handler));
+
+        // 验证结果
+        verify(handler, times(2)).handleResult(any());
+        assertEquals(2.0, registry.find(MybatisMetricsInterceptor.ROWS_NAME)
+                .tag("statement", "SalesMapper.streamAll").summary().totalAmount());
+    }
+
+    @Test
+    void testUpdate_RecordsExceptionTag() throws Throwable {
+        // 准备测试数据
+        MappedStatement statement = statement("com.salesanalysis.mapper.SalesMapper.delete", SqlCommandType.DELETE);
+        when(executor.update(eq(statement), any())).thenThrow(new SQLException("boom"));
+        Method update = Executor.class.getMethod("update", MappedStatement.class, Object.class);
+
+        // 执行测试
+        InvocationTargetException thrown = assertThrows(InvocationTargetException.class,
+                () -> interceptor.intercept(new Invocation(executor, update, new Object[]{statement, 1})));
+        assertTrue(thrown.getCause() instanceof SQLException);
+
+        // 验证结果 - 失败时只记录耗时
+        assertEquals(1, registry.find(MybatisMetricsInterceptor.TIMER_NAME)
+                .tags("statement", "SalesMapper.delete", "exception", "SQLException").timer().count());
+        assertNull(registry.find(MybatisMetricsInterceptor.ROWS_NAME).summary());
+    }
+
+    @Test
+    void testShortId() {
+        assertEquals("SalesMapper.findById", MybatisMetricsInterceptor.shortId("com.salesanalysis.mapper.SalesMapper.findById"));
+        assertEquals("findById", MybatisMetricsInterceptor.shortId("findById"));
+    }
+
+    private Invocation queryInvocation(MappedStatement statement, ResultHandler<?> handler) throws NoSuchMethodException {
+        Method query = Executor.class.getMethod("query",
+                MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class);
+        return new Invocation(executor, query, new Object[]{statement, null, RowBounds.DEFAULT, handler});
+    }
+
+    private static MappedStatement statement(String id, SqlCommandType type) {
+        return new MappedStatement.Builder(new Configuration(), id, parameter -> null, type).build();
+    }
+}
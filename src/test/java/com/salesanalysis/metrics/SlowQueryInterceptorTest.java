@@ -0,0 +1,125 @@
+package com.salesanalysis.metrics;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.apache.ibatis.binding.MapperMethod;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class SlowQueryInterceptorTest {
+
+    private Logger logger;
+    private ListAppender<ILoggingEvent> appender;
+    private Level previousLevel;
+    private Executor executor;
+    private MappedStatement statement;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        logger = (Logger) LoggerFactory.getLogger(SlowQueryInterceptor.LOGGER_NAME);
+        appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+        previousLevel = logger.getLevel();
+        logger.setLevel(Level.INFO);
+        executor = mock(Executor.class);
+        statement = new MappedStatement.Builder(new Configuration(),
+                "com.salesanalysis.mapper.SalesMapper.findAll", parameter -> null, SqlCommandType.SELECT).build();
+        when(executor.query(eq(statement), any(), any(RowBounds.class), any())).thenReturn(Arrays.asList("a", "b"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+        logger.setLevel(previousLevel);
+    }
+
+    @Test
+    void testSlowQuery_IsLogged() throws Throwable {
+        // 准备测试数据 - 阈值为0，所有语句都视为慢查询
+        SlowQueryInterceptor interceptor = new SlowQueryInterceptor(Duration.ZERO, 0.0, 256);
+
+        // 执行测试
+        interceptor.intercept(invocation(7));
+
+        // 验证结果
+        assertEquals(1, appender.list.size());
+        ILoggingEvent event = appender.list.get(0);
+        assertEquals(Level.WARN, event.getLevel());
+        assertTrue(event.getFormattedMessage().startsWith("statement=SalesMapper.findAll elapsedMs="));
+        assertTrue(event.getFormattedMessage().contains("rows=2 slow=true params=7"));
+    }
+
+    @Test
+    void testFastQuery_NotSampled() throws Throwable {
+        // 执行测试 - 阈值很高且采样率为0
+        new SlowQueryInterceptor(Duration.ofMinutes(1), 0.0, 256).intercept(invocation(7));
+
+        // 验证结果
+        assertTrue(appender.list.isEmpty());
+    }
+
+    @Test
+    void testFastQuery_Sampled() throws Throwable {
+        // 执行测试 - 采样率为1时快查询也记录，级别为INFO
+        new SlowQueryInterceptor(Duration.ofMinutes(1), 1.0, 256).intercept(invocation(7));
+
+        // 验证结果
+        assertEquals(1, appender.list.size());
+        assertEquals(Level.INFO, appender.list.get(0).getLevel());
+        assertTrue(appender.list.get(0).getFormattedMessage().contains("slow=false"));
+    }
+
+    @Test
+    void testInvalidSampleRate() {
+        assertThrows(IllegalArgumentException.class, () -> new SlowQueryInterceptor(Duration.ZERO, 1.5, 256));
+    }
+
+    @Test
+    void testSummarize() {
+        // 准备测试数据 - 多参数方法生成的 ParamMap
+        MapperMethod.ParamMap<Object> params = new MapperMethod.ParamMap<>();
+        params.put("product", "产品A");
+        params.put("ids", Arrays.asList(1, 2, 3));
+        params.put("param1", "产品A");
+        params.put("param2", Arrays.asList(1, 2, 3));
+        SlowQueryInterceptor interceptor = new SlowQueryInterceptor(Duration.ZERO, 0.0, 30);
+
+        // 执行测试
+        String summary = interceptor.summarize(params);
+
+        // 验证结果 - 跳过 paramN，集合只输出大小
+        assertFalse(summary.contains("param1"));
+        assertTrue(summary.contains("ids=[3 items]"));
+        assertTrue(summary.contains("product=产品A"));
+        String longValue = String.join("", Collections.nCopies(100, "x"));
+        assertEquals(longValue.substring(0, 30) + "...", interceptor.summarize(longValue));
+    }
+
+    private Invocation invocation(Object parameter) throws NoSuchMethodException {
+        Method query = Executor.class.getMethod("query",
+                MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class);
+        return new Invocation(executor, query, new Object[]{statement, parameter, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER});
+    }
+}
@@ -0,0 +1,150 @@
+package com.salesanalysis.partition;
+
+import com.salesanalysis.mapper.SalesMapper;
+import com.salesanalysis.mapper.SalesPartitionMapper;
+import com.salesanalysis.model.PartitionMaintenanceResult;
+import com.salesanalysis.model.SalesPartition;
+import com.salesanalysis.service.SalesChangeListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class SalesPartitionManagerTest {
+
+    // 2026-10-18
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-10-18T08:00:00Z"), ZoneOffset.UTC);
+
+    private final SalesPartitionMapper partitionMapper = mock(SalesPartitionMapper.class);
+    private final SalesMapper salesMapper = mock(SalesMapper.class);
+    private final SalesChangeListener changeListener = mock(SalesChangeListener.class);
+    private SalesPartitionManager manager;
+
+    @BeforeEach
+    void setUp() {
+        manager = new SalesPartitionManager(partitionMapper, salesMapper, TransactionOperations.withoutTransaction(),
+                CLOCK, 3, 0, false);
+        manager.setChangeListeners(Collections.singletonList(changeListener));
+        when(partitionMapper.listPartitions()).thenReturn(Arrays.asList(
+                partition("p_before", "2026-08-01"),
+                partition("p202608", "2026-09-01"),
+                partition("p202609", "2026-10-01"),
+                partition("p202610", "2026-11-01"),
+                partition("p_future", "MAXVALUE")));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testMaintain_CreatesMonthsAhead() {
+        // 执行测试 - 当月为2026-10，需要补齐到2027-01
+        PartitionMaintenanceResult result = manager.maintain();
+
+        // 验证结果
+        ArgumentCaptor<List<SalesPartition>> captor = ArgumentCaptor.forClass(List.class);
+        verify(partitionMapper).reorganizeFuturePartition(captor.capture());
+        assertEquals(Arrays.asList("p202611", "p202612", "p202701"), result.getCreated());
+        assertEquals("2027-02-01", captor.getValue().get(2).getLessThan());
+        assertTrue(result.getDropped().isEmpty());
+        verify(partitionMapper, never()).dropPartitions(anyList());
+        verifyNoInteractions(salesMapper, changeListener);
+    }
+
+    @Test
+    void testMaintain_DropsExpiredPartitions() {
+        // 执行测试 - 保留2个月，早于2026-08-01的数据过期
+        PartitionMaintenanceResult result = manager.maintain(0, 2, false);
+
+        // 验证结果 - 上界不晚于截止日期的分区才会删除
+        verify(partitionMapper, never()).reorganizeFuturePartition(anyList());
+        verify(partitionMapper).dropPartitions(Collections.singletonList("p_before"));
+        verify(salesMapper).clearRollup(null, "2026-07-31");
+        verify(changeListener).onSalesExpired(LocalDate.parse("2026-08-01"));
+        assertEquals("2026-08-01", result.getExpiredBefore());
+        assertTrue(result.getArchiveTables().isEmpty());
+    }
+
+    @Test
+    void testMaintain_ExpireChangeWrittenInOneTransaction() {
+        // 准备 - 记录语句执行时是否处于事务回调内
+        AtomicBoolean inTransaction = new AtomicBoolean();
+        List<Boolean> observed = new ArrayList<>();
+        TransactionOperations transaction = new TransactionOperations() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                inTransaction.set(true);
+                try {
+                    return action.doInTransaction(null);
+                } finally {
+                    inTransaction.set(false);
+                }
+            }
+        };
+        doAnswer(invocation -> {
+            observed.add(inTransaction.get());
+            return 1;
+        }).when(salesMapper).clearRollup(any(), any());
+        doAnswer(invocation -> observed.add(inTransaction.get())).when(salesMapper).recordChanges(anyList());
+        SalesPartitionManager transactional = new SalesPartitionManager(partitionMapper, salesMapper, transaction,
+                CLOCK, 3, 0, false);
+
+        // 执行测试
+        transactional.maintain(0, 2, false);
+
+        // 验证结果 - 清理汇总表和写入 EXPIRE 变更在同一事务内，变更日志锁持有到提交
+        assertEquals(Arrays.asList(true, true), observed);
+    }
+
+    @Test
+    void testMaintain_ArchivesBeforeDropping() {
+        // 执行测试
+        PartitionMaintenanceResult result = manager.maintain(0, 1, true);
+
+        // 验证结果 - 每个过期分区先交换到归档表，再删除已为空的分区
+        InOrder inOrder = inOrder(partitionMapper);
+        inOrder.verify(partitionMapper).createArchiveTable("sales_archive_p_before");
+        inOrder.verify(partitionMapper).removeArchiveTablePartitioning("sales_archive_p_before");
+        inOrder.verify(partitionMapper).exchangePartition("p_before", "sales_archive_p_before");
+        inOrder.verify(partitionMapper).exchangePartition("p202608", "sales_archive_p202608");
+        inOrder.verify(partitionMapper).dropPartitions(Arrays.asList("p_before", "p202608"));
+        assertEquals(Arrays.asList("sales_archive_p_before", "sales_archive_p202608"), result.getArchiveTables());
+    }
+
+    @Test
+    void testMaintain_NotPartitioned() {
+        // 准备模拟数据
+        when(partitionMapper.listPartitions()).thenReturn(Collections.emptyList());
+
+        // 执行测试并验证结果
+        assertThrows(IllegalStateException.class, () -> manager.maintain());
+        verify(partitionMapper, never()).reorganizeFuturePartition(any());
+    }
+
+    @Test
+    void testMaintain_InvalidArguments() {
+        // 执行测试并验证结果
+        assertThrows(IllegalArgumentException.class, () -> manager.maintain(-1, 0, false));
+        assertThrows(IllegalArgumentException.class, () -> manager.maintain(3, -1, false));
+        verifyNoInteractions(partitionMapper);
+    }
+
+    private static SalesPartition partition(String name, String lessThan) {
+        return new SalesPartition(name, lessThan);
+    }
+}
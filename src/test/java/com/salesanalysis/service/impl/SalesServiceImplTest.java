@@ -1,21 +1,43 @@
 package com.salesanalysis.service.impl;
 
+import com.salesanalysis.cache.SalesReadCache;
+import com.salesanalysis.cache.SalesSummarySingleFlight;
 import com.salesanalysis.mapper.SalesMapper;
 import com.salesanalysis.model.Sales;
+import com.salesanalysis.model.SalesDataVersion;
+import com.salesanalysis.model.SalesChange;
+import com.salesanalysis.model.SalesChangeType;
+import com.salesanalysis.model.SalesPage;
+import com.salesanalysis.model.SalesRanking;
+import com.salesanalysis.model.SalesRollupDelta;
+import com.salesanalysis.model.SalesSnapshot;
 import com.salesanalysis.model.SalesSummary;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 class SalesServiceImplTest {
@@ -35,7 +57,7 @@ class SalesServiceImplTest {
         // 创建测试数据
         sales = new Sales();
         sales.setId(1);
-        sales.setSaleDate(new Date());
+        sales.setSaleDate(LocalDate.now());
         sales.setProduct("产品A");
         sales.setRegion("华东");
         sales.setAmount(new BigDecimal(1299.00));
@@ -56,6 +78,44 @@ class SalesServiceImplTest {
         verify(salesMapper, times(1)).findAll();
     }
 
+    @Test
+    void testFindSalesPage() {
+        // 准备模拟数据 - 多查出的一条说明还有下一页
+        Sales next = new Sales();
+        next.setId(2);
+        when(salesMapper.findPage(0, 2)).thenReturn(new ArrayList<>(Arrays.asList(sales, next)));
+
+        // 调用方法
+        SalesPage page = salesService.findSalesPage(0, 1);
+
+        // 验证结果
+        assertEquals(1, page.getItems().size());
+        assertEquals(1, page.getNextCursor());
+        assertTrue(page.isHasMore());
+        verify(salesMapper, times(1)).findPage(0, 2);
+    }
+
+    @Test
+    void testFindSalesPage_LastPage() {
+        // 准备模拟数据 - 默认每页100条，只返回1条
+        when(salesMapper.findPage(null, 101)).thenReturn(new ArrayList<>(Arrays.asList(sales)));
+
+        // 调用方法
+        SalesPage page = salesService.findSalesPage(null, null);
+
+        // 验证结果
+        assertEquals(1, page.getItems().size());
+        assertFalse(page.isHasMore());
+    }
+
+    @Test
+    void testFindSalesPage_InvalidLimit() {
+        // 测试非法的分页大小
+        assertThrows(IllegalArgumentException.class, () -> {
+            salesService.findSalesPage(null, 0);
+        });
+    }
+
     @Test
     void testFindSalesById() {
         // 准备模拟数据
@@ -89,6 +149,70 @@ class SalesServiceImplTest {
         // 验证结果
         assertNotNull(result);
         verify(salesMapper, times(1)).insert(sales);
+        verify(salesMapper, times(1)).upsertRollup(anyList());
+        verify(salesMapper, times(1)).recordChanges(anyList());
+    }
+
+    @Test
+    void testDataVersion() {
+        // 准备模拟数据
+        SalesDataVersion version = new SalesDataVersion();
+        version.setMaxId(10);
+        version.setMaxChangeSeq(20);
+        when(salesMapper.dataVersion()).thenReturn(version);
+
+        // 调用方法
+        String result = salesService.dataVersion();
+
+        // 验证结果 - 版本只由数据库决定，各实例对同一状态给出相同版本
+        assertEquals("10.20", result);
+    }
+
+    @Test
+    void testFindAllSalesSnapshot_ReadsVersionBeforeData() {
+        // 准备模拟数据
+        SalesDataVersion version = new SalesDataVersion();
+        version.setMaxId(10);
+        version.setMaxChangeSeq(20);
+        when(salesMapper.dataVersion()).thenReturn(version);
+        when(salesMapper.findAll()).thenReturn(Arrays.asList(sales));
+
+        // 调用方法
+        SalesSnapshot snapshot = salesService.findAllSalesSnapshot();
+
+        // 验证结果 - 先读版本再读数据，数据不会比版本旧
+        assertEquals("10.20", snapshot.getVersion());
+        assertEquals(1, snapshot.getItems().size());
+        InOrder inOrder = inOrder(salesMapper);
+        inOrder.verify(salesMapper).dataVersion();
+        inOrder.verify(salesMapper).findAll();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBatchImportSales_RollupDelta() {
+        // 准备模拟数据 - 两条记录属于同一分组，一条属于另一分组
+        Sales other = new Sales();
+        other.setSaleDate(sales.getSaleDate());
+        other.setProduct("产品B");
+        other.setRegion("华东");
+        other.setAmount(new BigDecimal("100.00"));
+        List<Sales> salesList = Arrays.asList(sales, sales, other);
+        when(salesMapper.batchInsert(anyList())).thenReturn(3);
+
+        // 调用方法
+        salesService.batchImportSales(salesList);
+
+        // 验证结果 - 同一分组预聚合为一条增量
+        ArgumentCaptor<List<SalesRollupDelta>> captor = ArgumentCaptor.forClass(List.class);
+        verify(salesMapper).upsertRollup(captor.capture());
+        List<SalesRollupDelta> deltas = captor.getValue();
+        assertEquals(2, deltas.size());
+        assertEquals(2, deltas.get(0).getCountDelta());
+        // 按分累加，标度与 DECIMAL(10,2) 一致
+        assertEquals(new BigDecimal("2598.00"), deltas.get(0).getAmountDelta());
+        assertEquals("产品B", deltas.get(1).getProduct());
+        assertEquals(1, deltas.get(1).getCountDelta());
     }
 
     @Test
@@ -102,10 +226,22 @@ class SalesServiceImplTest {
         });
     }
 
+    @Test
+    void testSaveSales_AmountOutOfRange() {
+        // 超出 DECIMAL(10,2) 范围
+        sales.setAmount(new BigDecimal("100000000.00"));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> salesService.saveSales(sales));
+        assertEquals("Amount must not exceed 99999999.99", e.getMessage());
+
+        // 四舍五入到分后为零
+        sales.setAmount(new BigDecimal("0.004"));
+        assertThrows(IllegalArgumentException.class, () -> salesService.saveSales(sales));
+        verify(salesMapper, never()).insert(any(Sales.class));
+    }
+
     @Test
     void testUpdateSales() {
         // 准备模拟数据
-        when(salesMapper.findById(1)).thenReturn(sales);
         when(salesMapper.update(sales)).thenReturn(1);
         
         // 修改数据
@@ -114,16 +250,58 @@ class SalesServiceImplTest {
         // 调用方法
         Sales result = salesService.updateSales(sales);
         
-        // 验证结果
+        // 验证结果 - 没有监听器需要旧值时只发送 UPDATE，汇总表由触发器维护
         assertNotNull(result);
         assertEquals("产品B", result.getProduct());
         verify(salesMapper, times(1)).update(sales);
+        verify(salesMapper, never()).findById(any());
+        verify(salesMapper, never()).findByIdForUpdate(any());
+        verify(salesMapper, never()).upsertRollup(anyList());
+    }
+
+    @Test
+    void testUpdateSales_UncachedIdKeepsUnrelatedSummaries() {
+        // 准备模拟数据 - 缓存产品A、产品C两个汇总键，按ID缓存中没有这条记录
+        SalesReadCache readCache = new SalesReadCache(true, 100, Duration.ofMinutes(1), 100, Duration.ofMinutes(1));
+        salesService.setReadCache(readCache);
+        salesService.setChangeListeners(Collections.singletonList(readCache));
+        when(salesMapper.aggregateSales(any(), any(), any(), any(), any())).thenReturn(new ArrayList<>());
+        salesService.aggregateSales(null, null, null, "产品A", null);
+        salesService.aggregateSales(null, null, null, "产品C", null);
+        when(salesMapper.findByIdForUpdate(1)).thenReturn(copyOf(sales));
+        when(salesMapper.update(sales)).thenReturn(1);
+
+        // 调用方法 - 记录从产品A改为产品B
+        sales.setProduct("产品B");
+        salesService.updateSales(sales);
+        salesService.aggregateSales(null, null, null, "产品A", null);
+        salesService.aggregateSales(null, null, null, "产品C", null);
+
+        // 验证结果 - 汇总缓存非空时加锁读取旧值，只有旧分组产品A重新查询
+        verify(salesMapper, times(1)).findByIdForUpdate(1);
+        verify(salesMapper, times(2)).aggregateSales(null, null, null, "产品A", null);
+        verify(salesMapper, times(1)).aggregateSales(null, null, null, "产品C", null);
+    }
+
+    @Test
+    void testUpdateSales_EmptySummaryCacheSkipsPreviousRead() {
+        // 准备模拟数据 - 启用读缓存但还没有缓存任何汇总
+        SalesReadCache readCache = new SalesReadCache(true, 100, Duration.ofMinutes(1), 100, Duration.ofMinutes(1));
+        salesService.setChangeListeners(Collections.singletonList(readCache));
+        when(salesMapper.update(sales)).thenReturn(1);
+
+        // 调用方法
+        salesService.updateSales(sales);
+
+        // 验证结果 - 不读取旧值
+        verify(salesMapper, never()).findByIdForUpdate(any());
+        verify(salesMapper, times(1)).update(sales);
     }
 
     @Test
     void testUpdateSales_NotFound() {
-        // 测试更新不存在的记录
-        when(salesMapper.findById(100)).thenReturn(null);
+        // 测试更新不存在的记录 - 匹配行数为0
+        when(salesMapper.update(sales)).thenReturn(0);
         sales.setId(100);
         
         assertThrows(RuntimeException.class, () -> {
@@ -134,7 +312,6 @@ class SalesServiceImplTest {
     @Test
     void testDeleteSales() {
         // 准备模拟数据
-        when(salesMapper.findById(1)).thenReturn(sales);
         when(salesMapper.delete(1)).thenReturn(1);
         
         // 调用方法
@@ -143,15 +320,39 @@ class SalesServiceImplTest {
         // 验证结果
         assertTrue(result);
         verify(salesMapper, times(1)).delete(1);
+        verify(salesMapper, never()).findById(any());
+        verify(salesMapper, never()).findByIdForUpdate(any());
     }
 
     @Test
     void testDeleteSales_NotFound() {
         // 测试删除不存在的记录
-        when(salesMapper.findById(100)).thenReturn(null);
+        when(salesMapper.delete(100)).thenReturn(0);
         
         boolean result = salesService.deleteSales(100);
         assertFalse(result);
+        verify(salesMapper, times(1)).delete(100);
+        verify(salesMapper, never()).recordChanges(anyList());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testDeleteSales_RecordsChange() {
+        // 准备模拟数据
+        when(salesMapper.delete(1)).thenReturn(1);
+
+        // 执行测试
+        salesService.deleteSales(1);
+
+        // 验证结果 - 变更日志在删除之后写入，只携带记录ID
+        ArgumentCaptor<List<SalesChange>> captor = ArgumentCaptor.forClass(List.class);
+        InOrder inOrder = inOrder(salesMapper);
+        inOrder.verify(salesMapper).delete(1);
+        inOrder.verify(salesMapper).recordChanges(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals(SalesChangeType.DELETE, captor.getValue().get(0).getType());
+        assertEquals(Integer.valueOf(1), captor.getValue().get(0).getSalesId());
+        assertNull(captor.getValue().get(0).getProduct());
     }
 
     @Test
@@ -165,15 +366,35 @@ class SalesServiceImplTest {
         summary.setCount(1);
         
         List<SalesSummary> summaryList = Arrays.asList(summary);
-        when(salesMapper.aggregateSales("2023-01-01", "产品A", "华东")).thenReturn(summaryList);
+        when(salesMapper.aggregateSales("2023-01-01", null, null, "产品A", "华东")).thenReturn(summaryList);
         
         // 调用方法
-        List<SalesSummary> result = salesService.aggregateSales("2023-01-01", "产品A", "华东");
+        List<SalesSummary> result = salesService.aggregateSales("2023-01-01", null, null, "产品A", "华东");
         
         // 验证结果
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(salesMapper, times(1)).aggregateSales("2023-01-01", "产品A", "华东");
+        verify(salesMapper, times(1)).aggregateSales("2023-01-01", null, null, "产品A", "华东");
+    }
+
+    @Test
+    void testAggregateSales_DateRange() {
+        // 调用方法
+        salesService.aggregateSales(null, "2023-01-01", "2023-01-31", null, null);
+
+        // 验证结果
+        verify(salesMapper, times(1)).aggregateSales(null, "2023-01-01", "2023-01-31", null, null);
+    }
+
+    @Test
+    void testAggregateSales_InvalidDate() {
+        // 测试非法日期和颠倒的日期范围
+        assertThrows(IllegalArgumentException.class, () -> {
+            salesService.aggregateSales("2023-02-30", null, null, null, null);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            salesService.aggregateSales(null, "2023-02-01", "2023-01-01", null, null);
+        });
     }
 
     @Test
@@ -188,6 +409,83 @@ class SalesServiceImplTest {
         // 验证结果
         assertTrue(result);
         verify(salesMapper, times(1)).batchInsert(salesList);
+        verify(salesMapper, times(1)).upsertRollup(anyList());
+    }
+
+    @Test
+    void testAggregateSales_Cached() {
+        // 准备模拟数据
+        salesService.setReadCache(new SalesReadCache(true, 100, Duration.ofMinutes(1), 100, Duration.ofMinutes(1)));
+        when(salesMapper.aggregateSales(null, null, null, "产品A", null)).thenReturn(new ArrayList<>());
+
+        // 调用方法 - 相同过滤条件查询两次
+        salesService.aggregateSales(null, null, null, "产品A", null);
+        salesService.aggregateSales(null, null, null, "产品A", "");
+
+        // 验证结果
+        verify(salesMapper, times(1)).aggregateSales(null, null, null, "产品A", null);
+    }
+
+    @Test
+    void testAggregateSales_ConcurrentIdenticalQueriesShareOneExecution() throws Exception {
+        // 准备模拟数据 - 第一次查询阻塞，直到其余3个相同请求都在等待它的结果
+        SalesSummarySingleFlight singleFlight = new SalesSummarySingleFlight(true, Duration.ZERO);
+        salesService.setSummarySingleFlight(singleFlight);
+        CountDownLatch release = new CountDownLatch(1);
+        when(salesMapper.aggregateSales("2023-01-01", null, null, null, null)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Arrays.asList(new SalesSummary());
+        });
+
+        // 调用方法
+        List<CompletableFuture<List<SalesSummary>>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            results.add(CompletableFuture.supplyAsync(
+                    () -> salesService.aggregateSales("2023-01-01", null, null, null, null)));
+        }
+        long deadline = System.currentTimeMillis() + 5000;
+        while (singleFlight.getShared() < 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        // 验证结果
+        for (CompletableFuture<List<SalesSummary>> result : results) {
+            assertEquals(1, result.get(5, TimeUnit.SECONDS).size());
+        }
+        assertEquals(1, singleFlight.getExecutions());
+        verify(salesMapper, times(1)).aggregateSales("2023-01-01", null, null, null, null);
+    }
+
+    @Test
+    void testBatchImportSales_Chunked() {
+        // 准备模拟数据 - 2500条记录应拆分为3条INSERT语句
+        List<Sales> salesList = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            salesList.add(sales);
+        }
+        when(salesMapper.batchInsert(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+
+        // 调用方法
+        boolean result = salesService.batchImportSales(salesList);
+
+        // 验证结果
+        assertTrue(result);
+        verify(salesMapper, times(3)).batchInsert(anyList());
+        verify(salesMapper, times(1)).upsertRollup(anyList());
+    }
+
+    @Test
+    void testRebuildSalesRollup() {
+        // 准备模拟数据
+        // 调用方法
+        when(salesMapper.rebuildRollup(null, null)).thenReturn(5);
+        int groups = salesService.rebuildSalesRollup(null, null);
+
+        // 验证结果 - 先清空再重建
+        assertEquals(5, groups);
+        verify(salesMapper, times(1)).clearRollup(null, null);
+        verify(salesMapper, times(1)).rebuildRollup(null, null);
     }
 
     @Test
@@ -199,4 +497,62 @@ class SalesServiceImplTest {
             salesService.batchImportSales(emptyList);
         });
     }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void testTopSales() {
+        // 准备模拟数据 - 每个区域内按产品排名
+        doAnswer(invocation -> {
+            ResultHandler<SalesRanking> handler = invocation.getArgument(6);
+            DefaultResultContext<SalesRanking> context = new DefaultResultContext<>();
+            context.nextResultObject(ranking("华东", "产品A", "100.00"));
+            handler.handleResult(context);
+            context.nextResultObject(ranking("华东", "产品B", "300.00"));
+            handler.handleResult(context);
+            return null;
+        }).when(salesMapper).rankTotals(eq("product"), eq("region"), isNull(), isNull(), isNull(), isNull(), any());
+
+        // 调用方法
+        List<SalesRanking> result = salesService.topSales("product", "region", 1, null, null, null, null);
+
+        // 验证结果
+        assertEquals(1, result.size());
+        assertEquals("产品B", result.get(0).getName());
+        assertEquals(1, result.get(0).getRank());
+    }
+
+    @Test
+    void testTopSales_InvalidArguments() {
+        // 验证结果 - 维度非法、维度重复、名次超出范围
+        assertThrows(IllegalArgumentException.class, () -> salesService.topSales("amount", null, null, null, null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> salesService.topSales("region", "region", null, null, null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> salesService.topSales("product", null, 101, null, null, null, null));
+        verifyNoInteractions(salesMapper);
+    }
+
+    @Test
+    void testSalesSeries_RequiresRange() {
+        // 验证结果
+        assertThrows(IllegalArgumentException.class, () -> salesService.salesSeries("week", null, "2023-01-31", null, null));
+        assertThrows(IllegalArgumentException.class, () -> salesService.salesSeries("year", "2023-01-01", "2023-01-31", null, null));
+        verifyNoInteractions(salesMapper);
+    }
+
+    private static SalesRanking ranking(String group, String name, String amount) {
+        SalesRanking ranking = new SalesRanking();
+        ranking.setGroup(group);
+        ranking.setName(name);
+        ranking.setTotalAmount(new BigDecimal(amount));
+        return ranking;
+    }
+
+    private static Sales copyOf(Sales source) {
+        Sales copy = new Sales();
+        copy.setId(source.getId());
+        copy.setSaleDate(source.getSaleDate());
+        copy.setProduct(source.getProduct());
+        copy.setRegion(source.getRegion());
+        copy.setAmount(source.getAmount());
+        return copy;
+    }
 }
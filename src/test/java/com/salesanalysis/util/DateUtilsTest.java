@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
 import java.util.Date;
 
 class DateUtilsTest {
@@ -183,4 +184,47 @@ class DateUtilsTest {
         // 验证结果 - 应该返回false
         assertFalse(isValid, "Non-leap year with February 29 should be recognized as invalid");
     }
+
+    @Test
+    void testParseLocalDate_FixedWidth() {
+        // 执行测试 - 固定格式快速路径
+        assertEquals(LocalDate.of(2024, 2, 29), DateUtils.parseLocalDate("2024-02-29"));
+        assertEquals(LocalDate.of(2023, 12, 31), DateUtils.parseLocalDate("2023-12-31"));
+
+        // 验证结果 - 不存在的日期或非数字返回null，不抛异常
+        assertNull(DateUtils.parseLocalDate("2023-02-29"));
+        assertNull(DateUtils.parseLocalDate("2023-13-01"));
+        assertNull(DateUtils.parseLocalDate("2023-00-10"));
+        assertNull(DateUtils.parseLocalDate("2023-0a-10"));
+        assertNull(DateUtils.parseLocalDate("2023/01/15"));
+    }
+
+    @Test
+    void testParseLocalDate_UnpaddedFields() {
+        // 执行测试 - 与 SimpleDateFormat 一致，接受不补零的月、日
+        assertEquals(LocalDate.of(2023, 1, 5), DateUtils.parseLocalDate("2023-1-5"));
+
+        // 验证结果
+        assertNull(DateUtils.parseLocalDate("2023-2-30"));
+        assertNull(DateUtils.parseLocalDate(""));
+    }
+
+    @Test
+    void testFormatLocalDate() {
+        // 执行测试
+        String formattedDate = DateUtils.formatLocalDate(LocalDate.of(2023, 1, 5));
+
+        // 验证结果
+        assertEquals("2023-01-05", formattedDate);
+        assertNull(DateUtils.formatLocalDate(null));
+    }
+
+    @Test
+    void testToLocalDate_WithSqlDate() {
+        // 执行测试 - java.sql.Date 直接取日期
+        LocalDate date = DateUtils.toLocalDate(java.sql.Date.valueOf("2023-01-15"));
+
+        // 验证结果
+        assertEquals(LocalDate.of(2023, 1, 15), date);
+    }
 }
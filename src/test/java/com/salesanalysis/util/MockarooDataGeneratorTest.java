@@ -0,0 +1,119 @@
+package com.salesanalysis.util;
+
+import com.salesanalysis.model.Sales;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MockarooDataGeneratorTest {
+
+    private HttpServer server;
+    private final ExecutorService serverExecutor = Executors.newCachedThreadPool();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private volatile int status = 200;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // 本地桩服务代替 Mockaroo：按 count 返回JSON数组，并记录同时处理的请求数
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(serverExecutor);
+        server.createContext("/api/generate.json", exchange -> {
+            requests.incrementAndGet();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+                String query = exchange.getRequestURI().getQuery();
+                int count = Integer.parseInt(query.substring(query.indexOf("count=") + 6));
+                StringBuilder body = new StringBuilder("[");
+                for (int i = 0; i < count; i++) {
+                    body.append(i > 0 ? "," : "").append("{\"sale_date\":\"2024-03-05T23:10:00+08:00\",")
+                            .append("\"product\":\"产品A\",\"region\":\"华东\",\"amount\":1234.5,\"id\":{\"ignored\":[1]}}");
+                }
+                byte[] bytes = (status == 200 ? body.append("]").toString() : "rate limited").getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(status, bytes.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void testGeneratePages_ConcurrentRequests() throws Exception {
+        // 准备测试数据
+        MockarooDataGenerator generator = new MockarooDataGenerator(new MockarooClient("test", stubUrl()));
+        AtomicLong received = new AtomicLong();
+
+        // 执行测试 - 2500条，每页1000条，4个并发请求
+        long generated = generator.generatePages(2500, 1000, 4, page -> received.addAndGet(page.size()));
+
+        // 验证结果 - 最后一页只请求剩余的500条，多个请求同时进行
+        assertEquals(2500, generated);
+        assertEquals(2500, received.get());
+        assertEquals(3, requests.get());
+        assertTrue(maxInFlight.get() > 1);
+    }
+
+    @Test
+    void testGenerateSalesList_ParsesStream() throws Exception {
+        // 执行测试
+        List<Sales> salesList = new MockarooDataGenerator(new MockarooClient("test", stubUrl())).generateSalesList(2);
+
+        // 验证结果 - 取响应时区下的日期，金额不经过 double
+        assertEquals(2, salesList.size());
+        assertEquals(LocalDate.parse("2024-03-05"), salesList.get(0).getSaleDate());
+        assertEquals("华东", salesList.get(1).getRegion());
+        assertEquals(new BigDecimal("1234.50"), salesList.get(1).getAmount());
+    }
+
+    @Test
+    void testGeneratePages_HttpError() {
+        // 准备模拟数据
+        status = 429;
+        MockarooDataGenerator generator = new MockarooDataGenerator(new MockarooClient("test", stubUrl()));
+
+        // 执行测试并验证结果
+        IOException e = assertThrows(IOException.class, () -> generator.generatePages(10, 5, 2, page -> { }));
+        assertTrue(e.getMessage().contains("429"));
+    }
+
+    @Test
+    void testParseSales_RejectsNonArray() {
+        // 执行测试并验证结果
+        assertThrows(IOException.class, () -> MockarooDataGenerator.parseSales(
+                new ByteArrayInputStream("{\"error\":\"bad key\"}".getBytes(StandardCharsets.UTF_8)), 1));
+    }
+
+    private String stubUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/api/generate.json";
+    }
+}
@@ -0,0 +1,55 @@
+package com.salesanalysis.util;
+
+import com.salesanalysis.mapper.SalesMapper;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class MockarooDataLoaderTest {
+
+    private final SqlSessionFactory sqlSessionFactory = mock(SqlSessionFactory.class);
+    private final SqlSession sqlSession = mock(SqlSession.class);
+    private final SalesMapper salesMapper = mock(SalesMapper.class);
+
+    @Test
+    void testLoad_PipelinesPagesToWriters() throws Exception {
+        // 准备模拟数据
+        when(sqlSessionFactory.openSession(anyBoolean())).thenReturn(sqlSession);
+        when(sqlSession.getMapper(SalesMapper.class)).thenReturn(salesMapper);
+        when(salesMapper.batchInsert(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+
+        // 执行测试 - 2500条，每页1000条，3个生成线程、2个写库线程
+        long inserted = MockarooDataLoader.load(new SyntheticSalesGenerator(42), sqlSessionFactory, 2500, 1000, 3, 2);
+
+        // 验证结果 - 每页一次提交，变更日志在提交前最后写入，两个写库线程各自打开一个会话
+        assertEquals(2500, inserted);
+        verify(sqlSessionFactory, times(2)).openSession(false);
+        verify(salesMapper, times(3)).batchInsert(anyList());
+        verify(salesMapper, times(3)).upsertRollup(anyList());
+        verify(salesMapper, times(3)).recordChanges(argThat(changes -> changes.size() == 1000 || changes.size() == 500));
+        verify(sqlSession, times(3)).commit();
+        verify(sqlSession, times(2)).close();
+    }
+
+    @Test
+    void testLoad_InsertFailureStopsGeneration() {
+        // 准备模拟数据 - 写库失败
+        when(sqlSessionFactory.openSession(anyBoolean())).thenReturn(sqlSession);
+        when(sqlSession.getMapper(SalesMapper.class)).thenReturn(salesMapper);
+        when(salesMapper.batchInsert(anyList())).thenThrow(new RuntimeException("Duplicate entry"));
+
+        // 执行测试并验证结果 - 失败的页回滚，生成提前结束
+        assertThrows(RuntimeException.class, () -> MockarooDataLoader.load(
+                new SyntheticSalesGenerator(42), sqlSessionFactory, 1_000_000, 1000, 2, 1));
+        verify(sqlSession, atLeastOnce()).rollback();
+        verify(sqlSession, never()).commit();
+        verify(salesMapper, atMost(10)).batchInsert(anyList());
+    }
+}
@@ -0,0 +1,41 @@
+package com.salesanalysis.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyUtilsTest {
+
+    @Test
+    void testToCents_RoundsLikeDecimalColumn() {
+        // 执行测试 - 与 MySQL 写入 DECIMAL(10,2) 一致：四舍五入，远离零
+        assertEquals(129999L, MoneyUtils.toCents(new BigDecimal("1299.99")));
+        assertEquals(1000L, MoneyUtils.toCents(new BigDecimal("10")));
+        assertEquals(13L, MoneyUtils.toCents(new BigDecimal("0.125")));
+        assertEquals(12L, MoneyUtils.toCents(new BigDecimal("0.1249")));
+        assertEquals(-13L, MoneyUtils.toCents(new BigDecimal("-0.125")));
+    }
+
+    @Test
+    void testFromCents_ScaleTwo() {
+        // 执行测试
+        BigDecimal amount = MoneyUtils.fromCents(100000L);
+
+        // 验证结果 - 标度固定为2，与 SUM(DECIMAL(10,2)) 的结果 equals
+        assertEquals(new BigDecimal("1000.00"), amount);
+        assertEquals(2, amount.scale());
+    }
+
+    @Test
+    void testOverflow() {
+        // 执行测试 - 超出 long 范围
+        assertThrows(ArithmeticException.class, () -> MoneyUtils.toCents(new BigDecimal("1e30")));
+        assertThrows(ArithmeticException.class, () -> MoneyUtils.add(Long.MAX_VALUE, 1));
+
+        // 验证结果 - DECIMAL(10,2) 列的范围
+        assertTrue(MoneyUtils.fitsAmountColumn(9_999_999_999L));
+        assertFalse(MoneyUtils.fitsAmountColumn(10_000_000_000L));
+    }
+}
@@ -0,0 +1,73 @@
+package com.salesanalysis.util;
+
+import com.salesanalysis.model.Sales;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticSalesGeneratorTest {
+
+    @Test
+    void testGeneratePages_DeterministicAcrossThreads() throws Exception {
+        // 准备测试数据
+        SyntheticSalesGenerator generator = new SyntheticSalesGenerator(42);
+        ConcurrentHashMap<String, Sales> single = new ConcurrentHashMap<>();
+        ConcurrentHashMap<String, Sales> parallel = new ConcurrentHashMap<>();
+
+        // 执行测试 - 同一种子分别用1个和4个线程生成
+        generator.generatePages(1000, 64, 1, page -> single.put(key(page.get(0)), page.get(0)));
+        generator.generatePages(1000, 64, 4, page -> parallel.put(key(page.get(0)), page.get(0)));
+
+        // 验证结果 - 每页首行相同，且与逐行生成一致；不同种子结果不同
+        assertEquals(single.keySet(), parallel.keySet());
+        assertEquals(key(generator.row(64)), key(generator.generatePage(64, 1).get(0)));
+        assertNotEquals(key(new SyntheticSalesGenerator(43).row(0)), key(generator.row(0)));
+    }
+
+    @Test
+    void testRow_MatchesMockarooFieldRanges() {
+        // 准备测试数据
+        SyntheticSalesGenerator generator = new SyntheticSalesGenerator(7);
+        List<Sales> rows = generator.generatePage(0, 20000);
+        Set<String> products = new HashSet<>();
+        Set<String> regions = new HashSet<>();
+        BigDecimal total = BigDecimal.ZERO;
+
+        // 执行测试
+        for (Sales sales : rows) {
+            assertFalse(sales.getSaleDate().isBefore(LocalDate.parse("2023-01-01")));
+            assertFalse(sales.getSaleDate().isAfter(LocalDate.parse("2025-12-31")));
+            assertTrue(sales.getAmount().compareTo(new BigDecimal("100.00")) >= 0);
+            assertTrue(sales.getAmount().compareTo(new BigDecimal("10000.00")) <= 0);
+            assertEquals(2, sales.getAmount().scale());
+            products.add(sales.getProduct());
+            regions.add(sales.getRegion());
+            total = total.add(sales.getAmount());
+        }
+
+        // 验证结果 - 所有取值都出现，均值接近 (100 + 10000) / 2
+        assertEquals(new HashSet<>(Arrays.asList(MockarooClient.PRODUCTS)), products);
+        assertEquals(new HashSet<>(Arrays.asList(MockarooClient.REGIONS)), regions);
+        assertEquals(5050, total.doubleValue() / rows.size(), 100);
+    }
+
+    @Test
+    void testGeneratePages_InvalidArguments() {
+        // 执行测试并验证结果
+        SyntheticSalesGenerator generator = new SyntheticSalesGenerator(1);
+        assertThrows(IllegalArgumentException.class, () -> generator.generatePages(10, 0, 1, page -> { }));
+        assertThrows(IllegalArgumentException.class, () -> generator.generatePages(10, 5, 0, page -> { }));
+    }
+
+    private static String key(Sales sales) {
+        return sales.getSaleDate() + "|" + sales.getProduct() + "|" + sales.getRegion() + "|" + sales.getAmount();
+    }
+}
@@ -0,0 +1,95 @@
+package com.salesanalysis.web;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.salesanalysis.model.Sales;
+import com.salesanalysis.model.SalesPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarJsonHttpMessageConverterTest {
+
+    private static final Type SALES_LIST = new ParameterizedTypeReference<List<Sales>>() { }.getType();
+
+    private ObjectMapper objectMapper;
+    private ColumnarJsonHttpMessageConverter converter;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        converter = new ColumnarJsonHttpMessageConverter(objectMapper);
+    }
+
+    @Test
+    void testWriteSales() throws Exception {
+        // 准备测试数据
+        Sales first = sales(1, "产品A", "10.00");
+        Sales second = sales(2, "产品B", "20.50");
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+
+        // 执行测试
+        converter.write(Arrays.asList(first, second), SALES_LIST,
+                ColumnarJsonHttpMessageConverter.APPLICATION_COLUMNAR_JSON, output);
+
+        // 验证结果
+        JsonNode body = objectMapper.readTree(output.getBodyAsBytes());
+        assertEquals(2, body.get("count").asInt());
+        assertEquals(2, body.get("id").get(1).asInt());
+        assertEquals("2023-01-01", body.get("saleDate").get(0).asText());
+        assertEquals("产品B", body.get("product").get(1).asText());
+        assertEquals(new BigDecimal("20.5"), body.get("amount").get(1).decimalValue());
+    }
+
+    @Test
+    void testWriteEmptyList() throws Exception {
+        // 准备测试数据
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+
+        // 执行测试
+        converter.write(Collections.emptyList(), SALES_LIST,
+                ColumnarJsonHttpMessageConverter.APPLICATION_COLUMNAR_JSON, output);
+
+        // 验证结果 - 元素类型可解析时仍输出各列的空数组
+        JsonNode body = objectMapper.readTree(output.getBodyAsBytes());
+        assertEquals(0, body.get("count").asInt());
+        assertEquals(0, body.get("id").size());
+    }
+
+    @Test
+    void testCanWrite() {
+        // 准备测试数据
+        Type pageList = new ParameterizedTypeReference<List<SalesPage>>() { }.getType();
+
+        // 验证结果 - 只接受 Sales 和 SalesSummary 列表，不参与 JSON 请求的协商
+        assertTrue(converter.canWrite(SALES_LIST, List.class, ColumnarJsonHttpMessageConverter.APPLICATION_COLUMNAR_JSON));
+        assertFalse(converter.canWrite(pageList, List.class, ColumnarJsonHttpMessageConverter.APPLICATION_COLUMNAR_JSON));
+        assertFalse(converter.canWrite(SALES_LIST, List.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canRead(SALES_LIST, null, ColumnarJsonHttpMessageConverter.APPLICATION_COLUMNAR_JSON));
+    }
+
+    private static Sales sales(int id, String product, String amount) {
+        Sales sales = new Sales();
+        sales.setId(id);
+        sales.setSaleDate(LocalDate.of(2023, 1, 1));
+        sales.setProduct(product);
+        sales.setRegion("华东");
+        sales.setAmount(new BigDecimal(amount));
+        return sales;
+    }
+}